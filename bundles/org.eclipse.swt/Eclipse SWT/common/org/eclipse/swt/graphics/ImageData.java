@@ -1158,6 +1158,62 @@ public ImageData scaledTo(int width, int height) {
 	return dest;
 }
 
+/**
+ * Returns a copy of the receiver which has been stretched or
+ * shrunk to the specified size with the given filter. If either
+ * the width or height is negative, the resulting image will be
+ * inverted in the associated axis.
+ * <p>
+ * The filter is one of:
+ * <dl>
+ * <dt><code>SWT.NONE</code></dt>
+ * <dd>nearest neighbor, the same as <code>scaledTo(int, int)</code></dd>
+ * <dt><code>SWT.LOW</code></dt>
+ * <dd>box filter, which averages the source pixels covered by each
+ * destination pixel and is the fastest filter that does not alias
+ * when shrinking</dd>
+ * <dt><code>SWT.DEFAULT</code></dt>
+ * <dd>bilinear interpolation, widened to cover the source pixels when
+ * shrinking, which is the normal quality of
+ * <code>GC.setInterpolation(SWT.DEFAULT)</code> on most platforms</dd>
+ * <dt><code>SWT.HIGH</code></dt>
+ * <dd>Lanczos filter with a radius of three pixels, which is the
+ * sharpest and slowest</dd>
+ * </dl>
+ * </p><p>
+ * Except for <code>SWT.NONE</code>, images with an indexed palette
+ * are scaled to a 24 bit direct palette because filtering creates
+ * new colors. Alpha data is filtered together with the color.
+ * Transparent pixels and masks are filtered as alpha and returned
+ * as a mask.
+ * </p>
+ *
+ * @param width the width of the new ImageData
+ * @param height the height of the new ImageData
+ * @param filter the filter to use
+ * @return a scaled copy of the image
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the width or height is zero, or the filter is not one of the above</li>
+ * </ul>
+ *
+ * @since 3.103
+ */
+public ImageData scaledTo(int width, int height, int filter) {
+	switch (filter) {
+		case SWT.NONE:
+			return scaledTo(width, height);
+		case SWT.LOW:
+		case SWT.DEFAULT:
+		case SWT.HIGH:
+			break;
+		default:
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	}
+	if (width == 0 || height == 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	return new ImageDataScaler(this, width, height, filter).scale();
+}
+
 /**
  * Sets the alpha value at offset <code>x</code> in
  * scanline <code>y</code> in the receiver's alpha data.
@@ -1707,7 +1763,7 @@ static final int MSB_FIRST = 1;
 /**
  * Data types (internal)
  */
-private static final int
+static final int
 	// direct / true color formats with arbitrary masks & shifts
 	TYPE_GENERIC_8 = 0,
 	TYPE_GENERIC_16_MSB = 1,
@@ -1873,82 +1929,15 @@ static void blit(int op,
 		apr = 0;
 	}
 
-	/*** Blit ***/
-	int dp = dpr;
-	int sp = spr;
-	if ((alphaMode == 0x10000) && (stype == dtype) &&
-		(srcRedMask == destRedMask) && (srcGreenMask == destGreenMask) &&
-		(srcBlueMask == destBlueMask) && (srcAlphaMask == destAlphaMask)) {
-		/*** Fast blit (straight copy) ***/
-		switch (sbpp) {
-			case 1:
-				for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
-					for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
-						destData[dp] = srcData[sp];
-						sp += (sfx >>> 16);
-					}
-				}
-				break;					
-			case 2:
-				for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
-					for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
-						destData[dp] = srcData[sp];
-						destData[dp + 1] = srcData[sp + 1];
-						sp += (sfx >>> 16) * 2;
-					}
-				}
-				break;
-			case 3:
-				for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
-					for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
-						destData[dp] = srcData[sp];
-						destData[dp + 1] = srcData[sp + 1];
-						destData[dp + 2] = srcData[sp + 2];
-						sp += (sfx >>> 16) * 3;
-					}
-				}
-				break;
-			case 4:
-				for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
-					for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
-						destData[dp] = srcData[sp];
-						destData[dp + 1] = srcData[sp + 1];
-						destData[dp + 2] = srcData[sp + 2];
-						destData[dp + 3] = srcData[sp + 3];
-						sp += (sfx >>> 16) * 4;
-					}
-				}
-				break;
-		}
-		return;
-	}
-	/*Fast 32 to 32 blit */
-	if (alphaMode == 0x10000 && stype == TYPE_GENERIC_32_MSB && dtype == TYPE_GENERIC_32_MSB) {
-		if (srcRedMask == 0xFF00 && srcGreenMask == 0xff0000 && srcBlueMask == 0xff000000 && destRedMask == 0xFF0000 && destGreenMask == 0xff00 && destBlueMask == 0xff) {
-			for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
-				for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
-					destData[dp] = srcData[sp + 3];
-					destData[dp + 1] = srcData[sp + 2];
-					destData[dp + 2] = srcData[sp + 1];
-					destData[dp + 3] = srcData[sp];
-					sp += (sfx >>> 16) * 4;
-				}
-			}
-			return;
-		}
-	}
-	/*Fast 24 to 32 blit */
-	if (alphaMode == 0x10000 && stype == TYPE_GENERIC_24 && dtype == TYPE_GENERIC_32_MSB) {
-		if (srcRedMask == 0xFF && srcGreenMask == 0xff00 && srcBlueMask == 0xff0000 && destRedMask == 0xFF0000 && destGreenMask == 0xff00 && destBlueMask == 0xff) {
-			for (int dy = destHeight, sfy = sfyi; dy > 0; --dy, sp = spr += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp = dpr += dpryi) {
-				for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
-					destData[dp] = 0;
-					destData[dp + 1] = srcData[sp + 2];
-					destData[dp + 2] = srcData[sp + 1];
-					destData[dp + 3] = srcData[sp];
-					sp += (sfx >>> 16) * 3;
-				}
-			}
+	/*** Fast blit (specialized loops for common formats) ***/
+	if (ImageDataBlitter.enabled && alphaMode == 0x10000 && srcAlphaMask == destAlphaMask) {
+		ImageDataBlitter blitter = ImageDataBlitter.direct(
+			srcData, stype, srcStride, sbpp, spr, srcWidth, srcRedMask, srcGreenMask, srcBlueMask,
+			sfxi, sfyi,
+			destData, dtype, destStride, dbpp, dpr, dprxi, dpryi, destWidth, destHeight,
+			destRedMask, destGreenMask, destBlueMask);
+		if (blitter != null) {
+			blitter.blit();
 			return;
 		}
 	}
@@ -1980,6 +1969,8 @@ static void blit(int op,
 	final byte[] destAlphas = ANY_TO_EIGHT[destAlphaWidth];
 	final int destAlphaPreShift = 8 - destAlphaWidth;
 
+	int dp = dpr;
+	int sp = spr;
 	int ap = apr, alpha = alphaMode;
 	int r = 0, g = 0, b = 0, a = 0;
 	int rq = 0, gq = 0, bq = 0, aq = 0;
@@ -2763,32 +2754,6 @@ static void blit(int op,
 	boolean flipX, boolean flipY) {
 	if ((destWidth <= 0) || (destHeight <= 0) || (alphaMode == ALPHA_TRANSPARENT)) return;
 
-	/*** Fast blit (straight copy) ***/
-	if (srcX == 0 && srcY == 0 && destX == 0 && destY == 0 && destWidth == srcWidth && destHeight == srcHeight) {
-		if (destDepth == 24 && srcDepth == 8 && (op & BLIT_ALPHA) == 0 && destRedMask == 0xFF0000 && destGreenMask == 0xFF00 && destBlueMask == 0xFF) {
-			for (int y = 0, sp = 0, dp = 0, spad = srcStride - srcWidth, dpad = destStride - (destWidth * 3); y < destHeight; y++, sp += spad, dp += dpad) {
-				for (int x = 0; x < destWidth; x++) {
-					int index = srcData[sp++] & 0xff;
-					destData[dp++] = srcReds[index];
-					destData[dp++] = srcGreens[index];
-					destData[dp++] = srcBlues[index];
-				}
-			}
-			return;
-		}
-		if (destDepth == 32 && destOrder == MSB_FIRST && srcDepth == 8 && (op & BLIT_ALPHA) == 0 && destRedMask == 0xFF0000 && destGreenMask == 0xFF00 && destBlueMask == 0xFF) {
-			for (int y = 0, sp = 0, dp = 0, spad = srcStride - srcWidth, dpad = destStride - (destWidth * 4); y < destHeight; y++, sp += spad, dp += dpad) {
-				for (int x = 0; x < destWidth; x++) {
-					int index = srcData[sp++] & 0xff;
-					dp++;
-					destData[dp++] = srcReds[index];
-					destData[dp++] = srcGreens[index];
-					destData[dp++] = srcBlues[index];
-				}
-			}
-			return;
-		}
-	}
 	// these should be supplied as params later
 	final int destAlphaMask = 0;
 
@@ -2879,6 +2844,19 @@ static void blit(int op,
 		apr = 0;
 	}
 
+	/*** Fast blit (specialized loops for common formats) ***/
+	if (ImageDataBlitter.enabled && alphaMode == 0x10000 && stype == TYPE_INDEX_8) {
+		ImageDataBlitter blitter = ImageDataBlitter.index(
+			srcData, srcStride, spr, srcWidth, srcReds, srcGreens, srcBlues,
+			sfxi, sfyi,
+			destData, dtype, destStride, dbpp, dpr, dprxi, dpryi, destWidth, destHeight,
+			destRedMask, destGreenMask, destBlueMask);
+		if (blitter != null) {
+			blitter.blit();
+			return;
+		}
+	}
+
 	/*** Comprehensive blit (apply transformations) ***/
 	final int destRedShift = getChannelShift(destRedMask);
 	final int destRedWidth = getChannelWidth(destRedMask, destRedShift);
@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import java.util.concurrent.*;
+
+import org.eclipse.swt.*;
+
+/**
+ * Specialized loops of <code>ImageData.blit()</code> for the common
+ * pairs of formats, blits without alpha only:
+ * <ul>
+ * <li>a straight copy between identical formats</li>
+ * <li>a byte shuffle between 24 and 32 bit direct formats whose
+ * channels are whole bytes, such as BGRA to RGBA or 24 to 32 bits;
+ * the fourth byte of 32 bit pixels is carried over between 32 bit
+ * formats and cleared otherwise</li>
+ * <li>a lookup table from 8 bit indices to 16, 24 and 32 bit
+ * direct formats</li>
+ * </ul>
+ * The loop is chosen once per blit, and otherwise produces the same
+ * bytes as the comprehensive blit, scaling and flipping included.
+ * Large blits are split in bands of rows which run in parallel.
+ */
+final class ImageDataBlitter {
+
+	/* destination pixels below which bands are not blitted in parallel */
+	static final int PARALLEL_THRESHOLD = 1024 * 1024;
+	/* destination pixels per band */
+	static final int BAND_PIXELS = 256 * 1024;
+
+	static final int COPY = 0, SHUFFLE = 1, LOOKUP = 2;
+
+	/* false to always use the comprehensive blit, which the tests compare against */
+	static boolean enabled = true;
+
+	final int kind;
+	final byte[] srcData, destData;
+	final int srcStride, sbpp, spr, sfxi, sfyi;
+	final int destStride, dbpp, dpr, dprxi, dpryi;
+	final int destWidth, destHeight;
+	/* true when each row is copied as a whole */
+	final boolean rowCopy;
+	/* the source byte of each destination byte, -1 for zero */
+	int[] offsets;
+	/* the destination bytes of each index, the first byte in the low bits */
+	int[] lut;
+
+	/* Blits the rows of one band of the destination */
+	final class Band implements Callable<Object> {
+		final int y0, y1;
+
+		Band(int y0, int y1) {
+			this.y0 = y0;
+			this.y1 = y1;
+		}
+
+		@Override
+		public Object call() {
+			blitRows(y0, y1);
+			return null;
+		}
+	}
+
+ImageDataBlitter(int kind,
+	byte[] srcData, int srcStride, int sbpp, int spr, int srcWidth, int sfxi, int sfyi,
+	byte[] destData, int destStride, int dbpp, int dpr, int dprxi, int dpryi, int destWidth, int destHeight) {
+	this.kind = kind;
+	this.srcData = srcData;
+	this.srcStride = srcStride;
+	this.sbpp = sbpp;
+	this.spr = spr;
+	this.sfxi = sfxi;
+	this.sfyi = sfyi;
+	this.destData = destData;
+	this.destStride = destStride;
+	this.dbpp = dbpp;
+	this.dpr = dpr;
+	this.dprxi = dprxi;
+	this.dpryi = dpryi;
+	this.destWidth = destWidth;
+	this.destHeight = destHeight;
+	rowCopy = kind == COPY && srcWidth == destWidth && dprxi > 0;
+}
+
+/**
+ * Returns a blitter between two direct formats, or null if there
+ * is no specialized loop for them.
+ */
+static ImageDataBlitter direct(
+	byte[] srcData, int stype, int srcStride, int sbpp, int spr, int srcWidth, int srcRedMask, int srcGreenMask, int srcBlueMask,
+	int sfxi, int sfyi,
+	byte[] destData, int dtype, int destStride, int dbpp, int dpr, int dprxi, int dpryi, int destWidth, int destHeight,
+	int destRedMask, int destGreenMask, int destBlueMask) {
+	if (stype == dtype && srcRedMask == destRedMask && srcGreenMask == destGreenMask && srcBlueMask == destBlueMask) {
+		return new ImageDataBlitter(COPY, srcData, srcStride, sbpp, spr, srcWidth, sfxi, sfyi,
+			destData, destStride, dbpp, dpr, dprxi, dpryi, destWidth, destHeight);
+	}
+	if (sbpp < 3 || dbpp < 3) return null;
+	int srcRed = getByteOffset(stype, srcRedMask), srcGreen = getByteOffset(stype, srcGreenMask), srcBlue = getByteOffset(stype, srcBlueMask);
+	int destRed = getByteOffset(dtype, destRedMask), destGreen = getByteOffset(dtype, destGreenMask), destBlue = getByteOffset(dtype, destBlueMask);
+	if (srcRed < 0 || srcGreen < 0 || srcBlue < 0 || destRed < 0 || destGreen < 0 || destBlue < 0) return null;
+	if (destRed == destGreen || destRed == destBlue || destGreen == destBlue) return null;
+	int[] offsets = new int[dbpp];
+	for (int i = 0; i < dbpp; i++) offsets[i] = -1;
+	offsets[destRed] = srcRed;
+	offsets[destGreen] = srcGreen;
+	offsets[destBlue] = srcBlue;
+	if (sbpp == 4 && dbpp == 4 && srcRed != srcGreen && srcRed != srcBlue && srcGreen != srcBlue) {
+		/* the fourth byte, usually alpha, is carried over */
+		offsets[6 - destRed - destGreen - destBlue] = 6 - srcRed - srcGreen - srcBlue;
+	}
+	ImageDataBlitter blitter = new ImageDataBlitter(SHUFFLE, srcData, srcStride, sbpp, spr, srcWidth, sfxi, sfyi,
+		destData, destStride, dbpp, dpr, dprxi, dpryi, destWidth, destHeight);
+	blitter.offsets = offsets;
+	return blitter;
+}
+
+/**
+ * Returns a blitter from 8 bit indices to a direct format, or null
+ * if there is no specialized loop for them.
+ */
+static ImageDataBlitter index(
+	byte[] srcData, int srcStride, int spr, int srcWidth, byte[] srcReds, byte[] srcGreens, byte[] srcBlues,
+	int sfxi, int sfyi,
+	byte[] destData, int dtype, int destStride, int dbpp, int dpr, int dprxi, int dpryi, int destWidth, int destHeight,
+	int destRedMask, int destGreenMask, int destBlueMask) {
+	if (dbpp < 2) return null;
+	int destRedShift = ImageData.getChannelShift(destRedMask);
+	int destRedPreShift = 8 - ImageData.getChannelWidth(destRedMask, destRedShift);
+	int destGreenShift = ImageData.getChannelShift(destGreenMask);
+	int destGreenPreShift = 8 - ImageData.getChannelWidth(destGreenMask, destGreenShift);
+	int destBlueShift = ImageData.getChannelShift(destBlueMask);
+	int destBluePreShift = 8 - ImageData.getChannelWidth(destBlueMask, destBlueShift);
+	int[] lut = new int[srcReds.length];
+	for (int i = 0; i < lut.length; i++) {
+		int data =
+			((srcReds[i] & 0xff) >>> destRedPreShift << destRedShift) |
+			((srcGreens[i] & 0xff) >>> destGreenPreShift << destGreenShift) |
+			((srcBlues[i] & 0xff) >>> destBluePreShift << destBlueShift);
+		switch (dtype) {
+			case ImageData.TYPE_GENERIC_16_MSB:
+				data = ((data & 0xff) << 8) | ((data >>> 8) & 0xff);
+				break;
+			case ImageData.TYPE_GENERIC_24:
+				data = ((data & 0xff) << 16) | (data & 0xff00) | ((data >>> 16) & 0xff);
+				break;
+			case ImageData.TYPE_GENERIC_32_MSB:
+				data = Integer.reverseBytes(data);
+				break;
+		}
+		lut[i] = data;
+	}
+	ImageDataBlitter blitter = new ImageDataBlitter(LOOKUP, srcData, srcStride, 1, spr, srcWidth, sfxi, sfyi,
+		destData, destStride, dbpp, dpr, dprxi, dpryi, destWidth, destHeight);
+	blitter.lut = lut;
+	return blitter;
+}
+
+/**
+ * Returns the offset in a pixel of the byte selected by a mask,
+ * or -1 if the mask is not a whole byte.
+ */
+static int getByteOffset(int type, int mask) {
+	int shift;
+	switch (mask) {
+		case 0xff: shift = 0; break;
+		case 0xff00: shift = 1; break;
+		case 0xff0000: shift = 2; break;
+		case 0xff000000: shift = 3; break;
+		default: return -1;
+	}
+	switch (type) {
+		case ImageData.TYPE_GENERIC_24: return shift == 3 ? -1 : 2 - shift;
+		case ImageData.TYPE_GENERIC_32_MSB: return 3 - shift;
+		case ImageData.TYPE_GENERIC_32_LSB: return shift;
+	}
+	return -1;
+}
+
+void blit() {
+	int count = (int)(((long)destWidth * destHeight + BAND_PIXELS - 1) / BAND_PIXELS);
+	if (count <= 1 || (long)destWidth * destHeight < PARALLEL_THRESHOLD || Runtime.getRuntime().availableProcessors() == 1) {
+		blitRows(0, destHeight);
+		return;
+	}
+	count = Math.min(count, destHeight);
+	ForkJoinPool pool = ForkJoinPool.commonPool();
+	Future<?>[] futures = new Future<?>[count];
+	for (int i = 0; i < count; i++) {
+		futures[i] = pool.submit(new Band((int)((long)destHeight * i / count), (int)((long)destHeight * (i + 1) / count)));
+	}
+	try {
+		for (int i = 0; i < count; i++) {
+			futures[i].get();
+		}
+	} catch (InterruptedException e) {
+		for (int i = 0; i < count; i++) futures[i].cancel(false);
+		SWT.error(SWT.ERROR_UNSPECIFIED, e);
+	} catch (ExecutionException e) {
+		for (int i = 0; i < count; i++) futures[i].cancel(false);
+		Throwable cause = e.getCause();
+		if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+		if (cause instanceof Error) throw (Error) cause;
+		SWT.error(SWT.ERROR_UNSPECIFIED, cause);
+	}
+}
+
+/* Blits the destination rows from y0 to y1, stepping through the source as the comprehensive blit does */
+void blitRows(int y0, int y1) {
+	long start = (long)y0 * sfyi;
+	int sp = spr + (int)(start >>> 16) * srcStride;
+	int sfy = (int)(start & 0xffff) + sfyi;
+	int dp = dpr + y0 * dpryi;
+	for (int y = y0; y < y1; y++, sp += (sfy >>> 16) * srcStride, sfy = (sfy & 0xffff) + sfyi, dp += dpryi) {
+		switch (kind) {
+			case COPY:
+				if (rowCopy) {
+					System.arraycopy(srcData, sp, destData, dp, destWidth * dbpp);
+				} else {
+					copyRow(sp, dp);
+				}
+				break;
+			case SHUFFLE:
+				if (dbpp == 4) {
+					shuffleRow4(sp, dp);
+				} else {
+					shuffleRow3(sp, dp);
+				}
+				break;
+			case LOOKUP:
+				lookupRow(sp, dp);
+				break;
+		}
+	}
+}
+
+void copyRow(int sp, int dp) {
+	final byte[] srcData = this.srcData, destData = this.destData;
+	final int sbpp = this.sbpp, dprxi = this.dprxi, sfxi = this.sfxi;
+	for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+		for (int i = 0; i < sbpp; i++) {
+			destData[dp + i] = srcData[sp + i];
+		}
+		sp += (sfx >>> 16) * sbpp;
+	}
+}
+
+void shuffleRow4(int sp, int dp) {
+	final byte[] srcData = this.srcData, destData = this.destData;
+	final int sbpp = this.sbpp, dprxi = this.dprxi, sfxi = this.sfxi;
+	final int[] offsets = this.offsets;
+	int zero = -1;
+	for (int i = 0; i < 4; i++) {
+		if (offsets[i] < 0) zero = i;
+	}
+	/* the byte without a source is copied from any source byte and cleared after */
+	final int o0 = Math.max(offsets[0], 0), o1 = Math.max(offsets[1], 0), o2 = Math.max(offsets[2], 0), o3 = Math.max(offsets[3], 0);
+	if (zero < 0) {
+		for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+			destData[dp] = srcData[sp + o0];
+			destData[dp + 1] = srcData[sp + o1];
+			destData[dp + 2] = srcData[sp + o2];
+			destData[dp + 3] = srcData[sp + o3];
+			sp += (sfx >>> 16) * sbpp;
+		}
+	} else {
+		for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+			destData[dp] = srcData[sp + o0];
+			destData[dp + 1] = srcData[sp + o1];
+			destData[dp + 2] = srcData[sp + o2];
+			destData[dp + 3] = srcData[sp + o3];
+			destData[dp + zero] = 0;
+			sp += (sfx >>> 16) * sbpp;
+		}
+	}
+}
+
+void shuffleRow3(int sp, int dp) {
+	final byte[] srcData = this.srcData, destData = this.destData;
+	final int sbpp = this.sbpp, dprxi = this.dprxi, sfxi = this.sfxi;
+	final int o0 = offsets[0], o1 = offsets[1], o2 = offsets[2];
+	for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+		destData[dp] = srcData[sp + o0];
+		destData[dp + 1] = srcData[sp + o1];
+		destData[dp + 2] = srcData[sp + o2];
+		sp += (sfx >>> 16) * sbpp;
+	}
+}
+
+void lookupRow(int sp, int dp) {
+	final byte[] srcData = this.srcData, destData = this.destData;
+	final int[] lut = this.lut;
+	final int dprxi = this.dprxi, sfxi = this.sfxi;
+	switch (dbpp) {
+		case 2:
+			for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+				int data = lut[srcData[sp] & 0xff];
+				destData[dp] = (byte) data;
+				destData[dp + 1] = (byte) (data >>> 8);
+				sp += (sfx >>> 16);
+			}
+			break;
+		case 3:
+			for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+				int data = lut[srcData[sp] & 0xff];
+				destData[dp] = (byte) data;
+				destData[dp + 1] = (byte) (data >>> 8);
+				destData[dp + 2] = (byte) (data >>> 16);
+				sp += (sfx >>> 16);
+			}
+			break;
+		case 4:
+			for (int dx = destWidth, sfx = sfxi; dx > 0; --dx, dp += dprxi, sfx = (sfx & 0xffff) + sfxi) {
+				int data = lut[srcData[sp] & 0xff];
+				destData[dp] = (byte) data;
+				destData[dp + 1] = (byte) (data >>> 8);
+				destData[dp + 2] = (byte) (data >>> 16);
+				destData[dp + 3] = (byte) (data >>> 24);
+				sp += (sfx >>> 16);
+			}
+			break;
+	}
+}
+
+}
@@ -0,0 +1,362 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import java.util.concurrent.*;
+
+import org.eclipse.swt.*;
+
+/**
+ * Resamples image data with a separable filter, see
+ * <code>ImageData.scaledTo(int, int, int)</code>.
+ * <p>
+ * The weights of each destination column and row are computed once
+ * as fixed point integers. Bands of destination rows are computed
+ * independently: the rows of the source window of a band are filtered
+ * horizontally, then the band is filtered vertically. Color is filtered
+ * premultiplied by alpha, in the same passes as the alpha.
+ * </p>
+ */
+final class ImageDataScaler {
+
+	/* fixed point precision of the filter weights */
+	static final int WEIGHT_BITS = 14;
+	/* fraction bits kept between the horizontal and the vertical pass */
+	static final int TMP_BITS = 6;
+	/* destination rows per band, bounds the size of the intermediate rows */
+	static final int BAND_ROWS = 64;
+	/* destination pixels below which bands are not computed in parallel */
+	static final int PARALLEL_THRESHOLD = 256 * 256;
+	static final double LANCZOS_RADIUS = 3;
+	/* samples are red, green, blue and alpha, alpha is 255 for opaque images */
+	static final int CHANNELS = 4;
+
+	final ImageData src;
+	final ImageData dest;
+	final ImageData mask;
+	final boolean hasAlpha;
+	/* taps, source indices and weights of the destination columns and rows */
+	final int xTaps, yTaps;
+	final int[] xIndex, xWeight, yIndex, yWeight;
+
+	/* Filters the rows of one band of the destination */
+	final class Band implements Callable<Object> {
+		final int y0, y1;
+
+		Band(int y0, int y1) {
+			this.y0 = y0;
+			this.y1 = y1;
+		}
+
+		@Override
+		public Object call() {
+			int srcStart = src.height, srcEnd = 0;
+			for (int y = y0; y < y1; y++) {
+				for (int t = 0; t < yTaps; t++) {
+					int index = yIndex[y * yTaps + t];
+					srcStart = Math.min(srcStart, index);
+					srcEnd = Math.max(srcEnd, index + 1);
+				}
+			}
+			int destWidth = dest.width;
+			int[][] rows = new int[srcEnd - srcStart][];
+			int[] samples = new int[src.width * CHANNELS];
+			int[] pixels = new int[Math.max(src.width, destWidth)];
+			for (int row = srcStart; row < srcEnd; row++) {
+				readRow(row, samples, pixels);
+				int[] tmp = rows[row - srcStart] = new int[destWidth * CHANNELS];
+				for (int x = 0, taps = 0, i = 0; x < destWidth; x++, i += CHANNELS) {
+					int r = 0, g = 0, b = 0, a = 0;
+					for (int t = 0; t < xTaps; t++, taps++) {
+						int index = xIndex[taps] * CHANNELS, weight = xWeight[taps];
+						r += samples[index] * weight;
+						g += samples[index + 1] * weight;
+						b += samples[index + 2] * weight;
+						a += samples[index + 3] * weight;
+					}
+					tmp[i] = (r + (1 << (WEIGHT_BITS - TMP_BITS - 1))) >> (WEIGHT_BITS - TMP_BITS);
+					tmp[i + 1] = (g + (1 << (WEIGHT_BITS - TMP_BITS - 1))) >> (WEIGHT_BITS - TMP_BITS);
+					tmp[i + 2] = (b + (1 << (WEIGHT_BITS - TMP_BITS - 1))) >> (WEIGHT_BITS - TMP_BITS);
+					tmp[i + 3] = (a + (1 << (WEIGHT_BITS - TMP_BITS - 1))) >> (WEIGHT_BITS - TMP_BITS);
+				}
+			}
+			int shift = WEIGHT_BITS + TMP_BITS;
+			int[] out = new int[destWidth * CHANNELS];
+			for (int y = y0; y < y1; y++) {
+				/* Whole rows are accumulated one tap at a time */
+				int taps = y * yTaps;
+				for (int i = 0; i < out.length; i++) out[i] = 1 << (shift - 1);
+				for (int t = 0; t < yTaps; t++) {
+					int[] tmp = rows[yIndex[taps + t] - srcStart];
+					int weight = yWeight[taps + t];
+					for (int i = 0; i < out.length; i++) {
+						out[i] += tmp[i] * weight;
+					}
+				}
+				for (int i = 0; i < out.length; i++) {
+					out[i] = Math.min(Math.max(out[i] >> shift, 0), 255);
+				}
+				writeRow(y, out, pixels);
+			}
+			return null;
+		}
+	}
+
+ImageDataScaler(ImageData src, int width, int height, int filter) {
+	boolean flipX = width < 0;
+	if (flipX) width = -width;
+	boolean flipY = height < 0;
+	if (flipY) height = -height;
+	this.src = src;
+	switch (src.getTransparencyType()) {
+		case SWT.TRANSPARENCY_MASK:
+		case SWT.TRANSPARENCY_PIXEL:
+			mask = src.getTransparencyMask();
+			hasAlpha = true;
+			break;
+		case SWT.TRANSPARENCY_ALPHA:
+			mask = null;
+			hasAlpha = true;
+			break;
+		default:
+			mask = null;
+			hasAlpha = false;
+	}
+	PaletteData palette = src.palette;
+	int depth = src.depth;
+	if (!palette.isDirect) {
+		/* Filtering creates colors that are not in the palette */
+		palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+		depth = 24;
+	}
+	dest = new ImageData(width, height, depth, palette);
+	dest.type = src.type;
+	dest.x = src.x;
+	dest.y = src.y;
+	dest.disposalMethod = src.disposalMethod;
+	dest.delayTime = src.delayTime;
+	dest.alpha = src.alpha;
+	if (src.alphaData != null) {
+		dest.alphaData = new byte[width * height];
+	} else if (mask != null) {
+		/* Transparent pixels and masks are scaled to a mask */
+		dest.maskPad = mask.scanlinePad;
+		dest.maskData = new byte[maskBytesPerLine(width, dest.maskPad) * height];
+	}
+	xTaps = taps(src.width, width, filter);
+	xIndex = new int[width * xTaps];
+	xWeight = new int[width * xTaps];
+	weights(src.width, width, filter, xTaps, xIndex, xWeight, flipX);
+	yTaps = taps(src.height, height, filter);
+	yIndex = new int[height * yTaps];
+	yWeight = new int[height * yTaps];
+	weights(src.height, height, filter, yTaps, yIndex, yWeight, flipY);
+}
+
+static int maskBytesPerLine(int width, int maskPad) {
+	return ((width + 7) / 8 + maskPad - 1) / maskPad * maskPad;
+}
+
+/* Returns the support radius of the filter in source pixels */
+static double radius(int srcSize, int destSize, int filter) {
+	double scale = (double)destSize / srcSize;
+	double radius;
+	switch (filter) {
+		case SWT.DEFAULT: radius = 1; break;
+		case SWT.HIGH: radius = LANCZOS_RADIUS; break;
+		default: return Math.max(0.5 / scale, 0.5) + 0.5;
+	}
+	return scale < 1 ? radius / scale : radius;
+}
+
+static int taps(int srcSize, int destSize, int filter) {
+	return (int)Math.ceil(radius(srcSize, destSize, filter) * 2) + 1;
+}
+
+static double kernel(double x, int filter) {
+	x = Math.abs(x);
+	switch (filter) {
+		case SWT.DEFAULT:
+			return x < 1 ? 1 - x : 0;
+		case SWT.HIGH:
+			if (x == 0) return 1;
+			if (x >= LANCZOS_RADIUS) return 0;
+			double px = Math.PI * x;
+			return LANCZOS_RADIUS * Math.sin(px) * Math.sin(px / LANCZOS_RADIUS) / (px * px);
+	}
+	return 0;
+}
+
+/*
+ * Computes the source indices and weights of each destination pixel.
+ * Indices are clamped to the source, which repeats the edge pixels.
+ * The weights of a pixel add up to exactly 1 << WEIGHT_BITS.
+ */
+static void weights(int srcSize, int destSize, int filter, int taps, int[] indices, int[] weights, boolean flip) {
+	double scale = (double)destSize / srcSize;
+	double radius = radius(srcSize, destSize, filter);
+	double[] w = new double[taps];
+	for (int i = 0; i < destSize; i++) {
+		double first, last, center = (i + 0.5) / scale;
+		int start = (int)Math.floor(center - radius);
+		double sum = 0;
+		for (int t = 0; t < taps; t++) {
+			int j = start + t;
+			if (filter == SWT.LOW) {
+				/* Box: the part of source pixel j covered by the destination pixel,
+				 * at least one source pixel wide when enlarging
+				 */
+				double half = Math.max(0.5 / scale, 0.5);
+				first = Math.max(j, center - half);
+				last = Math.min(j + 1, center + half);
+				w[t] = Math.max(last - first, 0);
+			} else {
+				double x = j + 0.5 - center;
+				w[t] = kernel(scale < 1 ? x * scale : x, filter);
+			}
+			sum += w[t];
+		}
+		int offset = (flip ? destSize - 1 - i : i) * taps;
+		int total = 0, largest = 0;
+		for (int t = 0; t < taps; t++) {
+			indices[offset + t] = Math.min(Math.max(start + t, 0), srcSize - 1);
+			int weight = (int)Math.round(w[t] / sum * (1 << WEIGHT_BITS));
+			weights[offset + t] = weight;
+			total += weight;
+			if (weight > weights[offset + largest]) largest = t;
+		}
+		weights[offset + largest] += (1 << WEIGHT_BITS) - total;
+	}
+}
+
+ImageData scale() {
+	int height = dest.height;
+	int count = (height + BAND_ROWS - 1) / BAND_ROWS;
+	Band[] bands = new Band[count];
+	for (int i = 0; i < count; i++) {
+		bands[i] = new Band(i * BAND_ROWS, Math.min((i + 1) * BAND_ROWS, height));
+	}
+	if (count == 1 || dest.width * height < PARALLEL_THRESHOLD || Runtime.getRuntime().availableProcessors() == 1) {
+		for (int i = 0; i < count; i++) {
+			bands[i].call();
+		}
+		return dest;
+	}
+	ForkJoinPool pool = ForkJoinPool.commonPool();
+	Future<?>[] futures = new Future<?>[count];
+	for (int i = 0; i < count; i++) {
+		futures[i] = pool.submit(bands[i]);
+	}
+	try {
+		for (int i = 0; i < count; i++) {
+			futures[i].get();
+		}
+	} catch (InterruptedException e) {
+		for (int i = 0; i < count; i++) futures[i].cancel(false);
+		SWT.error(SWT.ERROR_UNSPECIFIED, e);
+	} catch (ExecutionException e) {
+		for (int i = 0; i < count; i++) futures[i].cancel(false);
+		Throwable cause = e.getCause();
+		if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+		if (cause instanceof Error) throw (Error) cause;
+		SWT.error(SWT.ERROR_UNSPECIFIED, cause);
+	}
+	return dest;
+}
+
+/* Reads a source row as red, green, blue and alpha samples, with color premultiplied by alpha */
+void readRow(int y, int[] samples, int[] pixels) {
+	int width = src.width;
+	PaletteData palette = src.palette;
+	src.getPixels(0, y, width, pixels, 0);
+	if (palette.isDirect) {
+		int redMask = palette.redMask, greenMask = palette.greenMask, blueMask = palette.blueMask;
+		int redShift = palette.redShift, greenShift = palette.greenShift, blueShift = palette.blueShift;
+		for (int x = 0, i = 0; x < width; x++, i += CHANNELS) {
+			int pixel = pixels[x];
+			int r = pixel & redMask, g = pixel & greenMask, b = pixel & blueMask;
+			samples[i] = (redShift < 0) ? r >>> -redShift : r << redShift;
+			samples[i + 1] = (greenShift < 0) ? g >>> -greenShift : g << greenShift;
+			samples[i + 2] = (blueShift < 0) ? b >>> -blueShift : b << blueShift;
+		}
+	} else {
+		RGB[] colors = palette.colors;
+		for (int x = 0, i = 0; x < width; x++, i += CHANNELS) {
+			RGB rgb = colors[pixels[x]];
+			samples[i] = rgb.red;
+			samples[i + 1] = rgb.green;
+			samples[i + 2] = rgb.blue;
+		}
+	}
+	if (!hasAlpha) {
+		for (int i = 3; i < samples.length; i += CHANNELS) samples[i] = 255;
+		return;
+	}
+	if (mask != null) {
+		mask.getPixels(0, y, width, pixels, 0);
+		for (int x = 0; x < width; x++) pixels[x] = pixels[x] != 0 ? 255 : 0;
+	} else {
+		byte[] alphaData = src.alphaData;
+		for (int x = 0, offset = y * width; x < width; x++) pixels[x] = alphaData[offset + x] & 0xFF;
+	}
+	for (int x = 0, i = 0; x < width; x++, i += CHANNELS) {
+		int a = pixels[x];
+		samples[i + 3] = a;
+		if (a != 255) {
+			samples[i] = (samples[i] * a + 127) / 255;
+			samples[i + 1] = (samples[i + 1] * a + 127) / 255;
+			samples[i + 2] = (samples[i + 2] * a + 127) / 255;
+		}
+	}
+}
+
+/* Writes a destination row from filtered samples */
+void writeRow(int y, int[] samples, int[] pixels) {
+	int width = dest.width;
+	PaletteData palette = dest.palette;
+	int redMask = palette.redMask, greenMask = palette.greenMask, blueMask = palette.blueMask;
+	int redShift = palette.redShift, greenShift = palette.greenShift, blueShift = palette.blueShift;
+	for (int x = 0, i = 0; x < width; x++, i += CHANNELS) {
+		int r = samples[i], g = samples[i + 1], b = samples[i + 2];
+		if (hasAlpha) {
+			int a = samples[i + 3];
+			if (a == 0) {
+				r = g = b = 0;
+			} else if (a != 255) {
+				r = Math.min((r * 255 + a / 2) / a, 255);
+				g = Math.min((g * 255 + a / 2) / a, 255);
+				b = Math.min((b * 255 + a / 2) / a, 255);
+			}
+		}
+		r = (redShift < 0) ? r << -redShift : r >>> redShift;
+		g = (greenShift < 0) ? g << -greenShift : g >>> greenShift;
+		b = (blueShift < 0) ? b << -blueShift : b >>> blueShift;
+		pixels[x] = (r & redMask) | (g & greenMask) | (b & blueMask);
+	}
+	dest.setPixels(0, y, width, pixels, 0);
+	if (!hasAlpha) return;
+	if (dest.alphaData != null) {
+		byte[] alphaData = dest.alphaData;
+		for (int x = 0, i = 3, offset = y * width; x < width; x++, i += CHANNELS) {
+			alphaData[offset + x] = (byte)samples[i];
+		}
+	} else {
+		/* Rows of the mask are separate bytes, so bands can write them concurrently */
+		byte[] maskData = dest.maskData;
+		int offset = y * maskBytesPerLine(width, dest.maskPad);
+		for (int x = 0; x < (width + 7) / 8; x++) maskData[offset + x] = 0;
+		for (int x = 0, i = 3; x < width; x++, i += CHANNELS) {
+			if (samples[i] >= 128) maskData[offset + (x >> 3)] |= (byte)(0x80 >> (x & 7));
+		}
+	}
+}
+
+}
@@ -12,6 +12,7 @@ package org.eclipse.swt.graphics;
 
 
 import java.io.*;
+import java.util.Iterator;
 import java.util.Vector;
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.Compatibility;
@@ -97,6 +98,26 @@ public class ImageLoader {
 	 * @since 3.8
 	 */
 	public int compression;
+
+	/**
+	 * The denominator of the scale at which images are loaded.
+	 * The default is 1, which loads images at their full size.
+	 * <p>
+	 * When loading jpeg files, a value of 2, 4 or 8 decodes the
+	 * image directly at 1/2, 1/4 or 1/8 of its width and height,
+	 * rounded up. This is much faster than loading the full image
+	 * and scaling it, and is meant for thumbnails. Other values
+	 * greater than 1 use the largest of these reductions that does
+	 * not exceed the value. Images in other formats are always
+	 * loaded at their full size, so callers should check the size
+	 * of the loaded image data.
+	 * </p><p>
+	 * Unlike the other fields, this field is not reset by a load.
+	 * </p>
+	 *
+	 * @since 3.103
+	 */
+	public int scaleDenominator = 1;
 		
 	/*
 	 * the set of ImageLoader event listeners, created on demand
@@ -112,7 +133,8 @@ public ImageLoader() {
 
 /**
  * Resets the fields of the ImageLoader, except for the
- * <code>imageLoaderListeners</code> field.
+ * <code>imageLoaderListeners</code> and <code>scaleDenominator</code>
+ * fields.
  */
 void reset() {
 	data = null;
@@ -148,6 +170,85 @@ public ImageData[] load(InputStream stream) {
 	return data;
 }
 
+/**
+ * Opens the specified input stream to read its first image in
+ * bands of rows. Each band is decoded when it is returned by the
+ * iterator, so images larger than the available memory can be
+ * displayed or processed one band at a time.
+ * <p>
+ * Each band is an <code>ImageData</code> as wide as the image, whose
+ * <code>y</code> field is the row of the image the band starts at.
+ * Bands are returned in the order they are stored in the stream,
+ * which is bottom to top for most BMP files. When this method
+ * returns, the <code>logicalScreenWidth</code> and
+ * <code>logicalScreenHeight</code> fields hold the size of the image.
+ * </p><p>
+ * Uncompressed BMP files and TIFF files are decoded incrementally,
+ * and TIFF files are read in bands of strips. Images in other formats
+ * are loaded completely and returned as a single band. The stream
+ * must stay open until the last band has been read.
+ * </p>
+ *
+ * @param stream the input stream to read the image from
+ * @return an iterator over the bands of the image
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the stream is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading from the stream</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image stream contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image stream contains an unrecognized format</li>
+ * </ul>
+ * The iterator throws the same <code>SWTException</code>s while decoding a band.
+ *
+ * @since 3.103
+ */
+public Iterator<ImageData> openTiles(InputStream stream) {
+	if (stream == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	reset();
+	return FileFormat.openTiles(stream, this);
+}
+
+/**
+ * Opens the specified input stream to read its images one at a
+ * time, for example to start playing an animation before all of its
+ * frames have been decoded.
+ * <p>
+ * The frames of GIF files are decoded on demand: each frame is
+ * decoded by the calling thread when it is asked for, so the first
+ * frame can be displayed before the rest of the stream is read.
+ * Images in other formats are loaded completely before this method
+ * returns. When this method returns,
+ * the <code>logicalScreenWidth</code>, <code>logicalScreenHeight</code>
+ * and <code>backgroundPixel</code> fields hold the values read from
+ * the stream header. Listeners are not notified of the images read.
+ * </p><p>
+ * The stream must stay open until the iterator has no more images,
+ * or is no longer used.
+ * </p>
+ *
+ * @param stream the input stream to read the images from
+ * @return an iterator over the images of the stream
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the stream is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_IO - if an IO error occurs while reading from the stream</li>
+ *    <li>ERROR_INVALID_IMAGE - if the image stream contains invalid data</li>
+ *    <li>ERROR_UNSUPPORTED_FORMAT - if the image stream contains an unrecognized format</li>
+ * </ul>
+ * The iterator throws the same <code>SWTException</code>s while decoding an image.
+ *
+ * @since 3.103
+ */
+public Iterator<ImageData> openFrames(InputStream stream) {
+	if (stream == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	reset();
+	return FileFormat.openFrames(stream, this);
+}
+
 /**
  * Loads an array of <code>ImageData</code> objects from the
  * file with the specified name. Throws an error if either
@@ -171,7 +272,9 @@ public ImageData[] load(String filename) {
 	InputStream stream = null;
 	try {
 		stream = Compatibility.newFileInputStream(filename);
-		return load(stream);
+		reset();
+		data = FileFormat.loadFile(stream, this);
+		return data;
 	} catch (IOException e) {
 		SWT.error(SWT.ERROR_IO, e);
 	} finally {
@@ -12,6 +12,8 @@ package org.eclipse.swt.internal.image;
 
 
 import java.io.*;
+import java.util.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 
@@ -20,31 +22,184 @@ import org.eclipse.swt.graphics.*;
  * in various image file formats.
  *
  */
-@SuppressWarnings({"rawtypes"})
 public abstract class FileFormat {
-	static final String FORMAT_PACKAGE = "org.eclipse.swt.internal.image"; //$NON-NLS-1$
-	static final String FORMAT_SUFFIX = "FileFormat"; //$NON-NLS-1$
-	static final String[] FORMATS = {"WinBMP", "WinBMP", "GIF", "WinICO", "JPEG", "PNG", "TIFF", "OS2BMP"}; //$NON-NLS-1$//$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$//$NON-NLS-5$ //$NON-NLS-6$//$NON-NLS-7$//$NON-NLS-8$
+	/**
+	 * The number of bytes read from the start of a stream to recognize
+	 * its file format, enough for the largest magic number (BMP).
+	 */
+	public static final int HEADER_LENGTH = 18;
+
+	static volatile Provider[] providers = {
+		new Provider(SWT.IMAGE_BMP) {
+			@Override
+			public boolean isFileFormat(byte[] header, int length) {
+				return WinBMPFileFormat.isFileFormat(header, length);
+			}
+			@Override
+			public FileFormat create() {
+				return new WinBMPFileFormat();
+			}
+		},
+		new Provider(SWT.IMAGE_GIF) {
+			@Override
+			public boolean isFileFormat(byte[] header, int length) {
+				return GIFFileFormat.isFileFormat(header, length);
+			}
+			@Override
+			public FileFormat create() {
+				return new GIFFileFormat();
+			}
+		},
+		new Provider(SWT.IMAGE_ICO) {
+			@Override
+			public boolean isFileFormat(byte[] header, int length) {
+				return WinICOFileFormat.isFileFormat(header, length);
+			}
+			@Override
+			public FileFormat create() {
+				return new WinICOFileFormat();
+			}
+		},
+		new Provider(SWT.IMAGE_JPEG) {
+			@Override
+			public boolean isFileFormat(byte[] header, int length) {
+				return JPEGFileFormat.isFileFormat(header, length);
+			}
+			@Override
+			public FileFormat create() {
+				return new JPEGFileFormat();
+			}
+		},
+		new Provider(SWT.IMAGE_PNG) {
+			@Override
+			public boolean isFileFormat(byte[] header, int length) {
+				return PNGFileFormat.isFileFormat(header, length);
+			}
+			@Override
+			public FileFormat create() {
+				return new PNGFileFormat();
+			}
+		},
+		new Provider(SWT.IMAGE_TIFF) {
+			@Override
+			public boolean isFileFormat(byte[] header, int length) {
+				return TIFFFileFormat.isFileFormat(header, length);
+			}
+			@Override
+			public FileFormat create() {
+				return new TIFFFileFormat();
+			}
+		},
+		new Provider(SWT.IMAGE_OS2_BMP) {
+			@Override
+			public boolean isFileFormat(byte[] header, int length) {
+				return OS2BMPFileFormat.isFileFormat(header, length);
+			}
+			@Override
+			public FileFormat create() {
+				return new OS2BMPFileFormat();
+			}
+		},
+	};
 	
 	LEDataInputStream inputStream;
 	LEDataOutputStream outputStream;
 	ImageLoader loader;
 	int compression;
 
-static FileFormat getFileFormat (LEDataInputStream stream, String format) throws Exception {
-	Class clazz = Class.forName(FORMAT_PACKAGE + '.' + format + FORMAT_SUFFIX);
-	FileFormat fileFormat = (FileFormat) clazz.newInstance();
-	if (fileFormat.isFileFormat(stream)) return fileFormat;
+/**
+ * Recognizes a file format from the first bytes of a stream, and
+ * creates the file format that loads and saves it.
+ */
+public static abstract class Provider {
+	/** the SWT.IMAGE_* constant saved by this provider, or -1 */
+	final int format;
+
+	/**
+	 * Create a provider for the given SWT.IMAGE_* constant, or -1
+	 * when the format is only read.
+	 */
+	protected Provider(int format) {
+		this.format = format;
+	}
+
+	/**
+	 * Return whether or not the first <code>length</code> bytes of
+	 * a stream, at most <code>HEADER_LENGTH</code>, represent this
+	 * file format.
+	 */
+	public abstract boolean isFileFormat(byte[] header, int length);
+
+	public abstract FileFormat create();
+}
+
+/**
+ * Add a provider for a file format. Providers added later are asked
+ * before the ones added earlier, so they can take over a format.
+ */
+public static synchronized void register(Provider provider) {
+	if (provider == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	Provider[] newProviders = new Provider[providers.length + 1];
+	newProviders[0] = provider;
+	System.arraycopy(providers, 0, newProviders, 1, providers.length);
+	providers = newProviders;
+}
+
+/**
+ * Return up to the next <code>length</code> bytes of the specified
+ * input stream without consuming them.
+ */
+static byte[] peek(LEDataInputStream stream, int length) throws IOException {
+	byte[] header = new byte[length];
+	int count = Math.max(0, stream.read(header));
+	if (count < length) {
+		byte[] newHeader = new byte[count];
+		System.arraycopy(header, 0, newHeader, 0, count);
+		header = newHeader;
+	}
+	stream.unread(header);
+	return header;
+}
+
+static FileFormat getFileFormat(byte[] header, int length) {
+	Provider[] providers = FileFormat.providers;
+	for (int i = 0; i < providers.length; i++) {
+		if (providers[i].isFileFormat(header, length)) return providers[i].create();
+	}
+	return null;
+}
+
+static FileFormat getFileFormat(int format) {
+	if (format == SWT.IMAGE_BMP_RLE) format = SWT.IMAGE_BMP;
+	Provider[] providers = FileFormat.providers;
+	for (int i = 0; i < providers.length; i++) {
+		if (providers[i].format == format) return providers[i].create();
+	}
 	return null;
 }
 
+protected abstract ImageData[] loadFromByteStream();
+
 /**
- * Return whether or not the specified input stream
- * represents a supported file format.
+ * Return the stream being loaded, for file formats outside this package.
  */
-abstract boolean isFileFormat(LEDataInputStream stream);
+protected InputStream getInputStream() {
+	return inputStream;
+}
 
-abstract ImageData[] loadFromByteStream();
+/**
+ * Return the stream being saved to, for file formats outside this package.
+ */
+protected OutputStream getOutputStream() {
+	return outputStream;
+}
+
+/**
+ * Return the loader the images are loaded into or saved from.
+ */
+protected ImageLoader getLoader() {
+	return loader;
+}
 
 /**
  * Read the specified input stream, and return the
@@ -64,27 +219,124 @@ public ImageData[] loadFromStream(LEDataInputStream stream) {
 	}
 }
 
+/**
+ * Read the first image of the input stream in bands of rows. Formats
+ * that can decode part of an image override this, the default loads
+ * the whole image and answers it as a single band.
+ */
+Iterator<ImageData> openTilesFromByteStream() {
+	final ImageData image = loadFromByteStream()[0];
+	loader.logicalScreenWidth = image.width;
+	loader.logicalScreenHeight = image.height;
+	return new ImageTileIterator(image.height) {
+		@Override
+		ImageData readBand() {
+			remaining = 0;
+			return image;
+		}
+	};
+}
+
+/**
+ * Read the specified input stream in bands of rows, see
+ * <code>openTilesFromByteStream()</code>.
+ */
+public Iterator<ImageData> openTilesFromStream(LEDataInputStream stream) {
+	try {
+		inputStream = stream;
+		return openTilesFromByteStream();
+	} catch (Exception e) {
+		if (e instanceof IOException) {
+			SWT.error(SWT.ERROR_IO, e);
+		} else {
+			SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+		}
+		return null;
+	}
+}
+
+/**
+ * Read the images of the input stream one at a time. Formats that
+ * can decode images on demand override this, the default loads all
+ * images and answers an iterator over them.
+ */
+Iterator<ImageData> openFramesFromByteStream() {
+	return Arrays.asList(loadFromByteStream()).iterator();
+}
+
+/**
+ * Read the images of the specified input stream one at a time, see
+ * <code>openFramesFromByteStream()</code>.
+ */
+public Iterator<ImageData> openFramesFromStream(LEDataInputStream stream) {
+	try {
+		inputStream = stream;
+		return openFramesFromByteStream();
+	} catch (Exception e) {
+		if (e instanceof IOException) {
+			SWT.error(SWT.ERROR_IO, e);
+		} else {
+			SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+		}
+		return null;
+	}
+}
+
 /**
  * Read the specified input stream using the specified loader, and
  * return the device independent image array represented by the stream.
  */	
 public static ImageData[] load(InputStream is, ImageLoader loader) {
-	FileFormat fileFormat = null;
 	LEDataInputStream stream = new LEDataInputStream(is);
-	for (int i = 1; i < FORMATS.length; i++) {
-		if (FORMATS[i] != null) {
-			try {
-				fileFormat = getFileFormat (stream, FORMATS[i]);
-				if (fileFormat != null) break;
-			} catch (ClassNotFoundException e) {
-				FORMATS[i] = null;
-			} catch (Exception e) {
-			}
-		}
+	return getFileFormat(stream, loader).loadFromStream(stream);
+}
+
+/**
+ * Read the specified file input stream using the specified loader, and
+ * return the device independent image array represented by the file.
+ * The file is read through its channel in windows of a fixed size, and
+ * large reads go straight from the channel, so that decoding does not go
+ * through stream calls and the file is never held in memory at once.
+ */	
+public static ImageData[] loadFile(InputStream is, ImageLoader loader) throws IOException {
+	LEDataInputStream stream;
+	if (is instanceof FileInputStream) {
+		stream = new LEDataInputStream(((FileInputStream)is).getChannel());
+	} else {
+		stream = new LEDataInputStream(is);
 	}
+	return getFileFormat(stream, loader).loadFromStream(stream);
+}
+
+/**
+ * Open the specified input stream using the specified loader, and
+ * return an iterator over bands of rows of its first image.
+ */	
+public static Iterator<ImageData> openTiles(InputStream is, ImageLoader loader) {
+	LEDataInputStream stream = new LEDataInputStream(is);
+	return getFileFormat(stream, loader).openTilesFromStream(stream);
+}
+
+/**
+ * Open the specified input stream using the specified loader, and
+ * return an iterator over its images.
+ */	
+public static Iterator<ImageData> openFrames(InputStream is, ImageLoader loader) {
+	LEDataInputStream stream = new LEDataInputStream(is);
+	return getFileFormat(stream, loader).openFramesFromStream(stream);
+}
+
+static FileFormat getFileFormat(LEDataInputStream stream, ImageLoader loader) {
+	byte[] header = null;
+	try {
+		header = peek(stream, HEADER_LENGTH);
+	} catch (IOException e) {
+		SWT.error(SWT.ERROR_IO, e);
+	}
+	FileFormat fileFormat = getFileFormat(header, header.length);
 	if (fileFormat == null) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
 	fileFormat.loader = loader;
-	return fileFormat.loadFromStream(stream);
+	return fileFormat;
 }
 
 /**
@@ -92,18 +344,11 @@ public static ImageData[] load(InputStream is, ImageLoader loader) {
  * to the specified output stream using the specified file format.
  */	
 public static void save(OutputStream os, int format, ImageLoader loader) {
-	if (format < 0 || format >= FORMATS.length) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
-	if (FORMATS[format] == null) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
+	FileFormat fileFormat = getFileFormat(format);
+	if (fileFormat == null) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
 	if (loader.data == null || loader.data.length < 1) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 
 	LEDataOutputStream stream = new LEDataOutputStream(os);
-	FileFormat fileFormat = null;
-	try {
-		Class clazz = Class.forName(FORMAT_PACKAGE + '.' + FORMATS[format] + FORMAT_SUFFIX);
-		fileFormat = (FileFormat) clazz.newInstance();
-	} catch (Exception e) {
-		SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
-	}
 	if (format == SWT.IMAGE_BMP_RLE) {
 		switch (loader.data[0].depth) {
 			case 8: fileFormat.compression = 1; break;
@@ -113,7 +358,7 @@ public static void save(OutputStream os, int format, ImageLoader loader) {
 	fileFormat.unloadIntoStream(loader, stream);
 }
 
-abstract void unloadIntoByteStream(ImageLoader loader);
+protected abstract void unloadIntoByteStream(ImageLoader loader);
 
 /**
  * Write the device independent image array stored in the specified loader
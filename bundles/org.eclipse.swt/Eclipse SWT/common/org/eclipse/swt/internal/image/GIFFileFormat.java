@@ -14,6 +14,7 @@ package org.eclipse.swt.internal.image;
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import java.io.*;
+import java.util.*;
 
 public final class GIFFileFormat extends FileFormat {
 	String signature;
@@ -22,6 +23,11 @@ public final class GIFFileFormat extends FileFormat {
 	int delayTime = 0;
 	int transparentPixel = -1;
 	int repeatCount = 1;
+	/* The global palette, the next block ID and the number of images read */
+	PaletteData palette;
+	int nextID, imageCount;
+	/* Whether images are read by openFramesFromByteStream() */
+	boolean frames;
 	
 	static final int GIF_APPLICATION_EXTENSION_BLOCK_ID = 0xFF;
 	static final int GIF_GRAPHICS_CONTROL_BLOCK_ID = 0xF9;
@@ -47,24 +53,91 @@ public final class GIFFileFormat extends FileFormat {
 		return new PaletteData(colors);
 	}
 
+	static boolean isFileFormat(byte[] header, int length) {
+		return length >= 3 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F';
+	}
+
+	/**
+	 * Load the GIF image(s) stored in the input stream.
+	 * Return an array of ImageData representing the image(s).
+	 */
 	@Override
-	boolean isFileFormat(LEDataInputStream stream) {
+	protected ImageData[] loadFromByteStream() {
+		readHeader();
+		ImageData[] images = new ImageData[0];
+		ImageData image;
+		while ((image = readNextImage()) != null) {
+			if (loader.hasListeners()) {
+				loader.notifyListeners(new ImageLoaderEvent(loader, image, 3, true));
+			}
+			ImageData[] oldImages = images;
+			images = new ImageData[oldImages.length + 1];
+			System.arraycopy(oldImages, 0, images, 0, oldImages.length);
+			images[images.length - 1] = image;
+		}
+		return images;
+	}
+
+	/**
+	 * Answer an iterator over the GIF images stored in the input stream.
+	 * Each image is decoded by the thread that asks for it, when it is
+	 * asked for, so an animation can show a frame before the next one
+	 * is read. Listeners are not notified.
+	 */
+	@Override
+	Iterator<ImageData> openFramesFromByteStream() {
+		frames = true;
+		readHeader();
+		return new Iterator<ImageData>() {
+			ImageData next;
+			boolean done;
+
+			@Override
+			public boolean hasNext() {
+				if (next == null && !done) {
+					next = readNextFrame();
+					done = next == null;
+					/* A stream that ends before its first image is invalid */
+					if (done && imageCount == 0) SWT.error(SWT.ERROR_INVALID_IMAGE);
+				}
+				return next != null;
+			}
+
+			@Override
+			public ImageData next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				ImageData image = next;
+				next = null;
+				return image;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Read the next image like <code>loadFromStream()</code> reads
+	 * the whole stream, reporting errors as <code>SWTException</code>s.
+	 */
+	ImageData readNextFrame() {
 		try {
-			byte[] signature = new byte[3];
-			stream.read(signature);
-			stream.unread(signature);
-			return signature[0] == 'G' && signature[1] == 'I' && signature[2] == 'F';
+			return readNextImage();
+		} catch (SWTException e) {
+			throw e;
 		} catch (Exception e) {
-			return false;
+			SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+			return null;
 		}
 	}
 
 	/**
-	 * Load the GIF image(s) stored in the input stream.
-	 * Return an array of ImageData representing the image(s).
+	 * Read the GIF header and the global palette, and the
+	 * ID of the first block.
 	 */
-	@Override
-	ImageData[] loadFromByteStream() {
+	void readHeader() {
 		byte[] signature = new byte[3];
 		byte[] versionBytes = new byte[3];
 		byte[] block = new byte[7];
@@ -88,7 +161,7 @@ public final class GIFFileFormat extends FileFormat {
 		//aspect = block[6] & 0xFF;
 		bitsPerPixel = ((bitField >> 4) & 0x07) + 1;
 		defaultDepth = (bitField & 0x7) + 1;
-		PaletteData palette = null;
+		palette = null;
 		if ((bitField & 0x80) != 0) {
 			// Global palette.
 			//sorted = (bitField & 0x8) != 0;
@@ -100,20 +173,19 @@ public final class GIFFileFormat extends FileFormat {
 			defaultDepth = bitsPerPixel;
 		}
 		loader.backgroundPixel = backgroundPixel;
+		nextID = readID();
+	}
 
-		ImageData[] images = new ImageData[0];
-		int id = readID();
-		while (id != GIF_TRAILER_ID && id != -1) {
-			if (id == GIF_IMAGE_BLOCK_ID) {
-				ImageData image = readImageBlock(palette);
-				if (loader.hasListeners()) {
-					loader.notifyListeners(new ImageLoaderEvent(loader, image, 3, true));
-				}
-				ImageData[] oldImages = images;
-				images = new ImageData[oldImages.length + 1];
-				System.arraycopy(oldImages, 0, images, 0, oldImages.length);
-				images[images.length - 1] = image;
-			} else if (id == GIF_EXTENSION_BLOCK_ID) {
+	/**
+	 * Read the blocks up to the next image, and return the image,
+	 * or null if there are no more images.
+	 */
+	ImageData readNextImage() {
+		while (nextID != GIF_TRAILER_ID && nextID != -1) {
+			ImageData image = null;
+			if (nextID == GIF_IMAGE_BLOCK_ID) {
+				image = readImageBlock(palette);
+			} else if (nextID == GIF_EXTENSION_BLOCK_ID) {
 				/* Read the extension block. Currently, only the
 				 * interesting parts of certain extensions are kept,
 				 * and the rest is discarded. In future, if we want
@@ -124,13 +196,18 @@ public final class GIFFileFormat extends FileFormat {
 			} else {
 				/* The GIF is not to spec, but try to salvage it
 				 * if we read at least one image. */
-				if (images.length > 0) break;
+				if (imageCount > 0) break;
 				SWT.error(SWT.ERROR_INVALID_IMAGE);
 			}
-			id = readID(); // block terminator (0)
-			if (id == 0) id = readID(); // next block ID (unless we just read it)
+			nextID = readID(); // block terminator (0)
+			if (nextID == 0) nextID = readID(); // next block ID (unless we just read it)
+			if (image != null) {
+				imageCount++;
+				return image;
+			}
 		}
-		return images;
+		nextID = -1;
+		return null;
 	}
 
 	/**
@@ -384,7 +461,7 @@ public final class GIFFileFormat extends FileFormat {
 			disposalMethod,
 			delayTime);	
 		LZWCodec codec = new LZWCodec();
-		codec.decode(inputStream, loader, image, interlaced, initialCodeSize);
+		codec.decode(inputStream, frames ? null : loader, image, interlaced, initialCodeSize);
 		return image;
 	}
 
@@ -407,7 +484,7 @@ public final class GIFFileFormat extends FileFormat {
 	}
 
 	@Override
-	void unloadIntoByteStream(ImageLoader loader) {
+	protected void unloadIntoByteStream(ImageLoader loader) {
 		
  		/* Step 1: Acquire GIF parameters. */
 		ImageData[] data = loader.data;
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal.image;
+
+
+import java.io.*;
+import java.util.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.graphics.*;
+
+/**
+ * Decodes the first image of a stream in bands of rows, each band
+ * only when it is asked for. The <code>y</code> field of a band is
+ * the row of the image it starts at.
+ *
+ * @see ImageLoader#openTiles(InputStream)
+ */
+abstract class ImageTileIterator implements Iterator<ImageData> {
+	/**
+	 * The number of bytes of image data bands are grown to,
+	 * they hold at least one row or strip.
+	 */
+	static final int BAND_SIZE = 1 << 20;
+
+	/* the number of rows not returned yet */
+	int remaining;
+
+ImageTileIterator(int height) {
+	remaining = height;
+}
+
+/**
+ * Decode the next band, and subtract its rows from <code>remaining</code>.
+ */
+abstract ImageData readBand() throws IOException;
+
+@Override
+public boolean hasNext() {
+	return remaining > 0;
+}
+
+@Override
+public ImageData next() {
+	if (!hasNext()) throw new NoSuchElementException();
+	try {
+		return readBand();
+	} catch (Exception e) {
+		if (e instanceof IOException) {
+			SWT.error(SWT.ERROR_IO, e);
+		} else {
+			SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+		}
+		return null;
+	}
+}
+
+@Override
+public void remove() {
+	throw new UnsupportedOperationException();
+}
+
+/**
+ * Return the number of rows of <code>bytesPerLine</code> bytes that make a band.
+ */
+static int bandRows(int bytesPerLine) {
+	return Math.max(1, BAND_SIZE / Math.max(1, bytesPerLine));
+}
+
+}
@@ -11,6 +11,7 @@
 package org.eclipse.swt.internal.image;
 
 import java.io.*;
+import java.util.concurrent.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
@@ -58,6 +59,8 @@ public class JPEGDecoder {
 	static final int JDCT_IFAST = 1;	/* faster, less accurate integer method */
 	static final int JDCT_FLOAT = 2;	/* floating-point: accurate, fast on fast HW */
 	static final int JDCT_DEFAULT = JDCT_ISLOW;
+	/* Selects JDCT_IFAST when set to true, trading some accuracy for decoding speed */
+	static final String FAST_IDCT = "org.eclipse.swt.internal.image.JPEGDecoder.fastIDCT";
 
 	static final int JCS_UNKNOWN = 0;		/* error/unspecified */
 	static final int JCS_GRAYSCALE = 1;		/* monochrome */
@@ -220,7 +223,19 @@ public class JPEGDecoder {
 		63, 63, 63, 63, 63, 63, 63, 63, /* extra entries for safety in decoder */
 		63, 63, 63, 63, 63, 63, 63, 63
 	};
-	
+
+	static int aanscales[] = {
+		/* precomputed values scaled up by 14 bits */
+		16384, 22725, 21407, 19266, 16384, 12873,	8867,	4520,
+		22725, 31521, 29692, 26722, 22725, 17855, 12299,	6270,
+		21407, 29692, 27969, 25172, 21407, 16819, 11585,	5906,
+		19266, 26722, 25172, 22654, 19266, 15137, 10426,	5315,
+		16384, 22725, 21407, 19266, 16384, 12873,	8867,	4520,
+		12873, 17855, 16819, 15137, 12873, 10114,	6967,	3552,
+		8867, 12299, 11585, 10426,	8867,	6967,	4799,	2446,
+		4520,	6270,	5906,	5315,	4520,	3552,	2446,	1247
+	};
+
 	static final class JQUANT_TBL {
 		/* This array gives the coefficient quantizers in natural array order
 		 * (not the zigzag order in which they are stored in a JPEG DQT marker).
@@ -1796,20 +1811,12 @@ public class JPEGDecoder {
 				compptr = cinfo.comp_info[ci];
 				/* Select the proper IDCT routine for this component's scaling */
 				switch (compptr.DCT_scaled_size) {
-//					#ifdef IDCT_SCALING_SUPPORTED
-//					case 1:
-//						method_ptr = jpeg_idct_1x1;
-//						method = JDCT_ISLOW;	/* jidctred uses islow-style table */
-//						break;
-//					case 2:
-//						method_ptr = jpeg_idct_2x2;
-//						method = JDCT_ISLOW;	/* jidctred uses islow-style table */
-//						break;
-//					case 4:
-//						method_ptr = jpeg_idct_4x4;
-//						method = JDCT_ISLOW;	/* jidctred uses islow-style table */
-//						break;
-//					#endif
+					case 1:
+					case 2:
+					case 4:
+						/* jpeg_idct_1x1, jpeg_idct_2x2 and jpeg_idct_4x4 */
+						method = JDCT_ISLOW;	/* jidctred uses islow-style table */
+						break;
 					case DCTSIZE:
 						switch (cinfo.dct_method) {
 //							#ifdef DCT_ISLOW_SUPPORTED
@@ -1818,12 +1825,10 @@ public class JPEGDecoder {
 								method = JDCT_ISLOW;
 								break;
 //							#endif
-//							#ifdef DCT_IFAST_SUPPORTED
-//							case JDCT_IFAST:
+							case JDCT_IFAST:
 //								method_ptr = jpeg_idct_ifast;
-//								method = JDCT_IFAST;
-//								break;
-//							#endif
+								method = JDCT_IFAST;
+								break;
 //							#ifdef DCT_FLOAT_SUPPORTED
 //							case JDCT_FLOAT:
 //								method_ptr = jpeg_idct_float;
@@ -1869,36 +1874,22 @@ public class JPEGDecoder {
 						}
 						break;
 //						#endif
-//						#ifdef DCT_IFAST_SUPPORTED
-//						case JDCT_IFAST:
-//						{
-//							/* For AA&N IDCT method, multipliers are equal to quantization
-//							 * coefficients scaled by scalefactor[row]*scalefactor[col], where
-//							 *	 scalefactor[0] = 1
-//							 *	 scalefactor[k] = cos(k*PI/16) * sqrt(2)		for k=1..7
-//							 * For integer operation, the multiplier table is to be scaled by
-//							 * IFAST_SCALE_BITS.
-//							 */
-//							int[] ifmtbl = compptr.dct_table;
-//							short aanscales[] = {
-//								/* precomputed values scaled up by 14 bits */
-//								16384, 22725, 21407, 19266, 16384, 12873,	8867,	4520,
-//								22725, 31521, 29692, 26722, 22725, 17855, 12299,	6270,
-//								21407, 29692, 27969, 25172, 21407, 16819, 11585,	5906,
-//								19266, 26722, 25172, 22654, 19266, 15137, 10426,	5315,
-//								16384, 22725, 21407, 19266, 16384, 12873,	8867,	4520,
-//								12873, 17855, 16819, 15137, 12873, 10114,	6967,	3552,
-//								8867, 12299, 11585, 10426,	8867,	6967,	4799,	2446,
-//								4520,	6270,	5906,	5315,	4520,	3552,	2446,	1247
-//							};
-//							SHIFT_TEMPS
-//							
-//							for (i = 0; i < DCTSIZE2; i++) {
-//								ifmtbl[i] = DESCALE(MULTIPLY16V16( qtbl.quantval[i], aanscales[i]), CONST_BITS-IFAST_SCALE_BITS);
-//							}
-//						}
-//						break;
-//						#endif
+						case JDCT_IFAST:
+						{
+							/* For AA&N IDCT method, multipliers are equal to quantization
+							 * coefficients scaled by scalefactor[row]*scalefactor[col], where
+							 *	 scalefactor[0] = 1
+							 *	 scalefactor[k] = cos(k*PI/16) * sqrt(2)		for k=1..7
+							 * For integer operation, the multiplier table is to be scaled by
+							 * IFAST_SCALE_BITS.
+							 */
+							int[] ifmtbl = compptr.dct_table;
+							for (i = 0; i < DCTSIZE2; i++) {
+//								#define DESCALE(x,n)	RIGHT_SHIFT((x) + (ONE << ((n)-1)), n)
+								ifmtbl[i] = (qtbl.quantval[i] * aanscales[i] + (1 << (14-IFAST_SCALE_BITS-1))) >> (14-IFAST_SCALE_BITS);
+							}
+						}
+						break;
 //						#ifdef DCT_FLOAT_SUPPORTED
 //						case JDCT_FLOAT:
 //						{
@@ -1947,11 +1938,6 @@ public class JPEGDecoder {
 //		JMETHOD(void, start_pass, (j_decompress_ptr cinfo));
 		int color_convert;
 		
-		/* Private state for YCC.RGB conversion */
-		int[] Cr_r_tab;		/* => table for Cr to R conversion */
-		int[] Cb_b_tab;		/* => table for Cb to B conversion */
-		int[] Cr_g_tab;		/* => table for Cr to G conversion */
-		int[] Cb_g_tab;		/* => table for Cb to G conversion */
 			
 		void start_pass (jpeg_decompress_struct cinfo) {
 			/* no work needed */
@@ -2024,7 +2010,7 @@ public class JPEGDecoder {
 
 	}
 	
-	static final class jpeg_decompress_struct {
+	static final class jpeg_decompress_struct implements Cloneable {
 //		jpeg_error_mgr * err;	/* Error handler module */\
 //		struct jpeg_memory_mgr * mem;	/* Memory manager module */\
 //		struct jpeg_progress_mgr * progress; /* Progress monitor, or null if none */\
@@ -2257,6 +2243,86 @@ public class JPEGDecoder {
 		jpeg_upsampler upsample;
 		jpeg_color_deconverter cconvert;
 		jpeg_color_quantizer cquantize;
+
+		/* Shallow copy, used to give each thread of a parallel decode its own data source and entropy decoder */
+		jpeg_decompress_struct copy () {
+			try {
+				return (jpeg_decompress_struct) clone();
+			} catch (CloneNotSupportedException e) {
+				return null;
+			}
+		}
+	}
+
+	/* Entropy decodes and inverse transforms a run of MCUs into the sample planes */
+	static final class jpeg_mcu_task implements Callable<Object> {
+		jpeg_decompress_struct cinfo;
+		byte[][][] planes;
+		short[][][] MCU_data;	/* coefficient blocks of each MCU, or of one MCU when decoding */
+		boolean decode;		/* entropy decode each MCU before the IDCT */
+		int first_MCU, num_MCUs;
+
+		jpeg_mcu_task (jpeg_decompress_struct cinfo, byte[][][] planes, int num_blocks, boolean decode) {
+			this.cinfo = cinfo;
+			this.planes = planes;
+			this.MCU_data = new short[num_blocks][cinfo.blocks_in_MCU][DCTSIZE2];
+			this.decode = decode;
+		}
+
+		@Override
+		public Object call () {
+			int[] workspace = new int[DCTSIZE2];
+			for (int i = 0; i < num_MCUs; i++) {
+				short[][] blocks = MCU_data[decode ? 0 : i];
+				if (decode) decode_MCU(cinfo, blocks);
+				inverse_DCT_MCU(cinfo, blocks, first_MCU + i, planes, workspace);
+			}
+			return null;
+		}
+	}
+
+	/* Upsamples and color converts a run of row groups from the sample planes into the image */
+	static final class jpeg_output_task implements Callable<Object> {
+		jpeg_decompress_struct cinfo;
+		byte[][][] planes;
+		byte[] data;
+		int row_stride;
+		int first_row_group, last_row_group;
+
+		jpeg_output_task (jpeg_decompress_struct cinfo, byte[][][] planes, byte[] data, int row_stride, int first_row_group, int last_row_group) {
+			this.cinfo = cinfo;
+			this.planes = planes;
+			this.data = data;
+			this.row_stride = row_stride;
+			this.first_row_group = first_row_group;
+			this.last_row_group = last_row_group;
+		}
+
+		@Override
+		public Object call () {
+			jpeg_upsampler upsample = cinfo.upsample;
+			int num_components = cinfo.num_components;
+			int max_v_samp_factor = cinfo.max_v_samp_factor;
+			/* Each task needs its own conversion buffer */
+			byte[][][] color_buf = new byte[num_components][][];
+			int[] color_buf_offset = new int[num_components];
+			for (int ci = 0; ci < num_components; ci++) {
+				if (upsample.color_buf[ci] != null) {
+					color_buf[ci] = new byte[max_v_samp_factor][upsample.color_buf[ci][0].length];
+				}
+			}
+			for (int row_group = first_row_group; row_group < last_row_group; row_group++) {
+				for (int ci = 0; ci < num_components; ci++) {
+					upsample_component(cinfo, ci, planes[ci], 1 + row_group * upsample.rowgroup_height[ci], color_buf, color_buf_offset);
+				}
+				int output_row = row_group * max_v_samp_factor;
+				int num_rows = Math.min(max_v_samp_factor, cinfo.output_height - output_row);
+				for (int row = 0; row < num_rows; row++) {
+					color_convert(cinfo, color_buf, color_buf_offset, row, data, (output_row + row) * row_stride);
+				}
+			}
+			return null;
+		}
 	}
 
 static void error() {
@@ -2371,87 +2437,72 @@ static void jpeg_create_decompress(jpeg_decompress_struct cinfo) {
 static void jpeg_calc_output_dimensions (jpeg_decompress_struct cinfo)
 /* Do computations that are needed before master selection phase */
 {
-//#ifdef IDCT_SCALING_SUPPORTED
-//	int ci;
-//	jpeg_component_info compptr;
-//#endif
+	int ci;
+	jpeg_component_info compptr;
 
 	/* Prevent application from calling me at wrong times */
 	if (cinfo.global_state != DSTATE_READY)
 		error();
 //		ERREXIT1(cinfo, JERR_BAD_STATE, cinfo.global_state);
 
-//#ifdef IDCT_SCALING_SUPPORTED
-//
-//	/* Compute actual output image dimensions and DCT scaling choices. */
-//	if (cinfo.scale_num * 8 <= cinfo.scale_denom) {
-//		/* Provide 1/8 scaling */
-//		cinfo.output_width = (int)
-//			jdiv_round_up(cinfo.image_width, 8L);
-//		cinfo.output_height = (int)
-//			jdiv_round_up(cinfo.image_height, 8L);
-//		cinfo.min_DCT_scaled_size = 1;
-//	} else if (cinfo.scale_num * 4 <= cinfo.scale_denom) {
-//		/* Provide 1/4 scaling */
-//		cinfo.output_width = (int)
-//			jdiv_round_up(cinfo.image_width, 4L);
-//		cinfo.output_height = (int)
-//			jdiv_round_up(cinfo.image_height, 4L);
-//		cinfo.min_DCT_scaled_size = 2;
-//	} else if (cinfo.scale_num * 2 <= cinfo.scale_denom) {
-//		/* Provide 1/2 scaling */
-//		cinfo.output_width = (int)
-//			jdiv_round_up(cinfo.image_width, 2L);
-//		cinfo.output_height = (int)
-//			jdiv_round_up(cinfo.image_height, 2L);
-//		cinfo.min_DCT_scaled_size = 4;
-//	} else {
-//		/* Provide 1/1 scaling */
-//		cinfo.output_width = cinfo.image_width;
-//		cinfo.output_height = cinfo.image_height;
-//		cinfo.min_DCT_scaled_size = DCTSIZE;
-//	}
-//	/* In selecting the actual DCT scaling for each component, we try to
-//	 * scale up the chroma components via IDCT scaling rather than upsampling.
-//	 * This saves time if the upsampler gets to use 1:1 scaling.
-//	 * Note this code assumes that the supported DCT scalings are powers of 2.
-//	 */
-//	for (ci = 0; ci < cinfo.num_components; ci++) {
-//		compptr = cinfo.comp_info[ci];
-//		int ssize = cinfo.min_DCT_scaled_size;
-//		while (ssize < DCTSIZE &&
-//			(compptr.h_samp_factor * ssize * 2 <= cinfo.max_h_samp_factor * cinfo.min_DCT_scaled_size) &&
-//			(compptr.v_samp_factor * ssize * 2 <= cinfo.max_v_samp_factor * cinfo.min_DCT_scaled_size))
-//		{
-//			ssize = ssize * 2;
-//		}
-//		compptr.DCT_scaled_size = ssize;
-//	}
-//
-//	/* Recompute downsampled dimensions of components;
-//	 * application needs to know these if using raw downsampled data.
-//	 */
-//	for (ci = 0; ci < cinfo.num_components; ci++) {
-//		compptr = cinfo.comp_info[ci];
-//		/* Size in samples, after IDCT scaling */
-//		compptr.downsampled_width = (int)
-//			jdiv_round_up((long) cinfo.image_width * (long) (compptr.h_samp_factor * compptr.DCT_scaled_size),
-//				(cinfo.max_h_samp_factor * DCTSIZE));
-//		compptr.downsampled_height = (int)
-//			jdiv_round_up((long) cinfo.image_height * (long) (compptr.v_samp_factor * compptr.DCT_scaled_size),
-//				(cinfo.max_v_samp_factor * DCTSIZE));
-//	}
-//
-//#else /* !IDCT_SCALING_SUPPORTED */
-
-	/* Hardwire it to "no scaling" */
-	cinfo.output_width = cinfo.image_width;
-	cinfo.output_height = cinfo.image_height;
-	/* jdinput.c has already initialized DCT_scaled_size to DCTSIZE,
-	 * and has computed unscaled downsampled_width and downsampled_height.
+	/* Compute actual output image dimensions and DCT scaling choices. */
+	if (cinfo.scale_num * 8 <= cinfo.scale_denom) {
+		/* Provide 1/8 scaling */
+		cinfo.output_width = (int)
+			jdiv_round_up(cinfo.image_width, 8L);
+		cinfo.output_height = (int)
+			jdiv_round_up(cinfo.image_height, 8L);
+		cinfo.min_DCT_scaled_size = 1;
+	} else if (cinfo.scale_num * 4 <= cinfo.scale_denom) {
+		/* Provide 1/4 scaling */
+		cinfo.output_width = (int)
+			jdiv_round_up(cinfo.image_width, 4L);
+		cinfo.output_height = (int)
+			jdiv_round_up(cinfo.image_height, 4L);
+		cinfo.min_DCT_scaled_size = 2;
+	} else if (cinfo.scale_num * 2 <= cinfo.scale_denom) {
+		/* Provide 1/2 scaling */
+		cinfo.output_width = (int)
+			jdiv_round_up(cinfo.image_width, 2L);
+		cinfo.output_height = (int)
+			jdiv_round_up(cinfo.image_height, 2L);
+		cinfo.min_DCT_scaled_size = 4;
+	} else {
+		/* Provide 1/1 scaling */
+		cinfo.output_width = cinfo.image_width;
+		cinfo.output_height = cinfo.image_height;
+		cinfo.min_DCT_scaled_size = DCTSIZE;
+	}
+	/* In selecting the actual DCT scaling for each component, we try to
+	 * scale up the chroma components via IDCT scaling rather than upsampling.
+	 * This saves time if the upsampler gets to use 1:1 scaling.
+	 * Note this code assumes that the supported DCT scalings are powers of 2.
 	 */
+	for (ci = 0; ci < cinfo.num_components; ci++) {
+		compptr = cinfo.comp_info[ci];
+		int ssize = cinfo.min_DCT_scaled_size;
+		while (ssize < DCTSIZE &&
+			(compptr.h_samp_factor * ssize * 2 <= cinfo.max_h_samp_factor * cinfo.min_DCT_scaled_size) &&
+			(compptr.v_samp_factor * ssize * 2 <= cinfo.max_v_samp_factor * cinfo.min_DCT_scaled_size))
+		{
+			ssize = ssize * 2;
+		}
+		compptr.DCT_scaled_size = ssize;
+	}
 
-//#endif /* IDCT_SCALING_SUPPORTED */
+	/* Recompute downsampled dimensions of components;
+	 * application needs to know these if using raw downsampled data.
+	 */
+	for (ci = 0; ci < cinfo.num_components; ci++) {
+		compptr = cinfo.comp_info[ci];
+		/* Size in samples, after IDCT scaling */
+		compptr.downsampled_width = (int)
+			jdiv_round_up((long) cinfo.image_width * (long) (compptr.h_samp_factor * compptr.DCT_scaled_size),
+				(cinfo.max_h_samp_factor * DCTSIZE));
+		compptr.downsampled_height = (int)
+			jdiv_round_up((long) cinfo.image_height * (long) (compptr.v_samp_factor * compptr.DCT_scaled_size),
+				(cinfo.max_v_samp_factor * DCTSIZE));
+	}
 
 	/* Report number of components in selected colorspace. */
 	/* Probably this should be in the color conversion module... */
@@ -2532,32 +2583,6 @@ static void prepare_range_limit_table (jpeg_decompress_struct cinfo)
 	System.arraycopy(cinfo.sample_range_limit, cinfo.sample_range_limit_offset, table, offset + (4 * (MAXJSAMPLE+1) - CENTERJSAMPLE), CENTERJSAMPLE);
 }
 
-static void build_ycc_rgb_table (jpeg_decompress_struct cinfo) {
-	jpeg_color_deconverter cconvert = cinfo.cconvert;
-	int i;
-	int x;
-//	SHIFT_TEMPS
-
-	cconvert.Cr_r_tab = new int[MAXJSAMPLE+1];
-	cconvert.Cb_b_tab = new int[MAXJSAMPLE+1];
-	cconvert.Cr_g_tab = new int[MAXJSAMPLE+1];
-	cconvert.Cb_g_tab = new int[MAXJSAMPLE+1];
-
-	for (i = 0, x = -CENTERJSAMPLE; i <= MAXJSAMPLE; i++, x++) {
-		/* i is the actual input pixel value, in the range 0..MAXJSAMPLE */
-		/* The Cb or Cr value we are thinking of is x = i - CENTERJSAMPLE */
-		/* Cr=>R value is nearest int to 1.40200 * x */
-		cconvert.Cr_r_tab[i] = ((int)(1.40200f * (1<<SCALEBITS) + 0.5f) * x + ONE_HALF) >> SCALEBITS;
-		/* Cb=>B value is nearest int to 1.77200 * x */
-		cconvert.Cb_b_tab[i] = ((int)(1.77200f * (1<<SCALEBITS) + 0.5f) * x + ONE_HALF) >> SCALEBITS;
-		/* Cr=>G value is scaled-up -0.71414 * x */
-		cconvert.Cr_g_tab[i] = ((int)(- (0.71414f * (1<<SCALEBITS) + 0.5f)) * x);
-		/* Cb=>G value is scaled-up -0.34414 * x */
-		/* We also add in ONE_HALF so that need not do it in inner loop */
-		cconvert.Cb_g_tab[i] = ((int)(- (0.34414f* (1<<SCALEBITS) + 0.5f)) * x + ONE_HALF);
-	}
-}
-
 static void jinit_color_deconverter (jpeg_decompress_struct cinfo) {
 	jpeg_color_deconverter cconvert = cinfo.cconvert = new jpeg_color_deconverter();
 //	cconvert.start_pass = start_pass_dcolor;
@@ -2614,7 +2639,6 @@ static void jinit_color_deconverter (jpeg_decompress_struct cinfo) {
 			cinfo.out_color_components = RGB_PIXELSIZE;
 			if (cinfo.jpeg_color_space == JCS_YCbCr) {
 				cconvert.color_convert = YCC_RGB_CONVERT;
-				build_ycc_rgb_table(cinfo);
 			} else if (cinfo.jpeg_color_space == JCS_GRAYSCALE) {
 				cconvert.color_convert = GRAY_RGB_CONVERT;
 			} else if (cinfo.jpeg_color_space == JCS_RGB) {
@@ -2628,7 +2652,6 @@ static void jinit_color_deconverter (jpeg_decompress_struct cinfo) {
 			cinfo.out_color_components = 4;
 			if (cinfo.jpeg_color_space == JCS_YCCK) {
 				cconvert.color_convert = YCCK_CMYK_CONVERT;
-				build_ycc_rgb_table(cinfo);
 			} else if (cinfo.jpeg_color_space == JCS_CMYK) {
 				cconvert.color_convert = NULL_CONVERT;
 			} else
@@ -2921,12 +2944,38 @@ static void jinit_inverse_dct (jpeg_decompress_struct cinfo) {
 	}
 }
 
+static void inverse_DCT (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
+	short[] coef_block,
+	byte[][] output_buf, int output_buf_offset, int output_col, int[] workspace)
+{
+	/* Scaled components use the reduced-size routines */
+	switch (compptr.DCT_scaled_size) {
+		case 1:
+			jpeg_idct_1x1(cinfo, compptr, coef_block, output_buf, output_buf_offset, output_col);
+			return;
+		case 2:
+			jpeg_idct_2x2(cinfo, compptr, coef_block, output_buf, output_buf_offset, output_col, workspace);
+			return;
+		case 4:
+			jpeg_idct_4x4(cinfo, compptr, coef_block, output_buf, output_buf_offset, output_col, workspace);
+			return;
+	}
+	switch (cinfo.idct.cur_method[compptr.component_index]) {
+		case JDCT_IFAST:
+			jpeg_idct_ifast(cinfo, compptr, coef_block, output_buf, output_buf_offset, output_col, workspace);
+			break;
+		default:
+			jpeg_idct_islow(cinfo, compptr, coef_block, output_buf, output_buf_offset, output_col, workspace);
+			break;
+	}
+}
+
 static final int CONST_BITS = 13;
 static final int PASS1_BITS = 2;
 static final int RANGE_MASK =(MAXJSAMPLE * 4 + 3);
 static void jpeg_idct_islow (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
 	short[] coef_block,
-	byte[][] output_buf, int output_buf_offset, int output_col)
+	byte[][] output_buf, int output_buf_offset, int output_col, int[] workspace)
 {
 	int tmp0, tmp1, tmp2, tmp3;
 	int tmp10, tmp11, tmp12, tmp13;
@@ -2938,7 +2987,6 @@ static void jpeg_idct_islow (jpeg_decompress_struct cinfo, jpeg_component_info c
 	byte[] range_limit = cinfo.sample_range_limit;
 	int range_limit_offset = cinfo.sample_range_limit_offset + CENTERJSAMPLE;
 	int ctr;
-	int[] workspace = cinfo.workspace;	/* buffers data between passes */
 //	SHIFT_TEMPS
 	
 	/* Pass 1: process columns from input, store into work array. */
@@ -3177,6 +3225,413 @@ static void jpeg_idct_islow (jpeg_decompress_struct cinfo, jpeg_component_info c
 	}
 }
 
+/*
+ * Inverse DCT routines producing reduced-size output, from jidctred.c:
+ * 4x4, 2x2 or 1x1 pixels from an 8x8 block of coefficients.  These are
+ * used for scaled decoding, they use the same multiplier table as
+ * jpeg_idct_islow and do not process the coefficients that cannot
+ * affect the output.
+ */
+static void jpeg_idct_4x4 (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
+	short[] coef_block,
+	byte[][] output_buf, int output_buf_offset, int output_col, int[] workspace)
+{
+	int tmp0, tmp2, tmp10, tmp12;
+	int z1, z2, z3, z4;
+	short[] inptr = coef_block;
+	int[] quantptr = compptr.dct_table;
+	int[] wsptr = workspace;
+	byte[] outptr;
+	byte[] range_limit = cinfo.sample_range_limit;
+	int range_limit_offset = cinfo.sample_range_limit_offset + CENTERJSAMPLE;
+	int ctr;
+
+	/* Pass 1: process columns from input, store into work array. */
+
+	int inptr_offset = 0, quantptr_offset = 0, wsptr_offset = 0;
+	for (ctr = DCTSIZE; ctr > 0; inptr_offset++, quantptr_offset++, wsptr_offset++, ctr--) {
+		/* Don't bother to process column 4, because second pass won't use it */
+		if (ctr == DCTSIZE-4)
+			continue;
+		if (inptr[DCTSIZE*1+inptr_offset] == 0 && inptr[DCTSIZE*2+inptr_offset] == 0 &&
+			inptr[DCTSIZE*3+inptr_offset] == 0 && inptr[DCTSIZE*5+inptr_offset] == 0 &&
+			inptr[DCTSIZE*6+inptr_offset] == 0 && inptr[DCTSIZE*7+inptr_offset] == 0)
+		{
+			/* AC terms all zero; we need not examine term 4 for 4x4 output */
+			int dcval = (inptr[DCTSIZE*0+inptr_offset] * quantptr[DCTSIZE*0+quantptr_offset]) << PASS1_BITS;
+
+			wsptr[DCTSIZE*0+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*1+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*2+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*3+wsptr_offset] = dcval;
+			continue;
+		}
+
+		/* Even part */
+
+		tmp0 = (inptr[DCTSIZE*0+inptr_offset] * quantptr[DCTSIZE*0+quantptr_offset]) << (CONST_BITS+1);
+
+		z2 = inptr[DCTSIZE*2+inptr_offset] * quantptr[DCTSIZE*2+quantptr_offset];
+		z3 = inptr[DCTSIZE*6+inptr_offset] * quantptr[DCTSIZE*6+quantptr_offset];
+
+		tmp2 = z2 * 15137/*FIX_1_847759065*/ + z3 * - 6270/*FIX_0_765366865*/;
+
+		tmp10 = tmp0 + tmp2;
+		tmp12 = tmp0 - tmp2;
+
+		/* Odd part */
+
+		z1 = inptr[DCTSIZE*7+inptr_offset] * quantptr[DCTSIZE*7+quantptr_offset];
+		z2 = inptr[DCTSIZE*5+inptr_offset] * quantptr[DCTSIZE*5+quantptr_offset];
+		z3 = inptr[DCTSIZE*3+inptr_offset] * quantptr[DCTSIZE*3+quantptr_offset];
+		z4 = inptr[DCTSIZE*1+inptr_offset] * quantptr[DCTSIZE*1+quantptr_offset];
+
+		tmp0 = z1 * - 1730/*FIX_0_211164243*/ /* sqrt(2) * (c3-c1) */
+			+ z2 * 11893/*FIX_1_451774981*/ /* sqrt(2) * (c3+c7) */
+			+ z3 * - 17799/*FIX_2_172734803*/ /* sqrt(2) * (-c1-c5) */
+			+ z4 * 8697/*FIX_1_061594337*/; /* sqrt(2) * (c5+c7) */
+
+		tmp2 = z1 * - 4176/*FIX_0_509795579*/ /* sqrt(2) * (c7-c5) */
+			+ z2 * - 4926/*FIX_0_601344887*/ /* sqrt(2) * (c5-c1) */
+			+ z3 * 7373/*FIX_0_899976223*/ /* sqrt(2) * (c3+c7) */
+			+ z4 * 20995/*FIX_2_562915447*/; /* sqrt(2) * (c1+c3) */
+
+		/* Final output stage */
+
+		wsptr[DCTSIZE*0+wsptr_offset] = ((tmp10 + tmp2) + (1 << (CONST_BITS-PASS1_BITS))) >> (CONST_BITS-PASS1_BITS+1);
+		wsptr[DCTSIZE*3+wsptr_offset] = ((tmp10 - tmp2) + (1 << (CONST_BITS-PASS1_BITS))) >> (CONST_BITS-PASS1_BITS+1);
+		wsptr[DCTSIZE*1+wsptr_offset] = ((tmp12 + tmp0) + (1 << (CONST_BITS-PASS1_BITS))) >> (CONST_BITS-PASS1_BITS+1);
+		wsptr[DCTSIZE*2+wsptr_offset] = ((tmp12 - tmp0) + (1 << (CONST_BITS-PASS1_BITS))) >> (CONST_BITS-PASS1_BITS+1);
+	}
+
+	/* Pass 2: process 4 rows from work array, store into output array. */
+
+	wsptr_offset = 0;
+	for (ctr = 0; ctr < 4; ctr++, wsptr_offset += DCTSIZE) {
+		outptr = output_buf[ctr+output_buf_offset];
+		int outptr_offset = output_col;
+
+		if (wsptr[1+wsptr_offset] == 0 && wsptr[2+wsptr_offset] == 0 && wsptr[3+wsptr_offset] == 0 &&
+			wsptr[5+wsptr_offset] == 0 && wsptr[6+wsptr_offset] == 0 && wsptr[7+wsptr_offset] == 0)
+		{
+			/* AC terms all zero */
+			byte outval = range_limit[range_limit_offset + (((wsptr[0+wsptr_offset] + (1 << (PASS1_BITS+2))) >> (PASS1_BITS+3)) & RANGE_MASK)];
+
+			outptr[0+outptr_offset] = outval;
+			outptr[1+outptr_offset] = outval;
+			outptr[2+outptr_offset] = outval;
+			outptr[3+outptr_offset] = outval;
+			continue;
+		}
+
+		/* Even part */
+
+		tmp0 = wsptr[0+wsptr_offset] << (CONST_BITS+1);
+
+		tmp2 = wsptr[2+wsptr_offset] * 15137/*FIX_1_847759065*/ + wsptr[6+wsptr_offset] * - 6270/*FIX_0_765366865*/;
+
+		tmp10 = tmp0 + tmp2;
+		tmp12 = tmp0 - tmp2;
+
+		/* Odd part */
+
+		z1 = wsptr[7+wsptr_offset];
+		z2 = wsptr[5+wsptr_offset];
+		z3 = wsptr[3+wsptr_offset];
+		z4 = wsptr[1+wsptr_offset];
+
+		tmp0 = z1 * - 1730/*FIX_0_211164243*/ /* sqrt(2) * (c3-c1) */
+			+ z2 * 11893/*FIX_1_451774981*/ /* sqrt(2) * (c3+c7) */
+			+ z3 * - 17799/*FIX_2_172734803*/ /* sqrt(2) * (-c1-c5) */
+			+ z4 * 8697/*FIX_1_061594337*/; /* sqrt(2) * (c5+c7) */
+
+		tmp2 = z1 * - 4176/*FIX_0_509795579*/ /* sqrt(2) * (c7-c5) */
+			+ z2 * - 4926/*FIX_0_601344887*/ /* sqrt(2) * (c5-c1) */
+			+ z3 * 7373/*FIX_0_899976223*/ /* sqrt(2) * (c3+c7) */
+			+ z4 * 20995/*FIX_2_562915447*/; /* sqrt(2) * (c1+c3) */
+
+		/* Final output stage */
+
+		outptr[0+outptr_offset] = range_limit[range_limit_offset + ((((tmp10 + tmp2) + (1 << (CONST_BITS+PASS1_BITS+3))) >> (CONST_BITS+PASS1_BITS+3+1)) & RANGE_MASK)];
+		outptr[3+outptr_offset] = range_limit[range_limit_offset + ((((tmp10 - tmp2) + (1 << (CONST_BITS+PASS1_BITS+3))) >> (CONST_BITS+PASS1_BITS+3+1)) & RANGE_MASK)];
+		outptr[1+outptr_offset] = range_limit[range_limit_offset + ((((tmp12 + tmp0) + (1 << (CONST_BITS+PASS1_BITS+3))) >> (CONST_BITS+PASS1_BITS+3+1)) & RANGE_MASK)];
+		outptr[2+outptr_offset] = range_limit[range_limit_offset + ((((tmp12 - tmp0) + (1 << (CONST_BITS+PASS1_BITS+3))) >> (CONST_BITS+PASS1_BITS+3+1)) & RANGE_MASK)];
+	}
+}
+
+static void jpeg_idct_2x2 (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
+	short[] coef_block,
+	byte[][] output_buf, int output_buf_offset, int output_col, int[] workspace)
+{
+	int tmp0, tmp10;
+	short[] inptr = coef_block;
+	int[] quantptr = compptr.dct_table;
+	int[] wsptr = workspace;
+	byte[] outptr;
+	byte[] range_limit = cinfo.sample_range_limit;
+	int range_limit_offset = cinfo.sample_range_limit_offset + CENTERJSAMPLE;
+	int ctr;
+
+	/* Pass 1: process columns from input, store into work array. */
+
+	int inptr_offset = 0, quantptr_offset = 0, wsptr_offset = 0;
+	for (ctr = DCTSIZE; ctr > 0; inptr_offset++, quantptr_offset++, wsptr_offset++, ctr--) {
+		/* Don't bother to process columns 2,4,6 */
+		if (ctr == DCTSIZE-2 || ctr == DCTSIZE-4 || ctr == DCTSIZE-6)
+			continue;
+		if (inptr[DCTSIZE*1+inptr_offset] == 0 && inptr[DCTSIZE*3+inptr_offset] == 0 &&
+			inptr[DCTSIZE*5+inptr_offset] == 0 && inptr[DCTSIZE*7+inptr_offset] == 0)
+		{
+			/* AC terms all zero; we need not examine terms 2,4,6 for 2x2 output */
+			int dcval = (inptr[DCTSIZE*0+inptr_offset] * quantptr[DCTSIZE*0+quantptr_offset]) << PASS1_BITS;
+
+			wsptr[DCTSIZE*0+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*1+wsptr_offset] = dcval;
+			continue;
+		}
+
+		/* Even part */
+
+		tmp10 = (inptr[DCTSIZE*0+inptr_offset] * quantptr[DCTSIZE*0+quantptr_offset]) << (CONST_BITS+2);
+
+		/* Odd part */
+
+		tmp0 = inptr[DCTSIZE*7+inptr_offset] * quantptr[DCTSIZE*7+quantptr_offset] * - 5906/*FIX_0_720959822*/ /* sqrt(2) * (c7-c5+c3-c1) */
+			+ inptr[DCTSIZE*5+inptr_offset] * quantptr[DCTSIZE*5+quantptr_offset] * 6967/*FIX_0_850430095*/ /* sqrt(2) * (-c1+c3+c5+c7) */
+			+ inptr[DCTSIZE*3+inptr_offset] * quantptr[DCTSIZE*3+quantptr_offset] * - 10426/*FIX_1_272758580*/ /* sqrt(2) * (-c1+c3-c5-c7) */
+			+ inptr[DCTSIZE*1+inptr_offset] * quantptr[DCTSIZE*1+quantptr_offset] * 29692/*FIX_3_624509785*/; /* sqrt(2) * (c1+c3+c5+c7) */
+
+		/* Final output stage */
+
+		wsptr[DCTSIZE*0+wsptr_offset] = ((tmp10 + tmp0) + (1 << (CONST_BITS-PASS1_BITS+1))) >> (CONST_BITS-PASS1_BITS+2);
+		wsptr[DCTSIZE*1+wsptr_offset] = ((tmp10 - tmp0) + (1 << (CONST_BITS-PASS1_BITS+1))) >> (CONST_BITS-PASS1_BITS+2);
+	}
+
+	/* Pass 2: process 2 rows from work array, store into output array. */
+
+	wsptr_offset = 0;
+	for (ctr = 0; ctr < 2; ctr++, wsptr_offset += DCTSIZE) {
+		outptr = output_buf[ctr+output_buf_offset];
+		int outptr_offset = output_col;
+
+		if (wsptr[1+wsptr_offset] == 0 && wsptr[3+wsptr_offset] == 0 && wsptr[5+wsptr_offset] == 0 && wsptr[7+wsptr_offset] == 0) {
+			/* AC terms all zero */
+			byte outval = range_limit[range_limit_offset + (((wsptr[0+wsptr_offset] + (1 << (PASS1_BITS+2))) >> (PASS1_BITS+3)) & RANGE_MASK)];
+
+			outptr[0+outptr_offset] = outval;
+			outptr[1+outptr_offset] = outval;
+			continue;
+		}
+
+		/* Even part */
+
+		tmp10 = wsptr[0+wsptr_offset] << (CONST_BITS+2);
+
+		/* Odd part */
+
+		tmp0 = wsptr[7+wsptr_offset] * - 5906/*FIX_0_720959822*/ /* sqrt(2) * (c7-c5+c3-c1) */
+			+ wsptr[5+wsptr_offset] * 6967/*FIX_0_850430095*/ /* sqrt(2) * (-c1+c3+c5+c7) */
+			+ wsptr[3+wsptr_offset] * - 10426/*FIX_1_272758580*/ /* sqrt(2) * (-c1+c3-c5-c7) */
+			+ wsptr[1+wsptr_offset] * 29692/*FIX_3_624509785*/; /* sqrt(2) * (c1+c3+c5+c7) */
+
+		/* Final output stage */
+
+		outptr[0+outptr_offset] = range_limit[range_limit_offset + ((((tmp10 + tmp0) + (1 << (CONST_BITS+PASS1_BITS+3+1))) >> (CONST_BITS+PASS1_BITS+3+2)) & RANGE_MASK)];
+		outptr[1+outptr_offset] = range_limit[range_limit_offset + ((((tmp10 - tmp0) + (1 << (CONST_BITS+PASS1_BITS+3+1))) >> (CONST_BITS+PASS1_BITS+3+2)) & RANGE_MASK)];
+	}
+}
+
+static void jpeg_idct_1x1 (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
+	short[] coef_block,
+	byte[][] output_buf, int output_buf_offset, int output_col)
+{
+	/* We hardly need an inverse DCT routine for this: just take the
+	 * average pixel value, which is one-eighth of the DC coefficient.
+	 */
+	int dcval = coef_block[0] * compptr.dct_table[0];
+	dcval = (dcval + (1 << 2)) >> 3;
+	output_buf[output_buf_offset][output_col] = cinfo.sample_range_limit[cinfo.sample_range_limit_offset + CENTERJSAMPLE + (dcval & RANGE_MASK)];
+}
+
+static void jpeg_idct_ifast (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
+	short[] coef_block,
+	byte[][] output_buf, int output_buf_offset, int output_col, int[] workspace)
+{
+	int tmp0, tmp1, tmp2, tmp3, tmp4, tmp5, tmp6, tmp7;
+	int tmp10, tmp11, tmp12, tmp13;
+	int z5, z10, z11, z12, z13;
+	short[] inptr;
+	int[] quantptr;
+	int[] wsptr;
+	byte[] outptr;
+	byte[] range_limit = cinfo.sample_range_limit;
+	int range_limit_offset = cinfo.sample_range_limit_offset + CENTERJSAMPLE;
+	int ctr;
+	
+	/* Pass 1: process columns from input, store into work array. */
+	/* The multiplier table already includes the AA&N scale factors and */
+	/* IFAST_SCALE_BITS == PASS1_BITS, so dequantized values need no shift. */
+
+	inptr = coef_block;
+	quantptr = compptr.dct_table;
+	wsptr = workspace;
+	int inptr_offset = 0, quantptr_offset = 0, wsptr_offset = 0;
+	for (ctr = DCTSIZE; ctr > 0; ctr--) {
+		/* Columns of zero AC terms are short-circuited as in jpeg_idct_islow. */
+		if (inptr[DCTSIZE*1+inptr_offset] == 0 && inptr[DCTSIZE*2+inptr_offset] == 0 &&
+			inptr[DCTSIZE*3+inptr_offset] == 0 && inptr[DCTSIZE*4+inptr_offset] == 0 &&
+			inptr[DCTSIZE*5+inptr_offset] == 0 && inptr[DCTSIZE*6+inptr_offset] == 0 &&
+			inptr[DCTSIZE*7+inptr_offset] == 0)
+		{
+			/* AC terms all zero */
+			int dcval = inptr[DCTSIZE*0+inptr_offset] * quantptr[DCTSIZE*0+quantptr_offset];
+
+			wsptr[DCTSIZE*0+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*1+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*2+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*3+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*4+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*5+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*6+wsptr_offset] = dcval;
+			wsptr[DCTSIZE*7+wsptr_offset] = dcval;
+
+			inptr_offset++;			/* advance pointers to next column */
+			quantptr_offset++;
+			wsptr_offset++;
+			continue;
+		}
+
+		/* Even part */
+
+		tmp0 = inptr[DCTSIZE*0+inptr_offset] * quantptr[DCTSIZE*0+quantptr_offset];
+		tmp1 = inptr[DCTSIZE*2+inptr_offset] * quantptr[DCTSIZE*2+quantptr_offset];
+		tmp2 = inptr[DCTSIZE*4+inptr_offset] * quantptr[DCTSIZE*4+quantptr_offset];
+		tmp3 = inptr[DCTSIZE*6+inptr_offset] * quantptr[DCTSIZE*6+quantptr_offset];
+
+		tmp10 = tmp0 + tmp2;	/* phase 3 */
+		tmp11 = tmp0 - tmp2;
+
+		tmp13 = tmp1 + tmp3;	/* phases 5-3 */
+		tmp12 = (((tmp1 - tmp3) * 362/*FIX_1_414213562*/) >> 8) - tmp13; /* 2*c4 */
+
+		tmp0 = tmp10 + tmp13;	/* phase 2 */
+		tmp3 = tmp10 - tmp13;
+		tmp1 = tmp11 + tmp12;
+		tmp2 = tmp11 - tmp12;
+
+		/* Odd part */
+
+		tmp4 = inptr[DCTSIZE*1+inptr_offset] * quantptr[DCTSIZE*1+quantptr_offset];
+		tmp5 = inptr[DCTSIZE*3+inptr_offset] * quantptr[DCTSIZE*3+quantptr_offset];
+		tmp6 = inptr[DCTSIZE*5+inptr_offset] * quantptr[DCTSIZE*5+quantptr_offset];
+		tmp7 = inptr[DCTSIZE*7+inptr_offset] * quantptr[DCTSIZE*7+quantptr_offset];
+
+		z13 = tmp6 + tmp5;		/* phase 6 */
+		z10 = tmp6 - tmp5;
+		z11 = tmp4 + tmp7;
+		z12 = tmp4 - tmp7;
+
+		tmp7 = z11 + z13;		/* phase 5 */
+		tmp11 = ((z11 - z13) * 362/*FIX_1_414213562*/) >> 8; /* 2*c4 */
+
+		z5 = ((z10 + z12) * 473/*FIX_1_847759065*/) >> 8; /* 2*c2 */
+		tmp10 = ((z12 * 277/*FIX_1_082392200*/) >> 8) - z5; /* 2*(c2-c6) */
+		tmp12 = ((z10 * - 669/*FIX_2_613125930*/) >> 8) + z5; /* -2*(c2+c6) */
+
+		tmp6 = tmp12 - tmp7;	/* phase 2 */
+		tmp5 = tmp11 - tmp6;
+		tmp4 = tmp10 + tmp5;
+
+		wsptr[DCTSIZE*0+wsptr_offset] = tmp0 + tmp7;
+		wsptr[DCTSIZE*7+wsptr_offset] = tmp0 - tmp7;
+		wsptr[DCTSIZE*1+wsptr_offset] = tmp1 + tmp6;
+		wsptr[DCTSIZE*6+wsptr_offset] = tmp1 - tmp6;
+		wsptr[DCTSIZE*2+wsptr_offset] = tmp2 + tmp5;
+		wsptr[DCTSIZE*5+wsptr_offset] = tmp2 - tmp5;
+		wsptr[DCTSIZE*4+wsptr_offset] = tmp3 + tmp4;
+		wsptr[DCTSIZE*3+wsptr_offset] = tmp3 - tmp4;
+
+		inptr_offset++;			/* advance pointers to next column */
+		quantptr_offset++;
+		wsptr_offset++;
+	}
+
+	/* Pass 2: process rows from work array, store into output array. */
+	/* Note that we must descale the results by a factor of 8 == 2**3, */
+	/* and also undo the PASS1_BITS scaling. */
+
+	int outptr_offset = 0;
+	wsptr = workspace;
+	wsptr_offset = 0;
+	for (ctr = 0; ctr < DCTSIZE; ctr++) {
+		outptr = output_buf[ctr+output_buf_offset];
+		outptr_offset = output_col;
+
+		if (wsptr[1+wsptr_offset] == 0 && wsptr[2+wsptr_offset] == 0 && wsptr[3+wsptr_offset] == 0 && wsptr[4+wsptr_offset] == 0 &&
+			wsptr[5+wsptr_offset] == 0 && wsptr[6+wsptr_offset] == 0 && wsptr[7+wsptr_offset] == 0)
+		{
+			/* AC terms all zero */
+			byte dcval = range_limit[range_limit_offset + ((wsptr[0+wsptr_offset] >> (PASS1_BITS+3)) & RANGE_MASK)];
+
+			outptr[0+outptr_offset] = dcval;
+			outptr[1+outptr_offset] = dcval;
+			outptr[2+outptr_offset] = dcval;
+			outptr[3+outptr_offset] = dcval;
+			outptr[4+outptr_offset] = dcval;
+			outptr[5+outptr_offset] = dcval;
+			outptr[6+outptr_offset] = dcval;
+			outptr[7+outptr_offset] = dcval;
+
+			wsptr_offset += DCTSIZE;		/* advance pointer to next row */
+			continue;
+		}
+
+		/* Even part */
+
+		tmp10 = wsptr[0+wsptr_offset] + wsptr[4+wsptr_offset];
+		tmp11 = wsptr[0+wsptr_offset] - wsptr[4+wsptr_offset];
+
+		tmp13 = wsptr[2+wsptr_offset] + wsptr[6+wsptr_offset];
+		tmp12 = (((wsptr[2+wsptr_offset] - wsptr[6+wsptr_offset]) * 362/*FIX_1_414213562*/) >> 8) - tmp13;
+
+		tmp0 = tmp10 + tmp13;
+		tmp3 = tmp10 - tmp13;
+		tmp1 = tmp11 + tmp12;
+		tmp2 = tmp11 - tmp12;
+
+		/* Odd part */
+
+		z13 = wsptr[5+wsptr_offset] + wsptr[3+wsptr_offset];
+		z10 = wsptr[5+wsptr_offset] - wsptr[3+wsptr_offset];
+		z11 = wsptr[1+wsptr_offset] + wsptr[7+wsptr_offset];
+		z12 = wsptr[1+wsptr_offset] - wsptr[7+wsptr_offset];
+
+		tmp7 = z11 + z13;		/* phase 5 */
+		tmp11 = ((z11 - z13) * 362/*FIX_1_414213562*/) >> 8; /* 2*c4 */
+
+		z5 = ((z10 + z12) * 473/*FIX_1_847759065*/) >> 8; /* 2*c2 */
+		tmp10 = ((z12 * 277/*FIX_1_082392200*/) >> 8) - z5; /* 2*(c2-c6) */
+		tmp12 = ((z10 * - 669/*FIX_2_613125930*/) >> 8) + z5; /* -2*(c2+c6) */
+
+		tmp6 = tmp12 - tmp7;	/* phase 2 */
+		tmp5 = tmp11 - tmp6;
+		tmp4 = tmp10 + tmp5;
+
+		/* Final output stage: scale down by a factor of 8 and range-limit */
+
+		outptr[0+outptr_offset] = range_limit[range_limit_offset + (((tmp0 + tmp7) >> (PASS1_BITS+3)) & RANGE_MASK)];
+		outptr[7+outptr_offset] = range_limit[range_limit_offset + (((tmp0 - tmp7) >> (PASS1_BITS+3)) & RANGE_MASK)];
+		outptr[1+outptr_offset] = range_limit[range_limit_offset + (((tmp1 + tmp6) >> (PASS1_BITS+3)) & RANGE_MASK)];
+		outptr[6+outptr_offset] = range_limit[range_limit_offset + (((tmp1 - tmp6) >> (PASS1_BITS+3)) & RANGE_MASK)];
+		outptr[2+outptr_offset] = range_limit[range_limit_offset + (((tmp2 + tmp5) >> (PASS1_BITS+3)) & RANGE_MASK)];
+		outptr[5+outptr_offset] = range_limit[range_limit_offset + (((tmp2 - tmp5) >> (PASS1_BITS+3)) & RANGE_MASK)];
+		outptr[4+outptr_offset] = range_limit[range_limit_offset + (((tmp3 + tmp4) >> (PASS1_BITS+3)) & RANGE_MASK)];
+		outptr[3+outptr_offset] = range_limit[range_limit_offset + (((tmp3 - tmp4) >> (PASS1_BITS+3)) & RANGE_MASK)];
+
+		wsptr_offset += DCTSIZE;		/* advance pointer to next row */
+	}
+}
+
 static void upsample (jpeg_decompress_struct cinfo,
 	byte[][][] input_buf, int[] input_buf_offset, int[] in_row_group_ctr,
 	int in_row_groups_avail,
@@ -3798,7 +4253,7 @@ static int decompress_onepass (jpeg_decompress_struct cinfo, byte[][][] output_b
 					if (cinfo.input_iMCU_row < last_iMCU_row ||	yoffset+yindex < compptr.last_row_height) {
 						output_col = start_col;
 						for (xindex = 0; xindex < useful_width; xindex++) {
-							jpeg_idct_islow(cinfo, compptr, coef.MCU_buffer[blkn+xindex], output_ptr, output_ptr_offset, output_col);
+							inverse_DCT(cinfo, compptr, coef.MCU_buffer[blkn+xindex], output_ptr, output_ptr_offset, output_col, cinfo.workspace);
 							output_col += compptr.DCT_scaled_size;
 						}
 					}
@@ -4017,7 +4472,7 @@ static int decompress_smooth_data (jpeg_decompress_struct cinfo, byte[][][] outp
 					workspace[2] = (short) pred;
 				}
 				/* OK, do the IDCT */
-				jpeg_idct_islow(cinfo, compptr, workspace, output_ptr, output_ptr_offset, output_col);
+				inverse_DCT(cinfo, compptr, workspace, output_ptr, output_ptr_offset, output_col, cinfo.workspace);
 				/* Advance for next column */
 				DC1 = DC2; DC2 = DC3;
 				DC4 = DC5; DC5 = DC6;
@@ -4081,7 +4536,7 @@ static int decompress_data (jpeg_decompress_struct cinfo, byte[][][] output_buf,
 			int buffer_ptr_offset = 0;
 			output_col = 0;
 			for (block_num = 0; block_num < compptr.width_in_blocks; block_num++) {
-				jpeg_idct_islow(cinfo, compptr, buffer_ptr[buffer_ptr_offset], output_ptr, output_ptr_offset, output_col);
+				inverse_DCT(cinfo, compptr, buffer_ptr[buffer_ptr_offset], output_ptr, output_ptr_offset, output_col, cinfo.workspace);
 
 				buffer_ptr_offset++;
 				output_col += compptr.DCT_scaled_size;
@@ -4731,26 +5186,16 @@ static void sep_upsample (jpeg_decompress_struct cinfo, byte[][][] input_buf, in
 {
 	jpeg_upsampler upsample = cinfo.upsample;
 	int ci;
-	jpeg_component_info compptr;
 	int num_rows;
 
 	/* Fill the conversion buffer, if it's empty */
 	if (upsample.next_row_out >= cinfo.max_v_samp_factor) {
 		for (ci = 0; ci < cinfo.num_components; ci++) {
-			compptr = cinfo.comp_info[ci];
 			/* Invoke per-component upsample method.	Notice we pass a POINTER
 			 * to color_buf[ci], so that fullsize_upsample can change it.
 			 */
 			int offset = input_buf_offset[ci] + (in_row_group_ctr[0] * upsample.rowgroup_height[ci]);
-			switch (upsample.methods[ci]) {
-				case NOOP_UPSAMPLE: noop_upsample(cinfo, compptr, input_buf[ci], offset, upsample.color_buf, upsample.color_buf_offset, ci); break;
-				case FULLSIZE_UPSAMPLE: fullsize_upsample(cinfo, compptr, input_buf[ci], offset, upsample.color_buf, upsample.color_buf_offset, ci); break;
-				case H2V1_FANCY_UPSAMPLE: h2v1_fancy_upsample(cinfo, compptr, input_buf[ci], offset, upsample.color_buf, upsample.color_buf_offset, ci); break;
-				case H2V1_UPSAMPLE: h2v1_upsample(cinfo, compptr, input_buf[ci], offset, upsample.color_buf, upsample.color_buf_offset, ci); break;
-				case H2V2_FANCY_UPSAMPLE: h2v2_fancy_upsample(cinfo, compptr, input_buf[ci], offset, upsample.color_buf, upsample.color_buf_offset, ci); break;
-				case H2V2_UPSAMPLE: h2v2_upsample(cinfo, compptr, input_buf[ci], offset, upsample.color_buf, upsample.color_buf_offset, ci); break;
-				case INT_UPSAMPLE: int_upsample(cinfo, compptr, input_buf[ci], offset, upsample.color_buf, upsample.color_buf_offset, ci); break;
-			}
+			upsample_component(cinfo, ci, input_buf[ci], offset, upsample.color_buf, upsample.color_buf_offset);
 		}
 		upsample.next_row_out = 0;
 	}
@@ -4769,12 +5214,8 @@ static void sep_upsample (jpeg_decompress_struct cinfo, byte[][][] input_buf, in
 	if (num_rows > out_rows_avail)
 		num_rows = out_rows_avail;
 
-	switch (cinfo.cconvert.color_convert) {
-		case NULL_CONVERT: null_convert (cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out, output_buf, out_row_ctr[0], num_rows); break;
-		case GRAYSCALE_CONVERT: grayscale_convert (cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out, output_buf, out_row_ctr[0], num_rows); break;
-		case YCC_RGB_CONVERT: ycc_rgb_convert (cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out, output_buf, out_row_ctr[0], num_rows); break;
-		case GRAY_RGB_CONVERT: gray_rgb_convert (cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out, output_buf, out_row_ctr[0], num_rows); break;
-		case YCCK_CMYK_CONVERT: error(); break;
+	for (int row = 0; row < num_rows; row++) {
+		color_convert(cinfo, upsample.color_buf, upsample.color_buf_offset, upsample.next_row_out + row, output_buf[out_row_ctr[0] + row], 0);
 	}
 
 	/* Adjust counts */
@@ -4787,6 +5228,21 @@ static void sep_upsample (jpeg_decompress_struct cinfo, byte[][][] input_buf, in
 	}
 }
 	
+static void upsample_component (jpeg_decompress_struct cinfo, int ci,
+	byte[][] input_data, int input_data_offset, byte[][][] output_data_ptr, int[] output_data_offset)
+{
+	jpeg_component_info compptr = cinfo.comp_info[ci];
+	switch (cinfo.upsample.methods[ci]) {
+		case NOOP_UPSAMPLE: noop_upsample(cinfo, compptr, input_data, input_data_offset, output_data_ptr, output_data_offset, ci); break;
+		case FULLSIZE_UPSAMPLE: fullsize_upsample(cinfo, compptr, input_data, input_data_offset, output_data_ptr, output_data_offset, ci); break;
+		case H2V1_FANCY_UPSAMPLE: h2v1_fancy_upsample(cinfo, compptr, input_data, input_data_offset, output_data_ptr, output_data_offset, ci); break;
+		case H2V1_UPSAMPLE: h2v1_upsample(cinfo, compptr, input_data, input_data_offset, output_data_ptr, output_data_offset, ci); break;
+		case H2V2_FANCY_UPSAMPLE: h2v2_fancy_upsample(cinfo, compptr, input_data, input_data_offset, output_data_ptr, output_data_offset, ci); break;
+		case H2V2_UPSAMPLE: h2v2_upsample(cinfo, compptr, input_data, input_data_offset, output_data_ptr, output_data_offset, ci); break;
+		case INT_UPSAMPLE: int_upsample(cinfo, compptr, input_data, input_data_offset, output_data_ptr, output_data_offset, ci); break;
+	}
+}
+
 static void noop_upsample (jpeg_decompress_struct cinfo, jpeg_component_info compptr,
 	 byte[][] input_data, int input_data_offset, byte[][][] output_data_ptr, int[] output_data_offset, int output_data_index)
 {
@@ -4969,102 +5425,97 @@ static void int_upsample (jpeg_decompress_struct cinfo, jpeg_component_info comp
 	}
 }
 
+static void color_convert (jpeg_decompress_struct cinfo,
+	byte[][][] input_buf, int[] input_buf_offset, int input_row,
+	byte[] output_buf, int output_buf_offset)
+{
+	switch (cinfo.cconvert.color_convert) {
+		case NULL_CONVERT: null_convert (cinfo, input_buf, input_buf_offset, input_row, output_buf, output_buf_offset); break;
+		case GRAYSCALE_CONVERT: grayscale_convert (cinfo, input_buf, input_buf_offset, input_row, output_buf, output_buf_offset); break;
+		case YCC_RGB_CONVERT: ycc_rgb_convert (cinfo, input_buf, input_buf_offset, input_row, output_buf, output_buf_offset); break;
+		case GRAY_RGB_CONVERT: gray_rgb_convert (cinfo, input_buf, input_buf_offset, input_row, output_buf, output_buf_offset); break;
+		case YCCK_CMYK_CONVERT: error(); break;
+	}
+}
+
 static void null_convert (jpeg_decompress_struct cinfo,
 	byte[][][] input_buf, int[] input_buf_offset, int input_row,
-	byte[][] output_buf, int output_buf_offset, int num_rows)
+	byte[] outptr, int outptr_offset)
 {
-	byte[] inptr, outptr;
+	byte[] inptr;
 	int count;
 	int num_components = cinfo.num_components;
 	int num_cols = cinfo.output_width;
 	int ci;
 
-	while (--num_rows >= 0) {
-		for (ci = 0; ci < num_components; ci++) {
-			inptr = input_buf[ci][input_row+input_buf_offset[0]];
-			outptr = output_buf[output_buf_offset];
-			/* BGR instead of RGB */
-			int offset = 0;
-			switch (ci) {
-				case 2: offset = RGB_BLUE; break;
-				case 1: offset = RGB_GREEN; break;
-				case 0: offset = RGB_RED; break;
-			}
-			int outptr_offset = offset, inptr_offset = 0;
-			for (count = num_cols; count > 0; count--) {
-				outptr[outptr_offset] = inptr[inptr_offset++];	/* needn't bother with GETJSAMPLE() here */
-				outptr_offset += num_components;
-			}
+	for (ci = 0; ci < num_components; ci++) {
+		inptr = input_buf[ci][input_row+input_buf_offset[ci]];
+		/* BGR instead of RGB */
+		int offset = 0;
+		switch (ci) {
+			case 2: offset = RGB_BLUE; break;
+			case 1: offset = RGB_GREEN; break;
+			case 0: offset = RGB_RED; break;
+		}
+		int output_offset = outptr_offset + offset, inptr_offset = 0;
+		for (count = num_cols; count > 0; count--) {
+			outptr[output_offset] = inptr[inptr_offset++];	/* needn't bother with GETJSAMPLE() here */
+			output_offset += num_components;
 		}
-		input_row++;
-		output_buf_offset++;
 	}
 }
 	
 static void grayscale_convert (jpeg_decompress_struct cinfo,
 	byte[][][] input_buf, int[] input_buf_offset, int input_row,
-	byte[][] output_buf, int output_buf_offset, int num_rows)
+	byte[] outptr, int outptr_offset)
 {
-  jcopy_sample_rows(input_buf[0], input_row+input_buf_offset[0], output_buf, output_buf_offset,
-		    num_rows, cinfo.output_width);
+	System.arraycopy(input_buf[0][input_row+input_buf_offset[0]], 0, outptr, outptr_offset, cinfo.output_width);
 }
 
 static void gray_rgb_convert (jpeg_decompress_struct cinfo,
 	byte[][][] input_buf, int[] input_buf_offset, int input_row,
-	byte[][] output_buf, int output_buf_offset, int num_rows)
+	byte[] outptr, int outptr_offset)
 {
-	byte[] inptr, outptr;
+	byte[] inptr = input_buf[0][input_row+input_buf_offset[0]];
 	int col;
 	int num_cols = cinfo.output_width;
 
-	while (--num_rows >= 0) {
-		inptr = input_buf[0][input_row+++input_buf_offset[0]];
-		outptr = output_buf[output_buf_offset++];
-		int outptr_offset = 0;
-		for (col = 0; col < num_cols; col++) {
-			/* We can dispense with GETJSAMPLE() here */
-			outptr[RGB_RED+outptr_offset] = outptr[RGB_GREEN+outptr_offset] = outptr[RGB_BLUE+outptr_offset] = inptr[col];
-			outptr_offset += RGB_PIXELSIZE;
-		}
+	for (col = 0; col < num_cols; col++) {
+		/* We can dispense with GETJSAMPLE() here */
+		outptr[RGB_RED+outptr_offset] = outptr[RGB_GREEN+outptr_offset] = outptr[RGB_BLUE+outptr_offset] = inptr[col];
+		outptr_offset += RGB_PIXELSIZE;
 	}
 }
 	
+static final int FIX_1_40200 = (int)(1.40200f * (1<<SCALEBITS) + 0.5f);
+static final int FIX_1_77200 = (int)(1.77200f * (1<<SCALEBITS) + 0.5f);
+static final int FIX_0_71414 = (int)(- (0.71414f * (1<<SCALEBITS) + 0.5f));
+static final int FIX_0_34414 = (int)(- (0.34414f * (1<<SCALEBITS) + 0.5f));
+
 static void ycc_rgb_convert (jpeg_decompress_struct cinfo,
 	byte[][][] input_buf, int[] input_buf_offset, int input_row,
-	byte[][] output_buf, int output_buf_offset, int num_rows)
+	byte[] outptr, int outptr_offset)
 {
-	jpeg_color_deconverter cconvert = cinfo.cconvert;
+	byte[] inptr0 = input_buf[0][input_row+input_buf_offset[0]];
+	byte[] inptr1 = input_buf[1][input_row+input_buf_offset[1]];
+	byte[] inptr2 = input_buf[2][input_row+input_buf_offset[2]];
 	int y, cb, cr;
-	byte[] outptr;
-	byte[] inptr0, inptr1, inptr2;
 	int col;
 	int num_cols = cinfo.output_width;
-	/* copy these pointers into registers if possible */
-	byte[] range_limit = cinfo.sample_range_limit;
-	int range_limit_offset = cinfo.sample_range_limit_offset;
-	int[] Crrtab = cconvert.Cr_r_tab;
-	int[] Cbbtab = cconvert.Cb_b_tab;
-	int[] Crgtab = cconvert.Cr_g_tab;
-	int[] Cbgtab = cconvert.Cb_g_tab;
-//		SHIFT_TEMPS
-
-	while (--num_rows >= 0) {
-		inptr0 = input_buf[0][input_row+input_buf_offset[0]];
-		inptr1 = input_buf[1][input_row+input_buf_offset[1]];
-		inptr2 = input_buf[2][input_row+input_buf_offset[2]];
-		input_row++;
-		outptr = output_buf[output_buf_offset++];
-		int outptr_offset = 0;
-		for (col = 0; col < num_cols; col++) {
-			y = (inptr0[col] & 0xFF);
-			cb = (inptr1[col] & 0xFF);
-			cr = (inptr2[col] & 0xFF);
-			/* Range-limiting is essential due to noise introduced by DCT losses. */
-			outptr[outptr_offset + RGB_RED] =	range_limit[y + Crrtab[cr] + range_limit_offset];
-			outptr[outptr_offset + RGB_GREEN] = range_limit[y + ((Cbgtab[cb] + Crgtab[cr]>>SCALEBITS)) + range_limit_offset];
-			outptr[outptr_offset + RGB_BLUE] =	range_limit[y + Cbbtab[cb] + range_limit_offset];
-			outptr_offset += RGB_PIXELSIZE;
-		}
+
+	/* The products are computed instead of looked up in tables, and the
+	 * results are clamped instead of range limited through a table.  This
+	 * gives the same values as libjpeg without dependent loads or branches.
+	 */
+	for (col = 0; col < num_cols; col++) {
+		y = inptr0[col] & 0xFF;
+		cb = (inptr1[col] & 0xFF) - CENTERJSAMPLE;
+		cr = (inptr2[col] & 0xFF) - CENTERJSAMPLE;
+		/* Range-limiting is essential due to noise introduced by DCT losses. */
+		outptr[outptr_offset + RGB_RED] = (byte) Math.min(Math.max(y + ((FIX_1_40200 * cr + ONE_HALF) >> SCALEBITS), 0), MAXJSAMPLE);
+		outptr[outptr_offset + RGB_GREEN] = (byte) Math.min(Math.max(y + ((FIX_0_34414 * cb + FIX_0_71414 * cr + ONE_HALF) >> SCALEBITS), 0), MAXJSAMPLE);
+		outptr[outptr_offset + RGB_BLUE] = (byte) Math.min(Math.max(y + ((FIX_1_77200 * cb + ONE_HALF) >> SCALEBITS), 0), MAXJSAMPLE);
+		outptr_offset += RGB_PIXELSIZE;
 	}
 }
 
@@ -6291,6 +6742,298 @@ static void jpeg_abort (jpeg_decompress_struct cinfo) {
 }
 
 
+/*
+ * Whole-image decompression of single-scan sequential images.
+ *
+ * Instead of pulling one iMCU row at a time through the main, coefficient
+ * and post-processing controllers, the components are decoded into full-size
+ * sample planes, which lets every stage run on several threads:
+ * - when the image has restart markers, the restart intervals are entropy
+ *   decoded and inverse transformed independently of each other;
+ * - otherwise the entropy decoder runs ahead of the IDCT, which is applied
+ *   to bands of MCU rows while the next band is decoded;
+ * - upsampling and color conversion work on bands of row groups.
+ * The stages use the same routines as the row-by-row pipeline, so the
+ * output is identical.
+ */
+
+static final int MCU_BAND_ROWS = 4;	/* MCU rows entropy decoded ahead of the IDCT */
+
+/* Output pixels below which images are decoded row by row.  The sample planes
+ * cost memory and the tasks cost time, only worth it for large images whose
+ * stages can run in parallel.
+ */
+static int whole_image_min_pixels = Runtime.getRuntime().availableProcessors() > 1 ? 256 * 1024 : Integer.MAX_VALUE;
+
+static boolean use_whole_image (jpeg_decompress_struct cinfo) {
+	return (long)cinfo.output_width * cinfo.output_height >= whole_image_min_pixels &&
+		cinfo.global_state == DSTATE_SCANNING && ! cinfo.buffered_image &&
+		! cinfo.inputctl.has_multiple_scans && ! cinfo.progressive_mode && ! cinfo.arith_code &&
+		! cinfo.quantize_colors && ! cinfo.raw_data_out && ! cinfo.master.using_merged_upsample &&
+		cinfo.coef.decompress_data == DECOMPRESS_ONEPASS &&
+		cinfo.cconvert.color_convert != YCCK_CMYK_CONVERT;
+}
+
+static void jpeg_read_whole_image (jpeg_decompress_struct cinfo, byte[] data, int row_stride) {
+	int processors = Runtime.getRuntime().availableProcessors();
+	int total_MCUs = cinfo.MCUs_per_row * cinfo.MCU_rows_in_scan;
+	byte[][][] planes = alloc_sample_planes(cinfo);
+	read_remaining_input(cinfo);
+	int[] segments = null;
+	if (cinfo.restart_interval > 0) {
+		int num_segments = (total_MCUs + cinfo.restart_interval - 1) / cinfo.restart_interval;
+		segments = find_restart_segments(cinfo.buffer, cinfo.bytes_in_buffer, num_segments);
+	}
+	if (segments != null) {
+		decode_restart_intervals(cinfo, planes, segments, total_MCUs, processors);
+	} else {
+		decode_MCU_bands(cinfo, planes, total_MCUs, processors);
+	}
+	set_context_rows(cinfo, planes);
+	int row_groups = (cinfo.output_height + cinfo.max_v_samp_factor - 1) / cinfo.max_v_samp_factor;
+	int num_tasks = Math.min(row_groups, processors * 4);
+	jpeg_output_task[] tasks = new jpeg_output_task[num_tasks];
+	for (int i = 0; i < num_tasks; i++) {
+		tasks[i] = new jpeg_output_task(cinfo, planes, data, row_stride, i * row_groups / num_tasks, (i + 1) * row_groups / num_tasks);
+	}
+	run_tasks(tasks);
+	cinfo.output_scanline = cinfo.output_height;
+	finish_input_pass(cinfo);
+}
+
+static byte[][][] alloc_sample_planes (jpeg_decompress_struct cinfo) {
+	int row_groups = (cinfo.output_height + cinfo.max_v_samp_factor - 1) / cinfo.max_v_samp_factor;
+	byte[][][] planes = new byte[cinfo.num_components][][];
+	for (int ci = 0; ci < cinfo.num_components; ci++) {
+		jpeg_component_info compptr = cinfo.comp_info[ci];
+		if (! compptr.component_needed) continue;
+		int rows = compptr.height_in_blocks * compptr.DCT_scaled_size;
+		/* Row 0 and the rows after the last row group are context rows, see set_context_rows() */
+		byte[][] plane = new byte[Math.max(rows, row_groups * cinfo.upsample.rowgroup_height[ci] + 1) + 1][];
+		for (int row = 1; row <= rows; row++) {
+			plane[row] = new byte[compptr.width_in_blocks * compptr.DCT_scaled_size];
+		}
+		planes[ci] = plane;
+	}
+	return planes;
+}
+
+static void set_context_rows (jpeg_decompress_struct cinfo, byte[][][] planes) {
+	/* Like the main controller, provide the first sample row above the image
+	 * and repeat the last real sample row below it.
+	 */
+	for (int ci = 0; ci < cinfo.num_components; ci++) {
+		byte[][] plane = planes[ci];
+		if (plane == null) continue;
+		int rows = cinfo.comp_info[ci].downsampled_height;
+		plane[0] = plane[1];
+		for (int row = rows + 1; row < plane.length; row++) {
+			plane[row] = plane[rows];
+		}
+	}
+}
+
+static void read_remaining_input (jpeg_decompress_struct cinfo) {
+	int length = cinfo.bytes_in_buffer - cinfo.bytes_offset;
+	byte[] buffer = new byte[Math.max(length * 2, INPUT_BUFFER_SIZE)];
+	System.arraycopy(cinfo.buffer, cinfo.bytes_offset, buffer, 0, length);
+	try {
+		int count;
+		while ((count = cinfo.inputStream.read(buffer, length, buffer.length - length)) > 0) {
+			length += count;
+			if (length == buffer.length) {
+				byte[] newBuffer = new byte[buffer.length * 2];
+				System.arraycopy(buffer, 0, newBuffer, 0, length);
+				buffer = newBuffer;
+			}
+		}
+	} catch (IOException e) {
+		error(SWT.ERROR_IO);
+	}
+	/* Insert a fake EOI marker, as fill_input_buffer() does at the end of the input */
+	if (length + 2 > buffer.length) {
+		byte[] newBuffer = new byte[length + 2];
+		System.arraycopy(buffer, 0, newBuffer, 0, length);
+		buffer = newBuffer;
+	}
+	buffer[length++] = (byte)0xFF;
+	buffer[length++] = (byte)M_EOI;
+	cinfo.buffer = buffer;
+	cinfo.bytes_offset = 0;
+	cinfo.bytes_in_buffer = length;
+	cinfo.start_of_file = false;
+}
+
+/*
+ * Returns the offsets of the restart intervals in the entropy-coded data,
+ * followed by the offset after the marker that ends the scan.  Returns null
+ * when the markers are not all present and in order, the decoder then falls
+ * back to reading the data sequentially and resynchronizing as usual.
+ */
+static int[] find_restart_segments (byte[] buffer, int length, int num_segments) {
+	if (num_segments < 2) return null;
+	int[] segments = new int[num_segments + 1];
+	int segment = 1;
+	for (int i = 0; i < length - 1; i++) {
+		if (buffer[i] != (byte)0xFF) continue;
+		int c = buffer[i + 1] & 0xFF;
+		/* Stuffed zero or fill byte */
+		if (c == 0 || c == 0xFF) continue;
+		if (segment < num_segments && c == M_RST0 + ((segment - 1) & 7)) {
+			segments[segment++] = i + 2;
+			i++;
+			continue;
+		}
+		if (segment < num_segments) return null;
+		segments[num_segments] = i + 2;
+		return segments;
+	}
+	return null;
+}
+
+static void decode_restart_intervals (jpeg_decompress_struct cinfo, byte[][][] planes, int[] segments, int total_MCUs, int processors) {
+	int num_segments = segments.length - 1;
+	int num_tasks = Math.min(num_segments, processors * 4);
+	jpeg_mcu_task[] tasks = new jpeg_mcu_task[num_tasks];
+	for (int i = 0; i < num_tasks; i++) {
+		int first = i * num_segments / num_tasks, last = (i + 1) * num_segments / num_tasks;
+		jpeg_decompress_struct worker = cinfo.copy();
+		/* Each worker gets a copy of its intervals, up to and including the
+		 * marker after them, and its own entropy decoder and marker reader.
+		 */
+		int length = segments[last] - segments[first];
+		worker.buffer = new byte[length + 2];
+		System.arraycopy(cinfo.buffer, segments[first], worker.buffer, 0, length);
+		worker.buffer[length] = (byte)0xFF;
+		worker.buffer[length + 1] = (byte)M_EOI;
+		worker.bytes_offset = 0;
+		worker.bytes_in_buffer = length + 2;
+		worker.inputStream = new ByteArrayInputStream(new byte[0]);
+		worker.unread_marker = 0;
+		worker.marker = new jpeg_marker_reader();
+		worker.marker.next_restart_num = first & 7;
+		worker.entropy = new huff_entropy_decoder();
+		worker.entropy.start_pass(worker);
+		tasks[i] = new jpeg_mcu_task(worker, planes, 1, true);
+		tasks[i].first_MCU = first * cinfo.restart_interval;
+		tasks[i].num_MCUs = Math.min(last * cinfo.restart_interval, total_MCUs) - tasks[i].first_MCU;
+	}
+	run_tasks(tasks);
+	/* Continue after the marker that ends the scan */
+	cinfo.bytes_offset = segments[num_segments];
+	cinfo.unread_marker = cinfo.buffer[cinfo.bytes_offset - 1] & 0xFF;
+}
+
+static void decode_MCU_bands (jpeg_decompress_struct cinfo, byte[][][] planes, int total_MCUs, int processors) {
+	int band_MCUs = cinfo.MCUs_per_row * MCU_BAND_ROWS;
+	int num_bands = (total_MCUs + band_MCUs - 1) / band_MCUs;
+	if (num_bands == 1) {
+		jpeg_mcu_task task = new jpeg_mcu_task(cinfo, planes, 1, true);
+		task.num_MCUs = total_MCUs;
+		task.call();
+		return;
+	}
+	/* Decode into a ring of bands, a band is reused once its IDCT is done */
+	int num_tasks = Math.min(num_bands, processors * 2);
+	jpeg_mcu_task[] tasks = new jpeg_mcu_task[num_tasks];
+	Future<?>[] futures = new Future<?>[num_tasks];
+	ForkJoinPool pool = ForkJoinPool.commonPool();
+	for (int band = 0; band < num_bands; band++) {
+		int i = band % num_tasks;
+		if (tasks[i] == null) {
+			tasks[i] = new jpeg_mcu_task(cinfo, planes, band_MCUs, false);
+		} else {
+			join_tasks(futures, i, i + 1);
+		}
+		jpeg_mcu_task task = tasks[i];
+		task.first_MCU = band * band_MCUs;
+		task.num_MCUs = Math.min(band_MCUs, total_MCUs - task.first_MCU);
+		for (int j = 0; j < task.num_MCUs; j++) {
+			decode_MCU(cinfo, task.MCU_data[j]);
+		}
+		futures[i] = pool.submit(task);
+	}
+	join_tasks(futures, 0, num_tasks);
+}
+
+static void decode_MCU (jpeg_decompress_struct cinfo, short[][] MCU_data) {
+	/* Entropy decoder expects buffer to be zeroed. */
+	for (int i = 0; i < cinfo.blocks_in_MCU; i++) {
+		short[] blk = MCU_data[i];
+		for (int j = 0; j < blk.length; j++) {
+			blk[j] = 0;
+		}
+	}
+	/* All input is in memory, so the decoder cannot suspend */
+	if (! cinfo.entropy.decode_mcu(cinfo, MCU_data))
+		error();
+}
+
+static void inverse_DCT_MCU (jpeg_decompress_struct cinfo, short[][] MCU_data, int MCU_num, byte[][][] planes, int[] workspace) {
+	/* Same placement as decompress_onepass(), skipping dummy blocks at the right and bottom edges */
+	int MCU_row = MCU_num / cinfo.MCUs_per_row;
+	int MCU_col = MCU_num % cinfo.MCUs_per_row;
+	int blkn = 0;
+	for (int ci = 0; ci < cinfo.comps_in_scan; ci++) {
+		jpeg_component_info compptr = cinfo.cur_comp_info[ci];
+		if (! compptr.component_needed) {
+			blkn += compptr.MCU_blocks;
+			continue;
+		}
+		byte[][] output_ptr = planes[compptr.component_index];
+		int block_row = MCU_row * compptr.MCU_height;
+		int block_col = MCU_col * compptr.MCU_width;
+		int useful_width = Math.min(compptr.MCU_width, compptr.width_in_blocks - block_col);
+		for (int yindex = 0; yindex < compptr.MCU_height; yindex++) {
+			if (block_row + yindex < compptr.height_in_blocks) {
+				int output_ptr_offset = 1 + (block_row + yindex) * compptr.DCT_scaled_size;
+				int output_col = block_col * compptr.DCT_scaled_size;
+				for (int xindex = 0; xindex < useful_width; xindex++) {
+					inverse_DCT(cinfo, compptr, MCU_data[blkn + xindex], output_ptr, output_ptr_offset, output_col, workspace);
+					output_col += compptr.DCT_scaled_size;
+				}
+			}
+			blkn += compptr.MCU_width;
+		}
+	}
+}
+
+static void run_tasks (Callable<?>[] tasks) {
+	if (tasks.length == 1) {
+		try {
+			tasks[0].call();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			error(SWT.ERROR_IO);
+		}
+		return;
+	}
+	ForkJoinPool pool = ForkJoinPool.commonPool();
+	Future<?>[] futures = new Future<?>[tasks.length];
+	for (int i = 0; i < tasks.length; i++) {
+		futures[i] = pool.submit(tasks[i]);
+	}
+	join_tasks(futures, 0, tasks.length);
+}
+
+static void join_tasks (Future<?>[] futures, int start, int end) {
+	try {
+		for (int i = start; i < end; i++) {
+			if (futures[i] != null) futures[i].get();
+		}
+	} catch (InterruptedException e) {
+		for (int i = 0; i < futures.length; i++) if (futures[i] != null) futures[i].cancel(false);
+		SWT.error(SWT.ERROR_IO, e);
+	} catch (ExecutionException e) {
+		for (int i = 0; i < futures.length; i++) if (futures[i] != null) futures[i].cancel(false);
+		Throwable cause = e.getCause();
+		if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+		if (cause instanceof Error) throw (Error) cause;
+		SWT.error(SWT.ERROR_IO, cause);
+	}
+}
+
 static boolean isFileFormat(LEDataInputStream stream) {
 	try {
 		byte[] buffer = new byte[2];
@@ -6308,6 +7051,9 @@ static ImageData[] loadFromByteStream(InputStream inputStream, ImageLoader loade
 	jpeg_create_decompress(cinfo);
 	jpeg_read_header(cinfo, true);
 	cinfo.buffered_image = cinfo.progressive_mode && loader.hasListeners();
+	/* Reduced sizes are produced by the inverse DCT, see jpeg_calc_output_dimensions() */
+	if (loader.scaleDenominator > 1) cinfo.scale_denom = loader.scaleDenominator;
+	if (Boolean.getBoolean(FAST_IDCT)) cinfo.dct_method = JDCT_IFAST;
 	jpeg_start_decompress(cinfo);
 	PaletteData palette = null;
 	switch (cinfo.out_color_space) {
@@ -6344,6 +7090,8 @@ static ImageData[] loadFromByteStream(InputStream inputStream, ImageLoader loade
 			jpeg_finish_output(cinfo);
 			loader.notifyListeners(new ImageLoaderEvent(loader, (ImageData)imageData.clone(), incrementCount, done = jpeg_input_complete(cinfo)));
 		} while (!done);
+	} else if (use_whole_image(cinfo)) {
+		jpeg_read_whole_image(cinfo, data, row_stride);
 	} else {
 		while (cinfo.output_scanline < cinfo.output_height) {
 			int offset = row_stride * cinfo.output_scanline;
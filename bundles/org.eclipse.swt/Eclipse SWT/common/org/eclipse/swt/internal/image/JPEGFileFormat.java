@@ -1356,15 +1356,8 @@ void inverseDCT(int[] dataUnit) {
 		}
 	}
 }
-@Override
-boolean isFileFormat(LEDataInputStream stream) {
-	try {
-		JPEGStartOfImage soi = new JPEGStartOfImage(stream);
-		stream.unread(soi.reference);
-		return soi.verify();  // we no longer check for appN
-	} catch (Exception e) {
-		return false;
-	}
+static boolean isFileFormat(byte[] header, int length) {
+	return length >= 2 && ((header[0] & 0xFF) << 8 | (header[1] & 0xFF)) == SOI;  // we no longer check for appN
 }
 boolean isZeroInColumn(int[] dataUnit, int col) {
 	return dataUnit[col + 8] == 0 && dataUnit[col + 16] == 0
@@ -1379,7 +1372,7 @@ boolean isZeroInRow(int[] dataUnit, int rIndex) {
 			&& dataUnit[rIndex + 7] == 0;
 }
 @Override
-ImageData[] loadFromByteStream() {
+protected ImageData[] loadFromByteStream() {
 	//TEMPORARY CODE
 	if (System.getProperty("org.eclipse.swt.internal.image.JPEGFileFormat_3.2") == null) {
 		return JPEGDecoder.loadFromByteStream(inputStream, loader);
@@ -1760,7 +1753,7 @@ void storeData(int[] dataUnit, int iComp, int xmcu, int ymcu, int hi, int ihi, i
 	}
 }
 @Override
-void unloadIntoByteStream(ImageLoader loader) {
+protected void unloadIntoByteStream(ImageLoader loader) {
 	ImageData image = loader.data[0];
 	if (!new JPEGStartOfImage().writeToStream(outputStream)) {
 		SWT.error(SWT.ERROR_IO);
@@ -12,11 +12,23 @@ package org.eclipse.swt.internal.image;
 
 
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
 
 final class LEDataInputStream extends InputStream {
 	int position;
 	InputStream in;
 
+	/**
+	 * The file to read when this stream reads a file channel instead
+	 * of an input stream, and the window of its bytes that are read
+	 * next, which is refilled when it is empty.
+	 */
+	FileChannel channel;
+	ByteBuffer buffer;
+
+	static final int WINDOW_SIZE = 64 * 1024;
+
 	/**
 	 * The byte array containing the bytes to read.
 	 */
@@ -42,10 +54,20 @@ final class LEDataInputStream extends InputStream {
 		} 
 		else throw new IllegalArgumentException();
 	}
+
+	public LEDataInputStream(FileChannel channel) {
+		this.channel = channel;
+		buffer = ByteBuffer.allocate(WINDOW_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.flip();
+		buf = new byte[512];
+		pos = buf.length;
+	}
 	
 	@Override
 	public void close() throws IOException {
 		buf = null;
+		buffer = null;
+		channel = null;
 		if (in != null) {
 			in.close();
 			in = null;
@@ -65,6 +87,10 @@ final class LEDataInputStream extends InputStream {
 	@Override
 	public int available() throws IOException {
 		if (buf == null) throw new IOException();
+		if (buffer != null) {
+			long left = channel.size() - channel.position();
+			return (buf.length - pos) + buffer.remaining() + (int)Math.min(Integer.MAX_VALUE, Math.max(0, left));
+		}
 		return (buf.length - pos) + in.available();
 	}
 	
@@ -78,7 +104,12 @@ final class LEDataInputStream extends InputStream {
 			position++;
 			return (buf[pos++] & 0xFF);
 		}
-		int c = in.read();
+		int c;
+		if (buffer != null) {
+			c = buffer.hasRemaining() || fill() ? buffer.get() & 0xFF : -1;
+		} else {
+			c = in.read();
+		}
 		if (c != -1) position++;
 		return c;
 	}
@@ -138,18 +169,103 @@ final class LEDataInputStream extends InputStream {
 		// Have we copied enough?
 		if (cacheCopied == length) return length;
 
-		int inCopied = in.read(buffer, newOffset, length - cacheCopied);
+		int inCopied;
+		if (this.buffer != null) {
+			inCopied = readWindow(buffer, newOffset, length - cacheCopied);
+		} else {
+			inCopied = in.read(buffer, newOffset, length - cacheCopied);
+		}
 
 		if (inCopied > 0) return inCopied + cacheCopied;
 		if (cacheCopied == 0) return inCopied;
 		return cacheCopied;
 	}
 	
+	/**
+	 * Refill the window from the channel. Answer false at the end of the file.
+	 */
+	boolean fill() throws IOException {
+		buffer.clear();
+		int count = channel.read(buffer);
+		buffer.flip();
+		return count > 0;
+	}
+
+	/**
+	 * Read at most <code>len</code> bytes from the window, refilling it
+	 * when it is empty. Reads of a window or more go straight from the
+	 * channel into <code>b</code>.
+	 */
+	private int readWindow(byte[] b, int off, int len) throws IOException {
+		if (!buffer.hasRemaining()) {
+			if (len >= buffer.capacity()) return channel.read(ByteBuffer.wrap(b, off, len));
+			if (!fill()) return -1;
+		}
+		int count = Math.min(len, buffer.remaining());
+		buffer.get(b, off, count);
+		return count;
+	}
+
+	/**
+	 * Read exactly <code>len</code> bytes into <code>b</code> at <code>off</code>.
+	 *
+	 * @exception java.io.EOFException if the stream ends first
+	 */
+	public void readFully(byte b[], int off, int len) throws IOException {
+		if (read(b, off, len) != len && len != 0) throw new EOFException();
+	}
+
+	/**
+	 * Read exactly <code>b.length</code> bytes into <code>b</code>.
+	 *
+	 * @exception java.io.EOFException if the stream ends first
+	 */
+	public void readFully(byte b[]) throws IOException {
+		readFully(b, 0, b.length);
+	}
+
+	/**
+	 * Skip the pushed back bytes first, then move over the window and
+	 * the channel instead of reading the bytes when there is one.
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		if (buffer == null || n <= 0) return super.skip(n);
+		if (buf == null) throw new IOException();
+		int cacheSkipped = (int)Math.min(n, buf.length - pos);
+		pos += cacheSkipped;
+		int skipped = (int)Math.min(n - cacheSkipped, buffer.remaining());
+		buffer.position(buffer.position() + skipped);
+		long channelSkipped = 0;
+		if (n > cacheSkipped + skipped) {
+			long channelPosition = channel.position();
+			channelSkipped = Math.min(n - cacheSkipped - skipped, Math.max(0, channel.size() - channelPosition));
+			channel.position(channelPosition + channelSkipped);
+		}
+		position += cacheSkipped + skipped + (int)channelSkipped;
+		return cacheSkipped + skipped + channelSkipped;
+	}
+
+	/**
+	 * Answer the offset in the channel of the next byte this stream
+	 * reads, or -1 when it does not read a channel. The pushed back
+	 * bytes must be the ones last read from the channel, as after
+	 * <code>FileFormat.peek()</code>.
+	 */
+	long getChannelPosition() throws IOException {
+		if (buffer == null) return -1;
+		return channel.position() - buffer.remaining() - (buf.length - pos);
+	}
+
 	/**
 	 * Answer an integer comprised of the next
 	 * four bytes of the input stream.
 	 */
 	public int readInt() throws IOException {
+		if (buffer != null && pos == buf.length && buffer.remaining() >= 4) {
+			position += 4;
+			return buffer.getInt();
+		}
 		byte[] buf = new byte[4];
 		read(buf);
 		return ((buf[3] & 0xFF) << 24) | 
@@ -163,6 +279,10 @@ final class LEDataInputStream extends InputStream {
 	 * two bytes of the input stream.
 	 */
 	public short readShort() throws IOException {
+		if (buffer != null && pos == buf.length && buffer.remaining() >= 2) {
+			position += 2;
+			return buffer.getShort();
+		}
 		byte[] buf = new byte[2];
 		read(buf);
 		return (short)(((buf[1] & 0xFF) << 8) | (buf[0] & 0xFF));
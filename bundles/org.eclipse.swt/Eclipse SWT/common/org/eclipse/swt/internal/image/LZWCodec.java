@@ -11,6 +11,8 @@
 package org.eclipse.swt.internal.image;
 
 
+import java.io.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 
@@ -19,13 +21,13 @@ final class LZWCodec {
 		codeSize, clearCode, endCode, newCodes, topSlot, currentSlot,
 		imageWidth, imageHeight, imageX, imageY, pass, line, codeMask;
 	byte[] block, lineArray;
-	int[] stack, suffix, prefix;
+	int[] start, length;
 	LZWNode[] nodeStack;
 	LEDataInputStream inputStream;
 	LEDataOutputStream outputStream;
 	ImageData image;
 	ImageLoader loader;
-	boolean interlaced;
+	boolean interlaced, truncated;
 	static final int[] MASK_TABLE = new int[] {
 		0x1, 0x3, 0x7, 0xF, 0x1F, 0x3F, 0x7F,
 		0xFF, 0x1FF, 0x3FF, 0x7FF, 0xFFF
@@ -33,72 +35,99 @@ final class LZWCodec {
 
 /**
  * Decode the input.
+ * <p>
+ * The string of a code is always the string of the previous code
+ * followed by the first pixel written after it, so it can be found
+ * in the pixels already decoded. The table keeps where each string
+ * starts and how long it is, and strings are copied from there.
+ * </p>
  */
 void decode() {
-	int code;
-	int oc = 0;
-	int fc = 0;
-	byte[] buf = new byte[imageWidth];
-	int stackIndex = 0;
-	int bufIndex = 0;
-	int c;
-	while ((c = nextCode()) != endCode) {
+	byte[] data = readBlocks();
+	int dataLength = blockSize;
+	int count = imageWidth * imageHeight;
+	/* Rows of 8 bit images that are not interlaced are written in place */
+	boolean direct = image.depth == 8 && !interlaced && image.bytesPerLine == imageWidth;
+	byte[] pixels = direct ? image.data : new byte[count];
+	int[] start = this.start, length = this.length;
+	int clearCode = this.clearCode, endCode = this.endCode, newCodes = this.newCodes;
+	int codeSize = this.codeSize, codeMask = (1 << codeSize) - 1;
+	int topSlot = this.topSlot, currentSlot = this.currentSlot;
+	int bits = 0, bitCount = 0, dataIndex = 0;
+	int pos = 0, previousPos = 0;
+	boolean cleared = true;
+	decode: while (pos < count) {
+		while (bitCount < codeSize) {
+			if (dataIndex == dataLength) {
+				if (truncated) SWT.error(SWT.ERROR_INVALID_IMAGE);
+				break decode;
+			}
+			bits |= (data[dataIndex++] & 0xFF) << bitCount;
+			bitCount += 8;
+		}
+		int c = bits & codeMask;
+		bits >>>= codeSize;
+		bitCount -= codeSize;
 		if (c == clearCode) {
 			codeSize = bitsPerPixel + 1;
-			codeMask = MASK_TABLE[bitsPerPixel];
+			codeMask = (1 << codeSize) - 1;
 			currentSlot = newCodes;
 			topSlot = 1 << codeSize;
-			while ((c = nextCode()) == clearCode) {}
-			if (c != endCode) {
-				oc = fc = c;
-				buf[bufIndex] = (byte)c;
-				bufIndex++;
-				if (bufIndex == imageWidth) {
-					nextPutPixels(buf);
-					bufIndex = 0;
-				}
+			cleared = true;
+			continue;
+		}
+		if (c == endCode) break;
+		if (cleared) {
+			/* The first code after a clear code adds no entry */
+			if (c >= clearCode) break;
+			previousPos = pos;
+			pixels[pos++] = (byte)c;
+			cleared = false;
+			continue;
+		}
+		int end;
+		if (c < clearCode) {
+			end = pos + 1;
+			pixels[pos] = (byte)c;
+		} else if (c < currentSlot) {
+			int src = start[c];
+			end = Math.min(count, pos + length[c]);
+			if (end - pos > 16) {
+				System.arraycopy(pixels, src, pixels, pos, end - pos);
+			} else {
+				for (int i = pos; i < end; i++) pixels[i] = pixels[src++];
 			}
+		} else if (c == currentSlot) {
+			/*
+			* The code being defined, the previous string followed by its
+			* own first pixel. The copy overlaps by one pixel, so it must
+			* go forward.
+			*/
+			int src = previousPos;
+			end = Math.min(count, pos + pos - previousPos + 1);
+			for (int i = pos; i < end; i++) pixels[i] = pixels[src++];
 		} else {
-			code = c;
-			if (code >= currentSlot) {
-				code = oc;
-				stack[stackIndex] = fc;
-				stackIndex++;
-			}
-			while (code >= newCodes) {
-				stack[stackIndex] = suffix[code];
-				stackIndex++;
-				code = prefix[code];
-			}
-			stack[stackIndex] = code;
-			stackIndex++;
-			if (currentSlot < topSlot) {
-				fc = code;
-				suffix[currentSlot] = fc;
-				prefix[currentSlot] = oc;
-				currentSlot++;
-				oc = c;
-			}
-			if (currentSlot >= topSlot) {
-				if (codeSize < 12) {
-					codeMask = MASK_TABLE[codeSize];
-					codeSize++;
-					topSlot = topSlot + topSlot;
-				}
-			}
-			while (stackIndex > 0) {
-				stackIndex--;
-				buf[bufIndex] = (byte)stack[stackIndex];
-				bufIndex++;
-				if (bufIndex == imageWidth) {
-					nextPutPixels(buf);
-					bufIndex = 0;
-				}
+			/* Invalid code, keep the pixels decoded so far */
+			break;
+		}
+		if (currentSlot < topSlot) {
+			start[currentSlot] = previousPos;
+			length[currentSlot] = pos - previousPos + 1;
+			currentSlot++;
+			if (currentSlot >= topSlot && codeSize < 12) {
+				codeSize++;
+				codeMask = (1 << codeSize) - 1;
+				topSlot += topSlot;
 			}
 		}
+		previousPos = pos;
+		pos = end;
 	}
-	if (bufIndex != 0 && line < imageHeight) {
-		nextPutPixels(buf);
+	if (!direct) {
+		int rows = Math.min(imageHeight, (pos + imageWidth - 1) / imageWidth);
+		for (int y = 0; y < rows; y++) {
+			nextPutPixels(pixels, y * imageWidth);
+		}
 	}
 }
 /**
@@ -230,11 +259,8 @@ void initializeForDecoding() {
 	currentByte = -1;
 	blockSize = bitsLeft = 0;
 	blockIndex = 0;
-	codeMask = MASK_TABLE[codeSize - 1];
-	stack = new int[4096];
-	suffix = new int[4096];
-	prefix = new int[4096];
-	block = new byte[256];
+	start = new int[4096];
+	length = new int[4096];
 	imageWidth = image.width;
 	imageHeight = image.height;
 }
@@ -270,42 +296,6 @@ void initializeForEncoding() {
 	lineArray = new byte[imageWidth];
 	imageX = imageWidth + 1; // Force a read
 }
-/**
- * Answer the next code from the input byte array.
- */
-int nextCode() {
-	int code;
-	if (bitsLeft == 0) {
-		if (blockIndex >= blockSize) {
-			blockSize = readBlock();
-			blockIndex = 0;
-			if (blockSize == 0) return endCode;
-		}
-		blockIndex++;
-		currentByte = block[blockIndex] & 0xFF;
-		bitsLeft = 8;
-		code = currentByte;
-	} else {
-		int shift = bitsLeft - 8;
-		if (shift < 0)
-			code = currentByte >> (0 - shift);
-		else
-			code = currentByte << shift;
-	}
-	while (codeSize > bitsLeft) {
-		if (blockIndex >= blockSize) {
-			blockSize = readBlock();
-			blockIndex = 0;
-			if (blockSize == 0) return endCode;
-		}
-		blockIndex++;
-		currentByte = block[blockIndex] & 0xFF;
-		code += currentByte << bitsLeft;
-		bitsLeft += 8;
-	}
-	bitsLeft -= codeSize;
-	return code & codeMask;
-}
 /**
  * Answer the next pixel to encode in the image
  */
@@ -385,26 +375,43 @@ void nextPutCode(int aCode) {
 	block[blockIndex] = (byte)currentByte;
 }
 /**
- * Copy a row of pixel values to the image.
+ * Copy a row of pixel values starting at offset to the image.
  */
-void nextPutPixels(byte[] buf) {
-	if (image.depth == 8) {
-		// Slight optimization for depth = 8.
-		int start = line * image.bytesPerLine;
-		for (int i = 0; i < imageWidth; i++)
-			image.data[start + i] = buf[i];
-	} else {
-		image.setPixels(0, line, imageWidth, buf, 0);
+void nextPutPixels(byte[] buf, int offset) {
+	byte[] data = image.data;
+	int index = line * image.bytesPerLine;
+	int end = offset + imageWidth;
+	switch (image.depth) {
+		case 8:
+			System.arraycopy(buf, offset, data, index, imageWidth);
+			break;
+		case 4:
+			for (; offset + 1 < end; offset += 2) {
+				data[index++] = (byte)(((buf[offset] & 0x0F) << 4) | (buf[offset + 1] & 0x0F));
+			}
+			if (offset < end) data[index] = (byte)((buf[offset] & 0x0F) << 4);
+			break;
+		case 1:
+			while (offset < end) {
+				int theByte = 0;
+				for (int shift = 7; shift >= 0 && offset < end; shift--) {
+					theByte |= (buf[offset++] & 0x01) << shift;
+				}
+				data[index++] = (byte)theByte;
+			}
+			break;
+		default:
+			image.setPixels(0, line, imageWidth, buf, offset);
 	}
 	if (interlaced) {
 		if (pass == 1) {
-			copyRow(buf, 7);
+			copyRow(7);
 			line += 8;
 		} else if (pass == 2) {
-			copyRow(buf, 3);
+			copyRow(3);
 			line += 8;
 		} else if (pass == 3) {
-			copyRow(buf, 1);
+			copyRow(1);
 			line += 4;
 		} else if (pass == 4) {
 			line += 2;
@@ -418,7 +425,7 @@ void nextPutPixels(byte[] buf) {
 			else if (pass == 4) line = 1;
 			else if (pass == 5) line = 0;
 			if (pass < 5) {
-				if (loader.hasListeners()) {
+				if (loader != null && loader.hasListeners()) {
 					ImageData imageCopy = (ImageData) image.clone();
 					loader.notifyListeners(
 						new ImageLoaderEvent(loader, imageCopy, pass - 2, false));
@@ -434,34 +441,44 @@ void nextPutPixels(byte[] buf) {
  * Copy duplicate rows of pixel values to the image.
  * This is to fill in rows if the image is interlaced.
  */
-void copyRow(byte[] buf, int copies) {
+void copyRow(int copies) {
+	int bytesPerLine = image.bytesPerLine;
 	for (int i = 1; i <= copies; i++) {
 		if (line + i < imageHeight) {
-			image.setPixels(0, line + i, imageWidth, buf, 0);
+			System.arraycopy(image.data, line * bytesPerLine, image.data, (line + i) * bytesPerLine, bytesPerLine);
 		}
 	}
 }
 /**
- * Read a block from the byte stream.
- * Return the number of bytes read.
- * Throw an exception if the block could not be read.
+ * Read the data sub-blocks up to the block terminator, and answer
+ * their bytes. Set blockSize to the number of bytes, and truncated
+ * if the stream ended before the block terminator.
  */
-int readBlock() {
-	int size = -1;
+byte[] readBlocks() {
+	byte[] data = new byte[4096];
+	int size = 0;
+	truncated = false;
 	try {
-		size = inputStream.read();
-		if (size == -1) {
-			SWT.error(SWT.ERROR_INVALID_IMAGE);
-		}
-		block[0] = (byte)size;
-		size = inputStream.read(block, 1, size);
-		if (size == -1) {
-			SWT.error(SWT.ERROR_INVALID_IMAGE);
+		int count;
+		while ((count = inputStream.read()) > 0) {
+			if (size + count > data.length) {
+				byte[] newData = new byte[Math.max(size + count, data.length * 2)];
+				System.arraycopy(data, 0, newData, 0, size);
+				data = newData;
+			}
+			int read = inputStream.read(data, size, count);
+			if (read > 0) size += read;
+			if (read != count) {
+				truncated = true;
+				break;
+			}
 		}
-	} catch (Exception e) {
+		if (count == -1) truncated = true;
+	} catch (IOException e) {
 		SWT.error(SWT.ERROR_IO, e);
 	}
-	return size;
+	blockSize = size;
+	return data;
 }
 /**
  * Write a block to the byte stream.
@@ -20,17 +20,10 @@ public final class OS2BMPFileFormat extends FileFormat {
 	static final int BMPHeaderFixedSize = 12;
 	int width, height, bitCount;
 
-@Override
-boolean isFileFormat(LEDataInputStream stream) {
-	try {
-		byte[] header = new byte[18];
-		stream.read(header);
-		stream.unread(header);
-		int infoHeaderSize = (header[14] & 0xFF) | ((header[15] & 0xFF) << 8) | ((header[16] & 0xFF) << 16) | ((header[17] & 0xFF) << 24);
-		return header[0] == 0x42 && header[1] == 0x4D && infoHeaderSize == BMPHeaderFixedSize;
-	} catch (Exception e) {
-		return false;
-	}
+static boolean isFileFormat(byte[] header, int length) {
+	if (length < 18) return false;
+	int infoHeaderSize = (header[14] & 0xFF) | ((header[15] & 0xFF) << 8) | ((header[16] & 0xFF) << 16) | ((header[17] & 0xFF) << 24);
+	return header[0] == 0x42 && header[1] == 0x4D && infoHeaderSize == BMPHeaderFixedSize;
 }
 byte[] loadData(byte[] infoHeader) {
 	int stride = (width * bitCount + 7) / 8;
@@ -66,7 +59,7 @@ int[] loadFileHeader() {
 	return header;
 }
 @Override
-ImageData[] loadFromByteStream() {
+protected ImageData[] loadFromByteStream() {
 	int[] fileHeader = loadFileHeader();
 	byte[] infoHeader = new byte[BMPHeaderFixedSize];
 	try {
@@ -204,7 +197,7 @@ int unloadData(ImageData image, OutputStream out) {
  * byte stream.
  */
 @Override
-void unloadIntoByteStream(ImageLoader loader) {
+protected void unloadIntoByteStream(ImageLoader loader) {
 	ImageData image = loader.data[0];
 	byte[] rgbs;
 	int numCols;
@@ -12,9 +12,9 @@ package org.eclipse.swt.internal.image;
 
 
 import java.io.*;
+import java.util.zip.*;
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
-import org.eclipse.swt.internal.*;
 
 public final class PNGFileFormat extends FileFormat {
 	static final int SIGNATURE_LENGTH = 8;
@@ -27,6 +27,9 @@ public final class PNGFileFormat extends FileFormat {
 	byte headerByte1;
 	byte headerByte2;
 	int adler;
+	PngChunkReader chunkReader;
+	Inflater inflater;
+	boolean pixelDataRead;
 
 /**
  * Skip over signature data. This has already been
@@ -40,7 +43,7 @@ void readSignature() throws IOException {
  * Load the PNG image from the byte stream.
  */
 @Override
-ImageData[] loadFromByteStream() {
+protected ImageData[] loadFromByteStream() {
 	try {
 		readSignature();
 		PngChunkReader chunkReader = new PngChunkReader(inputStream);
@@ -122,7 +125,10 @@ void readNextChunk(PngChunkReader chunkReader) throws IOException {
 			}
 			break;
 		case PngChunk.CHUNK_IDAT:
-			if (chunkReader.readPixelData()) {
+			if (pixelDataRead) {
+				// The rows are complete, the chunk can only hold
+				// the end of the compressed stream.
+			} else if (chunkReader.readPixelData()) {
 				// All IDAT chunks in an image file must be
 				// sequential. If the pixel data has already
 				// been read and another IDAT block is encountered,
@@ -143,28 +149,21 @@ void readNextChunk(PngChunkReader chunkReader) throws IOException {
 	}
 }
 @Override
-void unloadIntoByteStream(ImageLoader loader) {
+protected void unloadIntoByteStream(ImageLoader loader) {
 	PngEncoder encoder = new PngEncoder(loader);
 	encoder.encode(outputStream);
 }
-@Override
-boolean isFileFormat(LEDataInputStream stream) {
-	try {
-		byte[] signature = new byte[SIGNATURE_LENGTH];
-		stream.read(signature);
-		stream.unread(signature);
-		if ((signature[0] & 0xFF) != 137) return false; //137
-		if ((signature[1] & 0xFF) != 80) return false; //P
-		if ((signature[2] & 0xFF) != 78) return false; //N
-		if ((signature[3] & 0xFF) != 71) return false; //G
-		if ((signature[4] & 0xFF) != 13) return false; //<RETURN>
-		if ((signature[5] & 0xFF) != 10) return false; //<LINEFEED>
-		if ((signature[6] & 0xFF) != 26) return false; //<CTRL/Z>
-		if ((signature[7] & 0xFF) != 10) return false; //<LINEFEED>		
-		return true;
-	} catch (Exception e) {
-		return false;
-	}
+static boolean isFileFormat(byte[] header, int length) {
+	if (length < SIGNATURE_LENGTH) return false;
+	if ((header[0] & 0xFF) != 137) return false; //137
+	if ((header[1] & 0xFF) != 80) return false; //P
+	if ((header[2] & 0xFF) != 78) return false; //N
+	if ((header[3] & 0xFF) != 71) return false; //G
+	if ((header[4] & 0xFF) != 13) return false; //<RETURN>
+	if ((header[5] & 0xFF) != 10) return false; //<LINEFEED>
+	if ((header[6] & 0xFF) != 26) return false; //<CTRL/Z>
+	if ((header[7] & 0xFF) != 10) return false; //<LINEFEED>		
+	return true;
 }
 /**
  * SWT does not support 16-bit depths. If this image uses
@@ -300,32 +299,48 @@ void setImageDataValues(byte[] data, ImageData imageData) {
 	setPixelData(result, imageData);
 }
 /**
- * Read the image data from the data stream. This must handle
+ * Read the image data from the IDAT chunks. This must handle
  * decoding the data, filtering, and interlacing.
  */
 void readPixelData(PngIdatChunk chunk, PngChunkReader chunkReader) throws IOException {
-	InputStream stream = new PngInputStream(chunk, chunkReader);
-	//TEMPORARY CODE
-	boolean use3_2 = System.getProperty("org.eclipse.swt.internal.image.PNGFileFormat_3.2") != null;
-	InputStream inflaterStream = use3_2 ? null : Compatibility.newInflaterInputStream(stream);
-	if (inflaterStream != null) {
-		stream = inflaterStream;
-	} else {
-		stream = new PngDecodingDataStream(stream);
+	this.chunkReader = chunkReader;
+	inflater = new Inflater();
+	try {
+		inflater.setInput(chunk.getReference(), PngChunk.DATA_OFFSET, chunk.getLength());
+		int interlaceMethod = headerChunk.getInterlaceMethod();
+		if (interlaceMethod == PngIhdrChunk.INTERLACE_METHOD_NONE) {
+			readNonInterlacedImage();
+		} else {
+			readInterlacedImage();
+		}
+		pixelDataRead = true;
+	} finally {
+		inflater.end();
+		inflater = null;
+		this.chunkReader = null;
 	}
-	int interlaceMethod = headerChunk.getInterlaceMethod();
-	if (interlaceMethod == PngIhdrChunk.INTERLACE_METHOD_NONE) {
-		readNonInterlacedImage(stream);
-	} else {
-		readInterlacedImage(stream);
+}
+/**
+ * Inflate exactly <code>length</code> bytes of image data into
+ * the buffer, feeding the inflater from the following IDAT
+ * chunks as it runs out of input.
+ */
+void inflate(byte[] buffer, int offset, int length) throws IOException {
+	try {
+		while (length > 0) {
+			int count = inflater.inflate(buffer, offset, length);
+			if (count == 0) {
+				if (!inflater.needsInput()) throw new IOException();
+				PngChunk chunk = chunkReader.readNextChunk();
+				if (chunk.getChunkType() != PngChunk.CHUNK_IDAT) throw new IOException();
+				inflater.setInput(chunk.getReference(), PngChunk.DATA_OFFSET, chunk.getLength());
+			}
+			offset += count;
+			length -= count;
+		}
+	} catch (DataFormatException e) {
+		throw new IOException(e.getMessage());
 	}
-	/*
-	* InflaterInputStream does not consume all bytes in the stream
-	* when it is closed. This may leave unread IDAT chunks. The fix
-	* is to read all available bytes before closing it.
-	*/
-	while (stream.available() > 0) stream.read();
-	stream.close();
 }
 /**
  * Answer the number of bytes in a word-aligned row of pixel data.
@@ -371,7 +386,6 @@ int getBytesPerRow(int rowWidthInPixels) {
  * 3. Notify the image loader's listeners of the frame load.
  */
 void readInterlaceFrame(
-	InputStream inputStream,
 	int rowInterval,
 	int columnInterval,
 	int startRow,
@@ -385,17 +399,16 @@ void readInterlaceFrame(
 	
 	int pixelsPerRow = (width - startColumn + columnInterval - 1) / columnInterval;
 	int bytesPerRow = getBytesPerRow(pixelsPerRow);
+	int filterOffset = headerChunk.getFilterByteOffset();
+	byte[] filterType = new byte[1];
 	byte[] row1 = new byte[bytesPerRow];
 	byte[] row2 = new byte[bytesPerRow];
 	byte[] currentRow = row1;	
-	byte[] lastRow = row2;	
+	byte[] lastRow = null;	
 	for (int row = startRow; row < height; row += rowInterval) {
-		byte filterType = (byte)inputStream.read();
-		int read = 0;
-		while (read != bytesPerRow) {
-			read += inputStream.read(currentRow, read, bytesPerRow - read);
-		}
-		filterRow(currentRow, lastRow, filterType);
+		inflate(filterType, 0, 1);
+		inflate(currentRow, 0, bytesPerRow);
+		filterRow(currentRow, 0, lastRow, 0, bytesPerRow, filterOffset, filterType[0]);
 		if (headerChunk.getBitDepth() >= 8) {
 			int bytesPerPixel = getBytesPerPixel();
 			int dataOffset = (row * alignedBytesPerRow) + (startColumn * bytesPerPixel);
@@ -428,8 +441,8 @@ void readInterlaceFrame(
 				}
 			}
 		}
+		lastRow = currentRow;
 		currentRow = (currentRow == row1) ? row2 : row1;
-		lastRow = (lastRow == row1) ? row2 : row1;
 	}
 	setImageDataValues(data, imageData);
 	fireInterlacedFrameEvent(frameCount);
@@ -438,14 +451,14 @@ void readInterlaceFrame(
  * Read the pixel data for an interlaced image from the
  * data stream.
  */
-void readInterlacedImage(InputStream inputStream) throws IOException {
-	readInterlaceFrame(inputStream, 8, 8, 0, 0, 0);
-	readInterlaceFrame(inputStream, 8, 8, 0, 4, 1);	
-	readInterlaceFrame(inputStream, 8, 4, 4, 0, 2);	
-	readInterlaceFrame(inputStream, 4, 4, 0, 2, 3);
-	readInterlaceFrame(inputStream, 4, 2, 2, 0, 4);
-	readInterlaceFrame(inputStream, 2, 2, 0, 1, 5);	
-	readInterlaceFrame(inputStream, 2, 1, 1, 0, 6);
+void readInterlacedImage() throws IOException {
+	readInterlaceFrame(8, 8, 0, 0, 0);
+	readInterlaceFrame(8, 8, 0, 4, 1);	
+	readInterlaceFrame(8, 4, 4, 0, 2);	
+	readInterlaceFrame(4, 4, 0, 2, 3);
+	readInterlaceFrame(4, 2, 2, 0, 4);
+	readInterlaceFrame(2, 2, 0, 1, 5);	
+	readInterlaceFrame(2, 1, 1, 0, 6);
 }
 /**
  * Fire an event to let listeners know that an interlaced
@@ -462,29 +475,22 @@ void fireInterlacedFrameEvent(int frameCount) {
 }
 /**
  * Read the pixel data for a non-interlaced image from the
- * data stream.
+ * data stream. The rows are inflated and unfiltered in place,
+ * each one using the row above it in the image data.
  * Update the imageData to reflect the new data.
  */
-void readNonInterlacedImage(InputStream inputStream) throws IOException {
-	int dataOffset = 0;
+void readNonInterlacedImage() throws IOException {
 	int alignedBytesPerRow = getAlignedBytesPerRow();
 	int bytesPerRow = getBytesPerRow();
-	byte[] row1 = new byte[bytesPerRow];
-	byte[] row2 = new byte[bytesPerRow];
-	byte[] currentRow = row1;	
-	byte[] lastRow = row2;
+	int filterOffset = headerChunk.getFilterByteOffset();
+	byte[] filterType = new byte[1];
 	int height = headerChunk.getHeight();
+	int dataOffset = 0;
 	for (int row = 0; row < height; row++) {
-		byte filterType = (byte)inputStream.read();
-		int read = 0;
-		while (read != bytesPerRow) {
-			read += inputStream.read(currentRow, read, bytesPerRow - read);
-		}
-		filterRow(currentRow, lastRow, filterType);
-		System.arraycopy(currentRow, 0, data, dataOffset, bytesPerRow);
+		inflate(filterType, 0, 1);
+		inflate(data, dataOffset, bytesPerRow);
+		filterRow(data, dataOffset, row == 0 ? null : data, dataOffset - alignedBytesPerRow, bytesPerRow, filterOffset, filterType[0]);
 		dataOffset += alignedBytesPerRow;
-		currentRow = (currentRow == row1) ? row2 : row1;
-		lastRow = (lastRow == row1) ? row2 : row1;
 	}
 	setImageDataValues(data, imageData);
 }
@@ -531,56 +537,65 @@ static int compress16BitDepthTo8BitDepth(int value) {
 /**
  * PNG supports four filtering types. These types are applied
  * per row of image data. This method unfilters the given row
- * based on the filterType.
+ * in place based on the filterType. The previous row is
+ * <code>null</code> for the first row, which is filtered as
+ * if the row above it was all zero.
  */
-void filterRow(byte[] row, byte[] previousRow, int filterType) {
-	int byteOffset = headerChunk.getFilterByteOffset();
+static void filterRow(byte[] row, int offset, byte[] previousRow, int previousOffset, int length, int byteOffset, int filterType) {
+	int end = offset + length;
 	switch (filterType) {
 		case PngIhdrChunk.FILTER_NONE:
 			break;
 		case PngIhdrChunk.FILTER_SUB:
-			for (int i = byteOffset; i < row.length; i++) {
-				int current = row[i] & 0xFF;
-				int left = row[i - byteOffset] & 0xFF;
-				row[i] = (byte)((current + left) & 0xFF);
+			for (int i = offset + byteOffset; i < end; i++) {
+				row[i] += row[i - byteOffset];
 			}
 			break;
 		case PngIhdrChunk.FILTER_UP:
-			for (int i = 0; i < row.length; i++) {
-				int current = row[i] & 0xFF;
-				int above = previousRow[i] & 0xFF;				
-				row[i] = (byte)((current + above) & 0xFF);
+			if (previousRow == null) break;
+			for (int i = offset, j = previousOffset; i < end; i++, j++) {
+				row[i] += previousRow[j];
 			}
 			break;
 		case PngIhdrChunk.FILTER_AVERAGE:
-			for (int i = 0; i < row.length; i++) {
-				int left = (i < byteOffset) ? 0 : row[i - byteOffset] & 0xFF;
-				int above = previousRow[i] & 0xFF;
-				int current = row[i] & 0xFF;
-				row[i] = (byte)((current + ((left + above) / 2)) & 0xFF);
+			if (previousRow == null) {
+				for (int i = offset + byteOffset; i < end; i++) {
+					row[i] += (row[i - byteOffset] & 0xFF) >> 1;
+				}
+				break;
+			}
+			for (int i = offset, j = previousOffset; i < offset + byteOffset; i++, j++) {
+				row[i] += (previousRow[j] & 0xFF) >> 1;
+			}
+			for (int i = offset + byteOffset, j = previousOffset + byteOffset; i < end; i++, j++) {
+				row[i] += ((row[i - byteOffset] & 0xFF) + (previousRow[j] & 0xFF)) >> 1;
 			}
 			break;
 		case PngIhdrChunk.FILTER_PAETH:
-			for (int i = 0; i < row.length; i++) {
-				int left = (i < byteOffset) ? 0 : row[i - byteOffset] & 0xFF;
-				int aboveLeft = (i < byteOffset) ? 0 : previousRow[i - byteOffset] & 0xFF;
-				int above = previousRow[i] & 0xFF;
-				
+			if (previousRow == null) {
+				// with nothing above, the predictor is always the left byte
+				for (int i = offset + byteOffset; i < end; i++) {
+					row[i] += row[i - byteOffset];
+				}
+				break;
+			}
+			for (int i = offset, j = previousOffset; i < offset + byteOffset; i++, j++) {
+				row[i] += previousRow[j];
+			}
+			for (int i = offset + byteOffset, j = previousOffset + byteOffset; i < end; i++, j++) {
+				int left = row[i - byteOffset] & 0xFF;
+				int above = previousRow[j] & 0xFF;
+				int aboveLeft = previousRow[j - byteOffset] & 0xFF;
 				int a = Math.abs(above - aboveLeft);
 				int b = Math.abs(left - aboveLeft);
 				int c = Math.abs(left - aboveLeft + above - aboveLeft);
-				
-				int preductor = 0;
 				if (a <= b && a <= c) {
-					preductor = left;
+					row[i] += left;
 				} else if (b <= c) {
-					preductor = above;
+					row[i] += above;
 				} else {
-					preductor = aboveLeft;
+					row[i] += aboveLeft;
 				}
-				
-				int currentValue = row[i] & 0xFF;
-				row[i] = (byte) ((currentValue + preductor) & 0xFF);
 			}
 			break;
 	}
@@ -12,13 +12,17 @@ package org.eclipse.swt.internal.image;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.ImageLoader;
 import org.eclipse.swt.graphics.RGB;
-import org.eclipse.swt.internal.Compatibility;
 
 final class PngEncoder extends Object {
 
@@ -34,6 +38,26 @@ final class PngEncoder extends Object {
 	static final int BEST_COMPRESSION = 9;
 	static final int DEFAULT_COMPRESSION = -1;
 	
+	static final int FILTER_NONE = 0;
+	static final int FILTER_SUB = 1;
+	static final int FILTER_UP = 2;
+	static final int FILTER_AVERAGE = 3;
+	static final int FILTER_PAETH = 4;
+	
+	/* 
+	 * The image data is compressed in strips of at least this many
+	 * bytes, a few per processor, each strip by its own deflater.
+	 * Every strip is primed with the last WINDOW_SIZE bytes of the
+	 * one before it, so splitting the data costs very little
+	 * compression.
+	 */
+	static final int STRIP_SIZE = 128 * 1024;
+	static final int WINDOW_SIZE = 32 * 1024;
+	static final int ADLER_BASE = 65521;
+	
+	/* coprime with the pixel sizes, so that all channels are sampled */
+	static final int SAMPLE_STEP = 7;
+	
 	ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
 	PngChunk chunk;
 	
@@ -47,6 +71,9 @@ final class PngEncoder extends Object {
 	int filterMethod = 0;
 	int interlaceMethod = 0;
 	
+	int level, bytesPerPixel, bytesPerRow;
+	boolean adaptiveFilter;
+	
 public PngEncoder(ImageLoader loader) {
 
 	this.loader = loader;
@@ -70,6 +97,24 @@ public PngEncoder(ImageLoader loader) {
 	}
 	
 	if (!(colorType == 2 || colorType == 3 || colorType == 6)) SWT.error(SWT.ERROR_INVALID_IMAGE);
+	
+	switch (loader.compression) {
+		case 0: level = NO_COMPRESSION; break;
+		case 1: level = BEST_SPEED; break;
+		case 3: level = BEST_COMPRESSION; break;
+		default: level = DEFAULT_COMPRESSION; break;
+	}
+	
+	this.bytesPerPixel = colorType == 3 ? 1 : colorType == 6 ? 4 : 3;
+	this.bytesPerRow = width * bytesPerPixel;
+	
+	/*
+	* Palette images compress best without filtering, there is no
+	* point in choosing filters when nothing is compressed, and
+	* filtered rows take about twice as long to deflate at the
+	* fastest level, which is only asked for when speed matters.
+	*/
+	this.adaptiveFilter = colorType != 3 && level != NO_COMPRESSION && level != BEST_SPEED;
 
 }
 
@@ -236,107 +281,353 @@ void writeTransparency() {
 
 void writeImageData() throws IOException {
 
-	ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
-	OutputStream os = null;
-	switch (loader.compression) {
-	case 0:
-		os = Compatibility.newDeflaterOutputStream(baos, NO_COMPRESSION);
-		break;
-	case 1:
-		os = Compatibility.newDeflaterOutputStream(baos, BEST_SPEED);
-		break;
-	case 3:
-		os = Compatibility.newDeflaterOutputStream(baos, BEST_COMPRESSION);
-		break;
-	default:
-		os = Compatibility.newDeflaterOutputStream(baos, DEFAULT_COMPRESSION);
-		break;
+	long size = (long) height * (bytesPerRow + 1);
+	int processors = Runtime.getRuntime().availableProcessors();
+	int stripCount = (int) Math.min(size / STRIP_SIZE + 1, processors > 1 ? processors * 4 : 1);
+	int rowsPerStrip = (height + stripCount - 1) / stripCount;
+	stripCount = (height + rowsPerStrip - 1) / rowsPerStrip;
+	Strip[] strips = new Strip[stripCount];
+	for (int i = 0; i < stripCount; i++) {
+		strips[i] = new Strip(i * rowsPerStrip, Math.min(height, (i + 1) * rowsPerStrip), i == stripCount - 1);
 	}
-	if (os == null) os = baos; // returns null for J2ME
-	
-	if (colorType == 3) {
 	
-		byte[] lineData = new byte[width];
-		
-		for (int y = 0; y < height; y++) {
-			
-			int filter = 0;
-			os.write(filter);
-			
-			data.getPixels(0, y, width, lineData, 0);
-			
-			os.write(lineData);
-		
+	if (stripCount == 1) {
+		strips[0].call();
+	} else {
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		Future<?>[] futures = new Future<?>[stripCount];
+		for (int i = 0; i < stripCount; i++) {
+			futures[i] = pool.submit(strips[i]);
+		}
+		try {
+			for (int i = 0; i < stripCount; i++) {
+				futures[i].get();
+			}
+		} catch (InterruptedException e) {
+			for (int i = 0; i < stripCount; i++) futures[i].cancel(false);
+			SWT.error(SWT.ERROR_IO, e);
+		} catch (ExecutionException e) {
+			for (int i = 0; i < stripCount; i++) futures[i].cancel(false);
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			SWT.error(SWT.ERROR_IO, cause);
 		}
+	}
 	
+	/* The strips are raw deflate data, wrap them in a zlib stream. */
+	int length = 2 + 4;
+	for (int i = 0; i < stripCount; i++) length += strips[i].compressed.length;
+	byte[] compressed = new byte[length];
+	int cmf = 0x78, flevel;
+	switch (level) {
+		case NO_COMPRESSION:
+		case BEST_SPEED: flevel = 0; break;
+		case BEST_COMPRESSION: flevel = 3; break;
+		default: flevel = 2; break;
+	}
+	int flg = flevel << 6;
+	flg += 31 - ((cmf << 8) + flg) % 31;
+	compressed[0] = (byte) cmf;
+	compressed[1] = (byte) flg;
+	int offset = 2;
+	int adler = 1;
+	for (int i = 0; i < stripCount; i++) {
+		Strip strip = strips[i];
+		System.arraycopy(strip.compressed, 0, compressed, offset, strip.compressed.length);
+		offset += strip.compressed.length;
+		adler = combineAdler(adler, strip.adler, (long) (strip.end - strip.start) * (bytesPerRow + 1));
 	}
+	compressed[offset++] = (byte) (adler >> 24);
+	compressed[offset++] = (byte) (adler >> 16);
+	compressed[offset++] = (byte) (adler >> 8);
+	compressed[offset] = (byte) adler;
 	
-	else {
+	writeChunk(TAG_IDAT, compressed);
+
+}
+
+/**
+ * Answer the Adler-32 checksum of two blocks of data given the
+ * checksums of each block and the length of the second one.
+ */
+static int combineAdler(int adler1, int adler2, long length2) {
+
+	long remainder = length2 % ADLER_BASE;
+	long sum1 = adler1 & 0xFFFF;
+	long sum2 = (remainder * sum1) % ADLER_BASE;
+	sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+	sum2 += ((adler1 >>> 16) & 0xFFFF) + ((adler2 >>> 16) & 0xFFFF) + ADLER_BASE - remainder;
+	if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+	if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+	if (sum2 >= (ADLER_BASE << 1)) sum2 -= (ADLER_BASE << 1);
+	if (sum2 >= ADLER_BASE) sum2 -= ADLER_BASE;
+	return (int) ((sum2 << 16) | sum1);
+
+}
+
+/**
+ * Answer the Paeth predictor of a byte, the one of its left, above
+ * and above left neighbours closest to their gradient.
+ */
+static int paethPredictor(int left, int above, int aboveLeft) {
+
+	int a = Math.abs(above - aboveLeft);
+	int b = Math.abs(left - aboveLeft);
+	int c = Math.abs(left - aboveLeft + above - aboveLeft);
+	/*
+	* Same as choosing left when a <= b && a <= c, then above when
+	* b <= c, but without branches, which the filtered data makes
+	* impossible to predict.
+	*/
+	int notLeft = ((b - a) | (c - a)) >> 31;
+	int aboveLeftMask = (c - b) >> 31;
+	int other = (above & ~aboveLeftMask) | (aboveLeft & aboveLeftMask);
+	return (left & ~notLeft) | (other & notLeft);
+
+}
+
+/**
+ * A band of rows that is converted, filtered and compressed on its
+ * own. All strips but the last end with a sync flush, so that their
+ * output can simply be concatenated.
+ */
+final class Strip implements Callable<Object> {
+
+	int start, end;
+	boolean last;
+	byte[] compressed;
+	int adler;
 	
-		int[] lineData = new int[width];
-		byte[] alphaData = null;
-		if (colorType == 6) {
-			alphaData = new byte[width];
+	int[] pixels;
+	byte[] alphas;
+	byte[] row, previousRow;
+	byte[] filtered;
+
+Strip(int start, int end, boolean last) {
+
+	this.start = start;
+	this.end = end;
+	this.last = last;
+
+}
+
+@Override
+public Object call() {
+
+	row = new byte[bytesPerRow];
+	previousRow = new byte[bytesPerRow];
+	filtered = new byte[bytesPerRow + 1];
+	if (colorType != 3) pixels = new int[width];
+	if (colorType == 6) alphas = new byte[width];
+	
+	Deflater deflater = new Deflater(level, true);
+	try {
+		/*
+		* Filter the end of the previous strip again to use it as
+		* the dictionary, and to have the row above the first one.
+		*/
+		int dictionaryRows = Math.min(start, (WINDOW_SIZE + bytesPerRow) / (bytesPerRow + 1));
+		int first = start - dictionaryRows;
+		if (first > 0) getRow(first - 1, previousRow);
+		if (dictionaryRows > 0) {
+			byte[] dictionary = new byte[dictionaryRows * (bytesPerRow + 1)];
+			for (int y = first; y < start; y++) {
+				byte[] line = nextRow(y);
+				System.arraycopy(line, 0, dictionary, (y - first) * line.length, line.length);
+			}
+			int length = Math.min(WINDOW_SIZE, dictionary.length);
+			deflater.setDictionary(dictionary, dictionary.length - length, length);
 		}
 		
-		int redMask = data.palette.redMask;
-		int redShift = data.palette.redShift;
-		int greenMask = data.palette.greenMask;
-		int greenShift = data.palette.greenShift;
-		int blueShift = data.palette.blueShift;
-		int blueMask = data.palette.blueMask;
-		
-		byte[] lineBytes = new byte[width * (colorType == 6 ? 4 : 3)];
-		
-		for (int y = 0; y < height; y++) {
-		
-			int filter = 0;
-			os.write(filter);
-			
-			data.getPixels(0, y, width, lineData, 0);
-			
-			if (colorType == 6) {
-				data.getAlphas(0, y, width, alphaData, 0);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(Math.max(1024, (end - start) * bytesPerRow / 2));
+		byte[] buffer = new byte[8192];
+		Adler32 checksum = new Adler32();
+		for (int y = start; y < end; y++) {
+			byte[] line = nextRow(y);
+			checksum.update(line, 0, line.length);
+			deflater.setInput(line, 0, line.length);
+			while (!deflater.needsInput()) {
+				int count = deflater.deflate(buffer, 0, buffer.length, Deflater.NO_FLUSH);
+				baos.write(buffer, 0, count);
 			}
-			
-			int offset = 0;
-			for (int x = 0; x < lineData.length; x++) {
-			
-				int pixel = lineData[x];
-				
-				int r = pixel & redMask;
-				lineBytes[offset++] = (byte) ((redShift < 0) ? r >>> -redShift
-						: r << redShift);
-				int g = pixel & greenMask;
-				lineBytes[offset++] = (byte) ((greenShift < 0) ? g >>> -greenShift
-						: g << greenShift);
-				int b = pixel & blueMask;
-				lineBytes[offset++] = (byte) ((blueShift < 0) ? b >>> -blueShift
-						: b << blueShift);
-				
-				if (colorType == 6) {
-					lineBytes[offset++] = alphaData[x];
-				}
-			
+		}
+		if (last) {
+			deflater.finish();
+			while (!deflater.finished()) {
+				int count = deflater.deflate(buffer, 0, buffer.length, Deflater.NO_FLUSH);
+				baos.write(buffer, 0, count);
 			}
-			
-			os.write(lineBytes);
-			
+		} else {
+			int count;
+			do {
+				count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+				baos.write(buffer, 0, count);
+			} while (count == buffer.length);
 		}
+		compressed = baos.toByteArray();
+		adler = (int) checksum.getValue();
+	} finally {
+		deflater.end();
+	}
+	return null;
+
+}
+
+/**
+ * Answer the filter type byte followed by the filtered bytes of
+ * the row, and keep its unfiltered bytes as the previous row.
+ */
+byte[] nextRow(int y) {
+
+	getRow(y, row);
+	byte[] result = filterRow(row, y == 0 ? null : previousRow);
+	byte[] temp = previousRow;
+	previousRow = row;
+	row = temp;
+	return result;
+
+}
+
+/**
+ * Fill the line with the unfiltered PNG bytes of row y.
+ */
+void getRow(int y, byte[] line) {
+
+	if (colorType == 3) {
+		data.getPixels(0, y, width, line, 0);
+		return;
+	}
 	
+	data.getPixels(0, y, width, pixels, 0);
+	if (colorType == 6) {
+		data.getAlphas(0, y, width, alphas, 0);
 	}
 	
-	os.flush();
-	os.close();
+	int redMask = data.palette.redMask;
+	int redShift = data.palette.redShift;
+	int greenMask = data.palette.greenMask;
+	int greenShift = data.palette.greenShift;
+	int blueShift = data.palette.blueShift;
+	int blueMask = data.palette.blueMask;
+	
+	int offset = 0;
+	for (int x = 0; x < width; x++) {
 	
-	byte[] compressed = baos.toByteArray();
-	if (os == baos) {
-		/* Use PngDeflater for J2ME. */
-		PngDeflater deflater = new PngDeflater();
-		compressed = deflater.deflate(compressed);
+		int pixel = pixels[x];
+		
+		int r = pixel & redMask;
+		line[offset++] = (byte) ((redShift < 0) ? r >>> -redShift
+				: r << redShift);
+		int g = pixel & greenMask;
+		line[offset++] = (byte) ((greenShift < 0) ? g >>> -greenShift
+				: g << greenShift);
+		int b = pixel & blueMask;
+		line[offset++] = (byte) ((blueShift < 0) ? b >>> -blueShift
+				: b << blueShift);
+		
+		if (colorType == 6) {
+			line[offset++] = alphas[x];
+		}
+	
+	}
+
+}
+
+/**
+ * Answer the filter type byte followed by the row filtered with
+ * the filter type chosen for it. The previous row is <code>null</code>
+ * for the first row of the image.
+ */
+byte[] filterRow(byte[] line, byte[] previous) {
+
+	int filterType = adaptiveFilter ? chooseFilter(line, previous) : FILTER_NONE;
+	if (previous == null && filterType == FILTER_UP) filterType = FILTER_NONE;
+	
+	int bpp = bytesPerPixel, length = bytesPerRow;
+	byte[] result = filtered;
+	result[0] = (byte) filterType;
+	switch (filterType) {
+		case FILTER_NONE:
+			System.arraycopy(line, 0, result, 1, length);
+			break;
+		case FILTER_SUB:
+			System.arraycopy(line, 0, result, 1, bpp);
+			for (int i = bpp; i < length; i++) {
+				result[i + 1] = (byte) (line[i] - line[i - bpp]);
+			}
+			break;
+		case FILTER_UP:
+			for (int i = 0; i < length; i++) {
+				result[i + 1] = (byte) (line[i] - previous[i]);
+			}
+			break;
+		case FILTER_AVERAGE:
+			if (previous == null) {
+				System.arraycopy(line, 0, result, 1, bpp);
+				for (int i = bpp; i < length; i++) {
+					result[i + 1] = (byte) (line[i] - ((line[i - bpp] & 0xFF) >> 1));
+				}
+				break;
+			}
+			for (int i = 0; i < bpp; i++) {
+				result[i + 1] = (byte) (line[i] - ((previous[i] & 0xFF) >> 1));
+			}
+			for (int i = bpp; i < length; i++) {
+				result[i + 1] = (byte) (line[i] - (((line[i - bpp] & 0xFF) + (previous[i] & 0xFF)) >> 1));
+			}
+			break;
+		case FILTER_PAETH:
+			if (previous == null) {
+				/* with nothing above, the predictor is always the left byte */
+				System.arraycopy(line, 0, result, 1, bpp);
+				for (int i = bpp; i < length; i++) {
+					result[i + 1] = (byte) (line[i] - line[i - bpp]);
+				}
+				break;
+			}
+			for (int i = 0; i < bpp; i++) {
+				result[i + 1] = (byte) (line[i] - previous[i]);
+			}
+			for (int i = bpp; i < length; i++) {
+				result[i + 1] = (byte) (line[i] - paethPredictor(line[i - bpp] & 0xFF, previous[i] & 0xFF, previous[i - bpp] & 0xFF));
+			}
+			break;
+	}
+	return result;
+
+}
+
+/**
+ * Answer the filter type that gives the smallest sum of absolute
+ * differences for the row. The sums are estimated from every
+ * SAMPLE_STEP byte only, which picks the same filter as the full
+ * sums for nearly all rows at a fraction of the cost.
+ */
+int chooseFilter(byte[] line, byte[] previous) {
+
+	int bpp = bytesPerPixel, length = bytesPerRow;
+	int sumNone = 0, sumSub = 0, sumUp = 0, sumAverage = 0, sumPaeth = 0;
+	for (int i = 0; i < length; i += SAMPLE_STEP) {
+		int current = line[i] & 0xFF;
+		int left = i < bpp ? 0 : line[i - bpp] & 0xFF;
+		int above = previous == null ? 0 : previous[i] & 0xFF;
+		int aboveLeft = previous == null || i < bpp ? 0 : previous[i - bpp] & 0xFF;
+		sumNone += Math.abs((byte) current);
+		sumSub += Math.abs((byte) (current - left));
+		sumUp += Math.abs((byte) (current - above));
+		sumAverage += Math.abs((byte) (current - ((left + above) >> 1)));
+		sumPaeth += Math.abs((byte) (current - paethPredictor(left, above, aboveLeft)));
 	}
 	
-	writeChunk(TAG_IDAT, compressed);
+	int filterType = FILTER_NONE, min = sumNone;
+	if (sumSub < min) { filterType = FILTER_SUB; min = sumSub; }
+	if (sumUp < min) { filterType = FILTER_UP; min = sumUp; }
+	if (sumAverage < min) { filterType = FILTER_AVERAGE; min = sumAverage; }
+	if (sumPaeth < min) { filterType = FILTER_PAETH; }
+	return filterType;
+
+}
 
 }
 
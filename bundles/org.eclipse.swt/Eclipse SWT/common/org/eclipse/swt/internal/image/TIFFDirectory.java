@@ -14,6 +14,7 @@ package org.eclipse.swt.internal.image;
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import java.io.*;
+import java.util.*;
 
 final class TIFFDirectory {
 
@@ -150,36 +151,106 @@ void getEntryValue(int type, byte[] buffer, int index, int[] values) throws IOEx
 }
 
 void decodePixels(ImageData image) throws IOException {
-	/* Each row is byte aligned */ 
-	byte[] imageData = new byte[(imageWidth * depth + 7) / 8 * imageLength];
-	image.data = imageData;
+	byte[] imageData = image.data;
 	int destIndex = 0;
 	int length = stripOffsets.length;
 	for (int i = 0; i < length; i++) {
-		/* Read a strip */
-		byte[] data = new byte[stripByteCounts[i]];
-		file.seek(stripOffsets[i]);
-		file.read(data);
-		if (compression == COMPRESSION_NONE) {
-			System.arraycopy(data, 0, imageData, destIndex, data.length);
-			destIndex += data.length;
-		} else if (compression == COMPRESSION_PACKBITS) {
-			destIndex += decodePackBits(data, imageData, destIndex);
-		} else if (compression == COMPRESSION_CCITT_3_1 || compression == 3) {
-			TIFFModifiedHuffmanCodec codec = new TIFFModifiedHuffmanCodec();
-			int nRows = rowsPerStrip;
-			if (i == length -1) {
-				int n = imageLength % rowsPerStrip;
-				if (n != 0) nRows = n;
-			}
-			destIndex += codec.decode(data, imageData, destIndex, imageWidth, nRows);
-		}
+		destIndex += decodeStrip(i, imageData, destIndex);
 		if (loader.hasListeners()) {
 			loader.notifyListeners(new ImageLoaderEvent(loader, image, i, i == length - 1));
 		}
 	}
 }
 
+/* Read and decode a strip, answer the number of bytes decoded */
+int decodeStrip(int i, byte[] imageData, int destIndex) throws IOException {
+	byte[] data = new byte[stripByteCounts[i]];
+	file.seek(stripOffsets[i]);
+	file.read(data);
+	if (compression == COMPRESSION_NONE) {
+		System.arraycopy(data, 0, imageData, destIndex, data.length);
+		return data.length;
+	} else if (compression == COMPRESSION_PACKBITS) {
+		return decodePackBits(data, imageData, destIndex);
+	} else if (compression == COMPRESSION_CCITT_3_1 || compression == 3) {
+		TIFFModifiedHuffmanCodec codec = new TIFFModifiedHuffmanCodec();
+		return codec.decode(data, imageData, destIndex, imageWidth, stripRows(i));
+	}
+	return 0;
+}
+
+/* Answer the number of rows of a strip, the last strip may have fewer */
+int stripRows(int i) {
+	if (i == stripOffsets.length - 1) {
+		int n = imageLength % rowsPerStrip;
+		if (n != 0) return n;
+	}
+	return rowsPerStrip;
+}
+
+/* 
+ * Answer an iterator that decodes bands of whole strips. Buffered
+ * input is released once no strip after the current band needs it,
+ * so memory stays bounded when strips are stored in order.
+ */
+Iterator<ImageData> readTiles() throws IOException {
+	final PaletteData palette = readDirectory(new int[1]);
+	final int length = stripOffsets.length;
+	final int bytesPerLine = (imageWidth * depth + 7) / 8;
+	/* The lowest offset of the strips from each strip on */
+	final int[] nextOffsets = new int[length + 1];
+	nextOffsets[length] = Integer.MAX_VALUE;
+	for (int i = length - 1; i >= 0; i--) {
+		nextOffsets[i] = Math.min(stripOffsets[i], nextOffsets[i + 1]);
+	}
+	loader.logicalScreenWidth = imageWidth;
+	loader.logicalScreenHeight = imageLength;
+	return new ImageTileIterator(imageLength) {
+		int strip, y;
+		@Override
+		ImageData readBand() throws IOException {
+			int bandRows = bandRows(bytesPerLine);
+			int last = strip, rows = 0;
+			while (last < length && (rows == 0 || rows + stripRows(last) <= bandRows)) {
+				rows += stripRows(last++);
+			}
+			rows = Math.min(rows, remaining);
+			byte[] data = new byte[bytesPerLine * rows];
+			int destIndex = 0;
+			for (int i = strip; i < last; i++) {
+				if (compression == COMPRESSION_NONE && destIndex + stripByteCounts[i] > data.length) {
+					/* Strips may be padded beyond their rows */
+					byte[] newData = new byte[destIndex + stripByteCounts[i]];
+					System.arraycopy(data, 0, newData, 0, destIndex);
+					data = newData;
+				}
+				destIndex += decodeStrip(i, data, destIndex);
+			}
+			file.discard(nextOffsets[last]);
+			ImageData band = ImageData.internal_new(
+				imageWidth,
+				rows,
+				depth,
+				palette,
+				1,
+				data,
+				0,
+				null,
+				null,
+				-1,
+				-1,
+				SWT.IMAGE_TIFF,
+				0,
+				y,
+				0,
+				0);
+			strip = last;
+			y += rows;
+			remaining -= rows;
+			return band;
+		}
+	};
+}
 PaletteData getColorMap() throws IOException {
 	int numColors = 1 << bitsPerSample[0];
 	/* R, G, B entries are 16 bit wide (2 bytes) */
@@ -424,6 +495,32 @@ void parseEntries(byte[] buffer) throws IOException {
 }
 
 public ImageData read(int [] nextIFDOffset) throws IOException {
+	PaletteData palette = readDirectory(nextIFDOffset);
+	/* Each row is byte aligned */
+	byte[] data = new byte[(imageWidth * depth + 7) / 8 * imageLength];
+	ImageData image = ImageData.internal_new(
+			imageWidth,
+			imageLength, 
+			depth,
+			palette,
+			1,
+			data,
+			0,
+			null,
+			null,
+			-1,
+			-1,
+			SWT.IMAGE_TIFF,
+			0,
+			0,
+			0,
+			0);
+	decodePixels(image);
+	return image;
+}
+
+/* Read the directory entries, answer the palette of the image */
+PaletteData readDirectory(int [] nextIFDOffset) throws IOException {
 	/* Set TIFF default values */
 	bitsPerSample = new int[] {1};
 	colorMapOffset = NO_VALUE;
@@ -476,25 +573,7 @@ public ImageData read(int [] nextIFDOffset) throws IOException {
 		}
 	}
 
-	ImageData image = ImageData.internal_new(
-			imageWidth,
-			imageLength, 
-			depth,
-			palette,
-			1,
-			null,
-			0,
-			null,
-			null,
-			-1,
-			-1,
-			SWT.IMAGE_TIFF,
-			0,
-			0,
-			0,
-			0);
-	decodePixels(image);
-	return image;
+	return palette;
 }
 
 int toInt(byte[] buffer, int i, int type) {
@@ -14,6 +14,7 @@ package org.eclipse.swt.internal.image;
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import java.io.*;
+import java.util.*;
 
 /**
  * Baseline TIFF decoder revision 6.0
@@ -21,30 +22,20 @@ import java.io.*;
  */
 public final class TIFFFileFormat extends FileFormat {
 
-@Override
-boolean isFileFormat(LEDataInputStream stream) {
-	try {
-		byte[] header = new byte[4];
-		stream.read(header);
-		stream.unread(header);
-		if (header[0] != header[1]) return false;
-		if (!(header[0] == 0x49 && header[2] == 42 && header[3] == 0) &&
-			!(header[0] == 0x4d && header[2] == 0 && header[3] == 42)) {
-			return false;
-		} 	
-		return true;
-	} catch (Exception e) {
-		return false;
-	}
+static boolean isFileFormat(byte[] header, int length) {
+	if (length < 4) return false;
+	if (header[0] != header[1]) return false;
+	return (header[0] == 0x49 && header[2] == 42 && header[3] == 0) ||
+		(header[0] == 0x4d && header[2] == 0 && header[3] == 42);
 }
 
 @Override
-ImageData[] loadFromByteStream() {	
+protected ImageData[] loadFromByteStream() {	
 	byte[] header = new byte[8];
 	boolean isLittleEndian;
 	ImageData[] images = new ImageData[0];
-	TIFFRandomFileAccess file = new TIFFRandomFileAccess(inputStream);
 	try {
+		TIFFRandomFileAccess file = new TIFFRandomFileAccess(inputStream);
 		file.read(header);
 		if (header[0] != header[1]) SWT.error(SWT.ERROR_INVALID_IMAGE);
 		if (!(header[0] == 0x49 && header[2] == 42 && header[3] == 0) &&
@@ -73,7 +64,27 @@ ImageData[] loadFromByteStream() {
 }
 
 @Override
-void unloadIntoByteStream(ImageLoader loader) {
+Iterator<ImageData> openTilesFromByteStream() {
+	byte[] header = new byte[8];
+	try {
+		TIFFRandomFileAccess file = new TIFFRandomFileAccess(inputStream);
+		file.read(header);
+		if (!isFileFormat(header, header.length)) SWT.error(SWT.ERROR_INVALID_IMAGE);
+		boolean isLittleEndian = header[0] == 0x49;	
+		int offset = isLittleEndian ? 
+			(header[4] & 0xFF) | ((header[5] & 0xFF) << 8) | ((header[6] & 0xFF) << 16) | ((header[7] & 0xFF) << 24) :
+			(header[7] & 0xFF) | ((header[6] & 0xFF) << 8) | ((header[5] & 0xFF) << 16) | ((header[4] & 0xFF) << 24);
+		/* Only the first image of a multi-page file is read */
+		file.seek(offset);
+		return new TIFFDirectory(file, isLittleEndian, loader).readTiles();
+	} catch (IOException e) {
+		SWT.error(SWT.ERROR_IO, e);
+	}
+	return null;
+}
+
+@Override
+protected void unloadIntoByteStream(ImageLoader loader) {
 	/* We do not currently support writing multi-page tiff,
 	 * so we use the first image data in the loader's array. */
 	ImageData image = loader.data[0];
@@ -11,26 +11,37 @@
 package org.eclipse.swt.internal.image;
 
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
 
 final class TIFFRandomFileAccess {
 
 	LEDataInputStream inputStream;
 	int start, current, next;
 	byte[][] buffers;
+	/* the file and the offset of start in it, when the stream reads a file channel */
+	FileChannel channel;
+	long offset;
 
 	static final int CHUNK_SIZE = 8192;
 	static final int LIST_SIZE = 128;
 
-public TIFFRandomFileAccess(LEDataInputStream stream) {
+public TIFFRandomFileAccess(LEDataInputStream stream) throws IOException {
 	inputStream = stream;
 	start = current = next = inputStream.getPosition();
-	buffers = new byte[LIST_SIZE][];
+	offset = inputStream.getChannelPosition();
+	if (offset != -1) {
+		channel = inputStream.channel;
+	} else {
+		buffers = new byte[LIST_SIZE][];
+	}
 }
 
 void seek(int pos) throws IOException {
 	if (pos == current) return;
 	if (pos < start) throw new IOException();
 	current = pos;	
+	if (channel != null) return;
 	if (current > next) {
 		int n = current - next;
 		/* store required bytes */
@@ -44,6 +55,7 @@ void seek(int pos) throws IOException {
 			}
 			if (buffers[index] == null) buffers[index] = new byte[CHUNK_SIZE];
 			int cnt = inputStream.read(buffers[index], offset, Math.min(n, CHUNK_SIZE - offset));
+			if (cnt == -1) throw new EOFException();
 			n -= cnt;
 			next += cnt;
 			index++;
@@ -52,8 +64,31 @@ void seek(int pos) throws IOException {
 	}
 }
 
+/*
+ * Release the buffered bytes before pos. They can no longer be read,
+ * seeking before pos fails.
+ */
+void discard(int pos) {
+	if (channel != null) return;
+	pos = Math.min(pos, next);
+	if (pos <= start) return;
+	for (int index = start / CHUNK_SIZE; index < pos / CHUNK_SIZE; index++) {
+		buffers[index] = null;
+	}
+	start = pos;
+}
+
 void read(byte b[]) throws IOException {
 	int size = b.length;
+	if (channel != null) {
+		/* Positional reads leave the channel where the stream reads it */
+		ByteBuffer dst = ByteBuffer.wrap(b);
+		while (dst.hasRemaining()) {
+			if (channel.read(dst, offset + current - start + dst.position()) == -1) throw new EOFException();
+		}
+		current += size;
+		return;
+	}
 	int nCached = Math.min(size, next - current);
 	int nMissing = size - next + current;
 	int destNext = 0;
@@ -82,6 +117,7 @@ void read(byte b[]) throws IOException {
 			}
 			if (buffers[index] == null) buffers[index] = new byte[CHUNK_SIZE];
 			int cnt = inputStream.read(buffers[index], offset, Math.min(nMissing, CHUNK_SIZE - offset));
+			if (cnt == -1) throw new EOFException();
 			System.arraycopy(buffers[index], offset, b, destNext, cnt);
 			nMissing -= cnt;
 			next += cnt;
@@ -14,12 +14,14 @@ package org.eclipse.swt.internal.image;
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import java.io.*;
+import java.util.*;
 
 public final class WinBMPFileFormat extends FileFormat {
 	static final int BMPFileHeaderSize = 14;
 	static final int BMPHeaderFixedSize = 40;
 	int importantColors;
 	Point pelsPerMeter = new Point(0, 0);
+	PaletteData palette;
 
 /**
  * Compress numBytes bytes of image data from src, storing in dest
@@ -406,17 +408,10 @@ int decompressRLE8Data(byte[] src, int numBytes, int stride, byte[] dest, int de
 	}
 	return 1;
 }
-@Override
-boolean isFileFormat(LEDataInputStream stream) {
-	try {
-		byte[] header = new byte[18];
-		stream.read(header);
-		stream.unread(header);
-		int infoHeaderSize = (header[14] & 0xFF) | ((header[15] & 0xFF) << 8) | ((header[16] & 0xFF) << 16) | ((header[17] & 0xFF) << 24);
-		return header[0] == 0x42 && header[1] == 0x4D && infoHeaderSize >= BMPHeaderFixedSize;
-	} catch (Exception e) {
-		return false;
-	}
+static boolean isFileFormat(byte[] header, int length) {
+	if (length < 18) return false;
+	int infoHeaderSize = (header[14] & 0xFF) | ((header[15] & 0xFF) << 8) | ((header[16] & 0xFF) << 16) | ((header[17] & 0xFF) << 24);
+	return header[0] == 0x42 && header[1] == 0x4D && infoHeaderSize >= BMPHeaderFixedSize;
 }
 boolean isPaletteBMP(PaletteData pal, int depth) {
 	switch(depth) {
@@ -484,8 +479,11 @@ int[] loadFileHeader() {
 		SWT.error(SWT.ERROR_INVALID_IMAGE);
 	return header;
 }
-@Override
-ImageData[] loadFromByteStream() {
+/**
+ * Read the headers and the palette, and skip to the pixels.
+ * Answer the info header.
+ */
+byte[] loadHeader() {
 	int[] fileHeader = loadFileHeader();
 	byte[] infoHeader = new byte[BMPHeaderFixedSize];
 	try {
@@ -493,12 +491,8 @@ ImageData[] loadFromByteStream() {
 	} catch (Exception e) {
 		SWT.error(SWT.ERROR_IO, e);
 	}
-	int width = (infoHeader[4] & 0xFF) | ((infoHeader[5] & 0xFF) << 8) | ((infoHeader[6] & 0xFF) << 16) | ((infoHeader[7] & 0xFF) << 24);
-	int height = (infoHeader[8] & 0xFF) | ((infoHeader[9] & 0xFF) << 8) | ((infoHeader[10] & 0xFF) << 16) | ((infoHeader[11] & 0xFF) << 24);
-	if (height < 0) height = -height;
-	int bitCount = (infoHeader[14] & 0xFF) | ((infoHeader[15] & 0xFF) << 8);
 	this.compression = (infoHeader[16] & 0xFF) | ((infoHeader[17] & 0xFF) << 8) | ((infoHeader[18] & 0xFF) << 16) | ((infoHeader[19] & 0xFF) << 24);
-	PaletteData palette = loadPalette(infoHeader);
+	this.palette = loadPalette(infoHeader);
 	if (inputStream.getPosition() < fileHeader[4]) {
 		// Seek to the specified offset
 		try {
@@ -507,11 +501,20 @@ ImageData[] loadFromByteStream() {
 			SWT.error(SWT.ERROR_IO, e);
 		}
 	}
-	byte[] data = loadData(infoHeader);
 	this.importantColors = (infoHeader[36] & 0xFF) | ((infoHeader[37] & 0xFF) << 8) | ((infoHeader[38] & 0xFF) << 16) | ((infoHeader[39] & 0xFF) << 24);
 	int xPelsPerMeter = (infoHeader[24] & 0xFF) | ((infoHeader[25] & 0xFF) << 8) | ((infoHeader[26] & 0xFF) << 16) | ((infoHeader[27] & 0xFF) << 24);
 	int yPelsPerMeter = (infoHeader[28] & 0xFF) | ((infoHeader[29] & 0xFF) << 8) | ((infoHeader[30] & 0xFF) << 16) | ((infoHeader[31] & 0xFF) << 24);
 	this.pelsPerMeter = new Point(xPelsPerMeter, yPelsPerMeter);
+	return infoHeader;
+}
+@Override
+protected ImageData[] loadFromByteStream() {
+	byte[] infoHeader = loadHeader();
+	int width = (infoHeader[4] & 0xFF) | ((infoHeader[5] & 0xFF) << 8) | ((infoHeader[6] & 0xFF) << 16) | ((infoHeader[7] & 0xFF) << 24);
+	int height = (infoHeader[8] & 0xFF) | ((infoHeader[9] & 0xFF) << 8) | ((infoHeader[10] & 0xFF) << 16) | ((infoHeader[11] & 0xFF) << 24);
+	if (height < 0) height = -height;
+	int bitCount = (infoHeader[14] & 0xFF) | ((infoHeader[15] & 0xFF) << 8);
+	byte[] data = loadData(infoHeader);
 	int type = (this.compression == 1 /*BMP_RLE8_COMPRESSION*/) || (this.compression == 2 /*BMP_RLE4_COMPRESSION*/) ? SWT.IMAGE_BMP_RLE : SWT.IMAGE_BMP;
 	return new ImageData[] {
 		ImageData.internal_new(
@@ -533,6 +536,68 @@ ImageData[] loadFromByteStream() {
 			0)
 	};
 }
+/**
+ * Answer an iterator that reads bands of rows in the order they are
+ * stored, which is bottom to top unless the height is negative.
+ * Compressed images are loaded as a single band, because run length
+ * encoded rows can skip to any later pixel.
+ */
+@Override
+Iterator<ImageData> openTilesFromByteStream() {
+	final byte[] infoHeader = loadHeader();
+	final int width = (infoHeader[4] & 0xFF) | ((infoHeader[5] & 0xFF) << 8) | ((infoHeader[6] & 0xFF) << 16) | ((infoHeader[7] & 0xFF) << 24);
+	int height = (infoHeader[8] & 0xFF) | ((infoHeader[9] & 0xFF) << 8) | ((infoHeader[10] & 0xFF) << 16) | ((infoHeader[11] & 0xFF) << 24);
+	final boolean bottomUp = height > 0;
+	if (height < 0) height = -height;
+	final int bitCount = (infoHeader[14] & 0xFF) | ((infoHeader[15] & 0xFF) << 8);
+	loader.logicalScreenWidth = width;
+	loader.logicalScreenHeight = height;
+	if (this.compression != 0 && this.compression != 3) {
+		final byte[] data = loadData(infoHeader);
+		return new ImageTileIterator(height) {
+			@Override
+			ImageData readBand() {
+				ImageData band = ImageData.internal_new(width, remaining, bitCount, palette, 4, data, 0, null, null, -1, -1, SWT.IMAGE_BMP_RLE, 0, 0, 0, 0);
+				remaining = 0;
+				return band;
+			}
+		};
+	}
+	int stride = (width * bitCount + 7) / 8;
+	final int bytesPerLine = (stride + 3) / 4 * 4; // Round up to 4 byte multiple
+	return new ImageTileIterator(height) {
+		@Override
+		ImageData readBand() throws IOException {
+			int rows = Math.min(bandRows(bytesPerLine), remaining);
+			byte[] data = new byte[rows * bytesPerLine];
+			if (inputStream.read(data) != data.length)
+				SWT.error(SWT.ERROR_INVALID_IMAGE);
+			int y = loader.logicalScreenHeight - remaining;
+			if (bottomUp) {
+				flipScanLines(data, bytesPerLine, rows);
+				y = remaining - rows;
+			}
+			remaining -= rows;
+			return ImageData.internal_new(
+				width,
+				rows,
+				bitCount,
+				palette,
+				4,
+				data,
+				0,
+				null,
+				null,
+				-1,
+				-1,
+				SWT.IMAGE_BMP,
+				0,
+				y,
+				0,
+				0);
+		}
+	};
+}
 PaletteData loadPalette(byte[] infoHeader) {
 	int depth = (infoHeader[14] & 0xFF) | ((infoHeader[15] & 0xFF) << 8);
 	if (depth <= 8) {
@@ -693,7 +758,7 @@ int unloadDataNoCompression(ImageData image, byte[] data, OutputStream out) {
  * byte stream.
  */
 @Override
-void unloadIntoByteStream(ImageLoader loader) {
+protected void unloadIntoByteStream(ImageLoader loader) {
 	ImageData image = loader.data[0];
 	byte[] rgbs;
 	int numCols;
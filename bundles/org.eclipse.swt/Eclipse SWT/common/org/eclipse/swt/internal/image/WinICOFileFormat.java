@@ -50,16 +50,8 @@ int iconSize(ImageData i) {
 	int paletteSize = i.palette.colors != null ? i.palette.colors.length * 4 : 0;
 	return WinBMPFileFormat.BMPHeaderFixedSize + paletteSize + dataSize;
 }
-@Override
-boolean isFileFormat(LEDataInputStream stream) {
-	try {
-		byte[] header = new byte[4];
-		stream.read(header);
-		stream.unread(header);
-		return header[0] == 0 && header[1] == 0 && header[2] == 1 && header[3] == 0;
-	} catch (Exception e) {
-		return false;
-	}
+static boolean isFileFormat(byte[] header, int length) {
+	return length >= 4 && header[0] == 0 && header[1] == 0 && header[2] == 1 && header[3] == 0;
 }
 boolean isValidIcon(ImageData i) {
 	switch (i.depth) {
@@ -113,7 +105,7 @@ int loadFileHeader(LEDataInputStream byteStream, boolean hasHeader) {
 	return numIcons;
 }
 @Override
-ImageData[] loadFromByteStream() {
+protected ImageData[] loadFromByteStream() {
 	int numIcons = loadFileHeader(inputStream);
 	int[][] headers = loadIconHeaders(numIcons);
 	ImageData[] icons = new ImageData[headers.length];
@@ -127,8 +119,9 @@ ImageData[] loadFromByteStream() {
  */
 ImageData loadIcon(int[] iconHeader) {
 	try {
-		FileFormat png = getFileFormat(inputStream, "PNG");
-		if (png != null) {
+		byte[] signature = peek(inputStream, PNGFileFormat.SIGNATURE_LENGTH);
+		if (PNGFileFormat.isFileFormat(signature, signature.length)) {
+			FileFormat png = new PNGFileFormat();
 			png.loader = this.loader;
 			return png.loadFromStream(inputStream)[0];
 		}
@@ -279,7 +272,7 @@ void unloadIconHeader(ImageData i) {
 	}
 }
 @Override
-void unloadIntoByteStream(ImageLoader loader) {
+protected void unloadIntoByteStream(ImageLoader loader) {
 	/* We do not currently support writing multi-image ico,
 	 * so we use the first image data in the loader's array. */
 	ImageData image = loader.data[0];
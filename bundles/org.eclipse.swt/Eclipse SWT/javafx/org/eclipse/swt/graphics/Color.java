@@ -34,6 +34,9 @@ import org.eclipse.swt.SWTException;
  *      information</a>
  */
 public final class Color extends Resource {
+
+	javafx.scene.paint.Color color;
+
 	/**
 	 * Constructs a new instance of this class given a device and the desired
 	 * red, green and blue values expressed as ints in the range 0 to 255 (where
@@ -66,7 +69,11 @@ public final class Color extends Resource {
 	 */
 	public Color(Device device, int red, int green, int blue) {
 		super(device);
-		// TODO
+		if (red > 255 || red < 0 || green > 255 || green < 0 || blue > 255
+				|| blue < 0)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		color = javafx.scene.paint.Color.rgb(red, green, blue);
+		init();
 	}
 
 	/**
@@ -97,8 +104,28 @@ public final class Color extends Resource {
 	 * @see #dispose
 	 */
 	public Color(Device device, RGB rgb) {
-		super(device);
-		// TODO
+		this(device, checkRGB(rgb).red, rgb.green, rgb.blue);
+	}
+
+	static RGB checkRGB(RGB rgb) {
+		if (rgb == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		return rgb;
+	}
+
+	@Override
+	void destroy() {
+		color = null;
+	}
+
+	/**
+	 * Returns the JavaFX color with the given alpha, 0 to 255.
+	 */
+	javafx.scene.paint.Color getColor(int alpha) {
+		if (alpha == 0xFF)
+			return color;
+		return new javafx.scene.paint.Color(color.getRed(), color.getGreen(),
+				color.getBlue(), alpha / 255.0);
 	}
 
 	/**
@@ -113,8 +140,9 @@ public final class Color extends Resource {
 	 *                </ul>
 	 */
 	public int getBlue() {
-		// TODO
-		return 0;
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return (int)Math.round(color.getBlue() * 255);
 	}
 
 	/**
@@ -129,8 +157,9 @@ public final class Color extends Resource {
 	 *                </ul>
 	 */
 	public int getGreen() {
-		// TODO
-		return 0;
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return (int)Math.round(color.getGreen() * 255);
 	}
 
 	/**
@@ -145,8 +174,9 @@ public final class Color extends Resource {
 	 *                </ul>
 	 */
 	public int getRed() {
-		// TODO
-		return 0;
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return (int)Math.round(color.getRed() * 255);
 	}
 
 	/**
@@ -179,8 +209,7 @@ public final class Color extends Resource {
 	 */
 	@Override
 	public boolean isDisposed() {
-		// TODO
-		return false;
+		return color == null;
 	}
 
 	/**
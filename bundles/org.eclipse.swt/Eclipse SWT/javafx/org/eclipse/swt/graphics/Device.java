@@ -10,9 +10,14 @@
  *******************************************************************************/
 package org.eclipse.swt.graphics;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javafx.scene.text.Text;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
-import org.eclipse.swt.widgets.Display;
 
 /**
  * This class is the abstract superclass of all device objects, such as the
@@ -31,6 +36,26 @@ public abstract class Device implements Drawable {
 
 	boolean tracking = false;
 
+	/* System Colors */
+	Color COLOR_BLACK, COLOR_DARK_RED, COLOR_DARK_GREEN, COLOR_DARK_YELLOW,
+			COLOR_DARK_BLUE;
+	Color COLOR_DARK_MAGENTA, COLOR_DARK_CYAN, COLOR_GRAY, COLOR_DARK_GRAY,
+			COLOR_RED;
+	Color COLOR_GREEN, COLOR_YELLOW, COLOR_BLUE, COLOR_MAGENTA, COLOR_CYAN,
+			COLOR_WHITE;
+
+	/* System Font */
+	Font systemFont;
+
+	/* Decoded images shared by Image(Device, String), null when disabled */
+	ImageCache imageCache;
+
+	/* Text laid out by GC.drawText, least recently used first */
+	static final int TEXT_RUN_CACHE_SIZE = 512;
+	LinkedHashMap<TextRun, TextRun> textRuns;
+	TextRun textRunKey;
+	Text measureText;
+
 	/**
 	 * Constructs a new instance of this class.
 	 * <p>
@@ -43,7 +68,7 @@ public abstract class Device implements Drawable {
 	 * @since 3.1
 	 */
 	public Device() {
-		// TODO
+		this(null);
 	}
 
 	/**
@@ -60,7 +85,8 @@ public abstract class Device implements Drawable {
 	 * @see DeviceData
 	 */
 	public Device(DeviceData data) {
-		// TODO
+		create(data);
+		init();
 	}
 
 	/*
@@ -315,8 +341,42 @@ public abstract class Device implements Drawable {
 	 * @see SWT
 	 */
 	public Color getSystemColor(int id) {
-		// TODO
-		return new Color(this, 0, 0, 0);
+		checkDevice();
+		switch (id) {
+		case SWT.COLOR_BLACK:
+			return COLOR_BLACK;
+		case SWT.COLOR_DARK_RED:
+			return COLOR_DARK_RED;
+		case SWT.COLOR_DARK_GREEN:
+			return COLOR_DARK_GREEN;
+		case SWT.COLOR_DARK_YELLOW:
+			return COLOR_DARK_YELLOW;
+		case SWT.COLOR_DARK_BLUE:
+			return COLOR_DARK_BLUE;
+		case SWT.COLOR_DARK_MAGENTA:
+			return COLOR_DARK_MAGENTA;
+		case SWT.COLOR_DARK_CYAN:
+			return COLOR_DARK_CYAN;
+		case SWT.COLOR_GRAY:
+			return COLOR_GRAY;
+		case SWT.COLOR_DARK_GRAY:
+			return COLOR_DARK_GRAY;
+		case SWT.COLOR_RED:
+			return COLOR_RED;
+		case SWT.COLOR_GREEN:
+			return COLOR_GREEN;
+		case SWT.COLOR_YELLOW:
+			return COLOR_YELLOW;
+		case SWT.COLOR_BLUE:
+			return COLOR_BLUE;
+		case SWT.COLOR_MAGENTA:
+			return COLOR_MAGENTA;
+		case SWT.COLOR_CYAN:
+			return COLOR_CYAN;
+		case SWT.COLOR_WHITE:
+			return COLOR_WHITE;
+		}
+		return COLOR_BLACK;
 	}
 
 	/**
@@ -340,8 +400,50 @@ public abstract class Device implements Drawable {
 	 *                </ul>
 	 */
 	public Font getSystemFont() {
-		// TODO
-		return new Font(Display.getDefault(), new FontData());
+		checkDevice();
+		if (systemFont == null)
+			systemFont = new Font(this, new FontData());
+		return systemFont;
+	}
+
+	TextRun getTextRun(String string, Font font, int flags) {
+		if (textRuns == null) {
+			textRuns = new LinkedHashMap<TextRun, TextRun>(64, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(
+						Map.Entry<TextRun, TextRun> eldest) {
+					return size() > TEXT_RUN_CACHE_SIZE;
+				}
+			};
+			textRunKey = new TextRun();
+			measureText = new Text();
+		}
+		TextRun key = textRunKey;
+		key.set(string, font, flags);
+		TextRun run = textRuns.get(key);
+		key.set(null, null, 0);
+		if (run == null) {
+			run = new TextRun(string, font, flags);
+			run.layout(measureText);
+			textRuns.put(run, run);
+		}
+		return run;
+	}
+
+	/*
+	 * Drops the runs laid out with the font, which is being disposed, so the
+	 * cache does not keep it alive.
+	 */
+	void removeTextRuns(Font font) {
+		if (textRuns == null)
+			return;
+		Iterator<TextRun> iterator = textRuns.keySet().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().font == font)
+				iterator.remove();
+		}
 	}
 
 	/**
@@ -377,7 +479,24 @@ public abstract class Device implements Drawable {
 	 * @see #create
 	 */
 	protected void init() {
-		// TODO
+		COLOR_BLACK = new Color(this, 0, 0, 0);
+		COLOR_DARK_RED = new Color(this, 0x80, 0, 0);
+		COLOR_DARK_GREEN = new Color(this, 0, 0x80, 0);
+		COLOR_DARK_YELLOW = new Color(this, 0x80, 0x80, 0);
+		COLOR_DARK_BLUE = new Color(this, 0, 0, 0x80);
+		COLOR_DARK_MAGENTA = new Color(this, 0x80, 0, 0x80);
+		COLOR_DARK_CYAN = new Color(this, 0, 0x80, 0x80);
+		COLOR_GRAY = new Color(this, 0xC0, 0xC0, 0xC0);
+		COLOR_DARK_GRAY = new Color(this, 0x80, 0x80, 0x80);
+		COLOR_RED = new Color(this, 0xFF, 0, 0);
+		COLOR_GREEN = new Color(this, 0, 0xFF, 0);
+		COLOR_YELLOW = new Color(this, 0xFF, 0xFF, 0);
+		COLOR_BLUE = new Color(this, 0, 0, 0xFF);
+		COLOR_MAGENTA = new Color(this, 0xFF, 0, 0xFF);
+		COLOR_CYAN = new Color(this, 0, 0xFF, 0xFF);
+		COLOR_WHITE = new Color(this, 0xFF, 0xFF, 0xFF);
+
+		imageCache = ImageCache.create();
 	}
 
 	/**
@@ -482,7 +601,18 @@ public abstract class Device implements Drawable {
 	 * @see #destroy
 	 */
 	protected void release() {
-		// TODO
+		if (imageCache != null)
+			imageCache.clear();
+		imageCache = null;
+		textRuns = null;
+		textRunKey = null;
+		measureText = null;
+		if (systemFont != null)
+			systemFont.dispose();
+		systemFont = null;
+		COLOR_BLACK = COLOR_DARK_RED = COLOR_DARK_GREEN = COLOR_DARK_YELLOW = COLOR_DARK_BLUE = null;
+		COLOR_DARK_MAGENTA = COLOR_DARK_CYAN = COLOR_GRAY = COLOR_DARK_GRAY = COLOR_RED = null;
+		COLOR_GREEN = COLOR_YELLOW = COLOR_BLUE = COLOR_MAGENTA = COLOR_CYAN = COLOR_WHITE = null;
 	}
 
 	/**
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.swt.graphics;
 
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
+
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTError;
 import org.eclipse.swt.SWTException;
 
@@ -33,7 +37,21 @@ import org.eclipse.swt.SWTException;
  */
 public final class Font extends Resource {
 	
-	private FontData[] fontData;
+	/**
+	 * the JavaFX font for the Font (Warning: This field is platform
+	 * dependent)
+	 * <p>
+	 * <b>IMPORTANT:</b> This field is <em>not</em> part of the SWT public
+	 * API. It is marked public only so that it can be shared within the
+	 * packages provided by SWT. It is not available on all platforms and
+	 * should never be accessed from application code.
+	 * </p>
+	 * 
+	 * @noreference This field is not intended to be referenced by clients.
+	 */
+	public javafx.scene.text.Font handle;
+
+	FontData fontData;
 
 	/**
 	 * Constructs a new font given a device and font data which describes the
@@ -62,8 +80,10 @@ public final class Font extends Resource {
 	 */
 	public Font(Device device, FontData fd) {
 		super(device);
-		fontData = new FontData[] { fd };
-		// TODO
+		if (fd == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		init(fd);
+		init();
 	}
 
 	/**
@@ -97,8 +117,16 @@ public final class Font extends Resource {
 	 */
 	public Font(Device device, FontData[] fds) {
 		super(device);
-		fontData = fds;
-		// TODO
+		if (fds == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (fds.length == 0)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		for (int i = 0; i < fds.length; i++) {
+			if (fds[i] == null)
+				SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		}
+		init(fds[0]);
+		init();
 	}
 
 	/**
@@ -132,14 +160,37 @@ public final class Font extends Resource {
 	 */
 	public Font(Device device, String name, int height, int style) {
 		super(device);
-		FontData fd = new FontData(name, height, style);
-		fontData = new FontData[] { fd };
-		// TODO
+		if (name == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		init(new FontData(name, height, style));
+		init();
+	}
+
+	void init(FontData fd) {
+		String name = fd.getName();
+		if (name.length() == 0)
+			name = javafx.scene.text.Font.getDefault().getFamily();
+		FontWeight weight = (fd.style & SWT.BOLD) != 0 ? FontWeight.BOLD
+				: FontWeight.NORMAL;
+		FontPosture posture = (fd.style & SWT.ITALIC) != 0 ? FontPosture.ITALIC
+				: FontPosture.REGULAR;
+		handle = javafx.scene.text.Font.font(name, weight, posture, fd.height);
+		if (handle == null)
+			SWT.error(SWT.ERROR_NO_HANDLES);
+		fontData = copy(fd);
+	}
+
+	static FontData copy(FontData fd) {
+		FontData result = new FontData(fd.name, 0, fd.style);
+		result.height = fd.height;
+		result.locale = fd.locale;
+		return result;
 	}
 
 	@Override
 	void destroy() {
-		// TODO
+		device.removeTextRuns(this);
+		handle = null;
 	}
 
 	/**
@@ -157,7 +208,9 @@ public final class Font extends Resource {
 	 *                </ul>
 	 */
 	public FontData[] getFontData() {
-		return fontData;
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return new FontData[] { copy(fontData) };
 	}
 
 	/**
@@ -173,8 +226,7 @@ public final class Font extends Resource {
 	 */
 	@Override
 	public boolean isDisposed() {
-		// TODO
-		return false;
+		return handle == null;
 	}
 
 }
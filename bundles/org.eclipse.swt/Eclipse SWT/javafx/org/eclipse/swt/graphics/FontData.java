@@ -42,6 +42,12 @@ import org.eclipse.swt.SWT;
  *      information</a>
  */
 public final class FontData {
+
+	String name;
+	float height;
+	int style;
+	String locale;
+
 	/**
 	 * Constructs a new uninitialized font data.
 	 */
@@ -71,7 +77,51 @@ public final class FontData {
 	 * @see #toString
 	 */
 	public FontData(String string) {
-		// TODO
+		if (string == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		int start = 0;
+		int end = string.indexOf('|');
+		if (end == -1)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		String version1 = string.substring(start, end);
+		try {
+			if (Integer.parseInt(version1) != 1)
+				SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		} catch (NumberFormatException e) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+
+		start = end + 1;
+		end = string.indexOf('|', start);
+		if (end == -1)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		String name = string.substring(start, end);
+
+		start = end + 1;
+		end = string.indexOf('|', start);
+		if (end == -1)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		float height = 0;
+		try {
+			height = Float.parseFloat(string.substring(start, end));
+		} catch (NumberFormatException e) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+
+		start = end + 1;
+		end = string.indexOf('|', start);
+		if (end == -1)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		int style = 0;
+		try {
+			style = Integer.parseInt(string.substring(start, end));
+		} catch (NumberFormatException e) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+
+		setName(name);
+		setHeight(height);
+		setStyle(style);
 	}
 
 	/**
@@ -97,6 +147,42 @@ public final class FontData {
 		setStyle(style);
 	}
 
+	/**
+	 * Compares the argument to the receiver, and returns true if they represent
+	 * the <em>same</em> object using a class specific comparison.
+	 * 
+	 * @param object
+	 *            the object to compare with this object
+	 * @return <code>true</code> if the object is the same as this object and
+	 *         <code>false</code> otherwise
+	 * 
+	 * @see #hashCode
+	 */
+	@Override
+	public boolean equals(Object object) {
+		if (object == this)
+			return true;
+		if (!(object instanceof FontData))
+			return false;
+		FontData data = (FontData) object;
+		return name.equals(data.name) && height == data.height
+				&& style == data.style;
+	}
+
+	/**
+	 * Returns an integer hash code for the receiver. Any two objects that
+	 * return <code>true</code> when passed to <code>equals</code> must return
+	 * the same value for this method.
+	 * 
+	 * @return the receiver's hash
+	 * 
+	 * @see #equals
+	 */
+	@Override
+	public int hashCode() {
+		return name.hashCode() ^ getHeight() ^ style;
+	}
+
 	/**
 	 * Returns the height of the receiver in points.
 	 * 
@@ -105,8 +191,7 @@ public final class FontData {
 	 * @see #setHeight(int)
 	 */
 	public int getHeight() {
-		// TODO
-		return 0;
+		return (int) (0.5f + height);
 	}
 
 	/**
@@ -126,8 +211,7 @@ public final class FontData {
 	 * @since 3.0
 	 */
 	public String getLocale() {
-		// TODO
-		return null;
+		return locale;
 	}
 
 	/**
@@ -140,8 +224,7 @@ public final class FontData {
 	 * @see #setName
 	 */
 	public String getName() {
-		// TODO
-		return null;
+		return name;
 	}
 
 	/**
@@ -153,8 +236,7 @@ public final class FontData {
 	 * @see #setStyle
 	 */
 	public int getStyle() {
-		// TODO
-		return 0;
+		return style;
 	}
 
 	/**
@@ -172,7 +254,13 @@ public final class FontData {
 	 * @see #getHeight
 	 */
 	public void setHeight(int height) {
-		// TODO
+		setHeight((float) height);
+	}
+
+	void setHeight(float height) {
+		if (height < 0)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.height = height;
 	}
 
 	/**
@@ -193,7 +281,7 @@ public final class FontData {
 	 * @see java.util.Locale#toString
 	 */
 	public void setLocale(String locale) {
-		// TODO
+		this.locale = locale;
 	}
 
 	/**
@@ -225,7 +313,9 @@ public final class FontData {
 	 * @see #getName
 	 */
 	public void setName(String name) {
-		// TODO
+		if (name == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		this.name = name;
 	}
 
 	/**
@@ -239,7 +329,7 @@ public final class FontData {
 	 * @see #getStyle
 	 */
 	public void setStyle(int style) {
-		// TODO
+		this.style = style & (SWT.NORMAL | SWT.BOLD | SWT.ITALIC);
 	}
 
 	/**
@@ -253,8 +343,7 @@ public final class FontData {
 	 */
 	@Override
 	public String toString() {
-		// TODO
-		return null;
+		return "1|" + name + "|" + height + "|" + style + "|";
 	}
 
 }
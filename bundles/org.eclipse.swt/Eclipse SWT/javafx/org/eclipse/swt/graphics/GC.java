@@ -10,6 +10,13 @@
  *******************************************************************************/
 package org.eclipse.swt.graphics;
 
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.FillRule;
+import javafx.scene.text.TextAlignment;
+
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTError;
 import org.eclipse.swt.SWTException;
 
@@ -57,6 +64,13 @@ import org.eclipse.swt.SWTException;
  *      information</a>
  */
 public final class GC extends Resource {
+
+	Drawable drawable;
+	GCData data;
+
+	GC() {
+	}
+
 	/**
 	 * Constructs a new instance of this class which has been configured to draw
 	 * on the specified drawable. Sets the foreground color, background color
@@ -85,7 +99,7 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public GC(Drawable drawable) {
-
+		this(drawable, SWT.NONE);
 	}
 
 	/**
@@ -121,7 +135,19 @@ public final class GC extends Resource {
 	 * @since 2.1.2
 	 */
 	public GC(Drawable drawable, int style) {
-		// TODO
+		if (drawable == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		GCData data = new GCData();
+		data.style = checkStyle(style);
+		drawable.internal_new_GC(data);
+		Device device = data.device;
+		if (device == null)
+			device = Device.getDevice();
+		if (device == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		this.device = data.device = device;
+		init(drawable, data);
+		init();
 	}
 
 	/**
@@ -212,9 +238,189 @@ public final class GC extends Resource {
 		// TODO
 	}
 	
+	static int checkStyle(int style) {
+		if ((style & SWT.LEFT_TO_RIGHT) != 0)
+			style &= ~SWT.RIGHT_TO_LEFT;
+		return style & (SWT.LEFT_TO_RIGHT | SWT.RIGHT_TO_LEFT);
+	}
+
+	/**
+	 * Invokes platform specific functionality to allocate a new graphics
+	 * context.
+	 * <p>
+	 * <b>IMPORTANT:</b> This method is <em>not</em> part of the public API for
+	 * <code>GC</code>. It is marked public only so that it can be shared within
+	 * the packages provided by SWT. It is not available on all platforms, and
+	 * should never be called from application code.
+	 * </p>
+	 * 
+	 * @param drawable
+	 *            the Drawable for the receiver.
+	 * @param data
+	 *            the data for the receiver.
+	 * 
+	 * @return a new <code>GC</code>
+	 * 
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	public static GC fx_new(Drawable drawable, GCData data) {
+		GC gc = new GC();
+		drawable.internal_new_GC(data);
+		gc.device = data.device;
+		gc.init(drawable, data);
+		return gc;
+	}
+
+	void init(Drawable drawable, GCData data) {
+		if (data.foreground == null)
+			data.foreground = data.device.getSystemColor(SWT.COLOR_BLACK);
+		if (data.background == null)
+			data.background = data.device.getSystemColor(SWT.COLOR_WHITE);
+		if (data.font == null)
+			data.font = data.device.getSystemFont();
+		this.drawable = drawable;
+		this.data = data;
+		setClipping((Region)null);
+	}
+
+	/**
+	 * Sets the clipping to the given banded rectangles, limited to the area
+	 * being painted, and replays it into the graphics context.
+	 */
+	void setClippingRegion(int[] rects, int count) {
+		setClippingRegion(rects, count, null);
+	}
+
+	void setClippingRegion(int[] rects, int count, Path path) {
+		/* The clipping is kept in device space, as the transform maps it when set */
+		Region transformed = null;
+		if (rects != null && path == null && data.transform != null) {
+			transformed = transformRects(rects, count, data.transform);
+			rects = transformed.rects;
+			count = transformed.count;
+		}
+		Region clipRgn = data.clipRgn;
+		if (rects == null && data.damageRgn == null) {
+			if (clipRgn != null) {
+				clipRgn.dispose();
+				data.clipRgn = null;
+			}
+		} else {
+			if (clipRgn == null)
+				clipRgn = data.clipRgn = new Region(device);
+			if (rects == null) {
+				clipRgn.set(data.damageRgn);
+			} else {
+				clipRgn.count = 0;
+				clipRgn.combine(rects, count, Region.OP_UNION);
+				if (data.damageRgn != null)
+					clipRgn.intersect(data.damageRgn);
+			}
+		}
+		GraphicsContext context = data.context;
+		if (context == null)
+			return;
+		if (data.clipSaved) {
+			context.restore();
+			data.clipSaved = false;
+		}
+		if (data.clipRgn != null) {
+			context.save();
+			context.setTransform(1, 0, 0, 1, -data.originX, -data.originY);
+			context.beginPath();
+			data.clipRgn.appendPath(context);
+			context.clip();
+			if (path != null) {
+				setContextTransform();
+				context.beginPath();
+				path.appendPath(context);
+				context.setFillRule(data.fillRule == SWT.FILL_WINDING ? FillRule.NON_ZERO
+						: FillRule.EVEN_ODD);
+				context.clip();
+			}
+			context.beginPath();
+			data.clipSaved = true;
+		}
+		/* restoring the context also dropped the transform */
+		setContextTransform();
+		if (transformed != null)
+			transformed.dispose();
+	}
+
+	/*
+	 * Answers the area the banded rectangles cover once mapped by the
+	 * transform. They stay rectangles unless it rotates or shears them, and
+	 * are scan converted as polygons otherwise.
+	 */
+	Region transformRects(int[] rects, int count, float[] m) {
+		Region region = new Region(device);
+		float[] corners = new float[8];
+		int[] points = new int[8];
+		for (int i = 0; i < count * 4; i += 4) {
+			corners[0] = corners[6] = rects[i];
+			corners[1] = corners[3] = rects[i + 1];
+			corners[2] = corners[4] = rects[i + 2];
+			corners[5] = corners[7] = rects[i + 3];
+			Transform.transform(m, corners);
+			for (int j = 0; j < 8; j++)
+				points[j] = Math.round(corners[j]);
+			if (m[1] == 0 && m[2] == 0) {
+				int x1 = Math.min(points[0], points[4]), y1 = Math.min(points[1], points[5]);
+				int x2 = Math.max(points[0], points[4]), y2 = Math.max(points[1], points[5]);
+				region.add(x1, y1, x2 - x1, y2 - y1);
+			} else {
+				region.add(points);
+			}
+		}
+		return region;
+	}
+
+	/*
+	 * Answers the inverse of the user space transform, or null when it is the
+	 * identity or cannot be inverted.
+	 */
+	float[] inverseTransform() {
+		if (data.transform == null)
+			return null;
+		float[] m = data.transform.clone();
+		return Transform.invert(m) ? m : null;
+	}
+
+	Paint getForegroundPaint() {
+		Pattern pattern = data.foregroundPattern;
+		return pattern != null ? pattern.handle : data.foreground.color;
+	}
+
+	Paint getBackgroundPaint() {
+		Pattern pattern = data.backgroundPattern;
+		return pattern != null ? pattern.handle : data.background.color;
+	}
+
+	void setContextTransform() {
+		GraphicsContext context = data.context;
+		if (context == null)
+			return;
+		float[] m = data.transform;
+		if (m == null) {
+			context.setTransform(1, 0, 0, 1, -data.originX, -data.originY);
+		} else {
+			context.setTransform(m[0], m[1], m[2], m[3], m[4] - data.originX, m[5] - data.originY);
+		}
+	}
+
 	@Override
 	void destroy() {
-		// TODO
+		if (data.clipRgn != null)
+			data.clipRgn.dispose();
+		if (data.clipSaved)
+			data.context.restore();
+		if (drawable != null)
+			drawable.internal_dispose_GC(0, data);
+		drawable = null;
+		data.context = null;
+		data.clipRgn = null;
+		data.damageRgn = null;
+		data = null;
 	}
 
 	/**
@@ -319,7 +525,16 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void drawImage(Image image, int x, int y) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (image == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (image.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		GraphicsContext context = data.context;
+		if (context == null)
+			return;
+		context.drawImage(image.image, x, y);
 	}
 
 	/**
@@ -372,7 +587,27 @@ public final class GC extends Resource {
 	 */
 	public void drawImage(Image image, int srcX, int srcY, int srcWidth,
 			int srcHeight, int destX, int destY, int destWidth, int destHeight) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (srcWidth == 0 || srcHeight == 0 || destWidth == 0
+				|| destHeight == 0)
+			return;
+		if (srcX < 0 || srcY < 0 || srcWidth < 0 || srcHeight < 0
+				|| destWidth < 0 || destHeight < 0)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		if (image == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (image.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		javafx.scene.image.Image handle = image.image;
+		if (srcX + srcWidth > handle.getWidth()
+				|| srcY + srcHeight > handle.getHeight())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		GraphicsContext context = data.context;
+		if (context == null)
+			return;
+		context.drawImage(handle, srcX, srcY, srcWidth, srcHeight, destX,
+				destY, destWidth, destHeight);
 	}
 
 	/**
@@ -461,7 +696,19 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public void drawPath(Path path) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (path == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (path.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		GraphicsContext context = data.context;
+		if (context == null)
+			return;
+		context.setStroke(getForegroundPaint());
+		context.beginPath();
+		path.appendPath(context);
+		context.stroke();
 	}
 
 	/**
@@ -648,7 +895,7 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void drawString(String string, int x, int y) {
-		// TODO
+		drawString(string, x, y, false);
 	}
 
 	/**
@@ -682,7 +929,7 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void drawString(String string, int x, int y, boolean isTransparent) {
-		// TODO
+		drawText(string, x, y, isTransparent ? SWT.DRAW_TRANSPARENT : 0);
 	}
 
 	/**
@@ -711,7 +958,7 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void drawText(String string, int x, int y) {
-		// TODO
+		drawText(string, x, y, SWT.DRAW_DELIMITER | SWT.DRAW_TAB);
 	}
 
 	/**
@@ -744,7 +991,10 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void drawText(String string, int x, int y, boolean isTransparent) {
-		// TODO
+		int flags = SWT.DRAW_DELIMITER | SWT.DRAW_TAB;
+		if (isTransparent)
+			flags |= SWT.DRAW_TRANSPARENT;
+		drawText(string, x, y, flags);
 	}
 
 	/**
@@ -790,7 +1040,33 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void drawText(String string, int x, int y, int flags) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (string == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		GraphicsContext context = data.context;
+		if (context == null)
+			return;
+		TextRun run = device.getTextRun(string, data.font, flags);
+		if ((flags & SWT.DRAW_TRANSPARENT) == 0) {
+			context.setFill(getBackgroundPaint());
+			context.fillRect(x, y, run.width, run.height);
+		}
+		context.setFill(getForegroundPaint());
+		context.setFont(data.font.handle);
+		context.setTextBaseline(VPos.BASELINE);
+		context.setTextAlign(TextAlignment.LEFT);
+		String[] segments = run.segments;
+		int[] offsets = run.offsets, lines = run.lines;
+		int lineHeight = run.lineHeight, ascent = run.ascent;
+		for (int i = 0; i < run.count; i++) {
+			context.fillText(segments[i], x + offsets[i], y + lines[i]
+					* lineHeight + ascent);
+		}
+		if (run.mnemonicLine != -1) {
+			context.fillRect(x + run.mnemonicX, y + run.mnemonicLine
+					* lineHeight + ascent + 1, run.mnemonicWidth, 1);
+		}
 	}
 
 	/**
@@ -929,7 +1205,21 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public void fillPath(Path path) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (path == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (path.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		GraphicsContext context = data.context;
+		if (context == null)
+			return;
+		context.setFill(getBackgroundPaint());
+		context.setFillRule(data.fillRule == SWT.FILL_WINDING ? FillRule.NON_ZERO
+				: FillRule.EVEN_ODD);
+		context.beginPath();
+		path.appendPath(context);
+		context.fill();
 	}
 
 	/**
@@ -982,7 +1272,21 @@ public final class GC extends Resource {
 	 * @see #drawRectangle(int, int, int, int)
 	 */
 	public void fillRectangle(int x, int y, int width, int height) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (width < 0) {
+			x = x + width;
+			width = -width;
+		}
+		if (height < 0) {
+			y = y + height;
+			height = -height;
+		}
+		GraphicsContext context = data.context;
+		if (context == null)
+			return;
+		context.setFill(getBackgroundPaint());
+		context.fillRect(x, y, width, height);
 	}
 
 	/**
@@ -1005,7 +1309,9 @@ public final class GC extends Resource {
 	 * @see #drawRectangle(int, int, int, int)
 	 */
 	public void fillRectangle(Rectangle rect) {
-		// TODO
+		if (rect == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		fillRectangle(rect.x, rect.y, rect.width, rect.height);
 	}
 
 	/**
@@ -1149,8 +1455,9 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public Color getBackground() {
-		// TODO
-		return null;
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return data.background;
 	}
 
 	/**
@@ -1169,8 +1476,9 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public Pattern getBackgroundPattern() {
-		// TODO
-		return null;
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return data.backgroundPattern;
 	}
 
 	/**
@@ -1210,8 +1518,21 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public Rectangle getClipping() {
-		// TODO
-		return null;
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (data.clipRgn != null) {
+			float[] inverse = inverseTransform();
+			if (inverse == null)
+				return data.clipRgn.getBounds();
+			Region region = transformRects(data.clipRgn.rects, data.clipRgn.count, inverse);
+			Rectangle bounds = region.getBounds();
+			region.dispose();
+			return bounds;
+		}
+		if (drawable instanceof Image)
+			return ((Image)drawable).getBounds();
+		return new Rectangle(data.originX, data.originY, Math.max(0, data.width),
+				Math.max(0, data.height));
 	}
 
 	/**
@@ -1233,7 +1554,26 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void getClipping(Region region) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (region == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (region.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		if (data.clipRgn != null) {
+			float[] inverse = inverseTransform();
+			if (inverse == null) {
+				region.set(data.clipRgn);
+			} else {
+				Region transformed = transformRects(data.clipRgn.rects, data.clipRgn.count, inverse);
+				region.set(transformed);
+				transformed.dispose();
+			}
+		} else {
+			Rectangle rect = getClipping();
+			region.count = 0;
+			region.add(rect);
+		}
 	}
 
 	/**
@@ -1251,8 +1591,9 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public int getFillRule() {
-		// TODO
-		return 0;
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return data.fillRule;
 	}
 
 	/**
@@ -1268,8 +1609,9 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public Font getFont() {
-		// TODO
-		return null;
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return data.font;
 	}
 
 	/**
@@ -1301,8 +1643,9 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public Color getForeground() {
-		// TODO
-		return null;
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return data.foreground;
 	}
 
 	/**
@@ -1321,8 +1664,9 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public Pattern getForegroundPattern() {
-		// TODO
-		return null;
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return data.foregroundPattern;
 	}
 
 	/**
@@ -1558,7 +1902,18 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public void getTransform(Transform transform) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (transform == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (transform.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		float[] m = data.transform;
+		if (m != null) {
+			System.arraycopy(m, 0, transform.handle, 0, 6);
+		} else {
+			transform.identity();
+		}
 	}
 
 	/**
@@ -1599,8 +1954,9 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public boolean isClipped() {
-		// TODO
-		return false;
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return data.clipRgn != null;
 	}
 
 	/**
@@ -1616,8 +1972,7 @@ public final class GC extends Resource {
 	 */
 	@Override
 	public boolean isDisposed() {
-		// TODO
-		return false;
+		return data == null;
 	}
 
 	/**
@@ -1756,7 +2111,14 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void setBackground(Color color) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (color == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (color.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		data.background = color;
+		data.backgroundPattern = null;
 	}
 
 	/**
@@ -1789,7 +2151,11 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public void setBackgroundPattern(Pattern pattern) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (pattern != null && pattern.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		data.backgroundPattern = pattern;
 	}
 
 	/**
@@ -1812,7 +2178,18 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void setClipping(int x, int y, int width, int height) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (width < 0) {
+			x = x + width;
+			width = -width;
+		}
+		if (height < 0) {
+			y = y + height;
+			height = -height;
+		}
+		setClippingRegion(new int[] { x, y, x + width, y + height },
+				width == 0 || height == 0 ? 0 : 1);
 	}
 
 	/**
@@ -1846,7 +2223,37 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public void setClipping(Path path) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (path != null && path.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		if (path == null) {
+			setClippingRegion(null, 0);
+			return;
+		}
+		/*
+		 * The clipping region only tracks the device space bounds of the path,
+		 * the exact outline is clipped by the graphics context.
+		 */
+		float[] bounds = new float[4];
+		path.getBounds(bounds);
+		float[] corners = { bounds[0], bounds[1], bounds[0] + bounds[2],
+				bounds[1], bounds[0], bounds[1] + bounds[3],
+				bounds[0] + bounds[2], bounds[1] + bounds[3] };
+		if (data.transform != null)
+			Transform.transform(data.transform, corners);
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+		for (int i = 0; i < corners.length; i += 2) {
+			minX = Math.min(minX, corners[i]);
+			maxX = Math.max(maxX, corners[i]);
+			minY = Math.min(minY, corners[i + 1]);
+			maxY = Math.max(maxY, corners[i + 1]);
+		}
+		int x1 = (int) Math.floor(minX), y1 = (int) Math.floor(minY);
+		int x2 = (int) Math.ceil(maxX), y2 = (int) Math.ceil(maxY);
+		setClippingRegion(new int[] { x1, y1, x2, y2 },
+				x1 < x2 && y1 < y2 ? 1 : 0, path);
 	}
 
 	/**
@@ -1865,7 +2272,13 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void setClipping(Rectangle rect) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (rect == null) {
+			setClippingRegion(null, 0);
+		} else {
+			setClipping(rect.x, rect.y, rect.width, rect.height);
+		}
 	}
 
 	/**
@@ -1888,7 +2301,15 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void setClipping(Region region) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (region != null && region.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		if (region == null) {
+			setClippingRegion(null, 0);
+		} else {
+			setClippingRegion(region.rects, region.count);
+		}
 	}
 
 	/**
@@ -1912,7 +2333,11 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void setFont(Font font) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (font != null && font.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		data.font = font != null ? font : device.getSystemFont();
 	}
 
 	/**
@@ -1937,7 +2362,16 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public void setFillRule(int rule) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		switch (rule) {
+		case SWT.FILL_WINDING:
+		case SWT.FILL_EVEN_ODD:
+			break;
+		default:
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+		data.fillRule = rule;
 	}
 
 	/**
@@ -1960,7 +2394,14 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public void setForeground(Color color) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (color == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (color.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		data.foreground = color;
+		data.foregroundPattern = null;
 	}
 
 	/**
@@ -1993,7 +2434,11 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public void setForegroundPattern(Pattern pattern) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (pattern != null && pattern.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		data.foregroundPattern = pattern;
 	}
 
 	/**
@@ -2254,7 +2699,18 @@ public final class GC extends Resource {
 	 * @since 3.1
 	 */
 	public void setTransform(Transform transform) {
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (transform != null && transform.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		if (transform == null || transform.isIdentity()) {
+			data.transform = null;
+		} else {
+			if (data.transform == null)
+				data.transform = new float[6];
+			System.arraycopy(transform.handle, 0, data.transform, 0, 6);
+		}
+		setContextTransform();
 	}
 
 	/**
@@ -2310,8 +2766,7 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public Point stringExtent(String string) {
-		// TODO
-		return null;
+		return textExtent(string, 0);
 	}
 
 	/**
@@ -2338,8 +2793,7 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public Point textExtent(String string) {
-		// TODO
-		return null;
+		return textExtent(string, SWT.DRAW_DELIMITER | SWT.DRAW_TAB);
 	}
 
 	/**
@@ -2379,8 +2833,12 @@ public final class GC extends Resource {
 	 *                </ul>
 	 */
 	public Point textExtent(String string, int flags) {
-		// TODO
-		return null;
+		if (data == null)
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (string == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		TextRun run = device.getTextRun(string, data.font, flags);
+		return new Point(run.width, run.height);
 	}
 
 }
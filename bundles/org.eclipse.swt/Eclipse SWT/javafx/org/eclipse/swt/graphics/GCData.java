@@ -1,5 +1,36 @@
 package org.eclipse.swt.graphics;
 
-public final class GCData {
+import javafx.scene.canvas.GraphicsContext;
+
+import org.eclipse.swt.SWT;
 
+/**
+ * Instances of this class are descriptions of GCs in terms
+ * of unallocated platform-specific data fields.
+ * <p>
+ * <b>IMPORTANT:</b> This class is <em>not</em> part of the public
+ * API for SWT. It is marked public only so that it can be shared
+ * within the packages provided by SWT. It is not available on all
+ * platforms, and should never be called from application code.
+ * </p>
+ * @noreference This class is not intended to be referenced by clients
+ */
+public final class GCData {
+	public Device device;
+	public int style;
+	public GraphicsContext context;
+	// the area being painted, clipping is always limited to it
+	public Region damageRgn;
+	// the current clipping, owned by the GC
+	public Region clipRgn;
+	public boolean clipSaved;
+	public int width = -1, height = -1;
+	// the position of the context in the drawable, when it only covers part of it
+	public int originX, originY;
+	public int fillRule = SWT.FILL_EVEN_ODD;
+	// the user space transform, null when it is the identity
+	public float[] transform;
+	public Color foreground, background;
+	public Pattern foregroundPattern, backgroundPattern;
+	public Font font;
 }
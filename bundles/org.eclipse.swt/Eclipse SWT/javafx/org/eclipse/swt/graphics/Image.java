@@ -10,8 +10,13 @@
  *******************************************************************************/
 package org.eclipse.swt.graphics;
 
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
 import javafx.scene.image.WritableImage;
 
 import org.eclipse.swt.SWT;
@@ -74,7 +79,9 @@ import org.eclipse.swt.SWTException;
  */
 public final class Image extends Resource implements Drawable {
 	
-	private javafx.scene.image.Image image;
+	javafx.scene.image.Image image;
+	// the image is owned by the device image cache
+	boolean shared;
 	
 	/**
 	 * Constructs an empty instance of this class with the specified width and
@@ -244,7 +251,10 @@ public final class Image extends Resource implements Drawable {
 	 */
 	public Image(Device device, ImageData data) {
 		super(device);
-		// TODO
+		if (data == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		init(data);
+		init();
 	}
 
 	/**
@@ -281,7 +291,20 @@ public final class Image extends Resource implements Drawable {
 	 */
 	public Image(Device device, ImageData source, ImageData mask) {
 		super(device);
-		// TODO
+		if (source == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (mask == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (source.width != mask.width || source.height != mask.height) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+		mask = ImageData.convertMask(mask);
+		ImageData image = new ImageData(source.width, source.height,
+				source.depth, source.palette, source.scanlinePad, source.data);
+		image.maskPad = mask.scanlinePad;
+		image.maskData = mask.data;
+		init(image);
+		init();
 	}
 
 	/**
@@ -389,8 +412,276 @@ public final class Image extends Resource implements Drawable {
 	 */
 	public Image(Device device, String filename) {
 		super(device);
-		image = new javafx.scene.image.Image(filename);
+		if (filename == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		ImageCache cache = this.device.imageCache;
+		if (cache != null) {
+			image = cache.acquire(filename);
+			shared = true;
+		} else {
+			image = load(filename);
+		}
 		createImageData();
+		init();
+	}
+
+	static javafx.scene.image.Image load(String filename) {
+		InputStream stream = null;
+		try {
+			stream = new FileInputStream(filename);
+			javafx.scene.image.Image image = new javafx.scene.image.Image(
+					stream);
+			if (image.isError())
+				SWT.error(SWT.ERROR_INVALID_IMAGE, image.getException());
+			return image;
+		} catch (IOException e) {
+			SWT.error(SWT.ERROR_IO, e);
+			return null;
+		} finally {
+			try {
+				if (stream != null)
+					stream.close();
+			} catch (IOException e) {
+				// Ignore error
+			}
+		}
+	}
+
+	/*
+	 * Gives the receiver its own copy of a decoded image it shares with other
+	 * images through the device cache, before it gets modified.
+	 */
+	void detach() {
+		if (!shared)
+			return;
+		javafx.scene.image.Image source = image;
+		image = new WritableImage(source.getPixelReader(),
+				(int) source.getWidth(), (int) source.getHeight());
+		release(source);
+		shared = false;
+	}
+
+	void release(javafx.scene.image.Image source) {
+		ImageCache cache = device.imageCache;
+		if (cache != null)
+			cache.release(source);
+	}
+
+	@Override
+	void destroy() {
+		if (shared)
+			release(image);
+		shared = false;
+		image = null;
+	}
+
+	void init(ImageData data) {
+		int width = data.width, height = data.height;
+		byte[] buffer = new byte[width * height * 4];
+		int[] row = new int[width];
+		int[] lut = data.palette.isDirect ? null : getPaletteLUT(data);
+		int[] offsets = null;
+		if (lut == null && data.transparentPixel == -1)
+			offsets = getByteOffsets(data);
+		for (int y = 0, dst = 0; y < height; y++, dst += width * 4) {
+			if (lut != null) {
+				decodeIndexedRow(data, y, lut, row);
+			} else if (offsets != null) {
+				decodeByteRow(data, y, offsets, row);
+			} else {
+				decodeDirectRow(data, y, row);
+			}
+			packRow(data, y, row, buffer, dst);
+		}
+		WritableImage writable = new WritableImage(width, height);
+		writable.getPixelWriter().setPixels(0, 0, width, height,
+				PixelFormat.getByteBgraPreInstance(), buffer, 0, width * 4);
+		image = writable;
+	}
+
+	/*
+	 * Builds ARGB values for every palette entry, the transparent pixel
+	 * maps to an entry with no alpha.
+	 */
+	static int[] getPaletteLUT(ImageData data) {
+		RGB[] rgbs = data.palette.colors;
+		int[] lut = new int[1 << Math.min(8, data.depth)];
+		for (int i = 0; i < lut.length && rgbs != null && i < rgbs.length; i++) {
+			RGB rgb = rgbs[i];
+			if (rgb != null)
+				lut[i] = 0xFF000000 | rgb.red << 16 | rgb.green << 8 | rgb.blue;
+		}
+		int transparentPixel = data.transparentPixel;
+		if (0 <= transparentPixel && transparentPixel < lut.length)
+			lut[transparentPixel] &= 0xFFFFFF;
+		return lut;
+	}
+
+	/*
+	 * Returns the byte offsets of red, green and blue within a 24 or 32 bit
+	 * pixel when every channel mask covers a whole byte, or null when the
+	 * pixels have to be decoded through the masks.
+	 */
+	static int[] getByteOffsets(ImageData data) {
+		int bytes = data.depth / 8;
+		if (data.depth != 24 && data.depth != 32)
+			return null;
+		PaletteData palette = data.palette;
+		int[] masks = { palette.redMask, palette.greenMask, palette.blueMask };
+		int[] offsets = new int[3];
+		for (int i = 0; i < 3; i++) {
+			int shift = Integer.numberOfTrailingZeros(masks[i]);
+			if (shift % 8 != 0 || shift / 8 >= bytes
+					|| masks[i] != 0xFF << shift)
+				return null;
+			offsets[i] = bytes - 1 - shift / 8;
+		}
+		return offsets;
+	}
+
+	static void decodeIndexedRow(ImageData data, int y, int[] lut, int[] row) {
+		byte[] bytes = data.data;
+		int index = y * data.bytesPerLine, width = data.width;
+		switch (data.depth) {
+		case 8:
+			for (int x = 0; x < width; x++)
+				row[x] = lut[bytes[index + x] & 0xFF];
+			break;
+		case 4:
+			for (int x = 0; x < width; x++) {
+				int b = bytes[index + (x >> 1)] & 0xFF;
+				row[x] = lut[(x & 1) == 0 ? b >> 4 : b & 0x0F];
+			}
+			break;
+		case 2:
+			for (int x = 0; x < width; x++) {
+				int b = bytes[index + (x >> 2)] & 0xFF;
+				row[x] = lut[(b >> (6 - (x & 3) * 2)) & 0x03];
+			}
+			break;
+		case 1:
+			for (int x = 0; x < width; x++) {
+				int b = bytes[index + (x >> 3)] & 0xFF;
+				row[x] = lut[(b >> (7 - (x & 7))) & 0x01];
+			}
+			break;
+		default:
+			SWT.error(SWT.ERROR_UNSUPPORTED_DEPTH);
+		}
+	}
+
+	static void decodeByteRow(ImageData data, int y, int[] offsets,
+			int[] row) {
+		byte[] bytes = data.data;
+		int bytesPerPixel = data.depth / 8, width = data.width;
+		int r = offsets[0], g = offsets[1], b = offsets[2];
+		int index = y * data.bytesPerLine;
+		for (int x = 0; x < width; x++, index += bytesPerPixel) {
+			row[x] = 0xFF000000 | (bytes[index + r] & 0xFF) << 16
+					| (bytes[index + g] & 0xFF) << 8 | bytes[index + b] & 0xFF;
+		}
+	}
+
+	static void decodeDirectRow(ImageData data, int y, int[] row) {
+		byte[] bytes = data.data;
+		int width = data.width, depth = data.depth;
+		PaletteData palette = data.palette;
+		int redMask = palette.redMask, redShift = palette.redShift;
+		int greenMask = palette.greenMask, greenShift = palette.greenShift;
+		int blueMask = palette.blueMask, blueShift = palette.blueShift;
+		int transparentPixel = data.transparentPixel;
+		int index = y * data.bytesPerLine;
+		for (int x = 0; x < width; x++) {
+			int pixel;
+			switch (depth) {
+			case 32:
+				pixel = (bytes[index] & 0xFF) << 24
+						| (bytes[index + 1] & 0xFF) << 16
+						| (bytes[index + 2] & 0xFF) << 8 | bytes[index + 3] & 0xFF;
+				index += 4;
+				break;
+			case 24:
+				pixel = (bytes[index] & 0xFF) << 16
+						| (bytes[index + 1] & 0xFF) << 8 | bytes[index + 2] & 0xFF;
+				index += 3;
+				break;
+			case 16:
+				pixel = (bytes[index + 1] & 0xFF) << 8 | bytes[index] & 0xFF;
+				index += 2;
+				break;
+			case 8:
+				pixel = bytes[index++] & 0xFF;
+				break;
+			case 4:
+				pixel = bytes[index + (x >> 1)] & 0xFF;
+				pixel = (x & 1) == 0 ? pixel >> 4 : pixel & 0x0F;
+				break;
+			case 2:
+				pixel = bytes[index + (x >> 2)] & 0xFF;
+				pixel = (pixel >> (6 - (x & 3) * 2)) & 0x03;
+				break;
+			case 1:
+				pixel = bytes[index + (x >> 3)] & 0xFF;
+				pixel = (pixel >> (7 - (x & 7))) & 0x01;
+				break;
+			default:
+				SWT.error(SWT.ERROR_UNSUPPORTED_DEPTH);
+				return;
+			}
+			int red = pixel & redMask;
+			red = (redShift < 0) ? red >>> -redShift : red << redShift;
+			int green = pixel & greenMask;
+			green = (greenShift < 0) ? green >>> -greenShift : green << greenShift;
+			int blue = pixel & blueMask;
+			blue = (blueShift < 0) ? blue >>> -blueShift : blue << blueShift;
+			int alpha = pixel == transparentPixel ? 0 : 0xFF000000;
+			row[x] = alpha | (red & 0xFF) << 16 | (green & 0xFF) << 8
+					| blue & 0xFF;
+		}
+	}
+
+	/*
+	 * Merges the alpha data, global alpha and mask into the decoded row and
+	 * writes it premultiplied in BGRA order.
+	 */
+	static void packRow(ImageData data, int y, int[] row, byte[] buffer,
+			int dst) {
+		int width = data.width;
+		byte[] alphaData = data.alphaData;
+		int globalAlpha = data.alpha;
+		byte[] maskData = data.maskData;
+		int maskIndex = 0;
+		if (maskData != null) {
+			int maskPad = data.maskPad;
+			int maskBytesPerLine = (((width + 7) / 8) + (maskPad - 1))
+					/ maskPad * maskPad;
+			maskIndex = y * maskBytesPerLine;
+		}
+		int alphaIndex = y * width;
+		for (int x = 0; x < width; x++, dst += 4) {
+			int argb = row[x];
+			int a = argb >>> 24;
+			if (a != 0) {
+				if (alphaData != null) {
+					a = alphaData[alphaIndex + x] & 0xFF;
+				} else if (globalAlpha != -1) {
+					a = globalAlpha & 0xFF;
+				}
+				if (maskData != null
+						&& (maskData[maskIndex + (x >> 3)] & (0x80 >> (x & 7))) == 0)
+					a = 0;
+			}
+			int r = (argb >> 16) & 0xFF, g = (argb >> 8) & 0xFF, b = argb & 0xFF;
+			if (a != 0xFF) {
+				r = (r * a + 127) / 255;
+				g = (g * a + 127) / 255;
+				b = (b * a + 127) / 255;
+			}
+			buffer[dst] = (byte) b;
+			buffer[dst + 1] = (byte) g;
+			buffer[dst + 2] = (byte) r;
+			buffer[dst + 3] = (byte) a;
+		}
 	}
 
 	void createImageData() {
@@ -438,6 +729,8 @@ public final class Image extends Resource implements Drawable {
 	 *                </ul>
 	 */
 	public Rectangle getBounds() {
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 		return new Rectangle(0, 0, (int)image.getWidth(), (int)image.getHeight());
 	}
 
@@ -459,11 +752,33 @@ public final class Image extends Resource implements Drawable {
 	 * @see ImageData
 	 */
 	public ImageData getImageData() {
-		// TODO really?
-		return new ImageData(
-				(int)image.getWidth(), 
-				(int)image.getHeight(),
-				4, new PaletteData(0xff0000, 0xff00, 0xff));
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		int width = (int) image.getWidth(), height = (int) image.getHeight();
+		/* 0xFF00, 0xFF0000, 0xFF000000 lays out 32 bit pixels as B, G, R, X */
+		ImageData data = new ImageData(width, height, 32, new PaletteData(
+				0xFF00, 0xFF0000, 0xFF000000));
+		PixelReader reader = image.getPixelReader();
+		if (reader == null)
+			return data;
+		byte[] buffer = data.data;
+		reader.getPixels(0, 0, width, height,
+				PixelFormat.getByteBgraInstance(), buffer, 0,
+				data.bytesPerLine);
+		byte[] alphaData = null;
+		int length = width * height;
+		for (int i = 0, j = 3; i < length; i++, j += 4) {
+			byte alpha = buffer[j];
+			if (alphaData == null) {
+				if (alpha == (byte) 0xFF)
+					continue;
+				alphaData = new byte[length];
+				Arrays.fill(alphaData, 0, i, (byte) 0xFF);
+			}
+			alphaData[i] = alpha;
+		}
+		data.alphaData = alphaData;
+		return data;
 	}
 
 	/**
@@ -479,8 +794,7 @@ public final class Image extends Resource implements Drawable {
 	 */
 	@Override
 	public boolean isDisposed() {
-		// TODO
-		return false;
+		return image == null;
 	}
 
 	/**
@@ -547,7 +861,11 @@ public final class Image extends Resource implements Drawable {
 	 */
 	 
 	public long /*int*/ internal_new_GC (GCData data) {
-		// TODO
+		if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		detach();
+		if (data != null) {
+			data.device = device;
+		}
 		return 0;
 	}
 
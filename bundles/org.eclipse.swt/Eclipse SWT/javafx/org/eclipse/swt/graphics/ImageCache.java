@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shares the decoded JavaFX images of files loaded through
+ * <code>Image(Device, String)</code> between all images of a device.
+ * <p>
+ * Entries are keyed by the absolute path and the modification time of the
+ * file, so a file that changes on disk is decoded again. Every SWT image
+ * holds a reference on its entry. Entries that are no longer referenced are
+ * kept in least recently used order until there are more than
+ * <code>maxUnused</code> of them, or until the decoded images of the cache
+ * take more than <code>maxBytes</code>.
+ * </p>
+ * <p>
+ * The cache is off unless the system property
+ * <code>swt.javafx.imageCache</code> is <code>true</code>. The limits are
+ * read from <code>swt.javafx.imageCache.maxUnused</code> and
+ * <code>swt.javafx.imageCache.maxBytes</code>.
+ * </p>
+ */
+final class ImageCache {
+
+	static final String ENABLED = "swt.javafx.imageCache";
+	static final String MAX_UNUSED = "swt.javafx.imageCache.maxUnused";
+	static final String MAX_BYTES = "swt.javafx.imageCache.maxBytes";
+
+	static final class Entry {
+		String path;
+		long modified;
+		javafx.scene.image.Image image;
+		long bytes;
+		int refCount;
+	}
+
+	final int maxUnused;
+	final long maxBytes;
+	long bytes;
+	final Map<String, Entry> entries = new HashMap<String, Entry>();
+	final Map<javafx.scene.image.Image, Entry> images =
+			new IdentityHashMap<javafx.scene.image.Image, Entry>();
+	/* entries without references, least recently used first */
+	final LinkedHashMap<String, Entry> unused = new LinkedHashMap<String, Entry>(
+			16, 0.75f, true);
+
+	ImageCache(int maxUnused, long maxBytes) {
+		this.maxUnused = maxUnused;
+		this.maxBytes = maxBytes;
+	}
+
+	static ImageCache create() {
+		if (!Boolean.getBoolean(ENABLED))
+			return null;
+		int maxUnused = Integer.getInteger(MAX_UNUSED, 256).intValue();
+		long maxBytes = Long.getLong(MAX_BYTES, 64L * 1024 * 1024).longValue();
+		return new ImageCache(maxUnused, maxBytes);
+	}
+
+	/**
+	 * Returns the decoded image for the file and adds a reference to it,
+	 * decoding the file when it is not in the cache or has changed.
+	 */
+	javafx.scene.image.Image acquire(String filename) {
+		File file = new File(filename);
+		String path = file.getAbsolutePath();
+		long modified = file.lastModified();
+		Entry entry = entries.get(path);
+		if (entry != null && entry.modified != modified) {
+			/* stale, images still using it release it on their own */
+			entries.remove(path);
+			if (entry.refCount == 0)
+				remove(entry);
+			entry = null;
+		}
+		if (entry == null) {
+			javafx.scene.image.Image image = Image.load(filename);
+			entry = new Entry();
+			entry.path = path;
+			entry.modified = modified;
+			entry.image = image;
+			entry.bytes = (long) image.getWidth() * (long) image.getHeight()
+					* 4;
+			entries.put(path, entry);
+			images.put(image, entry);
+			bytes += entry.bytes;
+			/* the new entry is referenced, only unused ones make room for it */
+			trim();
+		}
+		if (entry.refCount++ == 0)
+			unused.remove(path);
+		return entry.image;
+	}
+
+	/**
+	 * Removes a reference from the entry of the image. Entries that are not
+	 * referenced anymore become candidates for eviction.
+	 */
+	void release(javafx.scene.image.Image image) {
+		Entry entry = images.get(image);
+		if (entry == null || --entry.refCount > 0)
+			return;
+		if (entries.get(entry.path) == entry) {
+			unused.put(entry.path, entry);
+			trim();
+		} else {
+			remove(entry);
+		}
+	}
+
+	boolean contains(javafx.scene.image.Image image) {
+		return images.containsKey(image);
+	}
+
+	void trim() {
+		while (!unused.isEmpty()
+				&& (unused.size() > maxUnused || bytes > maxBytes)) {
+			Entry entry = unused.values().iterator().next();
+			entries.remove(entry.path);
+			remove(entry);
+		}
+	}
+
+	void remove(Entry entry) {
+		/* never get() from unused, it would reorder the entries */
+		unused.remove(entry.path, entry);
+		images.remove(entry.image);
+		bytes -= entry.bytes;
+	}
+
+	void clear() {
+		entries.clear();
+		images.clear();
+		unused.clear();
+		bytes = 0;
+	}
+
+}
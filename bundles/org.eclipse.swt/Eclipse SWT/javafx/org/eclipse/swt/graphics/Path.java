@@ -0,0 +1,819 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import java.util.Arrays;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import javafx.scene.text.Text;
+
+import org.eclipse.swt.*;
+
+/**
+ * Instances of this class represent paths through the two-dimensional
+ * coordinate system. Paths do not have to be continuous, and can be
+ * described using lines, rectangles, arcs, cubic or quadratic bezier curves,
+ * glyphs, or other paths.
+ * <p>
+ * Application code must explicitly invoke the <code>Path.dispose()</code> 
+ * method to release the operating system resources managed by each instance
+ * when those instances are no longer required.
+ * </p>
+ * <p>
+ * This class requires the operating system's advanced graphics subsystem
+ * which may not be available on some platforms.
+ * </p>
+ *
+ * @see <a href="http://www.eclipse.org/swt/snippets/#path">Path, Pattern snippets</a>
+ * @see <a href="http://www.eclipse.org/swt/examples.php">SWT Example: GraphicsExample</a>
+ * @see <a href="http://www.eclipse.org/swt/">Sample code and further information</a>
+ * 
+ * @since 3.1
+ */
+public class Path extends Resource {
+	
+	byte[] types;
+	float[] points;
+	int typeCount, pointCount;
+	boolean hasCurrent;
+	float startX, startY, currentX, currentY;
+
+	/* The receiver with its curves flattened for the hit tests, or null */
+	Path flattened;
+	
+/**
+ * Constructs a new empty Path.
+ * <p>
+ * This operation requires the operating system's advanced
+ * graphics subsystem which may not be available on some
+ * platforms.
+ * </p>
+ * 
+ * @param device the device on which to allocate the path
+ * 
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the device is null and there is no current device</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_NO_GRAPHICS_LIBRARY - if advanced graphics are not available</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES if a handle for the path could not be obtained</li>
+ * </ul>
+ * 
+ * @see #dispose()
+ */
+public Path (Device device) {
+	super(device);
+	types = new byte[16];
+	points = new float[32];
+	init();
+}
+
+/**
+ * Constructs a new Path that is a copy of <code>path</code>. If
+ * <code>flatness</code> is less than or equal to zero, an unflatten
+ * copy of the path is created. Otherwise, it specifies the maximum
+ * error between the path and its flatten copy. Smaller numbers give
+ * better approximation.
+ * <p>
+ * This operation requires the operating system's advanced
+ * graphics subsystem which may not be available on some
+ * platforms.
+ * </p>
+ * 
+ * @param device the device on which to allocate the path
+ * @param path the path to make a copy
+ * @param flatness the flatness value
+ * 
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the device is null and there is no current device</li>
+ *    <li>ERROR_NULL_ARGUMENT - if the path is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the path has been disposed</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_NO_GRAPHICS_LIBRARY - if advanced graphics are not available</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES if a handle for the path could not be obtained</li>
+ * </ul>
+ * 
+ * @see #dispose()
+ * @since 3.4
+ */
+public Path (Device device, Path path, float flatness) {
+	super(device);
+	if (path == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (path.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	flatness = Math.max(0, flatness);
+	if (flatness == 0) {
+		types = new byte[Math.max(16, path.typeCount)];
+		points = new float[Math.max(32, path.pointCount)];
+		append(path);
+	} else {
+		types = new byte[16];
+		points = new float[32];
+		path.flatten(this, flatness);
+	}
+	init();
+}
+
+/**
+ * Constructs a new Path with the specifed PathData.
+ * <p>
+ * This operation requires the operating system's advanced
+ * graphics subsystem which may not be available on some
+ * platforms.
+ * </p>
+ * 
+ * @param device the device on which to allocate the path
+ * @param data the data for the path
+ * 
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the device is null and there is no current device</li>
+ *    <li>ERROR_NULL_ARGUMENT - if the data is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_NO_GRAPHICS_LIBRARY - if advanced graphics are not available</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES if a handle for the path could not be obtained</li>
+ * </ul>
+ * 
+ * @see #dispose()
+ * @since 3.4
+ */
+public Path (Device device, PathData data) {
+	this(device);
+	if (data == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	init(data);
+}
+
+/**
+ * Adds to the receiver a circular or elliptical arc that lies within
+ * the specified rectangular area.
+ * <p>
+ * The resulting arc begins at <code>startAngle</code> and extends  
+ * for <code>arcAngle</code> degrees.
+ * Angles are interpreted such that 0 degrees is at the 3 o'clock
+ * position. A positive value indicates a counter-clockwise rotation
+ * while a negative value indicates a clockwise rotation.
+ * </p><p>
+ * The center of the arc is the center of the rectangle whose origin 
+ * is (<code>x</code>, <code>y</code>) and whose size is specified by the 
+ * <code>width</code> and <code>height</code> arguments. 
+ * </p><p>
+ * The resulting arc covers an area <code>width + 1</code> pixels wide
+ * by <code>height + 1</code> pixels tall.
+ * </p>
+ *
+ * @param x the x coordinate of the upper-left corner of the arc
+ * @param y the y coordinate of the upper-left corner of the arc
+ * @param width the width of the arc
+ * @param height the height of the arc
+ * @param startAngle the beginning angle
+ * @param arcAngle the angular extent of the arc, relative to the start angle
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void addArc(float x, float y, float width, float height, float startAngle, float arcAngle) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (width == 0 || height == 0 || arcAngle == 0) return;
+	float rx = width / 2f, ry = height / 2f;
+	float cx = x + rx, cy = y + ry;
+	if (arcAngle > 360) arcAngle = 360;
+	if (arcAngle < -360) arcAngle = -360;
+	/*
+	* Split the arc into segments of at most 90 degrees, each one
+	* approximated by a cubic Bezier curve. Positive angles are
+	* counter-clockwise, which is towards negative y on the screen.
+	*/
+	int segments = (int)Math.ceil(Math.abs(arcAngle) / 90);
+	double delta = Math.toRadians(arcAngle) / segments;
+	double k = 4.0 / 3.0 * Math.tan(delta / 4);
+	double angle = Math.toRadians(startAngle);
+	double cos = Math.cos(angle), sin = Math.sin(angle);
+	float px = (float)(cx + rx * cos), py = (float)(cy - ry * sin);
+	if (hasCurrent) {
+		lineTo(px, py);
+	} else {
+		moveTo(px, py);
+	}
+	for (int i = 0; i < segments; i++) {
+		double nextAngle = angle + delta;
+		double nextCos = Math.cos(nextAngle), nextSin = Math.sin(nextAngle);
+		cubicTo(
+			(float)(cx + rx * (cos - k * sin)), (float)(cy - ry * (sin + k * cos)),
+			(float)(cx + rx * (nextCos + k * nextSin)), (float)(cy - ry * (nextSin - k * nextCos)),
+			(float)(cx + rx * nextCos), (float)(cy - ry * nextSin));
+		angle = nextAngle;
+		cos = nextCos;
+		sin = nextSin;
+	}
+}
+
+/**
+ * Adds to the receiver the path described by the parameter.
+ *
+ * @param path the path to add to the receiver
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the parameter is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the parameter has been disposed</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void addPath(Path path) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (path == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (path.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	append(path);
+}
+
+/**
+ * Adds to the receiver the rectangle specified by x, y, width and height.
+ *
+ * @param x the x coordinate of the rectangle to add
+ * @param y the y coordinate of the rectangle to add
+ * @param width the width of the rectangle to add
+ * @param height the height of the rectangle to add
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void addRectangle(float x, float y, float width, float height) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	moveTo(x, y);
+	lineTo(x + width, y);
+	lineTo(x + width, y + height);
+	lineTo(x, y + height);
+	close();
+}
+
+/**
+ * Adds to the receiver the pattern of glyphs generated by drawing
+ * the given string using the given font starting at the point (x, y).
+ *
+ * @param string the text to use
+ * @param x the x coordinate of the starting point
+ * @param y the y coordinate of the starting point
+ * @param font the font to use
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the font is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the font has been disposed</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void addString(String string, float x, float y, Font font) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (font == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (font.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (string == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (string.length() == 0) return;
+	Text text = new Text(x, y, string);
+	text.setFont(font.handle);
+	text.setTextOrigin(VPos.TOP);
+	/* Subtracting an empty shape converts the glyph outlines into path elements */
+	javafx.scene.shape.Path outline = (javafx.scene.shape.Path)Shape.subtract(text, new Rectangle(0, 0));
+	for (PathElement element : outline.getElements()) {
+		if (element instanceof MoveTo) {
+			MoveTo e = (MoveTo)element;
+			moveTo((float)e.getX(), (float)e.getY());
+		} else if (element instanceof LineTo) {
+			LineTo e = (LineTo)element;
+			lineTo((float)e.getX(), (float)e.getY());
+		} else if (element instanceof QuadCurveTo) {
+			QuadCurveTo e = (QuadCurveTo)element;
+			quadTo((float)e.getControlX(), (float)e.getControlY(), (float)e.getX(), (float)e.getY());
+		} else if (element instanceof CubicCurveTo) {
+			CubicCurveTo e = (CubicCurveTo)element;
+			cubicTo((float)e.getControlX1(), (float)e.getControlY1(), (float)e.getControlX2(), (float)e.getControlY2(), (float)e.getX(), (float)e.getY());
+		} else if (element instanceof ClosePath) {
+			close();
+		}
+	}
+}
+
+/**
+ * Returns <code>true</code> if the specified point is contained by
+ * the receiver and false otherwise.
+ * <p>
+ * If outline is <code>true</code>, the point (x, y) checked for containment in
+ * the receiver's outline. If outline is <code>false</code>, the point is
+ * checked to see if it is contained within the bounds of the (closed) area
+ * covered by the receiver.
+ *
+ * @param x the x coordinate of the point to test for containment
+ * @param y the y coordinate of the point to test for containment
+ * @param gc the GC to use when testing for containment
+ * @param outline controls whether to check the outline or contained area of the path
+ * @return <code>true</code> if the path contains the point and <code>false</code> otherwise
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the gc is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the gc has been disposed</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public boolean contains(float x, float y, GC gc, boolean outline) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (gc == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (gc.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	/* The path is in the user space of the GC and the point in device space */
+	float[] inverse = gc.inverseTransform();
+	if (inverse != null) {
+		float[] point = { x, y };
+		Transform.transform(inverse, point);
+		x = point[0];
+		y = point[1];
+	}
+	Path flat = flattened();
+	if (outline) {
+		float halfWidth = Math.max(1, gc.getLineWidth()) / 2f;
+		return flat.isNearOutline(x, y, halfWidth * halfWidth);
+	}
+	return flat.isInside(x, y, gc.getFillRule() == SWT.FILL_WINDING);
+}
+
+/*
+ * Answers the receiver with its curves replaced by lines, which is kept
+ * until the receiver changes.
+ */
+Path flattened() {
+	if (flattened == null) {
+		for (int i = 0; i < typeCount; i++) {
+			if (types[i] == SWT.PATH_CUBIC_TO || types[i] == SWT.PATH_QUAD_TO) {
+				flattened = new Path(device, this, 0.1f);
+				return flattened;
+			}
+		}
+		return this;
+	}
+	return flattened;
+}
+
+/**
+ * Closes the current sub path by adding to the receiver a line
+ * from the current point of the path back to the starting point
+ * of the sub path.
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void close() {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (!hasCurrent) return;
+	addType(SWT.PATH_CLOSE);
+	currentX = startX;
+	currentY = startY;
+}
+
+/**
+ * Adds to the receiver a cubic bezier curve based on the parameters.
+ *
+ * @param cx1 the x coordinate of the first control point of the spline
+ * @param cy1 the y coordinate of the first control of the spline
+ * @param cx2 the x coordinate of the second control of the spline
+ * @param cy2 the y coordinate of the second control of the spline
+ * @param x the x coordinate of the end point of the spline
+ * @param y the y coordinate of the end point of the spline
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void cubicTo(float cx1, float cy1, float cx2, float cy2, float x, float y) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (!hasCurrent) moveTo(cx1, cy1);
+	addType(SWT.PATH_CUBIC_TO);
+	addPoints(cx1, cy1, cx2, cy2, x, y);
+	currentX = x;
+	currentY = y;
+}
+
+/**
+ * Replaces the first four elements in the parameter with values that
+ * describe the smallest rectangle that will completely contain the
+ * receiver (i.e. the bounding box).
+ *
+ * @param bounds the array to hold the result
+ * 
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the parameter is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the parameter is too small to hold the bounding box</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void getBounds(float[] bounds) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (bounds == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (bounds.length < 4) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (pointCount == 0) {
+		bounds[0] = bounds[1] = bounds[2] = bounds[3] = 0;
+		return;
+	}
+	float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+	float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+	float[] points = this.points;
+	for (int i = 0; i < pointCount; i += 2) {
+		float x = points[i], y = points[i + 1];
+		if (x < minX) minX = x;
+		if (x > maxX) maxX = x;
+		if (y < minY) minY = y;
+		if (y > maxY) maxY = y;
+	}
+	bounds[0] = minX;
+	bounds[1] = minY;
+	bounds[2] = maxX - minX;
+	bounds[3] = maxY - minY;
+}
+
+/**
+ * Replaces the first two elements in the parameter with values that
+ * describe the current point of the path.
+ *
+ * @param point the array to hold the result
+ * 
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the parameter is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the parameter is too small to hold the end point</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void getCurrentPoint(float[] point) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (point == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (point.length < 2) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	point[0] = currentX;
+	point[1] = currentY;
+}
+
+/**
+ * Returns a device independent representation of the receiver.
+ * 
+ * @return the PathData for the receiver
+ * 
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ * 
+ * @see PathData
+ */
+public PathData getPathData() {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	PathData result = new PathData();
+	result.types = Arrays.copyOf(types, typeCount);
+	result.points = Arrays.copyOf(points, pointCount);
+	return result;
+}
+
+/**
+ * Adds to the receiver a line from the current point to
+ * the point specified by (x, y).
+ *
+ * @param x the x coordinate of the end of the line to add
+ * @param y the y coordinate of the end of the line to add
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void lineTo(float x, float y) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (!hasCurrent) {
+		moveTo(x, y);
+		return;
+	}
+	addType(SWT.PATH_LINE_TO);
+	addPoints(x, y);
+	currentX = x;
+	currentY = y;
+}
+
+/**
+ * Sets the current point of the receiver to the point
+ * specified by (x, y). Note that this starts a new
+ * sub path.
+ *
+ * @param x the x coordinate of the new end point
+ * @param y the y coordinate of the new end point
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void moveTo(float x, float y) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	addType(SWT.PATH_MOVE_TO);
+	addPoints(x, y);
+	startX = currentX = x;
+	startY = currentY = y;
+	hasCurrent = true;
+}
+
+/**
+ * Adds to the receiver a quadratic curve based on the parameters.
+ *
+ * @param cx the x coordinate of the control point of the spline
+ * @param cy the y coordinate of the control point of the spline
+ * @param x the x coordinate of the end point of the spline
+ * @param y the y coordinate of the end point of the spline
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ */
+public void quadTo(float cx, float cy, float x, float y) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (!hasCurrent) moveTo(cx, cy);
+	addType(SWT.PATH_QUAD_TO);
+	addPoints(cx, cy, x, y);
+	currentX = x;
+	currentY = y;
+}
+
+void addType(int type) {
+	if (flattened != null) {
+		flattened.dispose();
+		flattened = null;
+	}
+	if (typeCount == types.length) types = Arrays.copyOf(types, typeCount * 2);
+	types[typeCount++] = (byte)type;
+}
+
+void addPoints(float... coords) {
+	int length = coords.length;
+	if (pointCount + length > points.length) {
+		points = Arrays.copyOf(points, Math.max(points.length * 2, pointCount + length));
+	}
+	System.arraycopy(coords, 0, points, pointCount, length);
+	pointCount += length;
+}
+
+void append(Path path) {
+	for (int i = 0; i < path.typeCount; i++) addType(path.types[i]);
+	if (pointCount + path.pointCount > points.length) {
+		points = Arrays.copyOf(points, Math.max(points.length * 2, pointCount + path.pointCount));
+	}
+	System.arraycopy(path.points, 0, points, pointCount, path.pointCount);
+	pointCount += path.pointCount;
+	if (path.hasCurrent) {
+		hasCurrent = true;
+		startX = path.startX;
+		startY = path.startY;
+		currentX = path.currentX;
+		currentY = path.currentY;
+	}
+}
+
+/**
+ * Replays the receiver into the current path of the graphics context.
+ * The segments are kept in user space so the same path can be drawn
+ * again on every frame without being rebuilt.
+ */
+void appendPath(GraphicsContext context) {
+	byte[] types = this.types;
+	float[] points = this.points;
+	for (int i = 0, j = 0; i < typeCount; i++) {
+		switch (types[i]) {
+			case SWT.PATH_MOVE_TO:
+				context.moveTo(points[j], points[j + 1]);
+				j += 2;
+				break;
+			case SWT.PATH_LINE_TO:
+				context.lineTo(points[j], points[j + 1]);
+				j += 2;
+				break;
+			case SWT.PATH_CUBIC_TO:
+				context.bezierCurveTo(points[j], points[j + 1], points[j + 2], points[j + 3], points[j + 4], points[j + 5]);
+				j += 6;
+				break;
+			case SWT.PATH_QUAD_TO:
+				context.quadraticCurveTo(points[j], points[j + 1], points[j + 2], points[j + 3]);
+				j += 4;
+				break;
+			case SWT.PATH_CLOSE:
+				context.closePath();
+				break;
+		}
+	}
+}
+
+/**
+ * Appends the receiver to <code>dest</code> replacing every curve with
+ * line segments that are no further than <code>flatness</code> from it.
+ */
+void flatten(Path dest, float flatness) {
+	byte[] types = this.types;
+	float[] points = this.points;
+	float x = 0, y = 0;
+	for (int i = 0, j = 0; i < typeCount; i++) {
+		switch (types[i]) {
+			case SWT.PATH_MOVE_TO:
+				dest.moveTo(x = points[j], y = points[j + 1]);
+				j += 2;
+				break;
+			case SWT.PATH_LINE_TO:
+				dest.lineTo(x = points[j], y = points[j + 1]);
+				j += 2;
+				break;
+			case SWT.PATH_CUBIC_TO: {
+				float x1 = points[j], y1 = points[j + 1], x2 = points[j + 2], y2 = points[j + 3];
+				float x3 = points[j + 4], y3 = points[j + 5];
+				/* The chord error is bounded by 3/4 of the largest second difference over n^2 */
+				double dd = Math.max(Math.hypot(x - 2 * x1 + x2, y - 2 * y1 + y2), Math.hypot(x1 - 2 * x2 + x3, y1 - 2 * y2 + y3));
+				int n = Math.max(1, (int)Math.ceil(Math.sqrt(0.75 * dd / flatness)));
+				for (int k = 1; k < n; k++) {
+					float t = (float)k / n, s = 1 - t;
+					float a = s * s * s, b = 3 * s * s * t, c = 3 * s * t * t, d = t * t * t;
+					dest.lineTo(a * x + b * x1 + c * x2 + d * x3, a * y + b * y1 + c * y2 + d * y3);
+				}
+				dest.lineTo(x = x3, y = y3);
+				j += 6;
+				break;
+			}
+			case SWT.PATH_QUAD_TO: {
+				float x1 = points[j], y1 = points[j + 1], x2 = points[j + 2], y2 = points[j + 3];
+				double dd = Math.hypot(x - 2 * x1 + x2, y - 2 * y1 + y2);
+				int n = Math.max(1, (int)Math.ceil(Math.sqrt(0.25 * dd / flatness)));
+				for (int k = 1; k < n; k++) {
+					float t = (float)k / n, s = 1 - t;
+					float a = s * s, b = 2 * s * t, c = t * t;
+					dest.lineTo(a * x + b * x1 + c * x2, a * y + b * y1 + c * y2);
+				}
+				dest.lineTo(x = x2, y = y2);
+				j += 4;
+				break;
+			}
+			case SWT.PATH_CLOSE:
+				dest.close();
+				x = dest.currentX;
+				y = dest.currentY;
+				break;
+		}
+	}
+}
+
+/*
+* Both hit tests expect a flattened path, made only of moves, lines
+* and closes. Every subpath is implicitly closed for the fill test.
+*/
+boolean isInside(float x, float y, boolean winding) {
+	byte[] types = this.types;
+	float[] points = this.points;
+	int crossings = 0, windings = 0;
+	float x0 = 0, y0 = 0, sx = 0, sy = 0;
+	for (int i = 0, j = 0; i <= typeCount; i++) {
+		int type = i < typeCount ? types[i] : SWT.PATH_MOVE_TO;
+		float x1, y1;
+		if (type == SWT.PATH_LINE_TO) {
+			x1 = points[j++];
+			y1 = points[j++];
+		} else {
+			/* close the current subpath */
+			x1 = sx;
+			y1 = sy;
+		}
+		if ((y0 <= y) != (y1 <= y)) {
+			float xi = x0 + (y - y0) * (x1 - x0) / (y1 - y0);
+			if (x < xi) {
+				crossings++;
+				windings += y1 > y0 ? 1 : -1;
+			}
+		}
+		x0 = x1;
+		y0 = y1;
+		if (type == SWT.PATH_MOVE_TO && i < typeCount) {
+			x0 = sx = points[j++];
+			y0 = sy = points[j++];
+		}
+	}
+	return winding ? windings != 0 : (crossings & 1) != 0;
+}
+
+boolean isNearOutline(float x, float y, float distanceSquared) {
+	byte[] types = this.types;
+	float[] points = this.points;
+	float x0 = 0, y0 = 0, sx = 0, sy = 0;
+	for (int i = 0, j = 0; i < typeCount; i++) {
+		float x1, y1;
+		switch (types[i]) {
+			case SWT.PATH_MOVE_TO:
+				x0 = sx = points[j++];
+				y0 = sy = points[j++];
+				continue;
+			case SWT.PATH_LINE_TO:
+				x1 = points[j++];
+				y1 = points[j++];
+				break;
+			case SWT.PATH_CLOSE:
+				x1 = sx;
+				y1 = sy;
+				break;
+			default:
+				continue;
+		}
+		float dx = x1 - x0, dy = y1 - y0;
+		float lengthSquared = dx * dx + dy * dy;
+		float t = lengthSquared == 0 ? 0 : ((x - x0) * dx + (y - y0) * dy) / lengthSquared;
+		t = Math.max(0, Math.min(1, t));
+		float px = x0 + t * dx - x, py = y0 + t * dy - y;
+		if (px * px + py * py <= distanceSquared) return true;
+		x0 = x1;
+		y0 = y1;
+	}
+	return false;
+}
+
+void destroy() {
+	if (flattened != null) flattened.dispose();
+	flattened = null;
+	types = null;
+	points = null;
+}
+
+void init(PathData data) {
+	byte[] types = data.types;
+	float[] points = data.points;
+	for (int i = 0, j = 0; i < types.length; i++) {
+		switch (types[i]) {
+			case SWT.PATH_MOVE_TO:
+				moveTo(points[j++], points[j++]);
+				break;
+			case SWT.PATH_LINE_TO:
+				lineTo(points[j++], points[j++]);
+				break;
+			case SWT.PATH_CUBIC_TO:
+				cubicTo(points[j++], points[j++], points[j++], points[j++], points[j++], points[j++]);
+				break;
+			case SWT.PATH_QUAD_TO:
+				quadTo(points[j++], points[j++], points[j++], points[j++]);
+				break;
+			case SWT.PATH_CLOSE:
+				close();
+				break;
+			default:
+				dispose();
+				SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+	}
+}
+
+/**
+ * Returns <code>true</code> if the Path has been disposed,
+ * and <code>false</code> otherwise.
+ * <p>
+ * This method gets the dispose state for the Path.
+ * When a Path has been disposed, it is an error to
+ * invoke any other method (except {@link #dispose()}) using the Path.
+ *
+ * @return <code>true</code> when the Path is disposed, and <code>false</code> otherwise
+ */
+public boolean isDisposed() {
+	return types == null;
+}
+
+/**
+ * Returns a string containing a concise, human-readable
+ * description of the receiver.
+ *
+ * @return a string representation of the receiver
+ */
+public String toString() {
+	if (isDisposed()) return "Path {*DISPOSED*}";
+	return "Path {" + typeCount + " segments}";
+}
+
+}
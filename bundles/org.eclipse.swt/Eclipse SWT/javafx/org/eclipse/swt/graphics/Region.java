@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.eclipse.swt.graphics;
 
+import java.util.Arrays;
+
+import javafx.scene.canvas.GraphicsContext;
+
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTError;
 import org.eclipse.swt.SWTException;
 
@@ -29,6 +34,20 @@ import org.eclipse.swt.SWTException;
  */
 public final class Region extends Resource {
 
+	/*
+	 * The area is kept as a y-x banded list of rectangles, four ints each
+	 * (x1, y1, x2, y2, with exclusive right and bottom edges). Rectangles are
+	 * sorted by y1 then x1, all rectangles of a band share y1 and y2, the
+	 * rectangles of a band never touch, and vertically adjacent bands with the
+	 * same horizontal spans are coalesced into one.
+	 */
+	int[] rects;
+	int count;
+
+	static final int OP_UNION = 0;
+	static final int OP_INTERSECT = 1;
+	static final int OP_SUBTRACT = 2;
+
 	/**
 	 * Constructs a new empty region.
 	 * 
@@ -39,7 +58,7 @@ public final class Region extends Resource {
 	 *                </ul>
 	 */
 	public Region() {
-		// TODO
+		this(null);
 	}
 
 	/**
@@ -68,7 +87,8 @@ public final class Region extends Resource {
 	 */
 	public Region(Device device) {
 		super(device);
-		// TODO
+		rects = new int[16];
+		init();
 	}
 
 	/**
@@ -92,7 +112,13 @@ public final class Region extends Resource {
 	 * 
 	 */
 	public void add(int[] pointArray) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (pointArray == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (pointArray.length < 6)
+			return;
+		combinePolygon(pointArray, OP_UNION);
 	}
 
 	/**
@@ -115,7 +141,11 @@ public final class Region extends Resource {
 	 *                </ul>
 	 */
 	public void add(Rectangle rect) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (rect == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		add(rect.x, rect.y, rect.width, rect.height);
 	}
 
 	/**
@@ -145,7 +175,13 @@ public final class Region extends Resource {
 	 * @since 3.1
 	 */
 	public void add(int x, int y, int width, int height) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (width < 0 || height < 0)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		if (width == 0 || height == 0)
+			return;
+		combine(new int[] { x, y, x + width, y + height }, 1, OP_UNION);
 	}
 
 	/**
@@ -169,7 +205,13 @@ public final class Region extends Resource {
 	 *                </ul>
 	 */
 	public void add(Region region) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (region == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (region.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		combine(region.rects, region.count, OP_UNION);
 	}
 
 	/**
@@ -191,8 +233,23 @@ public final class Region extends Resource {
 	 *                </ul>
 	 */
 	public boolean contains(int x, int y) {
-		// TODO
-		return false;
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		// the last rectangle starting at or above y ends its band
+		int end = lowerBound(y + 1) - 1;
+		if (end < 0 || rects[end * 4 + 3] <= y)
+			return false;
+		int start = lowerBound(rects[end * 4 + 1]);
+		// find the last rectangle of the band starting at or left of x
+		int low = start, high = end;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (rects[mid * 4] <= x)
+				low = mid + 1;
+			else
+				high = mid - 1;
+		}
+		return high >= start && x < rects[high * 4 + 2];
 	}
 
 	/**
@@ -215,8 +272,9 @@ public final class Region extends Resource {
 	 *                </ul>
 	 */
 	public boolean contains(Point pt) {
-		// TODO
-		return false;
+		if (pt == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		return contains(pt.x, pt.y);
 	}
 
 	/**
@@ -234,8 +292,19 @@ public final class Region extends Resource {
 	 * @see Rectangle#union
 	 */
 	public Rectangle getBounds() {
-		// TODO
-		return null;
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (count == 0)
+			return new Rectangle(0, 0, 0, 0);
+		int x1 = Integer.MAX_VALUE, x2 = Integer.MIN_VALUE;
+		for (int i = 0; i < count * 4; i += 4) {
+			if (rects[i] < x1)
+				x1 = rects[i];
+			if (rects[i + 2] > x2)
+				x2 = rects[i + 2];
+		}
+		int y1 = rects[1], y2 = rects[count * 4 - 1];
+		return new Rectangle(x1, y1, x2 - x1, y2 - y1);
 	}
 
 	/**
@@ -260,7 +329,11 @@ public final class Region extends Resource {
 	 * @since 3.0
 	 */
 	public void intersect(Rectangle rect) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (rect == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		intersect(rect.x, rect.y, rect.width, rect.height);
 	}
 
 	/**
@@ -290,7 +363,12 @@ public final class Region extends Resource {
 	 * @since 3.1
 	 */
 	public void intersect(int x, int y, int width, int height) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (width < 0 || height < 0)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		combine(new int[] { x, y, x + width, y + height },
+				width == 0 || height == 0 ? 0 : 1, OP_INTERSECT);
 	}
 
 	/**
@@ -316,7 +394,13 @@ public final class Region extends Resource {
 	 * @since 3.0
 	 */
 	public void intersect(Region region) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (region == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (region.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		combine(region.rects, region.count, OP_INTERSECT);
 	}
 
 	/**
@@ -344,7 +428,24 @@ public final class Region extends Resource {
 	 * @see Rectangle#intersects(Rectangle)
 	 */
 	public boolean intersects(int x, int y, int width, int height) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (width <= 0 || height <= 0)
+			return false;
+		int x2 = x + width, y2 = y + height;
+		// skip the bands that end above the rectangle
+		int low = 0, high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (rects[mid * 4 + 3] <= y)
+				low = mid + 1;
+			else
+				high = mid - 1;
+		}
+		for (int i = low * 4; i < count * 4 && rects[i + 1] < y2; i += 4) {
+			if (rects[i] < x2 && rects[i + 2] > x)
+				return true;
+		}
 		return false;
 	}
 
@@ -371,8 +472,9 @@ public final class Region extends Resource {
 	 * @see Rectangle#intersects(Rectangle)
 	 */
 	public boolean intersects(Rectangle rect) {
-		// TODO
-		return false;
+		if (rect == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		return intersects(rect.x, rect.y, rect.width, rect.height);
 	}
 
 	/**
@@ -388,8 +490,7 @@ public final class Region extends Resource {
 	 */
 	@Override
 	public boolean isDisposed() {
-		// TODO
-		return false;
+		return rects == null;
 	}
 
 	/**
@@ -407,8 +508,9 @@ public final class Region extends Resource {
 	 *                </ul>
 	 */
 	public boolean isEmpty() {
-		// TODO
-		return false;
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		return count == 0;
 	}
 
 	/**
@@ -431,7 +533,13 @@ public final class Region extends Resource {
 	 * @since 3.0
 	 */
 	public void subtract(int[] pointArray) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (pointArray == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (pointArray.length < 6)
+			return;
+		combinePolygon(pointArray, OP_SUBTRACT);
 	}
 
 	/**
@@ -456,7 +564,11 @@ public final class Region extends Resource {
 	 * @since 3.0
 	 */
 	public void subtract(Rectangle rect) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (rect == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		subtract(rect.x, rect.y, rect.width, rect.height);
 	}
 
 	/**
@@ -486,7 +598,13 @@ public final class Region extends Resource {
 	 * @since 3.1
 	 */
 	public void subtract(int x, int y, int width, int height) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (width < 0 || height < 0)
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		if (width == 0 || height == 0)
+			return;
+		combine(new int[] { x, y, x + width, y + height }, 1, OP_SUBTRACT);
 	}
 
 	/**
@@ -512,7 +630,13 @@ public final class Region extends Resource {
 	 * @since 3.0
 	 */
 	public void subtract(Region region) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (region == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (region.isDisposed())
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		combine(region.rects, region.count, OP_SUBTRACT);
 	}
 
 	/**
@@ -533,7 +657,14 @@ public final class Region extends Resource {
 	 * @since 3.1
 	 */
 	public void translate(int x, int y) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		for (int i = 0; i < count * 4; i += 4) {
+			rects[i] += x;
+			rects[i + 1] += y;
+			rects[i + 2] += x;
+			rects[i + 3] += y;
+		}
 	}
 
 	/**
@@ -556,7 +687,281 @@ public final class Region extends Resource {
 	 * @since 3.1
 	 */
 	public void translate(Point pt) {
-		// TODO
+		if (isDisposed())
+			SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+		if (pt == null)
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		translate(pt.x, pt.y);
+	}
+
+	/**
+	 * Appends the horizontal span x1..x2 to the band starting at bandStart,
+	 * merging it with the last rectangle of the band when they touch. Spans
+	 * must be appended in increasing x1 order.
+	 */
+	void addSpan(int bandStart, int x1, int y1, int x2, int y2) {
+		int last = (count - 1) * 4;
+		if (count > bandStart && rects[last + 2] >= x1) {
+			if (x2 > rects[last + 2])
+				rects[last + 2] = x2;
+			return;
+		}
+		if (count * 4 == rects.length) {
+			int[] newRects = new int[rects.length * 2];
+			System.arraycopy(rects, 0, newRects, 0, rects.length);
+			rects = newRects;
+		}
+		int i = count * 4;
+		rects[i] = x1;
+		rects[i + 1] = y1;
+		rects[i + 2] = x2;
+		rects[i + 3] = y2;
+		count++;
+	}
+
+	/**
+	 * Completes the band starting at bandStart, coalescing it into the
+	 * previous band when that one ends where this one starts and has the same
+	 * spans. Answers the start of the band to compare the next band against.
+	 */
+	int endBand(int prevStart, int bandStart) {
+		if (count == bandStart)
+			return prevStart;
+		int size = count - bandStart;
+		if (prevStart != -1 && bandStart - prevStart == size
+				&& rects[prevStart * 4 + 3] == rects[bandStart * 4 + 1]) {
+			int i = prevStart * 4, j = bandStart * 4;
+			for (int k = 0; k < size; k++, i += 4, j += 4) {
+				if (rects[i] != rects[j] || rects[i + 2] != rects[j + 2])
+					return bandStart;
+			}
+			int y2 = rects[bandStart * 4 + 3];
+			for (i = prevStart * 4; i < bandStart * 4; i += 4)
+				rects[i + 3] = y2;
+			count = bandStart;
+			return prevStart;
+		}
+		return bandStart;
+	}
+
+	static int bandEnd(int[] rects, int count, int start) {
+		int end = start;
+		if (start < count) {
+			int y1 = rects[start * 4 + 1];
+			while (end < count && rects[end * 4 + 1] == y1)
+				end++;
+		}
+		return end;
+	}
+
+	/**
+	 * Replaces the receiver's area with the union, intersection or
+	 * difference of the receiver and the given banded rectangles. Both lists
+	 * are swept once from top to bottom, so the cost is linear in the number
+	 * of rectangles of the operands.
+	 */
+	void combine(int[] other, int otherCount, int op) {
+		int[] a = rects, b = other;
+		int na = count, nb = otherCount;
+		switch (op) {
+		case OP_UNION:
+			if (nb == 0)
+				return;
+			break;
+		case OP_INTERSECT:
+			if (na == 0)
+				return;
+			if (nb == 0) {
+				count = 0;
+				return;
+			}
+			break;
+		case OP_SUBTRACT:
+			if (na == 0 || nb == 0)
+				return;
+			break;
+		}
+		rects = new int[Math.max(16, (na + nb) * 4)];
+		count = 0;
+		int ia = 0, ib = 0, y = Integer.MIN_VALUE, prevStart = -1;
+		int aEnd = bandEnd(a, na, 0), bEnd = bandEnd(b, nb, 0);
+		while (true) {
+			if (op == OP_INTERSECT && (ia == na || ib == nb))
+				break;
+			if (op == OP_SUBTRACT && ia == na)
+				break;
+			int aTop = ia < na ? Math.max(a[ia * 4 + 1], y) : Integer.MAX_VALUE;
+			int bTop = ib < nb ? Math.max(b[ib * 4 + 1], y) : Integer.MAX_VALUE;
+			int top = Math.min(aTop, bTop);
+			if (top == Integer.MAX_VALUE)
+				break;
+			boolean inA = aTop == top, inB = bTop == top;
+			int bottom = Math.min(inA ? a[ia * 4 + 3] : aTop, inB ? b[ib * 4 + 3] : bTop);
+			int bandStart = count;
+			if (inA && inB) {
+				switch (op) {
+				case OP_UNION: {
+					int i = ia, j = ib;
+					while (i < aEnd || j < bEnd) {
+						if (j == bEnd || (i < aEnd && a[i * 4] <= b[j * 4])) {
+							addSpan(bandStart, a[i * 4], top, a[i * 4 + 2], bottom);
+							i++;
+						} else {
+							addSpan(bandStart, b[j * 4], top, b[j * 4 + 2], bottom);
+							j++;
+						}
+					}
+					break;
+				}
+				case OP_INTERSECT: {
+					int i = ia, j = ib;
+					while (i < aEnd && j < bEnd) {
+						int x1 = Math.max(a[i * 4], b[j * 4]);
+						int x2 = Math.min(a[i * 4 + 2], b[j * 4 + 2]);
+						if (x1 < x2)
+							addSpan(bandStart, x1, top, x2, bottom);
+						if (a[i * 4 + 2] < b[j * 4 + 2])
+							i++;
+						else
+							j++;
+					}
+					break;
+				}
+				case OP_SUBTRACT: {
+					int j = ib;
+					for (int i = ia; i < aEnd; i++) {
+						int x = a[i * 4], x2 = a[i * 4 + 2];
+						while (j < bEnd && b[j * 4 + 2] <= x)
+							j++;
+						for (int k = j; k < bEnd && b[k * 4] < x2; k++) {
+							if (b[k * 4] > x)
+								addSpan(bandStart, x, top, b[k * 4], bottom);
+							x = Math.max(x, b[k * 4 + 2]);
+						}
+						if (x < x2)
+							addSpan(bandStart, x, top, x2, bottom);
+					}
+					break;
+				}
+				}
+			} else if (inA) {
+				if (op != OP_INTERSECT) {
+					for (int i = ia; i < aEnd; i++)
+						addSpan(bandStart, a[i * 4], top, a[i * 4 + 2], bottom);
+				}
+			} else if (op == OP_UNION) {
+				for (int j = ib; j < bEnd; j++)
+					addSpan(bandStart, b[j * 4], top, b[j * 4 + 2], bottom);
+			}
+			prevStart = endBand(prevStart, bandStart);
+			y = bottom;
+			if (inA && a[ia * 4 + 3] == bottom) {
+				ia = aEnd;
+				aEnd = bandEnd(a, na, ia);
+			}
+			if (inB && b[ib * 4 + 3] == bottom) {
+				ib = bEnd;
+				bEnd = bandEnd(b, nb, ib);
+			}
+		}
+	}
+
+	/**
+	 * Scan converts the polygon with the even-odd rule, sampling pixel
+	 * centers, and combines the resulting bands with the receiver.
+	 */
+	void combinePolygon(int[] pointArray, int op) {
+		int n = pointArray.length / 2;
+		int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+		for (int i = 0; i < n; i++) {
+			int y = pointArray[i * 2 + 1];
+			minY = Math.min(minY, y);
+			maxY = Math.max(maxY, y);
+		}
+		int[] saveRects = rects;
+		int saveCount = count;
+		rects = new int[16];
+		count = 0;
+		double[] xs = new double[n];
+		int prevStart = -1;
+		for (int y = minY; y < maxY; y++) {
+			double center = y + 0.5;
+			int crossings = 0;
+			for (int i = 0; i < n; i++) {
+				int j = (i + 1) % n;
+				double x1 = pointArray[i * 2], y1 = pointArray[i * 2 + 1];
+				double x2 = pointArray[j * 2], y2 = pointArray[j * 2 + 1];
+				if ((y1 <= center && center < y2) || (y2 <= center && center < y1))
+					xs[crossings++] = x1 + (center - y1) * (x2 - x1) / (y2 - y1);
+			}
+			Arrays.sort(xs, 0, crossings);
+			int bandStart = count;
+			for (int i = 0; i + 1 < crossings; i += 2) {
+				int x1 = (int)Math.ceil(xs[i] - 0.5);
+				int x2 = (int)Math.ceil(xs[i + 1] - 0.5);
+				if (x1 < x2)
+					addSpan(bandStart, x1, y, x2, y + 1);
+			}
+			prevStart = endBand(prevStart, bandStart);
+		}
+		int[] polygon = rects;
+		int polygonCount = count;
+		rects = saveRects;
+		count = saveCount;
+		combine(polygon, polygonCount, op);
+	}
+
+	/**
+	 * Answers the index of the first rectangle whose top is at or below y.
+	 */
+	int lowerBound(int y) {
+		int low = 0, high = count;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (rects[mid * 4 + 1] < y)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Replaces the receiver's area with the area of the given region.
+	 */
+	void set(Region region) {
+		rects = new int[Math.max(16, region.count * 4)];
+		System.arraycopy(region.rects, 0, rects, 0, region.count * 4);
+		count = region.count;
+	}
+
+	/**
+	 * Appends the receiver's rectangles to the current path of the given
+	 * graphics context, so that the region can be used to clip.
+	 */
+	void appendPath(GraphicsContext context) {
+		for (int i = 0; i < count * 4; i += 4)
+			context.rect(rects[i], rects[i + 1], rects[i + 2] - rects[i],
+					rects[i + 3] - rects[i + 1]);
+	}
+
+	@Override
+	void destroy() {
+		rects = null;
+		count = 0;
+	}
+
+	/**
+	 * Returns a string containing a concise, human-readable description of
+	 * the receiver.
+	 * 
+	 * @return a string representation of the receiver
+	 */
+	@Override
+	public String toString() {
+		if (isDisposed())
+			return "Region {*DISPOSED*}";
+		return "Region {" + count + " rectangles}";
 	}
 
 }
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import javafx.scene.text.Text;
+
+import org.eclipse.swt.SWT;
+
+/**
+ * A string laid out for <code>GC.drawText</code> with a given font and
+ * flags: the segments left after splitting lines and expanding tabs, their
+ * offsets, and the position of the mnemonic underline. Runs are measured once
+ * and kept by the device, so drawing the same text again only replays them.
+ */
+final class TextRun {
+
+	/** The flags that change the layout, everything else is ignored */
+	static final int LAYOUT_FLAGS = SWT.DRAW_DELIMITER | SWT.DRAW_TAB
+			| SWT.DRAW_MNEMONIC;
+	static final int TAB_SPACES = 8;
+
+	String string;
+	Font font;
+	int flags;
+
+	String[] segments;
+	int[] offsets;
+	int[] lines;
+	int count;
+	int lineHeight, ascent, width, height;
+	int mnemonicX, mnemonicWidth, mnemonicLine = -1;
+
+	TextRun() {
+	}
+
+	TextRun(String string, Font font, int flags) {
+		set(string, font, flags);
+	}
+
+	void set(String string, Font font, int flags) {
+		this.string = string;
+		this.font = font;
+		this.flags = flags & LAYOUT_FLAGS;
+	}
+
+	void layout(Text measure) {
+		String text = string;
+		int length = text.length();
+		int mnemonic = -1;
+		if ((flags & SWT.DRAW_MNEMONIC) != 0 && text.indexOf('&') != -1) {
+			StringBuilder buffer = new StringBuilder(length);
+			for (int i = 0; i < length; i++) {
+				char c = text.charAt(i);
+				if (c == '&') {
+					if (++i == length)
+						break;
+					c = text.charAt(i);
+					if (c != '&' && mnemonic == -1)
+						mnemonic = buffer.length();
+				}
+				buffer.append(c);
+			}
+			text = buffer.toString();
+			length = text.length();
+		}
+		boolean delimiters = (flags & SWT.DRAW_DELIMITER) != 0;
+		boolean tabs = (flags & SWT.DRAW_TAB) != 0;
+		if (!delimiters)
+			text = text.replace('\r', ' ').replace('\n', ' ');
+
+		measure.setFont(font.handle);
+		measure.setText(" ");
+		double spaceWidth = measure.getLayoutBounds().getWidth();
+		lineHeight = (int) Math.ceil(measure.getLayoutBounds().getHeight());
+		ascent = (int) Math.round(measure.getBaselineOffset());
+		double tabWidth = Math.max(1, TAB_SPACES * spaceWidth);
+
+		segments = new String[4];
+		offsets = new int[4];
+		lines = new int[4];
+		count = 0;
+		width = 0;
+		int line = 0, start = 0;
+		double x = 0;
+		for (int i = 0; i <= length; i++) {
+			char c = i < length ? text.charAt(i) : '\n';
+			boolean eol = i == length || (delimiters && (c == '\n' || c == '\r'));
+			boolean tab = !eol && tabs && c == '\t';
+			if (!eol && !tab)
+				continue;
+			if (start < i)
+				x = addSegment(text, start, i, x, line, mnemonic, measure);
+			if (tab) {
+				x = (Math.floor(x / tabWidth) + 1) * tabWidth;
+			} else {
+				width = Math.max(width, (int) Math.ceil(x));
+				x = 0;
+				if (i < length) {
+					line++;
+					if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n')
+						i++;
+				}
+			}
+			start = i + 1;
+		}
+		height = (line + 1) * lineHeight;
+	}
+
+	double addSegment(String text, int start, int end, double x, int line,
+			int mnemonic, Text measure) {
+		String segment = text.substring(start, end);
+		measure.setText(segment);
+		double segmentWidth = measure.getLayoutBounds().getWidth();
+		if (start <= mnemonic && mnemonic < end) {
+			measure.setText(text.substring(start, mnemonic));
+			double before = measure.getLayoutBounds().getWidth();
+			measure.setText(text.substring(mnemonic, mnemonic + 1));
+			mnemonicX = (int) Math.round(x + before);
+			mnemonicWidth = (int) Math.ceil(measure.getLayoutBounds()
+					.getWidth());
+			mnemonicLine = line;
+		}
+		if (count == segments.length) {
+			int newLength = count * 2;
+			String[] newSegments = new String[newLength];
+			System.arraycopy(segments, 0, newSegments, 0, count);
+			segments = newSegments;
+			int[] newOffsets = new int[newLength];
+			System.arraycopy(offsets, 0, newOffsets, 0, count);
+			offsets = newOffsets;
+			int[] newLines = new int[newLength];
+			System.arraycopy(lines, 0, newLines, 0, count);
+			lines = newLines;
+		}
+		segments[count] = segment;
+		offsets[count] = (int) Math.round(x);
+		lines[count] = line;
+		count++;
+		return x + segmentWidth;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (object == this)
+			return true;
+		if (!(object instanceof TextRun))
+			return false;
+		TextRun run = (TextRun) object;
+		return font == run.font && flags == run.flags
+				&& string.equals(run.string);
+	}
+
+	@Override
+	public int hashCode() {
+		return string.hashCode() ^ System.identityHashCode(font) ^ flags;
+	}
+
+}
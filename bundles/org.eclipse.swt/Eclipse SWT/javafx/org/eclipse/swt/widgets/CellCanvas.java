@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import javafx.scene.canvas.Canvas;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.GCData;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+
+/**
+ * The content of a Table or Tree cell while the control has MeasureItem,
+ * EraseItem or PaintItem listeners. The cell shows the canvas instead of its
+ * text and the content is drawn on it around the EraseItem and PaintItem
+ * events, the way the native tables do.
+ * <p>
+ * FX reuses a cell for other rows as it scrolls, and the canvas goes along
+ * with its GC, so drawing a cell allocates nothing. The canvas remembers
+ * what it last drew, which is identified by the measured size of the cell:
+ * the controls cache one per cell and drop it when the cell changes. The
+ * events are only sent again when that size, the size of the canvas or the
+ * selection state are different.
+ * </p>
+ * <p>
+ * The GC draws in the coordinates of the control, as on the other platforms,
+ * so listeners can draw at the event position or at the bounds of the item.
+ * The canvas only covers the cell and clips the rest. MeasureItem events
+ * have no position, as the measured size is cached for any row.
+ * </p>
+ */
+final class CellCanvas extends Canvas {
+
+	/* Space left of the content and between the image and the text */
+	static final int MARGIN = 3;
+
+	/* Space above and below the text in the default height of a row */
+	static final int TEXT_MARGIN = 4;
+
+	final Display display;
+	final GCData data;
+	final GC gc;
+
+	/* What was last drawn, see paint() */
+	Point painted;
+	int paintedWidth, paintedHeight, paintedDetail, paintedGeneration;
+
+	/* The color to show behind the canvas after the last EraseItem */
+	Color background;
+
+	CellCanvas(Control control) {
+		display = control.display;
+		data = new GCData();
+		data.context = getGraphicsContext2D();
+		gc = GC.fx_new(control, data);
+	}
+
+	/**
+	 * Answers the default height of the rows of a control, which hold one
+	 * line of text in the font.
+	 */
+	static int itemHeight(Control control, Font font) {
+		GC gc = GC.fx_new(control, new GCData());
+		gc.setFont(font);
+		int height = gc.textExtent("").y;
+		gc.dispose();
+		return height + 2 * TEXT_MARGIN;
+	}
+
+	/**
+	 * Answers the size of the content of a cell, as changed by the MeasureItem
+	 * listeners. The height is the height of the row.
+	 */
+	Point measure(Control control, Item item, int column, String text, Image image, Font font) {
+		reset(font, null, null);
+		Point extent = gc.textExtent(text);
+		int width = extent.x, height = extent.y + 2 * TEXT_MARGIN;
+		if (image != null) {
+			Rectangle bounds = image.getBounds();
+			width += bounds.width + MARGIN;
+			height = Math.max(height, bounds.height);
+		}
+		if (control.hooks(SWT.MeasureItem)) {
+			Event event = new Event();
+			event.item = item;
+			event.index = column;
+			event.gc = gc;
+			event.width = width;
+			event.height = height;
+			control.sendEvent(SWT.MeasureItem, event);
+			width = event.width;
+			height = Math.max(1, event.height);
+		}
+		return new Point(width, height);
+	}
+
+	/**
+	 * Draws a cell of the given measured size, unless it is already showing
+	 * on the canvas. The canvas is at x and y in the control. The detail
+	 * holds the SWT.SELECTED and SWT.FOCUSED state of the cell and the
+	 * generation changes when the whole control is redrawn.
+	 */
+	void paint(Control control, Item item, int column, int x, int y, Point measure, int detail, int generation,
+			String text, Image image, Font font, Color foreground, Color background) {
+		int width = (int)getWidth(), height = (int)getHeight();
+		/* The cell is drawn once it is laid out */
+		if (width == 0 || height == 0) return;
+		if (measure == painted && width == paintedWidth && height == paintedHeight
+				&& detail == paintedDetail && generation == paintedGeneration) {
+			return;
+		}
+		painted = measure;
+		paintedWidth = width;
+		paintedHeight = height;
+		paintedDetail = detail;
+		paintedGeneration = generation;
+		boolean selected = (detail & SWT.SELECTED) != 0;
+		Color itemForeground = foreground;
+		if (selected) foreground = display.getSystemColor(SWT.COLOR_LIST_SELECTION_TEXT);
+		data.originX = x;
+		data.originY = y;
+		data.width = width;
+		data.height = height;
+		reset(font, foreground, background);
+		getGraphicsContext2D().clearRect(x, y, width, height);
+		Event event = new Event();
+		event.item = item;
+		event.index = column;
+		event.gc = gc;
+		event.x = x;
+		event.y = y;
+		event.width = width;
+		event.height = height;
+		event.detail = detail | SWT.FOREGROUND | (background != null ? SWT.BACKGROUND : 0);
+		if (control.hooks(SWT.EraseItem)) {
+			control.sendEvent(SWT.EraseItem, event);
+			if (control.isDisposed()) return;
+		}
+		/*
+		 * The background is shown behind the canvas, so it stays below
+		 * anything the listeners drew. The selection is covered the same way
+		 * when the listeners took it over.
+		 */
+		boolean hideSelection = selected && (!event.doit || (event.detail & SWT.SELECTED) == 0);
+		if (hideSelection) {
+			foreground = itemForeground;
+			if (background == null) background = control.getBackground();
+			if (background == null) background = display.getSystemColor(SWT.COLOR_WHITE);
+		}
+		this.background = background;
+		int contentX = MARGIN;
+		boolean drawForeground = event.doit && (event.detail & SWT.FOREGROUND) != 0;
+		reset(font, foreground, background);
+		if (image != null) {
+			Rectangle bounds = image.getBounds();
+			if (drawForeground) gc.drawImage(image, x + contentX, y + (height - bounds.height) / 2);
+			contentX += bounds.width + MARGIN;
+		}
+		if (drawForeground) {
+			int textHeight = gc.textExtent(text).y;
+			gc.drawText(text, x + contentX, y + (height - textHeight) / 2, SWT.DRAW_DELIMITER | SWT.DRAW_TAB | SWT.DRAW_TRANSPARENT);
+		}
+		if (control.hooks(SWT.PaintItem)) {
+			reset(font, foreground, background);
+			event = new Event();
+			event.item = item;
+			event.index = column;
+			event.gc = gc;
+			event.x = x + contentX;
+			event.y = y;
+			event.width = Math.max(0, measure.x - (contentX - MARGIN));
+			event.height = height;
+			event.detail = hideSelection ? detail & ~SWT.SELECTED : detail;
+			control.sendEvent(SWT.PaintItem, event);
+		}
+	}
+
+	/**
+	 * Forgets what was drawn, so that the next paint draws again.
+	 */
+	void invalidate() {
+		painted = null;
+	}
+
+	/*
+	 * Puts the GC back in the state listeners expect, whatever the previous
+	 * listener left in it.
+	 */
+	void reset(Font font, Color foreground, Color background) {
+		gc.setClipping((Rectangle)null);
+		gc.setTransform(null);
+		gc.setFillRule(SWT.FILL_EVEN_ODD);
+		gc.setFont(font);
+		gc.setForeground(foreground != null ? foreground : display.getSystemColor(SWT.COLOR_BLACK));
+		gc.setBackground(background != null ? background : display.getSystemColor(SWT.COLOR_WHITE));
+	}
+}
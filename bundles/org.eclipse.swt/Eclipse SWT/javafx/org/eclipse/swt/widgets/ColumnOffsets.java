@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import javafx.scene.control.TableColumnBase;
+
+/**
+ * The x offsets of the columns of a Table or Tree in the order they are
+ * shown. The widths are kept in a binary indexed tree, so the offset of a
+ * column, the column at an x and a change of width all cost O(log n) in
+ * the number of columns. A change of the order builds it again.
+ */
+final class ColumnOffsets {
+
+	final IdentityHashMap<TableColumnBase<?, ?>, Integer> positions = new IdentityHashMap<TableColumnBase<?, ?>, Integer>();
+	double[] widths = new double[0];
+
+	/* sums[i] holds the widths of the positions in (i - (i & -i), i] */
+	double[] sums = new double[1];
+	int count;
+
+	/**
+	 * Takes the columns and their widths, in the order they are shown.
+	 */
+	void build(List<? extends TableColumnBase<?, ?>> columns) {
+		count = columns.size();
+		positions.clear();
+		widths = new double[count];
+		sums = new double[count + 1];
+		for (int i = 0; i < count; i++) {
+			TableColumnBase<?, ?> column = columns.get(i);
+			positions.put(column, i);
+			widths[i] = column.getWidth();
+			sums[i + 1] += widths[i];
+			int parent = (i + 1) + ((i + 1) & -(i + 1));
+			if (parent <= count) sums[parent] += sums[i + 1];
+		}
+	}
+
+	/**
+	 * Answers the position the column is shown at, or -1.
+	 */
+	int position(TableColumnBase<?, ?> column) {
+		Integer position = positions.get(column);
+		return position != null ? position : -1;
+	}
+
+	/**
+	 * Takes the new width of a column, answering false when it is not shown.
+	 */
+	boolean setWidth(TableColumnBase<?, ?> column, double width) {
+		int position = position(column);
+		if (position == -1) return false;
+		double delta = width - widths[position];
+		widths[position] = width;
+		for (int i = position + 1; i <= count; i += i & -i) {
+			sums[i] += delta;
+		}
+		return true;
+	}
+
+	double width(int position) {
+		return widths[position];
+	}
+
+	/**
+	 * Answers the x of the column at the position, which is the sum of the
+	 * widths of the columns before it.
+	 */
+	double offset(int position) {
+		double offset = 0;
+		for (int i = position; i > 0; i -= i & -i) {
+			offset += sums[i];
+		}
+		return offset;
+	}
+
+	double total() {
+		return offset(count);
+	}
+
+	/**
+	 * Answers the position of the column at x, or -1 when x is outside the
+	 * columns.
+	 */
+	int positionAt(double x) {
+		if (x < 0) return -1;
+		int position = 0;
+		for (int step = Integer.highestOneBit(Math.max(1, count)); step != 0; step >>= 1) {
+			int next = position + step;
+			if (next <= count && sums[next] <= x) {
+				position = next;
+				x -= sums[next];
+			}
+		}
+		/* The columns before the position end at or before x */
+		return position < count ? position : -1;
+	}
+}
@@ -15,6 +15,8 @@ import java.util.LinkedList;
 
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
 import javafx.scene.control.ComboBox;
 import javafx.scene.input.KeyEvent;
@@ -79,6 +81,7 @@ public class Combo extends Composite {
 	private LinkedList<SelectionListener> selectionListeners;
 	private LinkedList<VerifyListener> verifyListeners;
 	private LinkedList<ModifyListener> modifyListeners;
+	PrefixIndex prefixIndex;
 
 	/**
 	 * Constructs a new instance of this class given its parent and a style
@@ -162,6 +165,33 @@ public class Combo extends Composite {
 				
 			}
 		});
+		prefixIndex = new PrefixIndex(comboBox.getItems());
+		comboBox.getItems().addListener(new ListChangeListener<String>() {
+			@Override
+			public void onChanged(Change<? extends String> change) {
+				while (change.next()) {
+					if (change.wasPermutated()) {
+						prefixIndex.invalidate();
+						continue;
+					}
+					prefixIndex.remove(change.getFrom(), change.getRemoved());
+					prefixIndex.insert(change.getFrom(), change.getAddedSize());
+				}
+			}
+		});
+		/* A combo that cannot be typed into selects the items typed instead */
+		comboBox.addEventHandler(KeyEvent.KEY_TYPED, new EventHandler<KeyEvent>() {
+			@Override
+			public void handle(KeyEvent event) {
+				ComboBox<String> comboBox = getCombo();
+				if (comboBox.isEditable()) return;
+				char character = PrefixIndex.typedCharacter(event);
+				if (character == 0) return;
+				int current = comboBox.getSelectionModel().getSelectedIndex();
+				int index = prefixIndex.typed(character, System.currentTimeMillis(), current);
+				if (index != -1 && index != current) comboBox.getSelectionModel().select(index);
+			}
+		});
 		setNode(comboBox);
 	}
 
@@ -546,8 +576,8 @@ public class Combo extends Composite {
 	 *                </ul>
 	 */
 	public String[] getItems() {
-		
-		return (String[]) getCombo().getItems().toArray();
+		ObservableList<String> items = getCombo().getItems();
+		return items.toArray(new String[items.size()]);
 	}
 
 	/**
@@ -727,7 +757,7 @@ public class Combo extends Composite {
 	 *                </ul>
 	 */
 	public int indexOf(String string) {
-		return getCombo().getItems().indexOf(string);
+		return indexOf(string, 0);
 	}
 
 	/**
@@ -755,8 +785,10 @@ public class Combo extends Composite {
 	 *                </ul>
 	 */
 	public int indexOf(String string, int start) {
-		// TODO
-		return 0;
+		checkWidget();
+		if (string == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (!(0 <= start && start < getCombo().getItems().size())) return -1;
+		return prefixIndex.indexOf(string, start);
 	}
 
 	/**
@@ -1035,6 +1067,10 @@ public class Combo extends Composite {
 	 *                </ul>
 	 */
 	public void setItems(String[] items) {
+		if (items == null) error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < items.length; i++) {
+			if (items[i] == null) error(SWT.ERROR_INVALID_ARGUMENT);
+		}
 		getCombo().getItems().setAll(Arrays.asList(items));
 	}
 
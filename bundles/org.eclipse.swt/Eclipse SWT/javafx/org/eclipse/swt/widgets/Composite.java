@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.swt.widgets;
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.geometry.Bounds;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
@@ -62,6 +65,7 @@ public class Composite extends Scrollable {
 
 	Layout layout;
 	PaneLayout paneLayout;
+	javafx.scene.canvas.Canvas paintCanvas;
 	Control[] children;
 	
 	/**
@@ -152,6 +156,52 @@ public class Composite extends Scrollable {
 		}
 	}
 	
+	@Override
+	javafx.scene.canvas.Canvas paintCanvas() {
+		if (paintCanvas == null) {
+			/* Composites shown by another node, like Table, have no pane to paint */
+			if (paneLayout == null && node != null)
+				return null;
+			if (paneLayout == null)
+				createPane();
+			Pane pane = paneLayout.getPane();
+			paintCanvas = new javafx.scene.canvas.Canvas();
+			/* The canvas follows the size of the pane without taking part in its layout */
+			paintCanvas.setManaged(false);
+			paintCanvas.widthProperty().bind(pane.widthProperty());
+			paintCanvas.heightProperty().bind(pane.heightProperty());
+			InvalidationListener resizeListener = new InvalidationListener() {
+				@Override
+				public void invalidated(Observable observable) {
+					if (!isDisposed())
+						redraw();
+				}
+			};
+			paintCanvas.widthProperty().addListener(resizeListener);
+			paintCanvas.heightProperty().addListener(resizeListener);
+			pane.getChildren().add(0, paintCanvas);
+		}
+		return paintCanvas;
+	}
+
+	@Override
+	void redrawWidget(int x, int y, int width, int height, boolean all) {
+		super.redrawWidget(x, y, width, height, all);
+		if (!all || children == null || width <= 0 || height <= 0)
+			return;
+		for (Control child : children) {
+			if (child.node == null)
+				continue;
+			Bounds bounds = child.node.getBoundsInParent();
+			int childX = (int)bounds.getMinX(), childY = (int)bounds.getMinY();
+			int x1 = Math.max(x, childX), y1 = Math.max(y, childY);
+			int x2 = Math.min(x + width, childX + (int)Math.ceil(bounds.getWidth()));
+			int y2 = Math.min(y + height, childY + (int)Math.ceil(bounds.getHeight()));
+			if (x1 < x2 && y1 < y2)
+				child.redrawWidget(x1 - childX, y1 - childY, x2 - x1, y2 - y1, true);
+		}
+	}
+
 	void removeChild(Control child) {
 		if (paneLayout != null)
 			paneLayout.removeChild(child.node);
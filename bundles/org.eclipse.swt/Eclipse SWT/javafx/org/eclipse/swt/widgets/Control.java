@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.swt.widgets;
 
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
 import javafx.scene.Node;
 
 import org.eclipse.swt.SWT;
@@ -74,6 +76,11 @@ import org.eclipse.swt.graphics.Region;
  */
 public abstract class Control extends Widget implements Drawable {
 
+	// area marked by redraw, painted and cleared by the next update
+	Region damageRgn;
+	// whether an update is scheduled for the damage
+	boolean paintPending;
+
 	/**
 	 * Constructs a new instance of this class given its parent and a style
 	 * value describing its behavior and appearance.
@@ -127,6 +134,10 @@ public abstract class Control extends Widget implements Drawable {
 	public void dispose() {
 		if (parent != null)
 			((Composite)parent).removeChild(this);
+		if (damageRgn != null) {
+			damageRgn.dispose();
+			damageRgn = null;
+		}
 		super.dispose();
 	}
 	
@@ -1127,7 +1138,10 @@ public abstract class Control extends Widget implements Drawable {
 	 * @see #removePaintListener
 	 */
 	public void addPaintListener(PaintListener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		TypedListener typedListener = new TypedListener(listener);
+		addListener(SWT.Paint, typedListener);
 	}
 
 	/**
@@ -1509,7 +1523,9 @@ public abstract class Control extends Widget implements Drawable {
 	 * @see #addPaintListener
 	 */
 	public void removePaintListener(PaintListener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		removeListener(SWT.Paint, listener);
 	}
 
 	/**
@@ -2056,7 +2072,17 @@ public abstract class Control extends Widget implements Drawable {
 	 * @noreference This method is not intended to be referenced by clients.
 	 */
 	public long /* int */internal_new_GC(GCData data) {
-		// TODO
+		checkWidget();
+		if (data != null) {
+			data.device = display;
+			Color foreground = getForeground();
+			if (foreground != null)
+				data.foreground = foreground;
+			Color background = getBackground();
+			if (background != null)
+				data.background = background;
+			data.font = getFont();
+		}
 		return 0;
 	}
 
@@ -2187,7 +2213,12 @@ public abstract class Control extends Widget implements Drawable {
 	 * @see SWT#DOUBLE_BUFFERED
 	 */
 	public void redraw() {
-		// TODO
+		checkWidget();
+		if (node == null)
+			return;
+		Bounds bounds = node.getLayoutBounds();
+		redrawWidget(0, 0, (int)Math.ceil(bounds.getWidth()),
+				(int)Math.ceil(bounds.getHeight()), false);
 	}
 
 	/**
@@ -2228,7 +2259,47 @@ public abstract class Control extends Widget implements Drawable {
 	 * @see SWT#DOUBLE_BUFFERED
 	 */
 	public void redraw(int x, int y, int width, int height, boolean all) {
-		// TODO
+		checkWidget();
+		redrawWidget(x, y, width, height, all);
+	}
+
+	void redrawWidget(int x, int y, int width, int height, boolean all) {
+		if (width <= 0 || height <= 0)
+			return;
+		/* Only Paint listeners draw on the canvas, without them there is nothing to update */
+		if (!hooks(SWT.Paint) || paintCanvas() == null)
+			return;
+		if (damageRgn == null)
+			damageRgn = new Region(display);
+		damageRgn.add(x, y, width, height);
+		/* Redraws that come before the paint are merged into it */
+		if (paintPending)
+			return;
+		paintPending = true;
+		Platform.runLater(new Runnable() {
+			@Override
+			public void run() {
+				paintPending = false;
+				if (!isDisposed())
+					update();
+			}
+		});
+	}
+
+	@Override
+	void _addListener(int eventType, Listener listener) {
+		super._addListener(eventType, listener);
+		/* The canvas is painted once it is laid out */
+		if (eventType == SWT.Paint)
+			paintCanvas();
+	}
+
+	/**
+	 * Answers the canvas that Paint listeners draw on, which covers the
+	 * control below its children, or null when the control cannot show one.
+	 */
+	javafx.scene.canvas.Canvas paintCanvas() {
+		return null;
 	}
 
 	/**
@@ -2829,7 +2900,28 @@ public abstract class Control extends Widget implements Drawable {
 	 * @see SWT#Paint
 	 */
 	public void update() {
-		// TODO
+		checkWidget();
+		Region damage = damageRgn;
+		if (damage == null)
+			return;
+		damageRgn = null;
+		javafx.scene.canvas.Canvas canvas = hooks(SWT.Paint) ? paintCanvas() : null;
+		if (canvas != null && !damage.isEmpty()) {
+			Event event = new Event();
+			event.setBounds(damage.getBounds());
+			GCData data = new GCData();
+			data.context = canvas.getGraphicsContext2D();
+			data.width = (int)canvas.getWidth();
+			data.height = (int)canvas.getHeight();
+			data.damageRgn = damage;
+			GC gc = event.gc = GC.fx_new(this, data);
+			/* The background of the control shows where the canvas is clear */
+			if ((style & SWT.NO_BACKGROUND) == 0)
+				data.context.clearRect(event.x, event.y, event.width, event.height);
+			sendEvent(SWT.Paint, event);
+			gc.dispose();
+		}
+		damage.dispose();
 	}
 
 }
@@ -16,6 +16,7 @@ import javafx.stage.Stage;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTError;
 import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Cursor;
 import org.eclipse.swt.graphics.Device;
 import org.eclipse.swt.graphics.DeviceData;
@@ -98,6 +99,8 @@ import org.eclipse.swt.graphics.Rectangle;
 public class Display extends Device {
 
 	Tray tray;
+	/* The colors of the selected rows of the default FX style sheet */
+	Color COLOR_LIST_SELECTION, COLOR_LIST_SELECTION_TEXT;
 	// Not API but needs to be set by the JavaFX Application start method.
 	public static Stage primaryStage;
 	static Shell[] shells = new Shell[0];
@@ -838,6 +841,39 @@ public class Display extends Device {
 		return null;
 	}
 
+	/**
+	 * Returns the matching standard color for the given constant, which should
+	 * be one of the color constants specified in class <code>SWT</code>. Any
+	 * value other than one of the SWT color constants which is passed in will
+	 * result in the color black. This color should not be free'd because it
+	 * was allocated by the system, not the application.
+	 * 
+	 * @param id
+	 *            the color constant
+	 * @return the matching color
+	 * 
+	 * @exception SWTException
+	 *                <ul>
+	 *                <li>ERROR_THREAD_INVALID_ACCESS - if not called from the
+	 *                thread that created the receiver</li>
+	 *                <li>ERROR_DEVICE_DISPOSED - if the receiver has been
+	 *                disposed</li>
+	 *                </ul>
+	 * 
+	 * @see SWT
+	 */
+	@Override
+	public Color getSystemColor(int id) {
+		checkDevice();
+		switch (id) {
+		case SWT.COLOR_LIST_SELECTION:
+			return COLOR_LIST_SELECTION;
+		case SWT.COLOR_LIST_SELECTION_TEXT:
+			return COLOR_LIST_SELECTION_TEXT;
+		}
+		return super.getSystemColor(id);
+	}
+
 	/**
 	 * Returns the matching standard platform cursor for the given constant,
 	 * which should be one of the cursor constants specified in class
@@ -1020,6 +1056,13 @@ public class Display extends Device {
 		return false;
 	}
 
+	@Override
+	protected void init() {
+		super.init();
+		COLOR_LIST_SELECTION = new Color(this, 0x00, 0x96, 0xC9);
+		COLOR_LIST_SELECTION_TEXT = new Color(this, 0xFF, 0xFF, 0xFF);
+	}
+
 	/**
 	 * Invokes platform specific functionality to dispose a GC handle.
 	 * <p>
@@ -1381,6 +1424,12 @@ public class Display extends Device {
 		return false;
 	}
 
+	@Override
+	protected void release() {
+		super.release();
+		COLOR_LIST_SELECTION = COLOR_LIST_SELECTION_TEXT = null;
+	}
+
 	/**
 	 * Removes the listener from the collection of listeners who will be
 	 * notified when an event of the given type occurs anywhere in a widget. The
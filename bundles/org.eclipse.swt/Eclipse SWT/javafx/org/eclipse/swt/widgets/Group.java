@@ -102,6 +102,13 @@ public class Group extends Composite {
 		convertLayout();
 		vbox.getChildren().add(paneLayout.getPane());
 	}
+
+	@Override
+	javafx.scene.canvas.Canvas paintCanvas() {
+		if (paneLayout == null)
+			createPane();
+		return super.paintCanvas();
+	}
 	
 	/**
 	 * Returns the receiver's text, which is the string that the is used as the
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javafx.application.Platform;
+
+/**
+ * A stable merge sort of the indices of an array of keys. The keys are not
+ * moved, the result is the order in which they sort: entry i is the index
+ * of the key that sorts to position i. Large arrays are split into halves
+ * that are sorted in parallel on the common fork join pool.
+ */
+final class IndexSort extends RecursiveAction {
+
+	static final long serialVersionUID = 7477249888647713327L;
+
+	/* Below this many keys the halves are sorted one after the other */
+	static final int PARALLEL_THRESHOLD = 1 << 13;
+
+	/* Below this many keys a range is sorted by insertion */
+	static final int INSERTION_THRESHOLD = 16;
+
+	final String[] keys;
+	final Comparator<? super String> comparator;
+	final int[] order, buffer;
+	final int start, end;
+
+	IndexSort(String[] keys, Comparator<? super String> comparator, int[] order, int[] buffer, int start, int end) {
+		this.keys = keys;
+		this.comparator = comparator;
+		this.order = order;
+		this.buffer = buffer;
+		this.start = start;
+		this.end = end;
+	}
+
+	static int[] sort(String[] keys, Comparator<? super String> comparator) {
+		int length = keys.length;
+		int[] order = new int[length];
+		for (int i = 0; i < length; i++) {
+			order[i] = i;
+		}
+		IndexSort task = new IndexSort(keys, comparator, order, new int[length], 0, length);
+		if (length < PARALLEL_THRESHOLD) {
+			task.compute();
+		} else {
+			ForkJoinPool.commonPool().invoke(task);
+		}
+		return order;
+	}
+
+	/**
+	 * Sorts each array of keys on a pool thread, stores the results in
+	 * orders and then runs done on the FX application thread. An exception
+	 * thrown by the comparator is thrown again on that thread instead.
+	 */
+	static void sortLater(final String[][] keys, final Comparator<? super String> comparator, final int[][] orders, final Runnable done) {
+		ForkJoinPool.commonPool().execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					for (int i = 0; i < keys.length; i++) {
+						orders[i] = sort(keys[i], comparator);
+					}
+				} catch (final RuntimeException e) {
+					Platform.runLater(new Runnable() {
+						@Override
+						public void run() {
+							throw e;
+						}
+					});
+					return;
+				}
+				Platform.runLater(done);
+			}
+		});
+	}
+
+	@Override
+	protected void compute() {
+		if (end - start < INSERTION_THRESHOLD) {
+			insertionSort();
+			return;
+		}
+		int middle = (start + end) >>> 1;
+		IndexSort low = new IndexSort(keys, comparator, order, buffer, start, middle);
+		IndexSort high = new IndexSort(keys, comparator, order, buffer, middle, end);
+		if (end - start < PARALLEL_THRESHOLD) {
+			low.compute();
+			high.compute();
+		} else {
+			invokeAll(low, high);
+		}
+		merge(middle);
+	}
+
+	void insertionSort() {
+		for (int i = start + 1; i < end; i++) {
+			int index = order[i];
+			String key = keys[index];
+			int j = i;
+			while (j > start && comparator.compare(keys[order[j - 1]], key) > 0) {
+				order[j] = order[j - 1];
+				j--;
+			}
+			order[j] = index;
+		}
+	}
+
+	/*
+	 * Merges the sorted ranges [start, middle) and [middle, end). Taking from
+	 * the low range on ties keeps the sort stable.
+	 */
+	void merge(int middle) {
+		if (comparator.compare(keys[order[middle - 1]], keys[order[middle]]) <= 0) return;
+		System.arraycopy(order, start, buffer, start, middle - start);
+		int low = start, high = middle, index = start;
+		while (low < middle && high < end) {
+			if (comparator.compare(keys[order[high]], keys[buffer[low]]) < 0) {
+				order[index++] = order[high++];
+			} else {
+				order[index++] = buffer[low++];
+			}
+		}
+		System.arraycopy(buffer, low, order, index, middle - low);
+	}
+}
@@ -10,6 +10,17 @@
  *******************************************************************************/
 package org.eclipse.swt.widgets;
 
+import java.util.Arrays;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.event.EventHandler;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MultipleSelectionModel;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.input.KeyEvent;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.events.SelectionEvent;
@@ -42,6 +53,163 @@ import org.eclipse.swt.events.SelectionListener;
  */
 public class List extends Scrollable {
 
+	RangeSet selection = new RangeSet();
+	SelectionModel selectionModel;
+	PrefixIndex prefixIndex;
+
+	/**
+	 * Selection model of the ListView over the selected indices of the list.
+	 * FX asks the range set directly, and changes made through the SWT API
+	 * are reported to FX once per runnable. Changes made by FX, which come
+	 * from the user, are reported right away and send a Selection event.
+	 */
+	class SelectionModel extends MultipleSelectionModel<String> {
+		final ObservableList<String> selectedItems = new ObservableListBase<String>() {
+			@Override
+			public String get(int index) {
+				return getListView().getItems().get(selection.get(index));
+			}
+
+			@Override
+			public int size() {
+				return selection.size();
+			}
+		};
+
+		int getItemCount() {
+			return getListView().getItems().size();
+		}
+
+		void select(int start, int end, boolean clear) {
+			int changes = selection.changes;
+			if (clear) selection.clear();
+			selection.select(start, end, getItemCount(), getSelectionMode() == SelectionMode.SINGLE);
+			if (start < end && selection.includes(end - 1)) {
+				setSelectedIndex(end - 1);
+				getListView().getFocusModel().focus(end - 1);
+			}
+			commit(changes);
+		}
+
+		/*
+		 * Reports a change made by FX and sends the Selection event for it.
+		 */
+		void commit(int changes) {
+			if (selection.changes == changes) return;
+			update();
+			selection.fire();
+			sendEvent(SWT.Selection, new Event());
+		}
+
+		void update() {
+			int index = getSelectedIndex();
+			if (!selection.includes(index)) index = selection.first();
+			setSelectedIndex(index);
+			setSelectedItem(index != -1 ? getListView().getItems().get(index) : null);
+		}
+
+		@Override
+		public ObservableList<Integer> getSelectedIndices() {
+			return selection;
+		}
+
+		@Override
+		public ObservableList<String> getSelectedItems() {
+			return selectedItems;
+		}
+
+		@Override
+		public boolean isSelected(int index) {
+			return selection.includes(index);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return selection.isEmpty();
+		}
+
+		@Override
+		public void select(int index) {
+			select(index, index + 1, false);
+		}
+
+		@Override
+		public void select(String item) {
+			int index = getListView().getItems().indexOf(item);
+			if (index != -1) select(index);
+		}
+
+		@Override
+		public void selectIndices(int index, int... indices) {
+			if (getSelectionMode() == SelectionMode.SINGLE) {
+				int last = indices.length == 0 ? index : indices[indices.length - 1];
+				select(last, last + 1, false);
+				return;
+			}
+			int changes = selection.changes, count = getItemCount();
+			selection.select(index, index + 1, count, false);
+			for (int i = 0; i < indices.length; i++) {
+				selection.select(indices[i], indices[i] + 1, count, false);
+			}
+			commit(changes);
+		}
+
+		@Override
+		public void selectRange(int start, int end) {
+			if (start <= end) {
+				select(start, end, false);
+			} else {
+				select(end + 1, start + 1, false);
+			}
+		}
+
+		@Override
+		public void selectAll() {
+			if (getSelectionMode() == SelectionMode.SINGLE) return;
+			select(0, getItemCount(), false);
+		}
+
+		@Override
+		public void selectFirst() {
+			select(0, 1, true);
+		}
+
+		@Override
+		public void selectLast() {
+			int count = getItemCount();
+			select(count - 1, count, true);
+		}
+
+		@Override
+		public void selectPrevious() {
+			int index = getListView().getFocusModel().getFocusedIndex();
+			if (index > 0) select(index - 1);
+		}
+
+		@Override
+		public void selectNext() {
+			int index = getListView().getFocusModel().getFocusedIndex();
+			if (index < getItemCount() - 1) select(index + 1);
+		}
+
+		@Override
+		public void clearAndSelect(int index) {
+			select(index, index + 1, true);
+		}
+
+		@Override
+		public void clearSelection(int index) {
+			int changes = selection.changes;
+			selection.exclude(index, index + 1);
+			commit(changes);
+		}
+
+		@Override
+		public void clearSelection() {
+			select(0, 0, true);
+		}
+	}
+
 	/**
 	 * Constructs a new instance of this class given its parent and a style
 	 * value describing its behavior and appearance.
@@ -79,6 +247,51 @@ public class List extends Scrollable {
 	 */
 	public List(Composite parent, int style) {
 		super(parent, style);
+		ListView<String> listView = new ListView<String>();
+		selectionModel = new SelectionModel();
+		selectionModel.setSelectionMode((style & SWT.MULTI) != 0 ? SelectionMode.MULTIPLE : SelectionMode.SINGLE);
+		listView.setSelectionModel(selectionModel);
+		prefixIndex = new PrefixIndex(listView.getItems());
+		listView.getItems().addListener(new ListChangeListener<String>() {
+			@Override
+			public void onChanged(Change<? extends String> change) {
+				while (change.next()) {
+					if (change.wasPermutated()) {
+						prefixIndex.invalidate();
+						continue;
+					}
+					prefixIndex.remove(change.getFrom(), change.getRemoved());
+					prefixIndex.insert(change.getFrom(), change.getAddedSize());
+					/* An item that is replaced by another keeps its selection */
+					if (change.getRemovedSize() == change.getAddedSize()) continue;
+					selection.removeIndices(change.getFrom(), change.getRemovedSize());
+					selection.insertIndices(change.getFrom(), change.getAddedSize());
+				}
+				selectionChanged();
+			}
+		});
+		listView.addEventHandler(KeyEvent.KEY_TYPED, new EventHandler<KeyEvent>() {
+			@Override
+			public void handle(KeyEvent event) {
+				char character = PrefixIndex.typedCharacter(event);
+				if (character == 0) return;
+				int index = prefixIndex.typed(character, System.currentTimeMillis(), selectionModel.getSelectedIndex());
+				if (index == -1 || index == selectionModel.getSelectedIndex()) return;
+				selectionModel.clearAndSelect(index);
+				getListView().scrollTo(index);
+			}
+		});
+		setNode(listView);
+	}
+
+	void selectionChanged() {
+		selectionModel.update();
+		selection.fireLater();
+	}
+
+	@SuppressWarnings("unchecked")
+	ListView<String> getListView() {
+		return (ListView<String>)node;
 	}
 
 	/**
@@ -102,7 +315,9 @@ public class List extends Scrollable {
 	 * @see #add(String,int)
 	 */
 	public void add(String string) {
-		// TODO
+		checkWidget();
+		if (string == null) error(SWT.ERROR_NULL_ARGUMENT);
+		getListView().getItems().add(string);
 	}
 
 	/**
@@ -135,7 +350,11 @@ public class List extends Scrollable {
 	 * @see #add(String)
 	 */
 	public void add(String string, int index) {
-		// TODO
+		checkWidget();
+		if (string == null) error(SWT.ERROR_NULL_ARGUMENT);
+		ObservableList<String> items = getListView().getItems();
+		if (!(0 <= index && index <= items.size())) error(SWT.ERROR_INVALID_RANGE);
+		items.add(index, string);
 	}
 
 	/**
@@ -169,7 +388,11 @@ public class List extends Scrollable {
 	 * @see SelectionEvent
 	 */
 	public void addSelectionListener(SelectionListener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		TypedListener typedListener = new TypedListener(listener);
+		addListener(SWT.Selection, typedListener);
+		addListener(SWT.DefaultSelection, typedListener);
 	}
 
 	/**
@@ -189,7 +412,11 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void deselect(int index) {
-		// TODO
+		checkWidget();
+		int count = getItemCount();
+		if (!(0 <= index && index < count)) return;
+		selection.exclude(index, index + 1);
+		selectionChanged();
 	}
 
 	/**
@@ -213,7 +440,11 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void deselect(int start, int end) {
-		// TODO
+		checkWidget();
+		int count = getItemCount();
+		if (start > end) return;
+		selection.exclude(Math.max(0, start), Math.min(end, count - 1) + 1);
+		selectionChanged();
 	}
 
 	/**
@@ -239,7 +470,14 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void deselect(int[] indices) {
-		// TODO
+		checkWidget();
+		int count = getItemCount();
+		if (indices == null) error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < indices.length; i++) {
+			int index = indices[i];
+			if (0 <= index && index < count) selection.exclude(index, index + 1);
+		}
+		selectionChanged();
 	}
 
 	/**
@@ -254,7 +492,9 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void deselectAll() {
-		// TODO
+		checkWidget();
+		selection.clear();
+		selectionChanged();
 	}
 
 	/**
@@ -299,8 +539,10 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public String getItem(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		ObservableList<String> items = getListView().getItems();
+		if (!(0 <= index && index < items.size())) error(SWT.ERROR_INVALID_RANGE);
+		return items.get(index);
 	}
 
 	/**
@@ -317,8 +559,8 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public int getItemCount() {
-		// TODO
-		return 0;
+		checkWidget();
+		return getListView().getItems().size();
 	}
 
 	/**
@@ -359,8 +601,9 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public String[] getItems() {
-		// TODO
-		return null;
+		checkWidget();
+		ObservableList<String> items = getListView().getItems();
+		return items.toArray(new String[items.size()]);
 	}
 
 	/**
@@ -383,8 +626,14 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public String[] getSelection() {
-		// TODO
-		return null;
+		checkWidget();
+		int[] indices = selection.toIndices();
+		ObservableList<String> items = getListView().getItems();
+		String[] result = new String[indices.length];
+		for (int i = 0; i < indices.length; i++) {
+			result[i] = items.get(indices[i]);
+		}
+		return result;
 	}
 
 	/**
@@ -401,8 +650,8 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public int getSelectionCount() {
-		// TODO
-		return 0;
+		checkWidget();
+		return selection.size();
 	}
 
 	/**
@@ -420,8 +669,8 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public int getSelectionIndex() {
-		// TODO
-		return 0;
+		checkWidget();
+		return selection.first();
 	}
 
 	/**
@@ -444,8 +693,8 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public int[] getSelectionIndices() {
-		// TODO
-		return null;
+		checkWidget();
+		return selection.toIndices();
 	}
 
 	/**
@@ -491,8 +740,8 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public int indexOf(String string) {
-		// TODO
-		return 0;
+		checkWidget();
+		return indexOf(string, 0);
 	}
 
 	/**
@@ -520,8 +769,10 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public int indexOf(String string, int start) {
-		// TODO
-		return 0;
+		checkWidget();
+		if (string == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (!(0 <= start && start < getListView().getItems().size())) return -1;
+		return prefixIndex.indexOf(string, start);
 	}
 
 	/**
@@ -541,8 +792,8 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public boolean isSelected(int index) {
-		// TODO
-		return false;
+		checkWidget();
+		return selection.includes(index);
 	}
 
 	/**
@@ -566,7 +817,10 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void remove(int index) {
-		// TODO
+		checkWidget();
+		ObservableList<String> items = getListView().getItems();
+		if (!(0 <= index && index < items.size())) error(SWT.ERROR_INVALID_RANGE);
+		items.remove(index);
 	}
 
 	/**
@@ -593,7 +847,13 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void remove(int start, int end) {
-		// TODO
+		checkWidget();
+		if (start > end) return;
+		ObservableList<String> items = getListView().getItems();
+		if (!(0 <= start && start <= end && end < items.size())) {
+			error(SWT.ERROR_INVALID_RANGE);
+		}
+		items.remove(start, end + 1);
 	}
 
 	/**
@@ -618,7 +878,11 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void remove(String string) {
-		// TODO
+		checkWidget();
+		if (string == null) error(SWT.ERROR_NULL_ARGUMENT);
+		int index = indexOf(string, 0);
+		if (index == -1) error(SWT.ERROR_INVALID_ARGUMENT);
+		remove(index);
 	}
 
 	/**
@@ -643,7 +907,29 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void remove(int[] indices) {
-		// TODO
+		checkWidget();
+		if (indices == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (indices.length == 0) return;
+		int[] newIndices = new int[indices.length];
+		System.arraycopy(indices, 0, newIndices, 0, indices.length);
+		Arrays.sort(newIndices);
+		ObservableList<String> items = getListView().getItems();
+		int start = newIndices[0], end = newIndices[newIndices.length - 1];
+		if (!(0 <= start && start <= end && end < items.size())) {
+			error(SWT.ERROR_INVALID_RANGE);
+		}
+		if (end - start + 1 == newIndices.length) {
+			items.remove(start, end + 1);
+			return;
+		}
+		int last = -1;
+		for (int i = newIndices.length - 1; i >= 0; i--) {
+			int index = newIndices[i];
+			if (index != last) {
+				items.remove(index);
+				last = index;
+			}
+		}
 	}
 
 	/**
@@ -658,7 +944,8 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void removeAll() {
-		// TODO
+		checkWidget();
+		getListView().getItems().clear();
 	}
 
 	/**
@@ -684,7 +971,10 @@ public class List extends Scrollable {
 	 * @see #addSelectionListener
 	 */
 	public void removeSelectionListener(SelectionListener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		removeListener(SWT.Selection, listener);
+		removeListener(SWT.DefaultSelection, listener);
 	}
 
 	/**
@@ -704,7 +994,12 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void select(int index) {
-		// TODO
+		checkWidget();
+		int count = getItemCount();
+		if (!(0 <= index && index < count)) return;
+		if ((style & SWT.SINGLE) != 0) selection.clear();
+		selection.include(index, index + 1);
+		selectionChanged();
 	}
 
 	/**
@@ -733,7 +1028,13 @@ public class List extends Scrollable {
 	 * @see List#setSelection(int,int)
 	 */
 	public void select(int start, int end) {
-		// TODO
+		checkWidget();
+		int count = getItemCount();
+		if (end < 0 || start > end || ((style & SWT.SINGLE) != 0 && start != end)) return;
+		if (count == 0 || start >= count) return;
+		if ((style & SWT.SINGLE) != 0) selection.clear();
+		selection.include(Math.max(0, start), Math.min(end, count - 1) + 1);
+		selectionChanged();
 	}
 
 	/**
@@ -764,7 +1065,18 @@ public class List extends Scrollable {
 	 * @see List#setSelection(int[])
 	 */
 	public void select(int[] indices) {
-		// TODO
+		checkWidget();
+		int count = getItemCount();
+		if (indices == null) error(SWT.ERROR_NULL_ARGUMENT);
+		int length = indices.length;
+		if (length == 0 || ((style & SWT.SINGLE) != 0 && length > 1)) return;
+		for (int i = 0; i < length; i++) {
+			int index = indices[i];
+			if (!(0 <= index && index < count)) continue;
+			if ((style & SWT.SINGLE) != 0) selection.clear();
+			selection.include(index, index + 1);
+		}
+		selectionChanged();
 	}
 
 	/**
@@ -780,7 +1092,11 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void selectAll() {
-		// TODO
+		checkWidget();
+		int count = getItemCount();
+		if ((style & SWT.SINGLE) != 0) return;
+		selection.include(0, count);
+		selectionChanged();
 	}
 
 	/**
@@ -808,7 +1124,11 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void setItem(int index, String string) {
-		// TODO
+		checkWidget();
+		if (string == null) error(SWT.ERROR_NULL_ARGUMENT);
+		ObservableList<String> items = getListView().getItems();
+		if (!(0 <= index && index < items.size())) error(SWT.ERROR_INVALID_RANGE);
+		items.set(index, string);
 	}
 
 	/**
@@ -832,7 +1152,13 @@ public class List extends Scrollable {
 	 *                </ul>
 	 */
 	public void setItems(String[] items) {
-		// TODO
+		checkWidget();
+		if (items == null) error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < items.length; i++) {
+			if (items[i] == null) error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+		selection.clear();
+		getListView().getItems().setAll(items);
 	}
 
 	/**
@@ -856,7 +1182,9 @@ public class List extends Scrollable {
 	 * @see List#select(int)
 	 */
 	public void setSelection(int index) {
-		// TODO
+		checkWidget();
+		selection.clear();
+		select(index);
 	}
 
 	/**
@@ -885,7 +1213,10 @@ public class List extends Scrollable {
 	 * @see List#select(int,int)
 	 */
 	public void setSelection(int start, int end) {
-		// TODO
+		checkWidget();
+		selection.clear();
+		select(start, end);
+		selectionChanged();
 	}
 	
 	/**
@@ -916,7 +1247,11 @@ public class List extends Scrollable {
 	 * @see List#select(int[])
 	 */
 	public void setSelection(int[] indices) {
-		// TODO
+		checkWidget();
+		if (indices == null) error(SWT.ERROR_NULL_ARGUMENT);
+		selection.clear();
+		select(indices);
+		selectionChanged();
 	}
 
 	/**
@@ -948,7 +1283,25 @@ public class List extends Scrollable {
 	 * @see List#setSelection(int[])
 	 */
 	public void setSelection(String[] items) {
-		// TODO
+		checkWidget();
+		if (items == null) error(SWT.ERROR_NULL_ARGUMENT);
+		selection.clear();
+		int length = items.length;
+		if (length != 0 && ((style & SWT.SINGLE) == 0 || length == 1)) {
+			ObservableList<String> list = getListView().getItems();
+			for (int i = 0; i < length; i++) {
+				String string = items[i];
+				if (string == null) continue;
+				for (int j = 0; j < list.size(); j++) {
+					if (string.equals(list.get(j))) {
+						if ((style & SWT.SINGLE) != 0) selection.clear();
+						selection.include(j, j + 1);
+						if ((style & SWT.SINGLE) != 0) break;
+					}
+				}
+			}
+		}
+		selectionChanged();
 	}
 
 	/**
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import java.util.Arrays;
+
+/**
+ * A sparse array of references kept in fixed size pages. A page is only
+ * allocated when a non-null value is first stored in it, and reading from a
+ * page that was never written answers null, so a large range of unused
+ * indices costs one reference per page.
+ */
+final class PagedArray<T> {
+
+	static final int PAGE_SHIFT = 10;
+	static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+	static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	Object[][] pages = new Object[0][];
+
+	@SuppressWarnings("unchecked")
+	T get(int index) {
+		int page = index >>> PAGE_SHIFT;
+		if (page >= pages.length || pages[page] == null) return null;
+		return (T)pages[page][index & PAGE_MASK];
+	}
+
+	void set(int index, T value) {
+		int page = index >>> PAGE_SHIFT;
+		if (page >= pages.length || pages[page] == null) {
+			if (value == null) return;
+			if (page >= pages.length) {
+				Object[][] newPages = new Object[Math.max(page + 1, pages.length * 3 / 2)][];
+				System.arraycopy(pages, 0, newPages, 0, pages.length);
+				pages = newPages;
+			}
+			pages[page] = new Object[PAGE_SIZE];
+		}
+		pages[page][index & PAGE_MASK] = value;
+	}
+
+	/**
+	 * Answers whether any value was ever stored in the page of the index.
+	 */
+	boolean hasPage(int index) {
+		int page = index >>> PAGE_SHIFT;
+		return page < pages.length && pages[page] != null;
+	}
+
+	/**
+	 * Sets the values in [start, end) to null, dropping the pages that are
+	 * entirely in the range.
+	 */
+	void clear(int start, int end) {
+		int i = start;
+		while (i < end) {
+			int page = i >>> PAGE_SHIFT;
+			if (page >= pages.length) return;
+			int pageEnd = Math.min(end, (page + 1) << PAGE_SHIFT);
+			if (pages[page] != null) {
+				if ((i & PAGE_MASK) == 0 && pageEnd - i == PAGE_SIZE) {
+					pages[page] = null;
+				} else {
+					Arrays.fill(pages[page], i & PAGE_MASK, ((pageEnd - 1) & PAGE_MASK) + 1, null);
+				}
+			}
+			i = pageEnd;
+		}
+	}
+
+	/**
+	 * Moves the values in [index, size) up by count, leaving null in the
+	 * opened range.
+	 */
+	void insert(int index, int count, int size) {
+		for (int i = size - 1; i >= index; i--) {
+			if (!hasPage(i)) {
+				i &= ~PAGE_MASK;
+				continue;
+			}
+			Object[] page = pages[i >>> PAGE_SHIFT];
+			Object value = page[i & PAGE_MASK];
+			if (value != null) {
+				page[i & PAGE_MASK] = null;
+				move(i + count, value);
+			}
+		}
+	}
+
+	/**
+	 * Drops the values in [index, index + count) and moves the values in
+	 * [index + count, size) down into their place.
+	 */
+	void remove(int index, int count, int size) {
+		clear(index, index + count);
+		for (int i = index + count; i < size; i++) {
+			if (!hasPage(i)) {
+				i |= PAGE_MASK;
+				continue;
+			}
+			Object[] page = pages[i >>> PAGE_SHIFT];
+			Object value = page[i & PAGE_MASK];
+			if (value != null) {
+				page[i & PAGE_MASK] = null;
+				move(i - count, value);
+			}
+		}
+		int pageCount = (size - count + PAGE_MASK) >>> PAGE_SHIFT;
+		for (int i = pageCount; i < pages.length; i++) {
+			pages[i] = null;
+		}
+	}
+
+	/**
+	 * Copies the values in [0, array.length) into the array.
+	 */
+	void copyTo(Object[] array) {
+		for (int page = 0; page < pages.length; page++) {
+			int start = page << PAGE_SHIFT;
+			if (start >= array.length) return;
+			if (pages[page] != null) {
+				System.arraycopy(pages[page], 0, array, start, Math.min(PAGE_SIZE, array.length - start));
+			}
+		}
+	}
+
+	/**
+	 * Reorders the values in [0, order.length) so that the value at
+	 * order[i] moves to i.
+	 */
+	void permute(int[] order) {
+		if (pages.length == 0) return;
+		PagedArray<T> result = new PagedArray<T>();
+		for (int i = 0; i < order.length; i++) {
+			result.set(i, get(order[i]));
+		}
+		pages = result.pages;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void move(int index, Object value) {
+		set(index, (T)value);
+	}
+}
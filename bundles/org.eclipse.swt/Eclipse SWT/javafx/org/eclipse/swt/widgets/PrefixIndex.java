@@ -0,0 +1,391 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javafx.scene.input.KeyEvent;
+
+/**
+ * An index of the strings of a list that finds a string, or the first string
+ * with a prefix, by binary search. The entries are the (string, index) pairs
+ * of the list sorted by string, ignoring case first, and then by index.
+ * <p>
+ * The index is only built once lookups have scanned the list about as often
+ * as building it would take, so a list that is rarely searched never pays
+ * for it. Once built it follows the changes it is told about: strings that
+ * were added are merged in at the next lookup and strings that were removed
+ * are marked dead in place. Larger changes make the next lookup build it
+ * again, and nothing happens on changes while it is not built.
+ * </p>
+ */
+final class PrefixIndex {
+
+	/* Lookups scan this many times the size of the list before it is indexed */
+	static final int BUILD_SCANS = 16;
+
+	/* Typing more than this many milliseconds apart starts a new prefix */
+	static final int TYPE_AHEAD_DELAY = 1000;
+
+	static final Comparator<String> ORDER = new Comparator<String>() {
+		@Override
+		public int compare(String string1, String string2) {
+			int result = String.CASE_INSENSITIVE_ORDER.compare(string1, string2);
+			return result != 0 ? result : string1.compareTo(string2);
+		}
+	};
+
+	final List<String> source;
+	boolean used;
+	long scanned;
+
+	/* The sorted entries, some of which may be dead, or null when not built */
+	String[] keys;
+	int[] indices;
+	boolean[] dead;
+	int count, deadCount;
+
+	/* Indices of the strings added since the last lookup */
+	int[] added = new int[4];
+	int addedCount;
+
+	String prefix = "";
+	long prefixTime;
+
+	PrefixIndex(List<String> source) {
+		this.source = source;
+	}
+
+	/**
+	 * Drops the entries so that the next lookup builds them again, for
+	 * changes that are not worth following.
+	 */
+	void invalidate() {
+		keys = null;
+		indices = null;
+		dead = null;
+		count = deadCount = addedCount = 0;
+	}
+
+	/**
+	 * Tells the index that count strings were inserted into the list at
+	 * index.
+	 */
+	void insert(int index, int count) {
+		if (keys == null || count <= 0) return;
+		shift(index, count);
+		if (addedCount + count > added.length) {
+			added = Arrays.copyOf(added, Math.max(addedCount + count, added.length * 3 / 2));
+		}
+		for (int i = 0; i < count; i++) {
+			added[addedCount++] = index + i;
+		}
+	}
+
+	/**
+	 * Tells the index that the strings were removed from the list at index.
+	 * The strings are the ones that were in the list, so this can be called
+	 * after the list changed.
+	 */
+	void remove(int index, List<? extends String> strings) {
+		int length = strings.size();
+		if (keys == null || length == 0) return;
+		if (length > (count - deadCount + addedCount) / 4) {
+			invalidate();
+			return;
+		}
+		int end = index + length;
+		for (int i = 0; i < length; i++) {
+			int position = locate(strings.get(i), index + i);
+			if (position != -1) kill(position);
+		}
+		/*
+		 * The dead entries of the removed strings move to index, which keeps
+		 * the entries in order once the ones after them move down.
+		 */
+		for (int i = 0; i < count; i++) {
+			int entryIndex = indices[i];
+			if (entryIndex >= end) {
+				indices[i] = entryIndex - length;
+			} else if (entryIndex >= index) {
+				indices[i] = index;
+			}
+		}
+		int newCount = 0;
+		for (int i = 0; i < addedCount; i++) {
+			int addedIndex = added[i];
+			if (addedIndex >= end) {
+				added[newCount++] = addedIndex - length;
+			} else if (addedIndex < index) {
+				added[newCount++] = addedIndex;
+			}
+		}
+		addedCount = newCount;
+	}
+
+	/**
+	 * Tells the index that the string at index is about to be replaced, or
+	 * was replaced, where string is the old one.
+	 */
+	void replace(int index, String string) {
+		if (keys == null) return;
+		int position = locate(string, index);
+		/* A string that is not in the entries was added and is not merged yet */
+		if (position == -1) return;
+		kill(position);
+		if (addedCount == added.length) added = Arrays.copyOf(added, added.length * 3 / 2);
+		added[addedCount++] = index;
+	}
+
+	void kill(int position) {
+		if (dead == null) dead = new boolean[keys.length];
+		dead[position] = true;
+		deadCount++;
+	}
+
+	/*
+	 * Moves the entries at or after index up by delta.
+	 */
+	void shift(int index, int delta) {
+		for (int i = 0; i < count; i++) {
+			if (indices[i] >= index) indices[i] += delta;
+		}
+		for (int i = 0; i < addedCount; i++) {
+			if (added[i] >= index) added[i] += delta;
+		}
+	}
+
+	/*
+	 * Answers the first of the entries before end that is not less than
+	 * (string, index).
+	 */
+	int lowerBound(String string, int index, int end) {
+		int low = 0, high = end;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			int result = ORDER.compare(keys[mid], string);
+			if (result < 0 || (result == 0 && indices[mid] < index)) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * Answers the first entry whose string is not less than the prefix when
+	 * case is ignored, which is the first one that can start with it.
+	 */
+	int prefixBound(String prefix) {
+		int low = 0, high = count;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (String.CASE_INSENSITIVE_ORDER.compare(keys[mid], prefix) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * Answers the live entry for (string, index), or -1.
+	 */
+	int locate(String string, int index) {
+		for (int position = lowerBound(string, index, count); position < count; position++) {
+			if (indices[position] != index || !keys[position].equals(string)) return -1;
+			if (dead == null || !dead[position]) return position;
+		}
+		return -1;
+	}
+
+	/*
+	 * Answers whether lookups have done enough linear work to pay for the
+	 * index, after counting a scan of length strings.
+	 */
+	boolean scan(int length) {
+		if (used) return true;
+		scanned += length;
+		used = scanned >= (long)source.size() * BUILD_SCANS;
+		return used;
+	}
+
+	/*
+	 * Builds the entries, or merges the strings added since the last lookup
+	 * into them and drops the dead ones.
+	 */
+	void update() {
+		if (keys == null) {
+			int size = source.size();
+			String[] strings = source.toArray(new String[size]);
+			int[] order = IndexSort.sort(strings, ORDER);
+			keys = new String[size];
+			for (int i = 0; i < size; i++) {
+				keys[i] = strings[order[i]];
+			}
+			indices = order;
+			count = size;
+			dead = null;
+			deadCount = addedCount = 0;
+			return;
+		}
+		if (deadCount != 0) {
+			int newCount = 0;
+			for (int i = 0; i < count; i++) {
+				if (dead[i]) continue;
+				keys[newCount] = keys[i];
+				indices[newCount++] = indices[i];
+			}
+			Arrays.fill(keys, newCount, count, null);
+			count = newCount;
+			dead = null;
+			deadCount = 0;
+		}
+		if (addedCount == 0) return;
+		Arrays.sort(added, 0, addedCount);
+		String[] addedKeys = new String[addedCount];
+		for (int i = 0; i < addedCount; i++) {
+			addedKeys[i] = source.get(added[i]);
+		}
+		/* The sort is stable, so equal strings stay in index order */
+		int[] order = IndexSort.sort(addedKeys, ORDER);
+		int newCount = count + addedCount;
+		if (newCount > keys.length) {
+			int length = Math.max(newCount, keys.length * 3 / 2);
+			keys = Arrays.copyOf(keys, length);
+			indices = Arrays.copyOf(indices, length);
+		}
+		/*
+		 * Merges from the back, so each added entry costs a binary search and
+		 * the entries after it move once, by as many as are still to come.
+		 */
+		int end = count;
+		for (int i = addedCount - 1; i >= 0; i--) {
+			String key = addedKeys[order[i]];
+			int index = added[order[i]];
+			int position = lowerBound(key, index, end);
+			System.arraycopy(keys, position, keys, position + i + 1, end - position);
+			System.arraycopy(indices, position, indices, position + i + 1, end - position);
+			keys[position + i] = key;
+			indices[position + i] = index;
+			end = position;
+		}
+		count = newCount;
+		addedCount = 0;
+	}
+
+	/**
+	 * Answers the first index at or after start of a string equal to the
+	 * argument, or -1.
+	 */
+	int indexOf(String string, int start) {
+		int size = source.size();
+		if (start < 0) start = 0;
+		if (start >= size) return -1;
+		if (!scan(size - start)) {
+			for (int i = start; i < size; i++) {
+				if (string.equals(source.get(i))) return i;
+			}
+			return -1;
+		}
+		update();
+		int position = lowerBound(string, start, count);
+		return position < count && keys[position].equals(string) ? indices[position] : -1;
+	}
+
+	/**
+	 * Answers the index of the first string in the order of the index that
+	 * starts with the prefix, ignoring case, or -1.
+	 */
+	int find(String prefix) {
+		int size = source.size();
+		if (!scan(size)) {
+			int result = -1;
+			for (int i = 0; i < size; i++) {
+				String string = source.get(i);
+				if (!startsWith(string, prefix)) continue;
+				if (result == -1 || ORDER.compare(string, source.get(result)) < 0) result = i;
+			}
+			return result;
+		}
+		update();
+		int position = prefixBound(prefix);
+		return position < count && startsWith(keys[position], prefix) ? indices[position] : -1;
+	}
+
+	/*
+	 * Answers the index of the string that follows the one at index in the
+	 * order of the index when it starts with the prefix, or -1.
+	 */
+	int findNext(String prefix, int index) {
+		int size = source.size();
+		String current = source.get(index);
+		if (!scan(size)) {
+			int result = -1;
+			for (int i = 0; i < size; i++) {
+				String string = source.get(i);
+				if (!startsWith(string, prefix)) continue;
+				int order = ORDER.compare(string, current);
+				if (order < 0 || (order == 0 && i <= index)) continue;
+				if (result == -1 || ORDER.compare(string, source.get(result)) < 0) result = i;
+			}
+			return result;
+		}
+		update();
+		int position = lowerBound(current, index, count) + 1;
+		return position < count && startsWith(keys[position], prefix) ? indices[position] : -1;
+	}
+
+	/**
+	 * Answers the character a key typed event adds to the type-ahead prefix,
+	 * or 0 when the event is not one for type-ahead.
+	 */
+	static char typedCharacter(KeyEvent event) {
+		if (event.isControlDown() || event.isAltDown() || event.isMetaDown()) return 0;
+		String string = event.getCharacter();
+		if (string.length() != 1) return 0;
+		char character = string.charAt(0);
+		return Character.isISOControl(character) ? 0 : character;
+	}
+
+	static boolean startsWith(String string, String prefix) {
+		return string.regionMatches(true, 0, prefix, 0, prefix.length());
+	}
+
+	/**
+	 * Answers the index of the string to select when a character is typed
+	 * while the string at current is selected, or -1 when nothing matches.
+	 * Characters typed in quick succession form a prefix that the current
+	 * string keeps matching or that moves to the first string with it.
+	 * Typing one character, or the same one again, moves on to the next
+	 * string that starts with it.
+	 */
+	int typed(char character, long time, int current) {
+		if (time - prefixTime > TYPE_AHEAD_DELAY) prefix = "";
+		prefixTime = time;
+		prefix += character;
+		boolean repeated = true;
+		for (int i = 1; i < prefix.length() && repeated; i++) {
+			repeated = Character.toLowerCase(prefix.charAt(i)) == Character.toLowerCase(prefix.charAt(0));
+		}
+		String search = repeated ? prefix.substring(0, 1) : prefix;
+		if (current < 0 || current >= source.size() || !startsWith(source.get(current), search)) {
+			return find(search);
+		}
+		if (!repeated) return current;
+		int next = findNext(search, current);
+		return next != -1 ? next : find(search);
+	}
+}
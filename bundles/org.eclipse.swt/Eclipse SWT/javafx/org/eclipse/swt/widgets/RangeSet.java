@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import java.util.Collections;
+import java.util.List;
+
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableListBase;
+
+/**
+ * A set of indices kept as sorted, disjoint ranges, so that selecting every
+ * row of a large control is a single range. Membership is a binary search
+ * over the ranges and the size is kept up to date.
+ * <p>
+ * The set is also the observable list of its members in ascending order,
+ * which is what the FX selection models hand out as their selected indices.
+ * Modifications do not notify the list listeners by themselves. Call
+ * <code>fire()</code> to report them right away or <code>fireLater()</code>
+ * to report any number of modifications as one change.
+ * </p>
+ */
+final class RangeSet extends ObservableListBase<Integer> {
+
+	/* Range i is [starts[i], ends[i]) */
+	int[] starts = new int[4], ends = new int[4];
+	int rangeCount, size;
+
+	/* Number of members before each range, built when first needed */
+	int[] offsets;
+
+	int reportedSize, changes;
+	boolean dirty, firePending;
+
+	/**
+	 * Answers the last range that starts at or before the index, or -1.
+	 */
+	int find(int index) {
+		int low = 0, high = rangeCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] <= index) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return high;
+	}
+
+	boolean includes(int index) {
+		int range = find(index);
+		return range != -1 && index < ends[range];
+	}
+
+	int first() {
+		return rangeCount == 0 ? -1 : starts[0];
+	}
+
+	/**
+	 * Adds the indices in [start, end).
+	 */
+	void include(int start, int end) {
+		if (start >= end) return;
+		int first = find(start);
+		if (first == -1 || ends[first] < start) first++;
+		int last = find(end);
+		if (first <= last) {
+			if (first == last && starts[first] <= start && end <= ends[first]) return;
+			start = Math.min(start, starts[first]);
+			end = Math.max(end, ends[last]);
+		}
+		replace(first, last - first + 1, start, end, end, end);
+	}
+
+	/**
+	 * Adds the indices in [start, end) that are below count, the way the FX
+	 * selection models do. When single is true only the last of them is
+	 * kept and it replaces the current members.
+	 */
+	void select(int start, int end, int count, boolean single) {
+		start = Math.max(0, start);
+		end = Math.min(end, count);
+		if (start >= end) return;
+		if (single) {
+			start = end - 1;
+			if (size == 1 && includes(start)) return;
+			clear();
+		}
+		include(start, end);
+	}
+
+	/**
+	 * Removes the indices in [start, end).
+	 */
+	void exclude(int start, int end) {
+		if (start >= end) return;
+		int first = find(start);
+		if (first == -1 || ends[first] <= start) first++;
+		int last = find(end - 1);
+		if (first > last) return;
+		replace(first, last - first + 1, starts[first], start, end, ends[last]);
+	}
+
+	/**
+	 * Removes every member.
+	 */
+	@Override
+	public void clear() {
+		if (rangeCount == 0) return;
+		rangeCount = size = 0;
+		modified();
+	}
+
+	/**
+	 * Moves the members at or after index up by count, as when count items
+	 * are inserted at index.
+	 */
+	void insertIndices(int index, int count) {
+		if (count <= 0 || rangeCount == 0) return;
+		int range = find(index);
+		if (range != -1 && starts[range] < index && index < ends[range]) {
+			replace(range, 1, starts[range], index, index, ends[range]);
+		}
+		for (int i = find(index - 1) + 1; i < rangeCount; i++) {
+			starts[i] += count;
+			ends[i] += count;
+		}
+		modified();
+	}
+
+	/**
+	 * Drops the members in [index, index + count) and moves the members
+	 * after them down by count, as when those items are removed.
+	 */
+	void removeIndices(int index, int count) {
+		if (count <= 0 || rangeCount == 0) return;
+		exclude(index, index + count);
+		int first = find(index - 1) + 1;
+		for (int i = first; i < rangeCount; i++) {
+			starts[i] -= count;
+			ends[i] -= count;
+		}
+		if (0 < first && first < rangeCount && ends[first - 1] == starts[first]) {
+			replace(first - 1, 2, starts[first - 1], ends[first], ends[first], ends[first]);
+		}
+		modified();
+	}
+
+	/*
+	 * Replaces count ranges at position with the non-empty ones of
+	 * [start1, end1) and [start2, end2).
+	 */
+	void replace(int position, int count, int start1, int end1, int start2, int end2) {
+		int added = (start1 < end1 ? 1 : 0) + (start2 < end2 ? 1 : 0);
+		for (int i = position; i < position + count; i++) {
+			size -= ends[i] - starts[i];
+		}
+		int newCount = rangeCount - count + added;
+		if (newCount > starts.length) {
+			int length = Math.max(newCount, starts.length * 3 / 2);
+			int[] newStarts = new int[length], newEnds = new int[length];
+			System.arraycopy(starts, 0, newStarts, 0, rangeCount);
+			System.arraycopy(ends, 0, newEnds, 0, rangeCount);
+			starts = newStarts;
+			ends = newEnds;
+		}
+		int tail = rangeCount - position - count;
+		System.arraycopy(starts, position + count, starts, position + added, tail);
+		System.arraycopy(ends, position + count, ends, position + added, tail);
+		rangeCount = newCount;
+		if (start1 < end1) {
+			starts[position] = start1;
+			ends[position++] = end1;
+			size += end1 - start1;
+		}
+		if (start2 < end2) {
+			starts[position] = start2;
+			ends[position] = end2;
+			size += end2 - start2;
+		}
+		modified();
+	}
+
+	/**
+	 * Moves the members along with reordered items, where order[i] is the
+	 * old index of the item now at i.
+	 */
+	void permute(int[] order) {
+		if (size == 0 || size == order.length) return;
+		RangeSet result = new RangeSet();
+		for (int i = 0; i < order.length; i++) {
+			if (!includes(order[i])) continue;
+			int start = i;
+			while (i + 1 < order.length && includes(order[i + 1])) i++;
+			result.include(start, i + 1);
+		}
+		starts = result.starts;
+		ends = result.ends;
+		rangeCount = result.rangeCount;
+		size = result.size;
+		modified();
+	}
+
+	void modified() {
+		offsets = null;
+		dirty = true;
+		changes++;
+	}
+
+	int[] toIndices() {
+		int[] result = new int[size];
+		int index = 0;
+		for (int i = 0; i < rangeCount; i++) {
+			for (int j = starts[i]; j < ends[i]; j++) {
+				result[index++] = j;
+			}
+		}
+		return result;
+	}
+
+	void buildOffsets() {
+		if (offsets != null) return;
+		offsets = new int[rangeCount];
+		for (int i = 1; i < rangeCount; i++) {
+			offsets[i] = offsets[i - 1] + ends[i - 1] - starts[i - 1];
+		}
+	}
+
+	@Override
+	public Integer get(int index) {
+		if (!(0 <= index && index < size)) throw new IndexOutOfBoundsException();
+		buildOffsets();
+		int low = 0, high = rangeCount - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (offsets[mid] <= index) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return starts[low] + index - offsets[low];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return o instanceof Integer && includes((Integer)o);
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (!contains(o)) return -1;
+		int index = (Integer)o;
+		buildOffsets();
+		int range = find(index);
+		return offsets[range] + index - starts[range];
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return indexOf(o);
+	}
+
+	/**
+	 * Reports the modifications since the last report to the list
+	 * listeners as one change that replaces all members.
+	 */
+	void fire() {
+		if (!dirty) return;
+		dirty = false;
+		int oldSize = reportedSize;
+		reportedSize = size;
+		if (oldSize != 0 || size != 0) fireChange(new ResetChange(oldSize));
+	}
+
+	/**
+	 * Reports the modifications from a runnable, so that several
+	 * modifications in a row cause a single change.
+	 */
+	void fireLater() {
+		if (!dirty || firePending) return;
+		firePending = true;
+		Platform.runLater(new Runnable() {
+			@Override
+			public void run() {
+				firePending = false;
+				fire();
+			}
+		});
+	}
+
+	/*
+	 * The removed members are not remembered, so the change reports the
+	 * right number of them without their values.
+	 */
+	class ResetChange extends ListChangeListener.Change<Integer> {
+		final int removed;
+		int cursor = -1;
+
+		ResetChange(int removed) {
+			super(RangeSet.this);
+			this.removed = removed;
+		}
+
+		@Override
+		public boolean next() {
+			return ++cursor == 0;
+		}
+
+		@Override
+		public void reset() {
+			cursor = -1;
+		}
+
+		@Override
+		public int getFrom() {
+			return 0;
+		}
+
+		@Override
+		public int getTo() {
+			return size;
+		}
+
+		@Override
+		public List<Integer> getRemoved() {
+			return Collections.nCopies(removed, Integer.valueOf(-1));
+		}
+
+		@Override
+		protected int[] getPermutation() {
+			return new int[0];
+		}
+	}
+}
@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableList;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.control.TableColumnBase;
+import javafx.scene.layout.Region;
+
+import org.eclipse.swt.graphics.Rectangle;
+
+/**
+ * The rows of a Table or Tree, which all have the same height, as on the
+ * other platforms. FX is told so with a fixed cell size, and the top index
+ * and the row at a point are then found by arithmetic on the position of
+ * the flow, without creating or measuring cells, so they cost the same for
+ * any number of rows.
+ * <p>
+ * The flow keeps its position as a fraction of the distance the rows can
+ * scroll, which moves the top row when the viewport is resized, so the top
+ * index is kept instead. A top index set before the control is shown, or
+ * before the flow has caught up with rows that were added or removed, is
+ * applied once it is laid out.
+ * </p>
+ * <p>
+ * The columns are found the same way from their offsets. FX updates the
+ * cells of every column of a row, so the cells of the columns outside the
+ * viewport skip their content until they are scrolled in, see
+ * isShowing() and columnsMoved().
+ * </p>
+ * <p>
+ * The flow is a VirtualFlow, which is internal API before FX 9 and in
+ * another package since, so it is found by its style class and its
+ * position and cell count properties are looked up by name.
+ * </p>
+ */
+abstract class RowFlow {
+
+	final javafx.scene.control.Control view;
+	final DoubleProperty fixedCellSize;
+	final ObservableList<? extends TableColumnBase<?, ?>> columns;
+	final ColumnOffsets offsets = new ColumnOffsets();
+	int itemHeight, topIndex;
+	boolean topIndexPending;
+	Region flow, viewport;
+	DoubleProperty position;
+	IntegerProperty cellCount;
+
+	RowFlow(final Control control, javafx.scene.control.Control view, DoubleProperty fixedCellSize,
+			final ObservableList<? extends TableColumnBase<?, ?>> columns) {
+		this.view = view;
+		this.fixedCellSize = fixedCellSize;
+		this.columns = columns;
+		setItemHeight(CellCanvas.itemHeight(control, control.getFont()));
+		/* Columns that are resized, packed or moved are found again */
+		final InvalidationListener widthListener = new InvalidationListener() {
+			@Override
+			public void invalidated(Observable observable) {
+				TableColumnBase<?, ?> column = (TableColumnBase<?, ?>)((ReadOnlyProperty<?>)observable).getBean();
+				if (offsets.setWidth(column, column.getWidth())) columnsMoved();
+			}
+		};
+		columns.addListener(new InvalidationListener() {
+			@Override
+			public void invalidated(Observable observable) {
+				for (TableColumnBase<?, ?> column : columns) {
+					column.widthProperty().removeListener(widthListener);
+					column.widthProperty().addListener(widthListener);
+				}
+				offsets.build(columns);
+				columnsMoved();
+			}
+		});
+		view.skinProperty().addListener(new InvalidationListener() {
+			@Override
+			public void invalidated(Observable observable) {
+				flow = null;
+				viewport = null;
+				Platform.runLater(new Runnable() {
+					@Override
+					public void run() {
+						if (!control.isDisposed()) hook();
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Answers the number of rows that are showing.
+	 */
+	abstract int rowCount();
+
+	/**
+	 * Tells the control that other columns may be showing, after the rows
+	 * were scrolled sideways or the columns were resized or moved.
+	 */
+	abstract void columnsMoved();
+
+	void setItemHeight(int height) {
+		itemHeight = height;
+		fixedCellSize.set(height);
+	}
+
+	/*
+	 * Finds the flow of the skin, its viewport and its properties.
+	 */
+	void hook() {
+		Node node = view.lookup(".virtual-flow");
+		viewport = node != null ? (Region)node.lookup(".clipped-container") : null;
+		if (viewport == null) return;
+		try {
+			position = (DoubleProperty)node.getClass().getMethod("positionProperty").invoke(node);
+			cellCount = (IntegerProperty)node.getClass().getMethod("cellCountProperty").invoke(node);
+		} catch (Exception e) {
+			viewport = null;
+			return;
+		}
+		flow = (Region)node;
+		final Region hooked = flow;
+		InvalidationListener scrollListener = new InvalidationListener() {
+			@Override
+			public void invalidated(Observable observable) {
+				if (flow == hooked) columnsMoved();
+			}
+		};
+		viewport.layoutXProperty().addListener(scrollListener);
+		viewport.widthProperty().addListener(scrollListener);
+		viewport.heightProperty().addListener(new ChangeListener<Number>() {
+			@Override
+			public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
+				if (flow != hooked || newValue.doubleValue() <= 0) return;
+				if (topIndexPending) {
+					setTopIndex(topIndex);
+					return;
+				}
+				double range = (double)rowCount() * itemHeight - oldValue.doubleValue();
+				if (oldValue.doubleValue() > 0 && range > 0) {
+					setTopIndex(rowAt(position.get() * range));
+				}
+			}
+		});
+		cellCount.addListener(new InvalidationListener() {
+			@Override
+			public void invalidated(Observable observable) {
+				if (flow == hooked && topIndexPending) setTopIndex(topIndex);
+			}
+		});
+		if (topIndexPending) setTopIndex(topIndex);
+	}
+
+	/*
+	 * Answers whether the control is laid out, so that the flow can be used.
+	 */
+	boolean isLaidOut() {
+		return flow != null && viewport.getHeight() > 0;
+	}
+
+	/*
+	 * Answers the number of pixels the rows that are showing are scrolled by,
+	 * which are the ones of the last layout.
+	 */
+	double scrollOffset() {
+		double range = (double)cellCount.get() * itemHeight - viewport.getHeight();
+		return range > 0 ? position.get() * range : 0;
+	}
+
+	/*
+	 * Answers the row at the offset, allowing for the rounding of the
+	 * position of the flow.
+	 */
+	int rowAt(double offset) {
+		return Math.min((int)(offset / itemHeight + 0.001), Math.max(0, rowCount() - 1));
+	}
+
+	/*
+	 * Answers the number of pixels the rows are scrolled sideways by. The
+	 * flow moves the viewport to the left by as much and its clip to the
+	 * right, so that the clip stays over the same part of the flow.
+	 */
+	double scrollX() {
+		return -viewport.getLayoutX();
+	}
+
+	/*
+	 * Answers the part of the viewport that is showing, relative to the
+	 * control.
+	 */
+	Bounds viewportBounds() {
+		return view.sceneToLocal(viewport.localToScene(new BoundingBox(scrollX(), 0, viewport.getWidth(), viewport.getHeight())));
+	}
+
+	/**
+	 * Answers the row at the point, which is relative to the control, or -1
+	 * when there is none.
+	 */
+	int rowAt(int x, int y) {
+		if (!isLaidOut()) return -1;
+		Bounds bounds = viewportBounds();
+		if (!bounds.contains(x, y)) return -1;
+		int index = (int)((scrollOffset() + y - bounds.getMinY()) / itemHeight);
+		return index < rowCount() ? index : -1;
+	}
+
+	/**
+	 * Answers the column at the x, which is relative to the control, or null
+	 * when there is none.
+	 */
+	TableColumnBase<?, ?> columnAt(int x) {
+		if (!isLaidOut()) return null;
+		int position = offsets.positionAt(x - viewportBounds().getMinX() + scrollX());
+		return position != -1 ? columns.get(position) : null;
+	}
+
+	/**
+	 * Answers whether any of the column is inside the viewport. All columns
+	 * are showing until the control is laid out.
+	 */
+	boolean isShowing(TableColumnBase<?, ?> column) {
+		int position = offsets.position(column);
+		if (position == -1 || !isLaidOut()) return true;
+		double x = offsets.offset(position) - scrollX();
+		return x < viewport.getWidth() && x + offsets.width(position) > 0;
+	}
+
+	/**
+	 * Answers the bounds of the cell of the column in the row, relative to
+	 * the control. The bounds are empty when the column is not shown.
+	 */
+	Rectangle getBounds(int index, TableColumnBase<?, ?> column) {
+		int position = offsets.position(column);
+		if (position == -1) return new Rectangle(0, 0, 0, 0);
+		double x = offsets.offset(position), y = (double)index * itemHeight;
+		if (isLaidOut()) {
+			Point2D origin = view.sceneToLocal(viewport.localToScene(0, 0));
+			x += origin.getX();
+			y += origin.getY() - scrollOffset();
+		}
+		return new Rectangle((int)x, (int)y, (int)offsets.width(position), itemHeight);
+	}
+
+	int getTopIndex() {
+		if (topIndexPending || !isLaidOut()) return topIndex;
+		return rowAt(scrollOffset());
+	}
+
+	void setTopIndex(int index) {
+		if (!(0 <= index && index < rowCount())) return;
+		if (!isLaidOut() || cellCount.get() != rowCount()) {
+			topIndex = index;
+			topIndexPending = true;
+			return;
+		}
+		topIndexPending = false;
+		double range = (double)rowCount() * itemHeight - viewport.getHeight();
+		if (range <= 0) return;
+		position.set(Math.min(1, (double)index * itemHeight / range));
+	}
+
+	/**
+	 * Scrolls the least that makes the row visible.
+	 */
+	void showRow(int index) {
+		if (!isLaidOut()) {
+			setTopIndex(index);
+			return;
+		}
+		int top = getTopIndex();
+		int visibleCount = Math.max(1, (int)(viewport.getHeight() / itemHeight));
+		if (index < top) {
+			setTopIndex(index);
+		} else if (index >= top + visibleCount) {
+			setTopIndex(Math.max(0, index - visibleCount + 1));
+		}
+	}
+}
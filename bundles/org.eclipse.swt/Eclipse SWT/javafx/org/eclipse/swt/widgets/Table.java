@@ -10,13 +10,46 @@
  *******************************************************************************/
 package org.eclipse.swt.widgets;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.SortEvent;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn.CellDataFeatures;
+import javafx.scene.control.TableColumn.SortType;
+import javafx.scene.control.TableColumnBase;
+import javafx.scene.control.TablePosition;
+import javafx.scene.control.TableView;
+import javafx.scene.input.KeyEvent;
+import javafx.util.Callback;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.GCData;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
 
 /**
  * Instances of this class implement a selectable user interface object that
@@ -78,8 +111,572 @@ import org.eclipse.swt.graphics.Point;
  */
 public class Table extends Composite {
 
-	private java.util.List<TableItem> items = new ArrayList<>();
-	
+	/*
+	 * Rows are identified by index only. Cell data is kept column-major in
+	 * sparse arrays owned by the table, one per attribute and column, so an
+	 * attribute nobody sets costs nothing and a TableItem is just a handle on
+	 * its row. Handles are only created for rows that are asked for.
+	 */
+	static final class Cells {
+		final PagedArray<String> text = new PagedArray<String>();
+		final PagedArray<Image> images = new PagedArray<Image>();
+		final PagedArray<Font> fonts = new PagedArray<Font>();
+		final PagedArray<Color> foregrounds = new PagedArray<Color>();
+		final PagedArray<Color> backgrounds = new PagedArray<Color>();
+		/* Sizes of the cells measured while custom drawing, see CellCanvas */
+		final PagedArray<Point> measures = new PagedArray<Point>();
+
+		void clear(int start, int end) {
+			text.clear(start, end);
+			images.clear(start, end);
+			fonts.clear(start, end);
+			foregrounds.clear(start, end);
+			backgrounds.clear(start, end);
+			measures.clear(start, end);
+		}
+
+		void insert(int index, int count, int size) {
+			text.insert(index, count, size);
+			images.insert(index, count, size);
+			fonts.insert(index, count, size);
+			foregrounds.insert(index, count, size);
+			backgrounds.insert(index, count, size);
+			measures.insert(index, count, size);
+		}
+
+		void remove(int index, int count, int size) {
+			text.remove(index, count, size);
+			images.remove(index, count, size);
+			fonts.remove(index, count, size);
+			foregrounds.remove(index, count, size);
+			backgrounds.remove(index, count, size);
+			measures.remove(index, count, size);
+		}
+
+		void permute(int[] order) {
+			text.permute(order);
+			images.permute(order);
+			fonts.permute(order);
+			foregrounds.permute(order);
+			backgrounds.permute(order);
+			measures.permute(order);
+		}
+	}
+
+	PagedArray<TableItem> items = new PagedArray<TableItem>();
+	Cells[] cells = new Cells[] {new Cells()};
+	Cells rowCells = new Cells();
+	TableColumn[] columns;
+	TableItem currentItem;
+	TableColumn sortColumn;
+	int sortDirection, sortRequest, rowChanges, drawGeneration;
+	boolean refreshPending, drawCells;
+
+	// Note: no initializers, createNode() runs from the super constructor
+	int itemCount;
+	int columnCount;
+	RowFlow flow;
+	RowList rows;
+	RangeSet selection;
+	SelectionModel selectionModel;
+	PrefixIndex prefixIndex;
+	javafx.scene.control.TableColumn<Integer, Integer> defaultColumn;
+
+	static final Callback<CellDataFeatures<Integer, Integer>, ObservableValue<Integer>> ROW_VALUE =
+			new Callback<CellDataFeatures<Integer, Integer>, ObservableValue<Integer>>() {
+		@Override
+		public ObservableValue<Integer> call(CellDataFeatures<Integer, Integer> features) {
+			return new ReadOnlyObjectWrapper<Integer>(features.getValue());
+		}
+	};
+
+	/**
+	 * The rows of the TableView are just the row indices. Nothing is stored
+	 * per row so the list costs the same for ten rows as for ten million.
+	 */
+	class RowList extends ObservableListBase<Integer> {
+		@Override
+		public Integer get(int index) {
+			if (!(0 <= index && index < itemCount)) throw new IndexOutOfBoundsException();
+			return index;
+		}
+
+		@Override
+		public int size() {
+			return itemCount;
+		}
+
+		void fireAdded(int start, int count) {
+			fireChange(new RangeChange(start, count, 0));
+		}
+
+		void fireRemoved(int start, int count) {
+			fireChange(new RangeChange(start, 0, count));
+		}
+
+		/*
+		 * A single contiguous add or remove. The change builder of the list
+		 * base class copies every removed element, which is too slow when
+		 * millions of rows go away at once.
+		 */
+		class RangeChange extends ListChangeListener.Change<Integer> {
+			final int from, added, removed;
+			int cursor = -1;
+
+			RangeChange(int from, int added, int removed) {
+				super(RowList.this);
+				this.from = from;
+				this.added = added;
+				this.removed = removed;
+			}
+
+			@Override
+			public boolean next() {
+				return ++cursor == 0;
+			}
+
+			@Override
+			public void reset() {
+				cursor = -1;
+			}
+
+			@Override
+			public int getFrom() {
+				return from;
+			}
+
+			@Override
+			public int getTo() {
+				return from + added;
+			}
+
+			@Override
+			public List<Integer> getRemoved() {
+				/* The removed rows were the indices from the start, they are not stored either */
+				return new AbstractList<Integer>() {
+					@Override
+					public Integer get(int index) {
+						if (!(0 <= index && index < removed)) throw new IndexOutOfBoundsException();
+						return from + index;
+					}
+
+					@Override
+					public int size() {
+						return removed;
+					}
+				};
+			}
+
+			@Override
+			protected int[] getPermutation() {
+				return new int[0];
+			}
+		}
+	}
+
+	class Cell extends TableCell<Integer, Integer> {
+		javafx.scene.text.Font defaultFont;
+		CellCanvas canvas;
+		boolean hidden;
+
+		@Override
+		protected void updateItem(Integer row, boolean empty) {
+			super.updateItem(row, empty);
+			if (defaultFont == null) defaultFont = getFont();
+			/* The cells of columns outside the viewport are filled in by showColumns() */
+			hidden = !empty && !flow.isShowing(getTableColumn());
+			if (empty || row == null || row >= itemCount || hidden
+					|| ((style & SWT.VIRTUAL) != 0 && !checkData(_getItem(row)))) {
+				setText(null);
+				setGraphic(null);
+				setFont(defaultFont);
+				setStyle("");
+				return;
+			}
+			if (drawCells) {
+				if (canvas == null) canvas = new CellCanvas(Table.this);
+				setText(null);
+				setGraphic(canvas);
+				setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+				paint();
+				return;
+			}
+			setGraphic(null);
+			setContentDisplay(ContentDisplay.LEFT);
+			int column = column();
+			Cells cell = cells[column];
+			setText(getCellText(row, column));
+			Font font = cell.fonts.get(row);
+			if (font == null) font = rowCells.fonts.get(row);
+			setFont(font != null ? font.handle : defaultFont);
+			Color foreground = cell.foregrounds.get(row);
+			if (foreground == null) foreground = rowCells.foregrounds.get(row);
+			Color background = cell.backgrounds.get(row);
+			if (background == null) background = rowCells.backgrounds.get(row);
+			setStyle(cellStyle(foreground, background));
+		}
+
+		boolean isDrawn() {
+			return canvas != null && getGraphic() == canvas && !isEmpty() && getIndex() < itemCount;
+		}
+
+		int column() {
+			Object data = getTableColumn().getUserData();
+			return data instanceof TableColumn ? indexOf((TableColumn)data) : 0;
+		}
+
+		@Override
+		protected double computePrefHeight(double width) {
+			if (!isDrawn()) return super.computePrefHeight(width);
+			return measureCell(canvas, getIndex(), column()).y;
+		}
+
+		@Override
+		protected void layoutChildren() {
+			if (isDrawn()) {
+				canvas.setWidth(Math.max(0, getWidth() - snappedLeftInset() - snappedRightInset()));
+				canvas.setHeight(Math.max(0, getHeight() - snappedTopInset() - snappedBottomInset()));
+				paint();
+			}
+			super.layoutChildren();
+		}
+
+		/*
+		 * Draws the row on the canvas, which only sends the paint events when
+		 * the row is not the one that is showing.
+		 */
+		void paint() {
+			if (!isDrawn()) return;
+			int row = getIndex(), column = column();
+			TableItem item = _getItem(row);
+			if ((style & SWT.VIRTUAL) != 0 && !checkData(item)) return;
+			Point measure = measureCell(canvas, row, column);
+			int detail = 0;
+			if (selection.includes(row)) detail |= SWT.SELECTED;
+			if (selectionModel.getFocusedIndex() == row) detail |= SWT.FOCUSED;
+			Cells cell = cells[column];
+			Font font = cell.fonts.get(row);
+			if (font == null) font = rowCells.fonts.get(row);
+			if (font == null) font = Table.this.getFont();
+			Color foreground = cell.foregrounds.get(row);
+			if (foreground == null) foreground = rowCells.foregrounds.get(row);
+			Color background = cell.backgrounds.get(row);
+			if (background == null) background = rowCells.backgrounds.get(row);
+			Rectangle bounds = getCellBounds(row, column);
+			canvas.paint(Table.this, item, column, bounds.x + (int)snappedLeftInset(), bounds.y + (int)snappedTopInset(),
+					measure, detail, drawGeneration,
+					getCellText(row, column), cell.images.get(row), font, foreground, background);
+			if (isDisposed()) return;
+			String style = cellStyle(null, canvas.background);
+			if (!style.equals(getStyle())) setStyle(style);
+		}
+	}
+
+	/*
+	 * Answers the measured size of a cell, measuring it on the canvas when it
+	 * is not cached.
+	 */
+	Point measureCell(CellCanvas canvas, int row, int column) {
+		PagedArray<Point> measures = cells[column].measures;
+		Point size = measures.get(row);
+		if (size == null) {
+			Font font = cells[column].fonts.get(row);
+			if (font == null) font = rowCells.fonts.get(row);
+			if (font == null) font = getFont();
+			size = canvas.measure(this, _getItem(row), column, getCellText(row, column), cells[column].images.get(row), font);
+			measures.set(row, size);
+			/* Rows only grow, as on the other platforms */
+			if (size.y > flow.itemHeight) flow.setItemHeight(size.y);
+		}
+		return size;
+	}
+
+	/*
+	 * Answers the width that shows the header and the cells of a column, see
+	 * TableColumn.pack(). The rows of a virtual table that were not asked for
+	 * yet are left out.
+	 */
+	int measureColumn(int column) {
+		GC gc = GC.fx_new(this, new GCData());
+		gc.setFont(getFont());
+		int width = gc.textExtent(columns[column].getText()).x;
+		CellCanvas canvas = hooks(SWT.MeasureItem) ? new CellCanvas(this) : null;
+		Cells cell = cells[column];
+		for (int row = 0; row < itemCount; row++) {
+			if ((style & SWT.VIRTUAL) != 0) {
+				TableItem item = items.get(row);
+				if (item == null || !item.cached) continue;
+			}
+			int cellWidth;
+			if (canvas != null) {
+				cellWidth = measureCell(canvas, row, column).x;
+			} else {
+				Font font = cell.fonts.get(row);
+				if (font == null) font = rowCells.fonts.get(row);
+				gc.setFont(font != null ? font : getFont());
+				cellWidth = gc.textExtent(getCellText(row, column)).x;
+				Image image = cell.images.get(row);
+				if (image != null) cellWidth += image.getBounds().width + CellCanvas.MARGIN;
+			}
+			width = Math.max(width, cellWidth);
+		}
+		gc.dispose();
+		if (canvas != null) canvas.gc.dispose();
+		return width + 2 * CellCanvas.TEXT_MARGIN;
+	}
+
+	/*
+	 * Drops the measured sizes of the row, so that its cells are measured
+	 * and drawn again.
+	 */
+	void clearMeasures(int row) {
+		for (int i = 0; i < cells.length; i++) {
+			cells[i].measures.set(row, null);
+		}
+	}
+
+	boolean hooksDraw() {
+		return hooks(SWT.MeasureItem) || hooks(SWT.EraseItem) || hooks(SWT.PaintItem);
+	}
+
+	/*
+	 * Draws the rows that are showing again. Only the cells whose content,
+	 * size or selection changed send the paint events.
+	 */
+	void paintCells() {
+		for (Node node : getTableView().lookupAll(".table-cell")) {
+			if (node instanceof Cell) ((Cell)node).paint();
+		}
+	}
+
+	/*
+	 * Fills in the cells that were left empty because their column was
+	 * outside the viewport and that are now inside it.
+	 */
+	void showColumns() {
+		if (!flow.isLaidOut()) return;
+		for (Node node : getTableView().lookupAll(".table-cell")) {
+			if (!(node instanceof Cell)) continue;
+			Cell cell = (Cell)node;
+			if (cell.hidden && flow.isShowing(cell.getTableColumn())) cell.updateItem(cell.getItem(), cell.isEmpty());
+		}
+	}
+
+	/**
+	 * Selection model of the TableView over the selected rows of the table.
+	 * FX asks the range set directly, and changes made through the SWT API
+	 * are reported to FX once per runnable. Changes made by FX, which come
+	 * from the user, are reported right away and send a Selection event.
+	 */
+	class SelectionModel extends TableView.TableViewSelectionModel<Integer> {
+		final ObservableList<TablePosition<Integer, ?>> selectedCells = new ObservableListBase<TablePosition<Integer, ?>>() {
+			@Override
+			public TablePosition<Integer, ?> get(int index) {
+				return new TablePosition<Integer, Object>(getTableView(), selection.get(index), null);
+			}
+
+			@Override
+			public int size() {
+				return selection.size();
+			}
+		};
+
+		SelectionModel(TableView<Integer> tableView) {
+			super(tableView);
+		}
+
+		void select(int start, int end, boolean clear) {
+			int changes = selection.changes;
+			if (clear) selection.clear();
+			selection.select(start, end, itemCount, getSelectionMode() == SelectionMode.SINGLE);
+			if (start < end && selection.includes(end - 1)) {
+				setSelectedIndex(end - 1);
+				focus(end - 1);
+			}
+			commit(changes);
+		}
+
+		/*
+		 * Reports a change made by FX and sends the Selection event for it.
+		 */
+		void commit(int changes) {
+			if (selection.changes == changes) return;
+			update();
+			selection.fire();
+			Event event = new Event();
+			int index = getSelectedIndex();
+			if (index != -1) event.item = _getItem(index);
+			sendEvent(SWT.Selection, event);
+		}
+
+		void update() {
+			if (!selection.includes(getSelectedIndex())) setSelectedIndex(selection.first());
+		}
+
+		/*
+		 * Moves the selection, the selected index and the focus along with
+		 * reordered rows.
+		 */
+		void permute(int[] order) {
+			int index = getSelectedIndex(), focused = getFocusedIndex();
+			selection.permute(order);
+			for (int i = 0; i < order.length; i++) {
+				if (order[i] == index) setSelectedIndex(i);
+				if (order[i] == focused) focus(i);
+			}
+		}
+
+		@Override
+		public ObservableList<Integer> getSelectedIndices() {
+			return selection;
+		}
+
+		@Override
+		public ObservableList<Integer> getSelectedItems() {
+			/* The rows are their own indices */
+			return selection;
+		}
+
+		@Override
+		@SuppressWarnings({"rawtypes", "unchecked"})
+		public ObservableList<TablePosition> getSelectedCells() {
+			/* TableViewSelectionModel declares the list with the raw type */
+			return (ObservableList<TablePosition>)(ObservableList<?>)selectedCells;
+		}
+
+		@Override
+		public boolean isSelected(int index) {
+			return selection.includes(index);
+		}
+
+		@Override
+		public boolean isSelected(int row, javafx.scene.control.TableColumn<Integer, ?> column) {
+			return selection.includes(row);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return selection.isEmpty();
+		}
+
+		@Override
+		public void select(int row) {
+			select(row, row + 1, false);
+		}
+
+		@Override
+		public void select(Integer row) {
+			if (row != null) select(row);
+		}
+
+		@Override
+		public void select(int row, javafx.scene.control.TableColumn<Integer, ?> column) {
+			select(row);
+		}
+
+		@Override
+		public void selectIndices(int index, int... indices) {
+			if (getSelectionMode() == SelectionMode.SINGLE) {
+				int last = indices.length == 0 ? index : indices[indices.length - 1];
+				select(last, last + 1, false);
+				return;
+			}
+			int changes = selection.changes;
+			selection.select(index, index + 1, itemCount, false);
+			for (int i = 0; i < indices.length; i++) {
+				selection.select(indices[i], indices[i] + 1, itemCount, false);
+			}
+			commit(changes);
+		}
+
+		@Override
+		public void selectRange(int start, int end) {
+			if (start <= end) {
+				select(start, end, false);
+			} else {
+				select(end + 1, start + 1, false);
+			}
+		}
+
+		@Override
+		public void selectRange(int minRow, TableColumnBase<Integer, ?> minColumn, int maxRow, TableColumnBase<Integer, ?> maxColumn) {
+			select(Math.min(minRow, maxRow), Math.max(minRow, maxRow) + 1, false);
+		}
+
+		@Override
+		public void selectAll() {
+			if (getSelectionMode() == SelectionMode.SINGLE) return;
+			select(0, itemCount, false);
+		}
+
+		@Override
+		public void selectFirst() {
+			select(0, 1, true);
+		}
+
+		@Override
+		public void selectLast() {
+			select(itemCount - 1, itemCount, true);
+		}
+
+		@Override
+		public void selectPrevious() {
+			int index = getFocusedIndex();
+			if (index > 0) select(index - 1);
+		}
+
+		@Override
+		public void selectNext() {
+			int index = getFocusedIndex();
+			if (index < itemCount - 1) select(index + 1);
+		}
+
+		@Override
+		public void selectLeftCell() {
+		}
+
+		@Override
+		public void selectRightCell() {
+		}
+
+		@Override
+		public void selectAboveCell() {
+			selectPrevious();
+		}
+
+		@Override
+		public void selectBelowCell() {
+			selectNext();
+		}
+
+		@Override
+		public void clearAndSelect(int row) {
+			select(row, row + 1, true);
+		}
+
+		@Override
+		public void clearAndSelect(int row, javafx.scene.control.TableColumn<Integer, ?> column) {
+			clearAndSelect(row);
+		}
+
+		@Override
+		public void clearSelection(int row) {
+			int changes = selection.changes;
+			selection.exclude(row, row + 1);
+			commit(changes);
+		}
+
+		@Override
+		public void clearSelection(int row, javafx.scene.control.TableColumn<Integer, ?> column) {
+			clearSelection(row);
+		}
+
+		@Override
+		public void clearSelection() {
+			select(0, 0, true);
+		}
+	}
+
 	/**
 	 * Constructs a new instance of this class given its parent and a style
 	 * value describing its behavior and appearance.
@@ -122,11 +719,354 @@ public class Table extends Composite {
 	 */
 	public Table(Composite parent, int style) {
 		super(parent, style);
-		// TODO
 	}
-	
-	void addItem(TableItem item) {
-		items.add(item);
+
+	@Override
+	void createNode() {
+		TableView<Integer> tableView = new TableView<Integer>();
+		rows = new RowList();
+		tableView.setItems(rows);
+		/* Rows have a fixed height, so rows are found without cells */
+		flow = new RowFlow(this, tableView, tableView.fixedCellSizeProperty(), tableView.getVisibleLeafColumns()) {
+			@Override
+			int rowCount() {
+				return itemCount;
+			}
+
+			@Override
+			void columnsMoved() {
+				showColumns();
+			}
+		};
+		selection = new RangeSet();
+		selectionModel = new SelectionModel(tableView);
+		selectionModel.setSelectionMode((style & SWT.MULTI) != 0 ? SelectionMode.MULTIPLE : SelectionMode.SINGLE);
+		tableView.setSelectionModel(selectionModel);
+		/* Drawn cells show the selection and the focus themselves */
+		InvalidationListener stateListener = new InvalidationListener() {
+			@Override
+			public void invalidated(Observable observable) {
+				if (drawCells) redrawItems();
+			}
+		};
+		selection.addListener(stateListener);
+		tableView.getFocusModel().focusedIndexProperty().addListener(stateListener);
+		/* Type-ahead searches the text of the first column */
+		prefixIndex = new PrefixIndex(new AbstractList<String>() {
+			@Override
+			public String get(int index) {
+				return getCellText(index, 0);
+			}
+
+			@Override
+			public int size() {
+				return itemCount;
+			}
+		});
+		tableView.addEventHandler(KeyEvent.KEY_TYPED, new EventHandler<KeyEvent>() {
+			@Override
+			public void handle(KeyEvent event) {
+				/* The rows of a VIRTUAL table that were never shown have no text yet */
+				if ((style & SWT.VIRTUAL) != 0) return;
+				char character = PrefixIndex.typedCharacter(event);
+				if (character == 0) return;
+				int index = prefixIndex.typed(character, System.currentTimeMillis(), selectionModel.getSelectedIndex());
+				if (index == -1 || index == selectionModel.getSelectedIndex()) return;
+				selectionModel.clearAndSelect(index);
+				getTableView().scrollTo(index);
+			}
+		});
+		/*
+		 * The sort order only shows the sort indicator. The rows are sorted
+		 * by sort(), so the sort FX would run on the row indices is vetoed.
+		 */
+		tableView.setOnSort(new EventHandler<SortEvent<TableView<Integer>>>() {
+			@Override
+			public void handle(SortEvent<TableView<Integer>> event) {
+				event.consume();
+				/* Put the indicator back when a click on the header changed it */
+				Platform.runLater(new Runnable() {
+					@Override
+					public void run() {
+						if (!isDisposed()) updateSortIndicator();
+					}
+				});
+			}
+		});
+		defaultColumn = createColumnNode();
+		tableView.getColumns().add(defaultColumn);
+		setNode(tableView);
+	}
+
+	@SuppressWarnings("unchecked")
+	TableView<Integer> getTableView() {
+		return (TableView<Integer>)node;
+	}
+
+	javafx.scene.control.TableColumn<Integer, Integer> createColumnNode() {
+		javafx.scene.control.TableColumn<Integer, Integer> column = new javafx.scene.control.TableColumn<Integer, Integer>();
+		column.setSortable(false);
+		column.setCellValueFactory(ROW_VALUE);
+		column.setCellFactory(new Callback<javafx.scene.control.TableColumn<Integer, Integer>, TableCell<Integer, Integer>>() {
+			@Override
+			public TableCell<Integer, Integer> call(javafx.scene.control.TableColumn<Integer, Integer> param) {
+				return new Cell();
+			}
+		});
+		return column;
+	}
+
+	void createColumn(TableColumn column, int index) {
+		if (!(0 <= index && index <= columnCount)) error(SWT.ERROR_INVALID_RANGE);
+		if (columns == null) {
+			columns = new TableColumn[4];
+		} else if (columnCount == columns.length) {
+			TableColumn[] newColumns = new TableColumn[columnCount + 4];
+			System.arraycopy(columns, 0, newColumns, 0, columnCount);
+			columns = newColumns;
+		}
+		System.arraycopy(columns, index, columns, index + 1, columnCount - index);
+		columns[index] = column;
+		columnCount++;
+		column.column = createColumnNode();
+		column.column.setUserData(column);
+		ObservableList<javafx.scene.control.TableColumn<Integer, ?>> fxColumns = getTableView().getColumns();
+		if (columnCount == 1) {
+			/* The first column takes over the cells shown in the default column */
+			fxColumns.set(0, column.column);
+		} else {
+			Cells[] newCells = new Cells[columnCount];
+			System.arraycopy(cells, 0, newCells, 0, index);
+			System.arraycopy(cells, index, newCells, index + 1, columnCount - index - 1);
+			newCells[index] = new Cells();
+			cells = newCells;
+			if (index == 0) prefixIndex.invalidate();
+			fxColumns.add(index, column.column);
+		}
+	}
+
+	void createItem(TableItem item, int index) {
+		if (!(0 <= index && index <= itemCount)) error(SWT.ERROR_INVALID_RANGE);
+		insertRows(index, 1);
+		items.set(index, item);
+	}
+
+	/*
+	 * Returns the item at the given row, creating it the first time the row is
+	 * asked for.
+	 */
+	TableItem _getItem(int index) {
+		TableItem item = items.get(index);
+		if (item == null) {
+			item = new TableItem(this, SWT.NONE, index, false);
+			items.set(index, item);
+		}
+		return item;
+	}
+
+	boolean checkData(TableItem item) {
+		if (item.cached) return true;
+		if ((style & SWT.VIRTUAL) != 0) {
+			item.cached = true;
+			Event event = new Event();
+			event.item = item;
+			event.index = item.index;
+			currentItem = item;
+			sendEvent(SWT.SetData, event);
+			currentItem = null;
+			if (isDisposed() || item.isDisposed()) return false;
+		}
+		return true;
+	}
+
+	/*
+	 * Answers the bounds of a cell relative to the table, which are empty
+	 * when there is no such column.
+	 */
+	Rectangle getCellBounds(int row, int column) {
+		if (!(0 <= column && column < Math.max(1, columnCount))) return new Rectangle(0, 0, 0, 0);
+		return flow.getBounds(row, columnCount != 0 ? columns[column].column : defaultColumn);
+	}
+
+	String getCellText(int row, int column) {
+		String string = cells[column].text.get(row);
+		return string != null ? string : "";
+	}
+
+	static String cellStyle(Color foreground, Color background) {
+		if (foreground == null && background == null) return "";
+		StringBuilder buffer = new StringBuilder();
+		if (foreground != null) {
+			buffer.append("-fx-text-fill: ").append(webColor(foreground)).append(';');
+		}
+		if (background != null) {
+			buffer.append("-fx-background-color: ").append(webColor(background)).append(';');
+		}
+		return buffer.toString();
+	}
+
+	static String webColor(Color color) {
+		return String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
+	}
+
+	void clearRows(int start, int end) {
+		for (int i = 0; i < cells.length; i++) {
+			cells[i].clear(start, end);
+		}
+		rowCells.clear(start, end);
+		prefixIndex.invalidate();
+		for (int i = start; i < end; i++) {
+			if (!items.hasPage(i)) {
+				i |= PagedArray.PAGE_MASK;
+				continue;
+			}
+			TableItem item = items.get(i);
+			if (item != null) item.cached = false;
+		}
+		redrawItems();
+	}
+
+	void insertRows(int index, int count) {
+		int newCount = itemCount + count;
+		if (newCount < 0) error(SWT.ERROR_NO_HANDLES);
+		int oldCount = itemCount;
+		items.insert(index, count, oldCount);
+		for (int i = 0; i < cells.length; i++) {
+			cells[i].insert(index, count, oldCount);
+		}
+		rowCells.insert(index, count, oldCount);
+		itemCount = newCount;
+		rowChanges++;
+		renumberItems(index + count, newCount);
+		prefixIndex.insert(index, count);
+		selection.insertIndices(index, count);
+		rows.fireAdded(index, count);
+		selectionChanged();
+		if (index < oldCount) redrawItems();
+	}
+
+	void removeRows(int index, int count) {
+		if (count == 0) return;
+		int oldCount = itemCount;
+		prefixIndex.remove(index, prefixIndex.source.subList(index, index + count));
+		for (int i = index; i < index + count; i++) {
+			if (!items.hasPage(i)) {
+				i |= PagedArray.PAGE_MASK;
+				continue;
+			}
+			TableItem item = items.get(i);
+			if (item != null) item.index = -1;
+		}
+		items.remove(index, count, oldCount);
+		for (int i = 0; i < cells.length; i++) {
+			cells[i].remove(index, count, oldCount);
+		}
+		rowCells.remove(index, count, oldCount);
+		itemCount = oldCount - count;
+		rowChanges++;
+		renumberItems(index, itemCount);
+		selection.removeIndices(index, count);
+		rows.fireRemoved(index, count);
+		selectionChanged();
+		if (index < itemCount) redrawItems();
+	}
+
+	void renumberItems(int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (!items.hasPage(i)) {
+				i |= PagedArray.PAGE_MASK;
+				continue;
+			}
+			TableItem item = items.get(i);
+			if (item != null) item.index = i;
+		}
+	}
+
+	/*
+	 * Moves every row to its place in the order, where order[i] is the row
+	 * that goes to i, in one step on the UI thread. Only the rows that are
+	 * showing are drawn again.
+	 */
+	void sortRows(int[] order) {
+		items.permute(order);
+		renumberItems(0, itemCount);
+		for (int i = 0; i < cells.length; i++) {
+			cells[i].permute(order);
+		}
+		rowCells.permute(order);
+		prefixIndex.invalidate();
+		selectionModel.permute(order);
+		selectionChanged();
+		redrawItems();
+	}
+
+	void updateSortIndicator() {
+		ObservableList<javafx.scene.control.TableColumn<Integer, ?>> sortOrder = getTableView().getSortOrder();
+		if (sortColumn == null || sortDirection == SWT.NONE) {
+			sortOrder.clear();
+			return;
+		}
+		sortColumn.column.setSortType(sortDirection == SWT.UP ? SortType.ASCENDING : SortType.DESCENDING);
+		if (sortOrder.size() != 1 || sortOrder.get(0) != sortColumn.column) sortOrder.setAll(Collections.singletonList(sortColumn.column));
+	}
+
+	void selectionChanged() {
+		selectionModel.update();
+		selection.fireLater();
+	}
+
+	void redrawItem(TableItem item) {
+		if (item.index == -1) return;
+		clearMeasures(item.index);
+		if (item == currentItem) return;
+		redrawItems();
+	}
+
+	/*
+	 * The cells only know the row index they show, so a changed row or rows
+	 * that moved to other indices are picked up by refreshing the whole view.
+	 * Requests are coalesced so that filling many items refreshes only once.
+	 * Cells that are custom drawn are drawn again in place instead, which
+	 * only sends the paint events for the rows that changed.
+	 */
+	void redrawItems() {
+		if (refreshPending) return;
+		refreshPending = true;
+		Platform.runLater(new Runnable() {
+			@Override
+			public void run() {
+				refreshPending = false;
+				if (node == null) return;
+				boolean drawing = hooksDraw();
+				if (drawing && drawCells) {
+					paintCells();
+				} else {
+					drawCells = drawing;
+					getTableView().refresh();
+				}
+			}
+		});
+	}
+
+	@Override
+	void redrawWidget(int x, int y, int width, int height, boolean all) {
+		super.redrawWidget(x, y, width, height, all);
+		drawGeneration++;
+		redrawItems();
+	}
+
+	@Override
+	void _addListener(int eventType, Listener listener) {
+		super._addListener(eventType, listener);
+		if (eventType == SWT.MeasureItem) {
+			for (int i = 0; i < cells.length; i++) {
+				cells[i].measures.clear(0, itemCount);
+			}
+		}
+		if (eventType == SWT.MeasureItem || eventType == SWT.EraseItem || eventType == SWT.PaintItem) {
+			drawGeneration++;
+			redrawItems();
+		}
 	}
 
 	/**
@@ -164,7 +1104,11 @@ public class Table extends Composite {
 	 * @see SelectionEvent
 	 */
 	public void addSelectionListener(SelectionListener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		TypedListener typedListener = new TypedListener(listener);
+		addListener(SWT.Selection, typedListener);
+		addListener(SWT.DefaultSelection, typedListener);
 	}
 
 	/**
@@ -196,7 +1140,9 @@ public class Table extends Composite {
 	 * @since 3.0
 	 */
 	public void clear(int index) {
-		// TODO
+		checkWidget();
+		if (!(0 <= index && index < itemCount)) error(SWT.ERROR_INVALID_RANGE);
+		clearRows(index, index + 1);
 	}
 
 	/**
@@ -231,7 +1177,12 @@ public class Table extends Composite {
 	 * @since 3.0
 	 */
 	public void clear(int start, int end) {
-		// TODO
+		checkWidget();
+		if (start > end) return;
+		if (!(0 <= start && start <= end && end < itemCount)) {
+			error(SWT.ERROR_INVALID_RANGE);
+		}
+		clearRows(start, end + 1);
 	}
 
 	/**
@@ -264,7 +1215,17 @@ public class Table extends Composite {
 	 * @since 3.0
 	 */
 	public void clear(int[] indices) {
-		// TODO
+		checkWidget();
+		if (indices == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (indices.length == 0) return;
+		for (int i = 0; i < indices.length; i++) {
+			if (!(0 <= indices[i] && indices[i] < itemCount)) {
+				error(SWT.ERROR_INVALID_RANGE);
+			}
+		}
+		for (int i = 0; i < indices.length; i++) {
+			clearRows(indices[i], indices[i] + 1);
+		}
 	}
 
 	/**
@@ -287,7 +1248,8 @@ public class Table extends Composite {
 	 * @since 3.0
 	 */
 	public void clearAll() {
-		// TODO
+		checkWidget();
+		clearRows(0, itemCount);
 	}
 
 	/**
@@ -307,7 +1269,10 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void deselect(int index) {
-		// TODO
+		checkWidget();
+		if (!(0 <= index && index < itemCount)) return;
+		selection.exclude(index, index + 1);
+		selectionChanged();
 	}
 
 	/**
@@ -331,7 +1296,10 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void deselect(int start, int end) {
-		// TODO
+		checkWidget();
+		if (start > end) return;
+		selection.exclude(Math.max(0, start), Math.min(end, itemCount - 1) + 1);
+		selectionChanged();
 	}
 
 	/**
@@ -357,7 +1325,13 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void deselect(int[] indices) {
-		// TODO
+		checkWidget();
+		if (indices == null) error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < indices.length; i++) {
+			int index = indices[i];
+			if (0 <= index && index < itemCount) selection.exclude(index, index + 1);
+		}
+		selectionChanged();
 	}
 
 	/**
@@ -372,7 +1346,9 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void deselectAll() {
-		// TODO
+		checkWidget();
+		selection.clear();
+		selectionChanged();
 	}
 
 	/**
@@ -409,8 +1385,9 @@ public class Table extends Composite {
 	 * @see SWT#Move
 	 */
 	public TableColumn getColumn(int index) {
-		// TODO
-		return new TableColumn(this, 0);
+		checkWidget();
+		if (!(0 <= index && index < columnCount)) error(SWT.ERROR_INVALID_RANGE);
+		return columns[index];
 	}
 
 	/**
@@ -431,8 +1408,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int getColumnCount() {
-		// TODO
-		return 0;
+		checkWidget();
+		return columnCount;
 	}
 
 	/**
@@ -467,8 +1444,12 @@ public class Table extends Composite {
 	 * @since 3.1
 	 */
 	public int[] getColumnOrder() {
-		// TODO
-		return null;
+		checkWidget();
+		int[] order = new int[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			order[flow.offsets.position(columns[i].column)] = i;
+		}
+		return order;
 	}
 
 	/**
@@ -500,8 +1481,10 @@ public class Table extends Composite {
 	 * @see SWT#Move
 	 */
 	public TableColumn[] getColumns() {
-		// TODO
-		return null;
+		checkWidget();
+		TableColumn[] result = new TableColumn[columnCount];
+		if (columnCount > 0) System.arraycopy(columns, 0, result, 0, columnCount);
+		return result;
 	}
 
 	/**
@@ -589,7 +1572,9 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public TableItem getItem(int index) {
-		return items.get(index);
+		checkWidget();
+		if (!(0 <= index && index < itemCount)) error(SWT.ERROR_INVALID_RANGE);
+		return _getItem(index);
 	}
 
 	/**
@@ -621,8 +1606,11 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public TableItem getItem(Point point) {
-		// TODO
-		return null;
+		checkWidget();
+		if (point == null) error(SWT.ERROR_NULL_ARGUMENT);
+		int index = flow.rowAt(point.x, point.y);
+		if (index == -1 || (columnCount != 0 && flow.columnAt(point.x) == null)) return null;
+		return _getItem(index);
 	}
 
 	/**
@@ -639,8 +1627,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int getItemCount() {
-		// TODO
-		return 0;
+		checkWidget();
+		return itemCount;
 	}
 
 	/**
@@ -658,8 +1646,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int getItemHeight() {
-		// TODO
-		return 0;
+		checkWidget();
+		return flow.itemHeight;
 	}
 
 	/**
@@ -681,8 +1669,12 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public TableItem[] getItems() {
-		// TODO
-		return null;
+		checkWidget();
+		TableItem[] result = new TableItem[itemCount];
+		for (int i = 0; i < itemCount; i++) {
+			result[i] = _getItem(i);
+		}
+		return result;
 	}
 
 	/**
@@ -730,8 +1722,13 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public TableItem[] getSelection() {
-		// TODO
-		return null;
+		checkWidget();
+		int[] indices = selection.toIndices();
+		TableItem[] result = new TableItem[indices.length];
+		for (int i = 0; i < indices.length; i++) {
+			result[i] = _getItem(indices[i]);
+		}
+		return result;
 	}
 
 	/**
@@ -748,8 +1745,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int getSelectionCount() {
-		// TODO
-		return 0;
+		checkWidget();
+		return selection.size();
 	}
 
 	/**
@@ -767,8 +1764,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int getSelectionIndex() {
-		// TODO
-		return 0;
+		checkWidget();
+		return selection.first();
 	}
 
 	/**
@@ -791,8 +1788,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int[] getSelectionIndices() {
-		// TODO
-		return null;
+		checkWidget();
+		return selection.toIndices();
 	}
 
 	/**
@@ -814,8 +1811,9 @@ public class Table extends Composite {
 	 * @since 3.2
 	 */
 	public TableColumn getSortColumn() {
-		// TODO
-		return null;
+		checkWidget();
+		if (sortColumn != null && sortColumn.isDisposed()) sortColumn = null;
+		return sortColumn;
 	}
 
 	/**
@@ -837,8 +1835,8 @@ public class Table extends Composite {
 	 * @since 3.2
 	 */
 	public int getSortDirection() {
-		// TODO
-		return 0;
+		checkWidget();
+		return sortDirection;
 	}
 
 	/**
@@ -857,8 +1855,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int getTopIndex() {
-		// TODO
-		return 0;
+		checkWidget();
+		return flow.getTopIndex();
 	}
 
 	/**
@@ -883,8 +1881,12 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int indexOf(TableColumn column) {
-		// TODO
-		return 0;
+		checkWidget();
+		if (column == null) error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < columnCount; i++) {
+			if (columns[i] == column) return i;
+		}
+		return -1;
 	}
 
 	/**
@@ -909,8 +1911,12 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int indexOf(TableItem item) {
-		// TODO
-		return 0;
+		checkWidget();
+		if (item == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.parent != this) return -1;
+		int index = item.index;
+		if (!(0 <= index && index < itemCount) || items.get(index) != item) return -1;
+		return index;
 	}
 
 	/**
@@ -930,8 +1936,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public boolean isSelected(int index) {
-		// TODO
-		return false;
+		checkWidget();
+		return selection.includes(index);
 	}
 
 	/**
@@ -955,7 +1961,9 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void remove(int index) {
-		// TODO
+		checkWidget();
+		if (!(0 <= index && index < itemCount)) error(SWT.ERROR_INVALID_RANGE);
+		removeRows(index, 1);
 	}
 
 	/**
@@ -982,7 +1990,12 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void remove(int start, int end) {
-		// TODO
+		checkWidget();
+		if (start > end) return;
+		if (!(0 <= start && start <= end && end < itemCount)) {
+			error(SWT.ERROR_INVALID_RANGE);
+		}
+		removeRows(start, end - start + 1);
 	}
 
 	/**
@@ -1008,7 +2021,24 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void remove(int[] indices) {
-		// TODO
+		checkWidget();
+		if (indices == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (indices.length == 0) return;
+		int[] newIndices = new int[indices.length];
+		System.arraycopy(indices, 0, newIndices, 0, indices.length);
+		Arrays.sort(newIndices);
+		int start = newIndices[0], end = newIndices[newIndices.length - 1];
+		if (!(0 <= start && start <= end && end < itemCount)) {
+			error(SWT.ERROR_INVALID_RANGE);
+		}
+		int last = -1;
+		for (int i = newIndices.length - 1; i >= 0; i--) {
+			int index = newIndices[i];
+			if (index != last) {
+				removeRows(index, 1);
+				last = index;
+			}
+		}
 	}
 
 	/**
@@ -1023,7 +2053,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void removeAll() {
-		// TODO
+		checkWidget();
+		removeRows(0, itemCount);
 	}
 
 	/**
@@ -1049,7 +2080,10 @@ public class Table extends Composite {
 	 * @see #addSelectionListener(SelectionListener)
 	 */
 	public void removeSelectionListener(SelectionListener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		removeListener(SWT.Selection, listener);
+		removeListener(SWT.DefaultSelection, listener);
 	}
 
 	/**
@@ -1069,7 +2103,11 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void select(int index) {
-		// TODO
+		checkWidget();
+		if (!(0 <= index && index < itemCount)) return;
+		if ((style & SWT.SINGLE) != 0) selection.clear();
+		selection.include(index, index + 1);
+		selectionChanged();
 	}
 
 	/**
@@ -1100,7 +2138,12 @@ public class Table extends Composite {
 	 * @see Table#setSelection(int,int)
 	 */
 	public void select(int start, int end) {
-		// TODO
+		checkWidget();
+		if (end < 0 || start > end || ((style & SWT.SINGLE) != 0 && start != end)) return;
+		if (itemCount == 0 || start >= itemCount) return;
+		if ((style & SWT.SINGLE) != 0) selection.clear();
+		selection.include(Math.max(0, start), Math.min(end, itemCount - 1) + 1);
+		selectionChanged();
 	}
 
 	/**
@@ -1132,7 +2175,17 @@ public class Table extends Composite {
 	 * @see Table#setSelection(int[])
 	 */
 	public void select(int[] indices) {
-		// TODO
+		checkWidget();
+		if (indices == null) error(SWT.ERROR_NULL_ARGUMENT);
+		int length = indices.length;
+		if (length == 0 || ((style & SWT.SINGLE) != 0 && length > 1)) return;
+		for (int i = 0; i < length; i++) {
+			int index = indices[i];
+			if (!(0 <= index && index < itemCount)) continue;
+			if ((style & SWT.SINGLE) != 0) selection.clear();
+			selection.include(index, index + 1);
+		}
+		selectionChanged();
 	}
 
 	/**
@@ -1150,7 +2203,10 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void selectAll() {
-		// TODO
+		checkWidget();
+		if ((style & SWT.SINGLE) != 0) return;
+		selection.include(0, itemCount);
+		selectionChanged();
 	}
 
 	/**
@@ -1183,7 +2239,19 @@ public class Table extends Composite {
 	 * @since 3.1
 	 */
 	public void setColumnOrder(int[] order) {
-		// TODO
+		checkWidget();
+		if (order == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (order.length != columnCount) error(SWT.ERROR_INVALID_ARGUMENT);
+		if (columnCount == 0) return;
+		boolean[] seen = new boolean[columnCount];
+		List<javafx.scene.control.TableColumn<Integer, ?>> fxColumns = new ArrayList<javafx.scene.control.TableColumn<Integer, ?>>(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			int index = order[i];
+			if (!(0 <= index && index < columnCount) || seen[index]) error(SWT.ERROR_INVALID_ARGUMENT);
+			seen[index] = true;
+			fxColumns.add(columns[index].column);
+		}
+		getTableView().getColumns().setAll(fxColumns);
 	}
 
 	/**
@@ -1227,7 +2295,14 @@ public class Table extends Composite {
 	 * @since 3.0
 	 */
 	public void setItemCount(int count) {
-		// TODO
+		checkWidget();
+		count = Math.max(0, count);
+		if (count == itemCount) return;
+		if (count < itemCount) {
+			removeRows(count, itemCount - count);
+		} else {
+			insertRows(itemCount, count - itemCount);
+		}
 	}
 
 	/**
@@ -1278,7 +2353,13 @@ public class Table extends Composite {
 	 * @since 3.2
 	 */
 	public void setSortColumn(TableColumn column) {
-		// TODO
+		checkWidget();
+		if (column != null && column.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		if (sortColumn != null && sortColumn.column != null) sortColumn.column.setSortable(false);
+		sortColumn = column;
+		/* Only a sortable column shows the indicator */
+		if (column != null) column.column.setSortable(true);
+		updateSortIndicator();
 	}
 
 	/**
@@ -1299,7 +2380,10 @@ public class Table extends Composite {
 	 * @since 3.2
 	 */
 	public void setSortDirection(int direction) {
-		// TODO
+		checkWidget();
+		if (direction != SWT.UP && direction != SWT.DOWN && direction != SWT.NONE) return;
+		sortDirection = direction;
+		updateSortIndicator();
 	}
 
 	/**
@@ -1322,7 +2406,10 @@ public class Table extends Composite {
 	 * @see Table#select(int)
 	 */
 	public void setSelection(int index) {
-		// TODO
+		checkWidget();
+		selection.clear();
+		select(index);
+		showSelection();
 	}
 
 	/**
@@ -1353,7 +2440,11 @@ public class Table extends Composite {
 	 * @see Table#select(int,int)
 	 */
 	public void setSelection(int start, int end) {
-		// TODO
+		checkWidget();
+		selection.clear();
+		select(start, end);
+		selectionChanged();
+		showSelection();
 	}
 
 	/**
@@ -1385,7 +2476,12 @@ public class Table extends Composite {
 	 * @see Table#select(int[])
 	 */
 	public void setSelection(int[] indices) {
-		// TODO
+		checkWidget();
+		if (indices == null) error(SWT.ERROR_NULL_ARGUMENT);
+		selection.clear();
+		select(indices);
+		selectionChanged();
+		showSelection();
 	}
 
 	/**
@@ -1416,7 +2512,9 @@ public class Table extends Composite {
 	 * @since 3.2
 	 */
 	public void setSelection(TableItem item) {
-		// TODO
+		checkWidget();
+		if (item == null) error(SWT.ERROR_NULL_ARGUMENT);
+		setSelection(new TableItem[] {item});
 	}
 
 	/**
@@ -1451,7 +2549,67 @@ public class Table extends Composite {
 	 * @see Table#setSelection(int[])
 	 */
 	public void setSelection(TableItem[] items) {
-		// TODO
+		checkWidget();
+		if (items == null) error(SWT.ERROR_NULL_ARGUMENT);
+		selection.clear();
+		int length = items.length;
+		if (length != 0 && ((style & SWT.SINGLE) == 0 || length == 1)) {
+			for (int i = 0; i < length; i++) {
+				int index = indexOf(items[i]);
+				if (index != -1) selection.include(index, index + 1);
+			}
+		}
+		selectionChanged();
+		showSelection();
+	}
+
+	/**
+	 * Sets the text of the cells in the row at the given index, one string
+	 * per column. Unlike <code>TableItem.setText(String[])</code> this does
+	 * not need the <code>TableItem</code> of the row, so a table can be filled
+	 * with <code>setItemCount(int)</code> and this method without creating
+	 * any items. Null strings and strings beyond the number of columns are
+	 * ignored.
+	 * 
+	 * @param index
+	 *            the index of the row
+	 * @param strings
+	 *            the new strings
+	 * 
+	 * @exception IllegalArgumentException
+	 *                <ul>
+	 *                <li>ERROR_NULL_ARGUMENT - if the strings array is null</li>
+	 *                <li>ERROR_INVALID_RANGE - if the index is not between 0
+	 *                and the number of elements in the list minus 1
+	 *                (inclusive)</li>
+	 *                </ul>
+	 * @exception SWTException
+	 *                <ul>
+	 *                <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *                disposed</li>
+	 *                <li>ERROR_THREAD_INVALID_ACCESS - if not called from the
+	 *                thread that created the receiver</li>
+	 *                </ul>
+	 * 
+	 * @see #setItemCount(int)
+	 * @see TableItem#setText(String[])
+	 * 
+	 * @since 3.103
+	 */
+	public void setText(int index, String[] strings) {
+		checkWidget();
+		if (strings == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (!(0 <= index && index < itemCount)) error(SWT.ERROR_INVALID_RANGE);
+		int count = Math.min(strings.length, cells.length);
+		for (int i = 0; i < count; i++) {
+			if (strings[i] == null) continue;
+			if (i == 0) prefixIndex.replace(index, getCellText(index, 0));
+			cells[i].text.set(index, strings[i]);
+		}
+		/* A VIRTUAL row that was given its data must not ask for it again */
+		if ((style & SWT.VIRTUAL) != 0) _getItem(index).cached = true;
+		clearMeasures(index);
+		redrawItems();
 	}
 
 	/**
@@ -1471,7 +2629,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void setTopIndex(int index) {
-		// TODO
+		checkWidget();
+		flow.setTopIndex(index);
 	}
 
 	/**
@@ -1527,7 +2686,11 @@ public class Table extends Composite {
 	 * @see Table#showSelection()
 	 */
 	public void showItem(TableItem item) {
-		// TODO
+		checkWidget();
+		if (item == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		if (item.parent != this || item.index == -1) return;
+		flow.showRow(item.index);
 	}
 
 	/**
@@ -1546,7 +2709,74 @@ public class Table extends Composite {
 	 * @see Table#showItem(TableItem)
 	 */
 	public void showSelection() {
-		// TODO
+		checkWidget();
+		int index = selection.first();
+		if (index != -1) flow.showRow(index);
+	}
+
+	/**
+	 * Sorts the items of the receiver by the text they show in the sort
+	 * column, or in the first column when there is no sort column. Items
+	 * are in ascending order unless the sort direction is <code>DOWN</code>,
+	 * and items that compare equal keep their order. The items keep their
+	 * attributes and the selection moves with them.
+	 * <p>
+	 * Tables of 8192 items or more are sorted in the background and
+	 * reordered later in one step. The comparator is then called on threads
+	 * of the common fork join pool, possibly on several at once, and must
+	 * not access widgets.
+	 * An exception thrown by the comparator is not thrown to the caller of
+	 * this method: it is thrown later on the user-interface thread, from a
+	 * runnable posted with <code>Platform.runLater</code>, and the items
+	 * keep their order. When items are added or removed in the meantime
+	 * the sort starts again, and a later call to this method replaces an
+	 * earlier one that has not finished.
+	 * </p>
+	 * 
+	 * @param comparator
+	 *            the comparator of the texts, or <code>null</code> to sort
+	 *            them in their natural order
+	 * 
+	 * @exception SWTException
+	 *                <ul>
+	 *                <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *                disposed</li>
+	 *                <li>ERROR_THREAD_INVALID_ACCESS - if not called from the
+	 *                thread that created the receiver</li>
+	 *                </ul>
+	 * 
+	 * @see #setSortColumn(TableColumn)
+	 * @see #setSortDirection(int)
+	 * 
+	 * @since 3.103
+	 */
+	public void sort(final Comparator<String> comparator) {
+		checkWidget();
+		int column = sortColumn != null && !sortColumn.isDisposed() ? indexOf(sortColumn) : 0;
+		String[] keys = new String[itemCount];
+		cells[column].text.copyTo(keys);
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] == null) keys[i] = "";
+		}
+		Comparator<String> order = comparator != null ? comparator : Comparator.<String>naturalOrder();
+		if (sortDirection == SWT.DOWN) order = Collections.reverseOrder(order);
+		final int request = ++sortRequest, changes = rowChanges;
+		if (keys.length < IndexSort.PARALLEL_THRESHOLD) {
+			sortRows(IndexSort.sort(keys, order));
+			return;
+		}
+		final int[][] orders = new int[1][];
+		IndexSort.sortLater(new String[][] {keys}, order, orders, new Runnable() {
+			@Override
+			public void run() {
+				if (isDisposed() || request != sortRequest) return;
+				if (changes != rowChanges) {
+					sort(comparator);
+				} else {
+					sortRows(orders[0]);
+				}
+			}
+		});
 	}
 
 }
@@ -40,6 +40,8 @@ import org.eclipse.swt.events.SelectionListener;
  * @noextend This class is not intended to be subclassed by clients.
  */
 public class TableColumn extends Item {
+	Table parent;
+	javafx.scene.control.TableColumn<Integer, Integer> column;
 
 	/**
 	 * Constructs a new instance of this class given its parent (which must be a
@@ -80,8 +82,7 @@ public class TableColumn extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TableColumn(Table parent, int style) {
-		super(parent, style);
-		// TODO
+		this(parent, style, checkNull(parent).getColumnCount());
 	}
 
 	/**
@@ -132,7 +133,19 @@ public class TableColumn extends Item {
 	 */
 	public TableColumn(Table parent, int style, int index) {
 		super(parent, style);
-		// TODO
+		this.parent = parent;
+		parent.createColumn(this, index);
+	}
+
+	static Table checkNull(Table control) {
+		if (control == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		return control;
+	}
+
+	@Override
+	public void setText(String string) {
+		super.setText(string);
+		column.setText(string);
 	}
 
 	/**
@@ -256,8 +269,8 @@ public class TableColumn extends Item {
 	 *                </ul>
 	 */
 	public Table getParent() {
-		// TODO
-		return null;
+		checkWidget();
+		return parent;
 	}
 
 	/**
@@ -313,8 +326,8 @@ public class TableColumn extends Item {
 	 *                </ul>
 	 */
 	public int getWidth() {
-		// TODO
-		return 0;
+		checkWidget();
+		return (int)column.getWidth();
 	}
 
 	/**
@@ -332,7 +345,8 @@ public class TableColumn extends Item {
 	 * 
 	 */
 	public void pack() {
-		// TODO
+		checkWidget();
+		setWidth(parent.measureColumn(parent.indexOf(this)));
 	}
 
 	/**
@@ -503,7 +517,9 @@ public class TableColumn extends Item {
 	 *                </ul>
 	 */
 	public void setWidth(int width) {
-		// TODO
+		checkWidget();
+		if (width < 0) return;
+		column.setPrefWidth(width);
 	}
 
 }
@@ -37,6 +37,9 @@ import org.eclipse.swt.graphics.Rectangle;
  * @noextend This class is not intended to be subclassed by clients.
  */
 public class TableItem extends Item {
+	Table parent;
+	int index;
+	boolean cached;
 
 	/**
 	 * Constructs a new instance of this class given its parent (which must be a
@@ -79,9 +82,7 @@ public class TableItem extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TableItem(Table parent, int style, int index) {
-		super(parent, style);
-		parent.addItem(this);
-		// TODO
+		this(parent, style, index, true);
 	}
 
 	/**
@@ -121,8 +122,70 @@ public class TableItem extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TableItem(Table parent, int style) {
+		this(parent, style, checkNull(parent).getItemCount(), true);
+	}
+
+	TableItem(Table parent, int style, int index, boolean create) {
 		super(parent, style);
-		parent.addItem(this);
+		this.parent = parent;
+		this.index = index;
+		if (create) parent.createItem(this, index);
+	}
+
+	static Table checkNull(Table control) {
+		if (control == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		return control;
+	}
+
+	@Override
+	public String getText() {
+		checkWidget();
+		return getText(0);
+	}
+
+	@Override
+	public void setText(String string) {
+		checkWidget();
+		setText(0, string);
+	}
+
+	@Override
+	public Image getImage() {
+		checkWidget();
+		return getImage(0);
+	}
+
+	@Override
+	public void setImage(Image image) {
+		checkWidget();
+		setImage(0, image);
+	}
+
+	Table.Cells cells(int column) {
+		int count = Math.max(1, parent.columnCount);
+		return 0 <= column && column < count ? parent.cells[column] : null;
+	}
+
+	<T> void setCell(PagedArray<T> cells, T value) {
+		if (index == -1) return;
+		cells.set(index, value);
+		if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+		parent.redrawItem(this);
+	}
+
+	Color _getBackground() {
+		Color color = parent.rowCells.backgrounds.get(index);
+		return color != null ? color : parent.getBackground();
+	}
+
+	Font _getFont() {
+		Font font = parent.rowCells.fonts.get(index);
+		return font != null ? font : parent.getFont();
+	}
+
+	Color _getForeground() {
+		Color color = parent.rowCells.foregrounds.get(index);
+		return color != null ? color : parent.getForeground();
 	}
 
 	/**
@@ -141,8 +204,9 @@ public class TableItem extends Item {
 	 * @since 2.0
 	 */
 	public Color getBackground() {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		return _getBackground();
 	}
 
 	/**
@@ -162,8 +226,9 @@ public class TableItem extends Item {
 	 * @since 3.2
 	 */
 	public Rectangle getBounds() {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		return parent.getCellBounds(index, 0);
 	}
 
 	/**
@@ -184,8 +249,11 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public Color getBackground(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		Table.Cells cells = cells(index);
+		Color color = cells != null ? cells.backgrounds.get(this.index) : null;
+		return color != null ? color : _getBackground();
 	}
 
 	/**
@@ -205,8 +273,9 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public Rectangle getBounds(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		return parent.getCellBounds(this.index, index);
 	}
 
 	/**
@@ -246,8 +315,9 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public Font getFont() {
-		// TODO
-		return getDisplay().getSystemFont();
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		return _getFont();
 	}
 
 	/**
@@ -269,8 +339,11 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public Font getFont(int index) {
-		// TODO
-		return getDisplay().getSystemFont();
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		Table.Cells cells = cells(index);
+		Font font = cells != null ? cells.fonts.get(this.index) : null;
+		return font != null ? font : _getFont();
 	}
 
 	/**
@@ -289,8 +362,9 @@ public class TableItem extends Item {
 	 * @since 2.0
 	 */
 	public Color getForeground() {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		return _getForeground();
 	}
 
 	/**
@@ -312,8 +386,11 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public Color getForeground(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		Table.Cells cells = cells(index);
+		Color color = cells != null ? cells.foregrounds.get(this.index) : null;
+		return color != null ? color : _getForeground();
 	}
 
 	/**
@@ -352,8 +429,10 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public Image getImage(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		Table.Cells cells = cells(index);
+		return cells != null ? cells.images.get(this.index) : null;
 	}
 
 	/**
@@ -410,8 +489,8 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public Table getParent() {
-		// TODO
-		return null;
+		checkWidget();
+		return parent;
 	}
 
 	/**
@@ -431,8 +510,10 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public String getText(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		if (cells(index) == null) return "";
+		return parent.getCellText(this.index, index);
 	}
 
 	/**
@@ -483,7 +564,9 @@ public class TableItem extends Item {
 	 * @since 2.0
 	 */
 	public void setBackground(Color color) {
-		// TODO
+		checkWidget();
+		if (color != null && color.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		setCell(parent.rowCells.backgrounds, color);
 	}
 
 	/**
@@ -512,7 +595,11 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public void setBackground(int index, Color color) {
-		// TODO
+		checkWidget();
+		if (color != null && color.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		Table.Cells cells = cells(index);
+		if (cells == null) return;
+		setCell(cells.backgrounds, color);
 	}
 
 	/**
@@ -558,7 +645,9 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public void setFont(Font font) {
-		// TODO
+		checkWidget();
+		if (font != null && font.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		setCell(parent.rowCells.fonts, font);
 	}
 
 	/**
@@ -587,7 +676,11 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public void setFont(int index, Font font) {
-		// TODO
+		checkWidget();
+		if (font != null && font.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		Table.Cells cells = cells(index);
+		if (cells == null) return;
+		setCell(cells.fonts, font);
 	}
 
 	/**
@@ -614,7 +707,9 @@ public class TableItem extends Item {
 	 * @since 2.0
 	 */
 	public void setForeground(Color color) {
-		// TODO
+		checkWidget();
+		if (color != null && color.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		setCell(parent.rowCells.foregrounds, color);
 	}
 
 	/**
@@ -643,7 +738,11 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public void setForeground(int index, Color color) {
-		// TODO
+		checkWidget();
+		if (color != null && color.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		Table.Cells cells = cells(index);
+		if (cells == null) return;
+		setCell(cells.foregrounds, color);
 	}
 
 	/**
@@ -687,7 +786,11 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public void setImage(int index, Image image) {
-		// TODO
+		checkWidget();
+		if (image != null && image.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		Table.Cells cells = cells(index);
+		if (cells == null) return;
+		setCell(cells.images, image);
 	}
 
 	/**
@@ -711,7 +814,11 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public void setImage(Image[] images) {
-		// TODO
+		checkWidget();
+		if (images == null) error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < images.length; i++) {
+			setImage(i, images[i]);
+		}
 	}
 
 	/**
@@ -753,7 +860,12 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public void setText(int index, String string) {
-		// TODO
+		checkWidget();
+		if (string == null) error(SWT.ERROR_NULL_ARGUMENT);
+		Table.Cells cells = cells(index);
+		if (cells == null) return;
+		if (index == 0 && this.index != -1) parent.prefixIndex.replace(this.index, parent.getCellText(this.index, 0));
+		setCell(cells.text, string);
 	}
 
 	/**
@@ -775,7 +887,12 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public void setText(String[] strings) {
-		// TODO
+		checkWidget();
+		if (strings == null) error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < strings.length; i++) {
+			String string = strings[i];
+			if (string != null) setText(i, string);
+		}
 	}
 
 }
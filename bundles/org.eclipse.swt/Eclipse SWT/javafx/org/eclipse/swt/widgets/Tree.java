@@ -11,13 +11,46 @@
 package org.eclipse.swt.widgets;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.SortEvent;
+import javafx.scene.control.TreeItem.TreeModificationEvent;
+import javafx.scene.control.TreeTableCell;
+import javafx.scene.control.TreeTableColumn;
+import javafx.scene.control.TreeTableColumn.CellDataFeatures;
+import javafx.scene.control.TreeTableColumn.SortType;
+import javafx.scene.control.TreeTableRow;
+import javafx.scene.control.TreeTableView;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.util.Callback;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.events.TreeListener;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.GCData;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
 
 /**
  * Instances of this class provide a selectable user interface object that
@@ -88,8 +121,306 @@ import org.eclipse.swt.graphics.Point;
  */
 public class Tree extends Composite {
 
-	private java.util.List<TreeItem> items = new ArrayList<>();
-	private java.util.List<TreeColumn> columns = new ArrayList<>();
+	/*
+	 * Items are kept per parent in sparse arrays and are only created when
+	 * they are asked for, so setItemCount() allocates nothing. The TreeTableView
+	 * sees a parallel hierarchy of rows whose children are built when a row is
+	 * first expanded, so the contents of collapsed items never reach FX.
+	 */
+	PagedArray<TreeItem> items = new PagedArray<TreeItem>();
+	TreeColumn[] columns;
+	TreeItem currentItem;
+	TreeColumn sortColumn;
+	int sortDirection, sortRequest, rowChanges, drawGeneration;
+	boolean ignoreExpand, ignoreSelect, refreshPending, drawCells;
+
+	/* Space taken by the disclosure node and by each level in the tree column */
+	static final int DISCLOSURE_WIDTH = 20;
+	static final int LEVEL_INDENT = 13;
+
+	// Note: no initializers, createNode() runs from the super constructor
+	int itemCount;
+	int columnCount;
+	Row root;
+	TreeTableColumn<TreeItem, TreeItem> defaultColumn;
+	Set<TreeItem> selectedItems;
+	RowFlow flow;
+
+	static final Callback<CellDataFeatures<TreeItem, TreeItem>, ObservableValue<TreeItem>> ITEM_VALUE =
+			new Callback<CellDataFeatures<TreeItem, TreeItem>, ObservableValue<TreeItem>>() {
+		@Override
+		public ObservableValue<TreeItem> call(CellDataFeatures<TreeItem, TreeItem> features) {
+			return new ReadOnlyObjectWrapper<TreeItem>(features.getValue().getValue());
+		}
+	};
+
+	static final Comparator<javafx.scene.control.TreeItem<TreeItem>> ROW_ORDER = new Comparator<javafx.scene.control.TreeItem<TreeItem>>() {
+		@Override
+		public int compare(javafx.scene.control.TreeItem<TreeItem> row1, javafx.scene.control.TreeItem<TreeItem> row2) {
+			return row1.getValue().index - row2.getValue().index;
+		}
+	};
+
+	/**
+	 * The row of an item in the TreeTableView. The children of a row are
+	 * created the first time FX asks for them, which it only does once the
+	 * row is expanded. The root row stands for the tree itself.
+	 */
+	class Row extends javafx.scene.control.TreeItem<TreeItem> {
+		boolean populated;
+
+		Row(TreeItem item) {
+			super(item);
+			if (item == null) return;
+			item.row = this;
+			if (item.expanded) {
+				getChildren();
+				setExpanded(true);
+			}
+		}
+
+		@Override
+		public boolean isLeaf() {
+			TreeItem item = getValue();
+			return item != null && item.itemCount == 0;
+		}
+
+		@Override
+		public ObservableList<javafx.scene.control.TreeItem<TreeItem>> getChildren() {
+			ObservableList<javafx.scene.control.TreeItem<TreeItem>> children = super.getChildren();
+			if (!populated) {
+				populated = true;
+				TreeItem item = getValue();
+				int count = getCount(item);
+				if (count > 0) children.setAll(createRows(item, 0, count));
+			}
+			return children;
+		}
+	}
+
+	class Cell extends TreeTableCell<TreeItem, TreeItem> {
+		CellCanvas canvas;
+		boolean hidden;
+
+		@Override
+		protected void updateItem(TreeItem item, boolean empty) {
+			super.updateItem(item, empty);
+			/* The cells of columns outside the viewport are filled in by showColumns() */
+			hidden = !empty && !flow.isShowing(getTableColumn());
+			if (empty || item == null || item.index == -1 || hidden || !checkData(item)) {
+				setText(null);
+				setGraphic(null);
+				setStyle("");
+				return;
+			}
+			if (drawCells) {
+				if (canvas == null) canvas = new CellCanvas(Tree.this);
+				setText(null);
+				setGraphic(canvas);
+				setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+				paint();
+				return;
+			}
+			setGraphic(null);
+			setContentDisplay(ContentDisplay.LEFT);
+			setText(item._getText(column()));
+		}
+
+		boolean isDrawn() {
+			TreeItem item = getItem();
+			return canvas != null && getGraphic() == canvas && !isEmpty() && item != null && item.index != -1;
+		}
+
+		int column() {
+			Object data = getTableColumn().getUserData();
+			return data instanceof TreeColumn ? indexOf((TreeColumn)data) : 0;
+		}
+
+		@Override
+		protected double computePrefHeight(double width) {
+			if (!isDrawn()) return super.computePrefHeight(width);
+			return measureCell(canvas, getItem(), column()).y;
+		}
+
+		@Override
+		protected void layoutChildren() {
+			int indent = 0;
+			if (isDrawn()) {
+				indent = indent(getItem(), getTableColumn());
+				canvas.setWidth(Math.max(0, getWidth() - snappedLeftInset() - snappedRightInset() - indent));
+				canvas.setHeight(Math.max(0, getHeight() - snappedTopInset() - snappedBottomInset()));
+				paint();
+			}
+			super.layoutChildren();
+			/* FX only indents the text of a cell, so the canvas is moved past the disclosure node */
+			if (isDrawn()) canvas.setLayoutX(snappedLeftInset() + indent);
+		}
+
+		/*
+		 * Draws the item on the canvas, which only sends the paint events when
+		 * the item is not the one that is showing.
+		 */
+		void paint() {
+			if (!isDrawn()) return;
+			TreeItem item = getItem();
+			if (!checkData(item)) return;
+			int column = column();
+			Point measure = measureCell(canvas, item, column);
+			TreeTableView<TreeItem> treeView = getTreeTableView();
+			int detail = 0;
+			if (treeView.getSelectionModel().isSelected(getIndex())) detail |= SWT.SELECTED;
+			if (treeView.getFocusModel().getFocusedIndex() == getIndex()) detail |= SWT.FOCUSED;
+			Rectangle bounds = getCellBounds(item, column);
+			canvas.paint(Tree.this, item, column, bounds.x + (int)snappedLeftInset(), bounds.y + (int)snappedTopInset(),
+					measure, detail, drawGeneration,
+					item._getText(column), item.images != null && column < item.images.length ? item.images[column] : null,
+					Tree.this.getFont(), null, null);
+			if (isDisposed()) return;
+			String style = canvas.background != null ? "-fx-background-color: " + Table.webColor(canvas.background) + ';' : "";
+			if (!style.equals(getStyle())) setStyle(style);
+		}
+	}
+
+	/*
+	 * Answers the measured size of a cell, measuring it on the canvas when it
+	 * is not cached.
+	 */
+	Point measureCell(CellCanvas canvas, TreeItem item, int column) {
+		if (item.measures == null || column >= item.measures.length) item.measures = new Point[Math.max(1, columnCount)];
+		Point size = item.measures[column];
+		if (size == null) {
+			Image image = item.images != null && column < item.images.length ? item.images[column] : null;
+			size = item.measures[column] = canvas.measure(this, item, column, item._getText(column), image, getFont());
+			/* Rows only grow, as on the other platforms */
+			if (size.y > flow.itemHeight) flow.setItemHeight(size.y);
+		}
+		return size;
+	}
+
+	/*
+	 * Answers the width that shows the header and the cells of a column, see
+	 * TreeColumn.pack(). Only the items that are expanded into view are
+	 * measured, and the items of a virtual tree that were not asked for yet
+	 * are left out.
+	 */
+	int measureColumn(int column) {
+		GC gc = GC.fx_new(this, new GCData());
+		gc.setFont(getFont());
+		int width = gc.textExtent(columns[column].getText()).x;
+		CellCanvas canvas = hooks(SWT.MeasureItem) ? new CellCanvas(this) : null;
+		/* The items are indented in the column that shows the tree */
+		int indent = flow.offsets.position(columns[column].column) == 0 ? DISCLOSURE_WIDTH : -1;
+		width = Math.max(width, measureItems(gc, canvas, null, column, indent));
+		gc.dispose();
+		if (canvas != null) canvas.gc.dispose();
+		return width + 2 * CellCanvas.TEXT_MARGIN;
+	}
+
+	int measureItems(GC gc, CellCanvas canvas, TreeItem parentItem, int column, int indent) {
+		int count = getCount(parentItem);
+		PagedArray<TreeItem> children = parentItem == null ? items : parentItem.items;
+		if (children == null) return 0;
+		int width = 0;
+		for (int i = 0; i < count; i++) {
+			if (!children.hasPage(i)) {
+				i |= PagedArray.PAGE_MASK;
+				continue;
+			}
+			TreeItem item = children.get(i);
+			if (item == null || ((style & SWT.VIRTUAL) != 0 && !item.cached)) continue;
+			int itemWidth;
+			if (canvas != null) {
+				itemWidth = measureCell(canvas, item, column).x;
+			} else {
+				itemWidth = gc.textExtent(item._getText(column)).x;
+				Image image = item.images != null && column < item.images.length ? item.images[column] : null;
+				if (image != null) itemWidth += image.getBounds().width + CellCanvas.MARGIN;
+			}
+			width = Math.max(width, itemWidth + Math.max(0, indent));
+			if (item.expanded) {
+				width = Math.max(width, measureItems(gc, canvas, item, column, indent != -1 ? indent + LEVEL_INDENT : -1));
+			}
+		}
+		return width;
+	}
+
+	/*
+	 * Answers the bounds of a cell relative to the tree, which are empty
+	 * when there is no such column or the item is not expanded into view.
+	 */
+	Rectangle getCellBounds(TreeItem item, int column) {
+		if (!(0 <= column && column < Math.max(1, columnCount)) || item.row == null) return new Rectangle(0, 0, 0, 0);
+		int index = getTreeView().getRow(item.row);
+		if (index == -1) return new Rectangle(0, 0, 0, 0);
+		TreeTableColumn<TreeItem, TreeItem> tableColumn = columnCount != 0 ? columns[column].column : defaultColumn;
+		Rectangle bounds = flow.getBounds(index, tableColumn);
+		/* The content of the column that shows the tree starts after the indent, as on the other platforms */
+		int indent = indent(item, tableColumn);
+		bounds.x += indent;
+		bounds.width = Math.max(0, bounds.width - indent);
+		return bounds;
+	}
+
+	/*
+	 * Answers the space taken by the disclosure node and the levels above the
+	 * item when the column shows the tree, and 0 otherwise.
+	 */
+	int indent(TreeItem item, TreeTableColumn<?, ?> column) {
+		if (flow.offsets.position(column) != 0) return 0;
+		int indent = DISCLOSURE_WIDTH;
+		for (TreeItem parent = item.parentItem; parent != null; parent = parent.parentItem) {
+			indent += LEVEL_INDENT;
+		}
+		return indent;
+	}
+
+	/*
+	 * Drops the measured sizes of the items, so that they are measured again
+	 * when they are drawn.
+	 */
+	void clearMeasures(TreeItem parentItem) {
+		int count = getCount(parentItem);
+		PagedArray<TreeItem> children = parentItem == null ? items : parentItem.items;
+		if (children == null) return;
+		for (int i = 0; i < count; i++) {
+			if (!children.hasPage(i)) {
+				i |= PagedArray.PAGE_MASK;
+				continue;
+			}
+			TreeItem item = children.get(i);
+			if (item != null) {
+				item.measures = null;
+				clearMeasures(item);
+			}
+		}
+	}
+
+	boolean hooksDraw() {
+		return hooks(SWT.MeasureItem) || hooks(SWT.EraseItem) || hooks(SWT.PaintItem);
+	}
+
+	/*
+	 * Draws the rows that are showing again. Only the cells whose content,
+	 * size or selection changed send the paint events.
+	 */
+	void paintCells() {
+		for (Node node : getTreeView().lookupAll(".tree-table-cell")) {
+			if (node instanceof Cell) ((Cell)node).paint();
+		}
+	}
+
+	/*
+	 * Fills in the cells that were left empty because their column was
+	 * outside the viewport and that are now inside it.
+	 */
+	void showColumns() {
+		if (!flow.isLaidOut()) return;
+		for (Node node : getTreeView().lookupAll(".tree-table-cell")) {
+			if (!(node instanceof Cell)) continue;
+			Cell cell = (Cell)node;
+			if (cell.hidden && flow.isShowing(cell.getTableColumn())) cell.updateItem(cell.getItem(), cell.isEmpty());
+		}
+	}
 
 	/**
 	 * Constructs a new instance of this class given its parent and a style
@@ -132,16 +463,562 @@ public class Tree extends Composite {
 	 */
 	public Tree(Composite parent, int style) {
 		super(parent, style);
-		addColumn(new TreeColumn(this, 0));
-		// TODO
 	}
 
-	void addItem(TreeItem item) {
-		items.add(item);
+	@Override
+	void createNode() {
+		final TreeTableView<TreeItem> treeView = new TreeTableView<TreeItem>();
+		root = new Row(null);
+		root.setExpanded(true);
+		/* Expand events of all rows bubble up to the root */
+		EventHandler<TreeModificationEvent<TreeItem>> expandHandler = new EventHandler<TreeModificationEvent<TreeItem>>() {
+			@Override
+			public void handle(TreeModificationEvent<TreeItem> event) {
+				TreeItem item = event.getTreeItem().getValue();
+				if (item != null) expandItem(item, event.wasExpanded());
+			}
+		};
+		root.addEventHandler(javafx.scene.control.TreeItem.<TreeItem>branchExpandedEvent(), expandHandler);
+		root.addEventHandler(javafx.scene.control.TreeItem.<TreeItem>branchCollapsedEvent(), expandHandler);
+		treeView.setRoot(root);
+		treeView.setShowRoot(false);
+		/* Rows have a fixed height, so rows are found without cells */
+		flow = new RowFlow(this, treeView, treeView.fixedCellSizeProperty(), treeView.getVisibleLeafColumns()) {
+			@Override
+			int rowCount() {
+				return treeView.getExpandedItemCount();
+			}
+
+			@Override
+			void columnsMoved() {
+				showColumns();
+			}
+		};
+		defaultColumn = createColumnNode();
+		treeView.getColumns().add(defaultColumn);
+		/*
+		 * Rows move when items are expanded or collapsed, so the selection
+		 * stays with the FX selection model, which follows those moves.
+		 */
+		/*
+		 * The sort order only shows the sort indicator. The items are sorted
+		 * by sort(), so the sort FX would run on the rows is vetoed.
+		 */
+		treeView.setOnSort(new EventHandler<SortEvent<TreeTableView<TreeItem>>>() {
+			@Override
+			public void handle(SortEvent<TreeTableView<TreeItem>> event) {
+				event.consume();
+				/* Put the indicator back when a click on the header changed it */
+				Platform.runLater(new Runnable() {
+					@Override
+					public void run() {
+						if (!isDisposed()) updateSortIndicator();
+					}
+				});
+			}
+		});
+		final TreeTableView.TreeTableViewSelectionModel<TreeItem> selectionModel = treeView.getSelectionModel();
+		selectionModel.setSelectionMode((style & SWT.MULTI) != 0 ? SelectionMode.MULTIPLE : SelectionMode.SINGLE);
+		/* Drawn cells show the selection and the focus themselves */
+		InvalidationListener stateListener = new InvalidationListener() {
+			@Override
+			public void invalidated(Observable observable) {
+				if (drawCells) redrawItems();
+			}
+		};
+		selectionModel.getSelectedIndices().addListener(stateListener);
+		treeView.getFocusModel().focusedIndexProperty().addListener(stateListener);
+		/*
+		 * FX moves the selected indices when rows are added, removed, expanded
+		 * or collapsed above the selection, so Selection is only sent when the
+		 * selected items themselves change.
+		 */
+		selectionModel.getSelectedIndices().addListener(new InvalidationListener() {
+			@Override
+			public void invalidated(Observable observable) {
+				Set<TreeItem> selected = new HashSet<TreeItem>();
+				for (javafx.scene.control.TreeItem<TreeItem> row : selectionModel.getSelectedItems()) {
+					if (row != null) selected.add(row.getValue());
+				}
+				boolean changed = selectedItems == null ? !selected.isEmpty() : !selected.equals(selectedItems);
+				selectedItems = selected;
+				if (ignoreSelect || !changed) return;
+				Event event = new Event();
+				javafx.scene.control.TreeItem<TreeItem> row = selectionModel.getSelectedItem();
+				if (row != null) event.item = row.getValue();
+				sendEvent(SWT.Selection, event);
+			}
+		});
+		/*
+		 * FX asks for the children of a row while it handles its expansion,
+		 * and rows added then move the selection twice. The rows that a
+		 * click or a key is about to expand are populated before FX sees it.
+		 */
+		treeView.addEventFilter(MouseEvent.MOUSE_PRESSED, new EventHandler<MouseEvent>() {
+			@Override
+			public void handle(MouseEvent event) {
+				Node node = event.getPickResult().getIntersectedNode();
+				while (node != null && !(node instanceof TreeTableRow)) node = node.getParent();
+				if (node == null) return;
+				TreeTableRow<?> row = (TreeTableRow<?>)node;
+				Node disclosure = row.getDisclosureNode();
+				if (event.getClickCount() == 2 || (disclosure != null && disclosure.isVisible()
+						&& event.getSceneX() <= disclosure.localToScene(disclosure.getBoundsInLocal()).getMaxX())) {
+					populate(treeView.getTreeItem(row.getIndex()), false);
+				}
+			}
+		});
+		treeView.addEventFilter(KeyEvent.KEY_PRESSED, new EventHandler<KeyEvent>() {
+			@Override
+			public void handle(KeyEvent event) {
+				switch (event.getCode()) {
+					case RIGHT:
+					case ADD:
+						populate(selectionModel.getSelectedItem(), false);
+						break;
+					case MULTIPLY:
+						populate(root, true);
+						break;
+					default:
+				}
+			}
+		});
+		setNode(treeView);
+	}
+
+	@SuppressWarnings("unchecked")
+	TreeTableView<TreeItem> getTreeView() {
+		return (TreeTableView<TreeItem>)node;
+	}
+
+	TreeTableColumn<TreeItem, TreeItem> createColumnNode() {
+		TreeTableColumn<TreeItem, TreeItem> column = new TreeTableColumn<TreeItem, TreeItem>();
+		column.setSortable(false);
+		column.setCellValueFactory(ITEM_VALUE);
+		column.setCellFactory(new Callback<TreeTableColumn<TreeItem, TreeItem>, TreeTableCell<TreeItem, TreeItem>>() {
+			@Override
+			public TreeTableCell<TreeItem, TreeItem> call(TreeTableColumn<TreeItem, TreeItem> param) {
+				return new Cell();
+			}
+		});
+		return column;
+	}
+
+	void createColumn(TreeColumn column, int index) {
+		if (!(0 <= index && index <= columnCount)) error(SWT.ERROR_INVALID_RANGE);
+		if (columns == null) {
+			columns = new TreeColumn[4];
+		} else if (columnCount == columns.length) {
+			TreeColumn[] newColumns = new TreeColumn[columnCount + 4];
+			System.arraycopy(columns, 0, newColumns, 0, columnCount);
+			columns = newColumns;
+		}
+		System.arraycopy(columns, index, columns, index + 1, columnCount - index);
+		columns[index] = column;
+		columnCount++;
+		column.column = createColumnNode();
+		column.column.setUserData(column);
+		ObservableList<TreeTableColumn<TreeItem, ?>> fxColumns = getTreeView().getColumns();
+		if (columnCount == 1) {
+			/* The first column takes over the cells shown in the default column */
+			fxColumns.set(0, column.column);
+		} else {
+			insertColumnData(null, index);
+			fxColumns.add(index, column.column);
+		}
+	}
+
+	void insertColumnData(TreeItem parentItem, int index) {
+		int count = getCount(parentItem);
+		PagedArray<TreeItem> children = parentItem == null ? items : parentItem.items;
+		if (children == null) return;
+		for (int i = 0; i < count; i++) {
+			if (!children.hasPage(i)) {
+				i |= PagedArray.PAGE_MASK;
+				continue;
+			}
+			TreeItem item = children.get(i);
+			if (item != null) {
+				item.insertColumn(index);
+				insertColumnData(item, index);
+			}
+		}
+	}
+
+	void checkItem(TreeItem item) {
+		if (item == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+	}
+
+	int getCount(TreeItem parentItem) {
+		return parentItem == null ? itemCount : parentItem.itemCount;
+	}
+
+	PagedArray<TreeItem> getChildren(TreeItem parentItem) {
+		if (parentItem == null) return items;
+		if (parentItem.items == null) parentItem.items = new PagedArray<TreeItem>();
+		return parentItem.items;
+	}
+
+	void createItem(TreeItem item, TreeItem parentItem, int index) {
+		if (!(0 <= index && index <= getCount(parentItem))) error(SWT.ERROR_INVALID_RANGE);
+		insertItems(parentItem, index, 1);
+		getChildren(parentItem).set(index, item);
+		insertRows(parentItem, index, 1);
+	}
+
+	/*
+	 * Returns the child at the given index, creating it the first time it is
+	 * asked for.
+	 */
+	TreeItem _getItem(TreeItem parentItem, int index) {
+		PagedArray<TreeItem> children = getChildren(parentItem);
+		TreeItem item = children.get(index);
+		if (item == null) {
+			item = new TreeItem(this, parentItem, SWT.NONE, index, false);
+			children.set(index, item);
+		}
+		return item;
+	}
+
+	TreeItem[] _getItems(TreeItem parentItem) {
+		TreeItem[] result = new TreeItem[getCount(parentItem)];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = _getItem(parentItem, i);
+		}
+		return result;
+	}
+
+	int _indexOf(TreeItem parentItem, TreeItem item) {
+		if (item == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		if (item.parent != this || item.parentItem != parentItem) return -1;
+		int index = item.index;
+		return index != -1 && getChildren(parentItem).get(index) == item ? index : -1;
+	}
+
+	Row[] createRows(TreeItem parentItem, int start, int end) {
+		Row[] rows = new Row[end - start];
+		for (int i = start; i < end; i++) {
+			rows[i - start] = new Row(_getItem(parentItem, i));
+		}
+		return rows;
+	}
+
+	boolean checkData(TreeItem item) {
+		if (item.cached) return true;
+		if ((style & SWT.VIRTUAL) != 0) {
+			item.cached = true;
+			Event event = new Event();
+			event.item = item;
+			event.index = item.index;
+			currentItem = item;
+			sendEvent(SWT.SetData, event);
+			currentItem = null;
+			if (isDisposed() || item.isDisposed()) return false;
+		}
+		return true;
+	}
+
+	void expandItem(TreeItem item, boolean expanded) {
+		item.expanded = expanded;
+		if (ignoreExpand) return;
+		Event event = new Event();
+		event.item = item;
+		sendEvent(expanded ? SWT.Expand : SWT.Collapse, event);
+	}
+
+	void setExpanded(TreeItem item, boolean expanded) {
+		item.expanded = expanded;
+		if (item.row == null) return;
+		if (expanded) item.row.getChildren();
+		ignoreExpand = ignoreSelect = true;
+		try {
+			item.row.setExpanded(expanded);
+		} finally {
+			ignoreExpand = ignoreSelect = false;
+		}
 	}
 
-	void addColumn(TreeColumn column) {
-		columns.add(column);
+	/*
+	 * Creates the child rows of the row, and of all its descendants when all
+	 * is set, so that they exist before FX expands the row.
+	 */
+	void populate(javafx.scene.control.TreeItem<TreeItem> row, boolean all) {
+		if (row == null || row.isLeaf()) return;
+		ObservableList<javafx.scene.control.TreeItem<TreeItem>> children = row.getChildren();
+		if (!all) return;
+		for (int i = 0; i < children.size(); i++) {
+			populate(children.get(i), true);
+		}
+	}
+
+	/*
+	 * Expands the parents of the item, the way showItem() does, and answers
+	 * the row of the item, or null when it has none.
+	 */
+	Row expandParents(TreeItem item) {
+		if (item.index == -1) return null;
+		TreeItem parentItem = item.parentItem;
+		if (parentItem != null) {
+			if (expandParents(parentItem) == null) return null;
+			if (!parentItem.expanded) setExpanded(parentItem, true);
+		}
+		/* The children of a row are created when they are first asked for */
+		(parentItem == null ? root : parentItem.row).getChildren();
+		return item.row;
+	}
+
+	/*
+	 * Answers the item shown in the row at the index.
+	 */
+	TreeItem rowItem(int index) {
+		javafx.scene.control.TreeItem<TreeItem> row = getTreeView().getTreeItem(index);
+		return row != null ? row.getValue() : null;
+	}
+
+	void clearItems(TreeItem parentItem, int start, int end, boolean all) {
+		PagedArray<TreeItem> children = parentItem == null ? items : parentItem.items;
+		if (children == null) return;
+		for (int i = start; i < end; i++) {
+			if (!children.hasPage(i)) {
+				i |= PagedArray.PAGE_MASK;
+				continue;
+			}
+			TreeItem item = children.get(i);
+			if (item != null) {
+				item.clear();
+				if (all) clearItems(item, 0, item.itemCount, true);
+			}
+		}
+		redrawItems();
+	}
+
+	void setItemCount(TreeItem parentItem, int count) {
+		count = Math.max(0, count);
+		int oldCount = getCount(parentItem);
+		if (count == oldCount) return;
+		if (count > oldCount) {
+			insertItems(parentItem, oldCount, count - oldCount);
+			insertRows(parentItem, oldCount, count - oldCount);
+		} else {
+			removeItems(parentItem, count, oldCount - count);
+		}
+	}
+
+	void insertItems(TreeItem parentItem, int index, int count) {
+		int oldCount = getCount(parentItem);
+		int newCount = oldCount + count;
+		if (newCount < 0) error(SWT.ERROR_NO_HANDLES);
+		PagedArray<TreeItem> children = getChildren(parentItem);
+		children.insert(index, count, oldCount);
+		if (parentItem == null) {
+			itemCount = newCount;
+		} else {
+			parentItem.itemCount = newCount;
+		}
+		rowChanges++;
+		renumberItems(children, index + count, newCount);
+	}
+
+	/*
+	 * Adds rows for new items when the rows of their parent have been built.
+	 * Otherwise at most the expand indicator of the parent changes.
+	 */
+	void insertRows(TreeItem parentItem, int index, int count) {
+		Row row = parentItem == null ? root : parentItem.row;
+		if (row == null) return;
+		if (row.populated) {
+			/*
+			 * The focus model looks up the row of every added child, which
+			 * is quadratic for large inserts. Take the focus away while the
+			 * rows are added and put it back after.
+			 */
+			TreeTableView<TreeItem> treeView = getTreeView();
+			TreeTableView.TreeTableViewFocusModel<TreeItem> focusModel = treeView.getFocusModel();
+			javafx.scene.control.TreeItem<TreeItem> focused = focusModel.getFocusedItem();
+			if (focused != null) focusModel.focus(-1);
+			ignoreSelect = true;
+			try {
+				row.getChildren().addAll(index, Arrays.asList(createRows(parentItem, index, index + count)));
+			} finally {
+				ignoreSelect = false;
+			}
+			if (focused != null) focusModel.focus(treeView.getRow(focused));
+		}
+		redrawItems();
+	}
+
+	void removeItems(TreeItem parentItem, int index, int count) {
+		if (count == 0) return;
+		PagedArray<TreeItem> children = getChildren(parentItem);
+		int oldCount = getCount(parentItem);
+		for (int i = index; i < index + count; i++) {
+			if (!children.hasPage(i)) {
+				i |= PagedArray.PAGE_MASK;
+				continue;
+			}
+			TreeItem item = children.get(i);
+			if (item != null) item.index = -1;
+		}
+		children.remove(index, count, oldCount);
+		int newCount = oldCount - count;
+		if (parentItem == null) {
+			itemCount = newCount;
+		} else {
+			parentItem.itemCount = newCount;
+		}
+		rowChanges++;
+		renumberItems(children, index, newCount);
+		Row row = parentItem == null ? root : parentItem.row;
+		if (row == null) return;
+		if (row.populated) {
+			ignoreSelect = true;
+			try {
+				row.getChildren().remove(index, index + count);
+			} finally {
+				ignoreSelect = false;
+			}
+		}
+		redrawItems();
+	}
+
+	static void renumberItems(PagedArray<TreeItem> children, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (!children.hasPage(i)) {
+				i |= PagedArray.PAGE_MASK;
+				continue;
+			}
+			TreeItem item = children.get(i);
+			if (item != null) item.index = i;
+		}
+	}
+
+	/*
+	 * Collects the texts of the children of every item whose children were
+	 * asked for, together with the parent of each level. Levels of items
+	 * that were never created have nothing to sort.
+	 */
+	void collectKeys(TreeItem parentItem, int column, List<TreeItem> parents, List<String[]> keys) {
+		PagedArray<TreeItem> children = parentItem == null ? items : parentItem.items;
+		if (children == null) return;
+		int count = getCount(parentItem);
+		String[] strings = null;
+		for (int i = 0; i < count; i++) {
+			if (!children.hasPage(i)) {
+				i |= PagedArray.PAGE_MASK;
+				continue;
+			}
+			TreeItem item = children.get(i);
+			if (item == null) continue;
+			if (strings == null) strings = new String[count];
+			strings[i] = item._getText(column);
+			collectKeys(item, column, parents, keys);
+		}
+		if (strings == null || count < 2) return;
+		for (int i = 0; i < count; i++) {
+			if (strings[i] == null) strings[i] = "";
+		}
+		parents.add(parentItem);
+		keys.add(strings);
+	}
+
+	/*
+	 * Moves the children of each parent to their place in its order, where
+	 * order[i] is the child that goes to i, in one step on the UI thread.
+	 * The rows of the levels FX has seen are reordered the same way and the
+	 * selected rows are selected again.
+	 */
+	void sortItems(List<TreeItem> parents, int[][] orders) {
+		TreeTableView<TreeItem> treeView = getTreeView();
+		TreeTableView.TreeTableViewSelectionModel<TreeItem> selectionModel = treeView.getSelectionModel();
+		TreeTableView.TreeTableViewFocusModel<TreeItem> focusModel = treeView.getFocusModel();
+		List<javafx.scene.control.TreeItem<TreeItem>> selected = new ArrayList<javafx.scene.control.TreeItem<TreeItem>>(selectionModel.getSelectedItems());
+		javafx.scene.control.TreeItem<TreeItem> focused = focusModel.getFocusedItem();
+		ignoreSelect = true;
+		try {
+			selectionModel.clearSelection();
+			if (focused != null) focusModel.focus(-1);
+			for (int i = 0; i < orders.length; i++) {
+				TreeItem parentItem = parents.get(i);
+				int[] order = orders[i];
+				PagedArray<TreeItem> children = getChildren(parentItem);
+				children.permute(order);
+				renumberItems(children, 0, order.length);
+				Row row = parentItem == null ? root : parentItem.row;
+				/*
+				 * Sorting the rows by their new index is reported as a
+				 * permutation. Replacing them makes FX compare the removed
+				 * rows with the added ones, which is quadratic.
+				 */
+				if (row != null && row.populated) FXCollections.sort(row.getChildren(), ROW_ORDER);
+			}
+			for (int i = 0; i < selected.size(); i++) {
+				selectionModel.select(selected.get(i));
+			}
+			if (focused != null) focusModel.focus(treeView.getRow(focused));
+		} finally {
+			ignoreSelect = false;
+		}
+		redrawItems();
+	}
+
+	void updateSortIndicator() {
+		ObservableList<TreeTableColumn<TreeItem, ?>> sortOrder = getTreeView().getSortOrder();
+		if (sortColumn == null || sortDirection == SWT.NONE) {
+			sortOrder.clear();
+			return;
+		}
+		sortColumn.column.setSortType(sortDirection == SWT.UP ? SortType.ASCENDING : SortType.DESCENDING);
+		if (sortOrder.size() != 1 || sortOrder.get(0) != sortColumn.column) sortOrder.setAll(Collections.singletonList(sortColumn.column));
+	}
+
+	void redrawItem(TreeItem item) {
+		if (item == currentItem || item.index == -1 || item.row == null) return;
+		redrawItems();
+	}
+
+	/*
+	 * Cells show the item of their row, so changed attributes of an item or
+	 * a changed expand indicator are picked up by refreshing the whole view.
+	 * Requests are coalesced so that filling many items refreshes only once.
+	 * Cells that are custom drawn are drawn again in place instead, which
+	 * only sends the paint events for the items that changed.
+	 */
+	void redrawItems() {
+		if (refreshPending) return;
+		refreshPending = true;
+		Platform.runLater(new Runnable() {
+			@Override
+			public void run() {
+				refreshPending = false;
+				if (node == null) return;
+				boolean drawing = hooksDraw();
+				if (drawing && drawCells) {
+					paintCells();
+				} else {
+					drawCells = drawing;
+					getTreeView().refresh();
+				}
+			}
+		});
+	}
+
+	@Override
+	void redrawWidget(int x, int y, int width, int height, boolean all) {
+		super.redrawWidget(x, y, width, height, all);
+		drawGeneration++;
+		redrawItems();
+	}
+
+	@Override
+	void _addListener(int eventType, Listener listener) {
+		super._addListener(eventType, listener);
+		if (eventType == SWT.MeasureItem) clearMeasures(null);
+		if (eventType == SWT.MeasureItem || eventType == SWT.EraseItem || eventType == SWT.PaintItem) {
+			drawGeneration++;
+			redrawItems();
+		}
 	}
 
 	/**
@@ -179,7 +1056,11 @@ public class Tree extends Composite {
 	 * @see SelectionEvent
 	 */
 	public void addSelectionListener(SelectionListener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		TypedListener typedListener = new TypedListener(listener);
+		addListener(SWT.Selection, typedListener);
+		addListener(SWT.DefaultSelection, typedListener);
 	}
 
 	/**
@@ -206,7 +1087,11 @@ public class Tree extends Composite {
 	 * @see #removeTreeListener
 	 */
 	public void addTreeListener(TreeListener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		TypedListener typedListener = new TypedListener(listener);
+		addListener(SWT.Expand, typedListener);
+		addListener(SWT.Collapse, typedListener);
 	}
 
 	/**
@@ -242,7 +1127,9 @@ public class Tree extends Composite {
 	 * @since 3.2
 	 */
 	public void clear(int index, boolean all) {
-		// TODO
+		checkWidget();
+		if (!(0 <= index && index < itemCount)) error(SWT.ERROR_INVALID_RANGE);
+		clearItems(null, index, index + 1, all);
 	}
 
 	/**
@@ -269,7 +1156,8 @@ public class Tree extends Composite {
 	 * @since 3.2
 	 */
 	public void clearAll(boolean all) {
-		// TODO
+		checkWidget();
+		clearItems(null, 0, itemCount, all);
 	}
 
 	/**
@@ -296,7 +1184,18 @@ public class Tree extends Composite {
 	 * @since 3.4
 	 */
 	public void deselect(TreeItem item) {
-		// TODO
+		checkWidget();
+		checkItem(item);
+		if (item.row == null) return;
+		TreeTableView.TreeTableViewSelectionModel<TreeItem> selectionModel = getTreeView().getSelectionModel();
+		int index = getTreeView().getRow(item.row);
+		if (index == -1) return;
+		ignoreSelect = true;
+		try {
+			selectionModel.clearSelection(index);
+		} finally {
+			ignoreSelect = false;
+		}
 	}
 
 	/**
@@ -311,7 +1210,13 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public void deselectAll() {
-		// TODO
+		checkWidget();
+		ignoreSelect = true;
+		try {
+			getTreeView().getSelectionModel().clearSelection();
+		} finally {
+			ignoreSelect = false;
+		}
 	}
 
 	/**
@@ -350,7 +1255,9 @@ public class Tree extends Composite {
 	 * @since 3.1
 	 */
 	public TreeColumn getColumn(int index) {
-		return columns.get(index);
+		checkWidget();
+		if (!(0 <= index && index < columnCount)) error(SWT.ERROR_INVALID_RANGE);
+		return columns[index];
 	}
 
 	/**
@@ -373,8 +1280,8 @@ public class Tree extends Composite {
 	 * @since 3.1
 	 */
 	public int getColumnCount() {
-		// TODO
-		return 0;
+		checkWidget();
+		return columnCount;
 	}
 
 	/**
@@ -409,8 +1316,12 @@ public class Tree extends Composite {
 	 * @since 3.2
 	 */
 	public int[] getColumnOrder() {
-		// TODO
-		return null;
+		checkWidget();
+		int[] order = new int[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			order[flow.offsets.position(columns[i].column)] = i;
+		}
+		return order;
 	}
 
 	/**
@@ -444,8 +1355,10 @@ public class Tree extends Composite {
 	 * @since 3.1
 	 */
 	public TreeColumn[] getColumns() {
-		// TODO
-		return null;
+		checkWidget();
+		TreeColumn[] result = new TreeColumn[columnCount];
+		if (columnCount > 0) System.arraycopy(columns, 0, result, 0, columnCount);
+		return result;
 	}
 
 	/**
@@ -539,8 +1452,9 @@ public class Tree extends Composite {
 	 * @since 3.1
 	 */
 	public TreeItem getItem(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		if (!(0 <= index && index < itemCount)) error(SWT.ERROR_INVALID_RANGE);
+		return _getItem(null, index);
 	}
 
 	/**
@@ -572,8 +1486,11 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public TreeItem getItem(Point point) {
-		// TODO
-		return null;
+		checkWidget();
+		if (point == null) error(SWT.ERROR_NULL_ARGUMENT);
+		int index = flow.rowAt(point.x, point.y);
+		if (index == -1 || (columnCount != 0 && flow.columnAt(point.x) == null)) return null;
+		return rowItem(index);
 	}
 
 	/**
@@ -592,8 +1509,8 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public int getItemCount() {
-		// TODO
-		return 0;
+		checkWidget();
+		return itemCount;
 	}
 
 	/**
@@ -611,8 +1528,8 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public int getItemHeight() {
-		// TODO
-		return 0;
+		checkWidget();
+		return flow.itemHeight;
 	}
 
 	/**
@@ -635,8 +1552,8 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public TreeItem[] getItems() {
-		// TODO
-		return items.toArray(new TreeItem[items.size()]);
+		checkWidget();
+		return _getItems(null);
 	}
 
 	/**
@@ -681,7 +1598,7 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public TreeItem getParentItem() {
-		// TODO
+		checkWidget();
 		return null;
 	}
 
@@ -705,8 +1622,18 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public TreeItem[] getSelection() {
-		// TODO
-		return null;
+		checkWidget();
+		ObservableList<javafx.scene.control.TreeItem<TreeItem>> rows = getTreeView().getSelectionModel().getSelectedItems();
+		TreeItem[] result = new TreeItem[rows.size()];
+		int count = 0;
+		for (int i = 0; i < result.length; i++) {
+			javafx.scene.control.TreeItem<TreeItem> row = rows.get(i);
+			if (row != null && row.getValue() != null) result[count++] = row.getValue();
+		}
+		if (count == result.length) return result;
+		TreeItem[] newResult = new TreeItem[count];
+		System.arraycopy(result, 0, newResult, 0, count);
+		return newResult;
 	}
 
 	/**
@@ -723,8 +1650,8 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public int getSelectionCount() {
-		// TODO
-		return 0;
+		checkWidget();
+		return getTreeView().getSelectionModel().getSelectedIndices().size();
 	}
 
 	/**
@@ -746,8 +1673,9 @@ public class Tree extends Composite {
 	 * @since 3.2
 	 */
 	public TreeColumn getSortColumn() {
-		// TODO
-		return null;
+		checkWidget();
+		if (sortColumn != null && sortColumn.isDisposed()) sortColumn = null;
+		return sortColumn;
 	}
 
 	/**
@@ -769,8 +1697,8 @@ public class Tree extends Composite {
 	 * @since 3.2
 	 */
 	public int getSortDirection() {
-		// TODO
-		return 0;
+		checkWidget();
+		return sortDirection;
 	}
 
 	/**
@@ -791,8 +1719,8 @@ public class Tree extends Composite {
 	 * @since 2.1
 	 */
 	public TreeItem getTopItem() {
-		// TODO
-		return null;
+		checkWidget();
+		return flow.rowCount() != 0 ? rowItem(flow.getTopIndex()) : null;
 	}
 
 	/**
@@ -819,8 +1747,12 @@ public class Tree extends Composite {
 	 * @since 3.1
 	 */
 	public int indexOf(TreeColumn column) {
-		// TODO
-		return 0;
+		checkWidget();
+		if (column == null) error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < columnCount; i++) {
+			if (columns[i] == column) return i;
+		}
+		return -1;
 	}
 
 	/**
@@ -849,8 +1781,8 @@ public class Tree extends Composite {
 	 * @since 3.1
 	 */
 	public int indexOf(TreeItem item) {
-		// TODO
-		return 0;
+		checkWidget();
+		return _indexOf(null, item);
 	}
 
 	/**
@@ -865,7 +1797,8 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public void removeAll() {
-		// TODO
+		checkWidget();
+		removeItems(null, 0, itemCount);
 	}
 
 	/**
@@ -891,7 +1824,10 @@ public class Tree extends Composite {
 	 * @see #addSelectionListener
 	 */
 	public void removeSelectionListener(SelectionListener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		removeListener(SWT.Selection, listener);
+		removeListener(SWT.DefaultSelection, listener);
 	}
 
 	/**
@@ -917,7 +1853,10 @@ public class Tree extends Composite {
 	 * @see #addTreeListener
 	 */
 	public void removeTreeListener(TreeListener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		removeListener(SWT.Expand, listener);
+		removeListener(SWT.Collapse, listener);
 	}
 
 	/**
@@ -965,7 +1904,8 @@ public class Tree extends Composite {
 	 * @since 3.2
 	 */
 	public void setItemCount(int count) {
-		// TODO
+		checkWidget();
+		setItemCount(null, count);
 	}
 
 	/**
@@ -992,7 +1932,15 @@ public class Tree extends Composite {
 	 * @since 3.4
 	 */
 	public void select(TreeItem item) {
-		// TODO
+		checkWidget();
+		checkItem(item);
+		if (item.row == null) return;
+		ignoreSelect = true;
+		try {
+			getTreeView().getSelectionModel().select(item.row);
+		} finally {
+			ignoreSelect = false;
+		}
 	}
 
 	/**
@@ -1010,7 +1958,14 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public void selectAll() {
-		// TODO
+		checkWidget();
+		if ((style & SWT.SINGLE) != 0) return;
+		ignoreSelect = true;
+		try {
+			getTreeView().getSelectionModel().selectAll();
+		} finally {
+			ignoreSelect = false;
+		}
 	}
 
 	/**
@@ -1043,7 +1998,19 @@ public class Tree extends Composite {
 	 * @since 3.2
 	 */
 	public void setColumnOrder(int[] order) {
-		// TODO
+		checkWidget();
+		if (order == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (order.length != columnCount) error(SWT.ERROR_INVALID_ARGUMENT);
+		if (columnCount == 0) return;
+		boolean[] seen = new boolean[columnCount];
+		List<TreeTableColumn<TreeItem, ?>> fxColumns = new ArrayList<TreeTableColumn<TreeItem, ?>>(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			int index = order[i];
+			if (!(0 <= index && index < columnCount) || seen[index]) error(SWT.ERROR_INVALID_ARGUMENT);
+			seen[index] = true;
+			fxColumns.add(columns[index].column);
+		}
+		getTreeView().getColumns().setAll(fxColumns);
 	}
 
 	/**
@@ -1127,7 +2094,9 @@ public class Tree extends Composite {
 	 * @since 3.2
 	 */
 	public void setSelection(TreeItem item) {
-		// TODO
+		checkWidget();
+		if (item == null) error(SWT.ERROR_NULL_ARGUMENT);
+		setSelection(new TreeItem[] {item});
 	}
 
 	/**
@@ -1160,7 +2129,16 @@ public class Tree extends Composite {
 	 * @see Tree#deselectAll()
 	 */
 	public void setSelection(TreeItem[] items) {
-		// TODO
+		checkWidget();
+		if (items == null) error(SWT.ERROR_NULL_ARGUMENT);
+		deselectAll();
+		int length = items.length;
+		if (length == 0 || ((style & SWT.SINGLE) != 0 && length > 1)) return;
+		/* Showing the first item expands its parents, which creates its row */
+		showItem(items[0]);
+		for (int i = 0; i < length; i++) {
+			select(items[i]);
+		}
 	}
 
 	/**
@@ -1186,7 +2164,13 @@ public class Tree extends Composite {
 	 * @since 3.2
 	 */
 	public void setSortColumn(TreeColumn column) {
-		// TODO
+		checkWidget();
+		if (column != null && column.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		if (sortColumn != null && sortColumn.column != null) sortColumn.column.setSortable(false);
+		sortColumn = column;
+		/* Only a sortable column shows the indicator */
+		if (column != null) column.column.setSortable(true);
+		updateSortIndicator();
 	}
 
 	/**
@@ -1207,7 +2191,10 @@ public class Tree extends Composite {
 	 * @since 3.2
 	 */
 	public void setSortDirection(int direction) {
-		// TODO
+		checkWidget();
+		if (direction != SWT.UP && direction != SWT.DOWN && direction != SWT.NONE) return;
+		sortDirection = direction;
+		updateSortIndicator();
 	}
 
 	/**
@@ -1237,7 +2224,10 @@ public class Tree extends Composite {
 	 * @since 2.1
 	 */
 	public void setTopItem(TreeItem item) {
-		// TODO
+		checkWidget();
+		checkItem(item);
+		Row row = expandParents(item);
+		if (row != null) flow.setTopIndex(getTreeView().getRow(row));
 	}
 
 	/**
@@ -1284,7 +2274,9 @@ public class Tree extends Composite {
 	 * @see Tree#showItem(TreeItem)
 	 */
 	public void showSelection() {
-		// TODO
+		checkWidget();
+		int index = getTreeView().getSelectionModel().getSelectedIndex();
+		if (index != -1) flow.showRow(index);
 	}
 
 	/**
@@ -1312,7 +2304,83 @@ public class Tree extends Composite {
 	 * @see Tree#showSelection()
 	 */
 	public void showItem(TreeItem item) {
-		// TODO
+		checkWidget();
+		checkItem(item);
+		Row row = expandParents(item);
+		if (row != null) flow.showRow(getTreeView().getRow(row));
+	}
+
+	/**
+	 * Sorts the items of each level of the receiver by the text they show in
+	 * the sort column, or in the first column when there is no sort column.
+	 * Items are in ascending order unless the sort direction is
+	 * <code>DOWN</code>, and items that compare equal keep their order. The
+	 * items keep their children and attributes and the selection moves with
+	 * them. Items of a <code>VIRTUAL</code> tree that were never asked for
+	 * are not sorted.
+	 * <p>
+	 * Trees with 8192 items or more on all levels together are sorted in
+	 * the background and reordered later in one step. The comparator is then
+	 * called on threads of the common fork join pool, possibly on several at
+	 * once, and must not access widgets.
+	 * An exception thrown by the comparator is not thrown to the caller of
+	 * this method: it is thrown later on the user-interface thread, from a
+	 * runnable posted with <code>Platform.runLater</code>, and the items
+	 * keep their order. When items are added or removed in the meantime
+	 * the sort starts again, and a later call to this method replaces an
+	 * earlier one that has not finished.
+	 * </p>
+	 * 
+	 * @param comparator
+	 *            the comparator of the texts, or <code>null</code> to sort
+	 *            them in their natural order
+	 * 
+	 * @exception SWTException
+	 *                <ul>
+	 *                <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *                disposed</li>
+	 *                <li>ERROR_THREAD_INVALID_ACCESS - if not called from the
+	 *                thread that created the receiver</li>
+	 *                </ul>
+	 * 
+	 * @see #setSortColumn(TreeColumn)
+	 * @see #setSortDirection(int)
+	 * 
+	 * @since 3.103
+	 */
+	public void sort(final Comparator<String> comparator) {
+		checkWidget();
+		int column = sortColumn != null && !sortColumn.isDisposed() ? indexOf(sortColumn) : 0;
+		final List<TreeItem> parents = new ArrayList<TreeItem>();
+		List<String[]> levels = new ArrayList<String[]>();
+		collectKeys(null, column, parents, levels);
+		String[][] keys = levels.toArray(new String[levels.size()][]);
+		int total = 0;
+		for (int i = 0; i < keys.length; i++) {
+			total += keys[i].length;
+		}
+		Comparator<String> order = comparator != null ? comparator : Comparator.<String>naturalOrder();
+		if (sortDirection == SWT.DOWN) order = Collections.reverseOrder(order);
+		final int request = ++sortRequest, changes = rowChanges;
+		final int[][] orders = new int[keys.length][];
+		if (total < IndexSort.PARALLEL_THRESHOLD) {
+			for (int i = 0; i < keys.length; i++) {
+				orders[i] = IndexSort.sort(keys[i], order);
+			}
+			sortItems(parents, orders);
+			return;
+		}
+		IndexSort.sortLater(keys, order, orders, new Runnable() {
+			@Override
+			public void run() {
+				if (isDisposed() || request != sortRequest) return;
+				if (changes != rowChanges) {
+					sort(comparator);
+				} else {
+					sortItems(parents, orders);
+				}
+			}
+		});
 	}
 
 }
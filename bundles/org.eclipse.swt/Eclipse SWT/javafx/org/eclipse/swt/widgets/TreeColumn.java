@@ -42,6 +42,8 @@ import org.eclipse.swt.events.SelectionListener;
  * @noextend This class is not intended to be subclassed by clients.
  */
 public class TreeColumn extends Item {
+	Tree parent;
+	javafx.scene.control.TreeTableColumn<TreeItem, TreeItem> column;
 
 	/**
 	 * Constructs a new instance of this class given its parent (which must be a
@@ -82,9 +84,7 @@ public class TreeColumn extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TreeColumn(Tree parent, int style) {
-		super(parent, style);
-		parent.addColumn(this);
-		// TODO
+		this(parent, style, checkNull(parent).getColumnCount());
 	}
 
 	/**
@@ -134,8 +134,19 @@ public class TreeColumn extends Item {
 	 */
 	public TreeColumn(Tree parent, int style, int index) {
 		super(parent, style);
-		parent.addColumn(this);
-		// TODO
+		this.parent = parent;
+		parent.createColumn(this, index);
+	}
+
+	static Tree checkNull(Tree control) {
+		if (control == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		return control;
+	}
+
+	@Override
+	public void setText(String string) {
+		super.setText(string);
+		column.setText(string);
 	}
 
 	/**
@@ -259,8 +270,8 @@ public class TreeColumn extends Item {
 	 *                </ul>
 	 */
 	public Tree getParent() {
-		// TODO
-		return null;
+		checkWidget();
+		return parent;
 	}
 
 	/**
@@ -316,8 +327,8 @@ public class TreeColumn extends Item {
 	 *                </ul>
 	 */
 	public int getWidth() {
-		// TODO
-		return 0;
+		checkWidget();
+		return (int)column.getWidth();
 	}
 
 	/**
@@ -335,7 +346,8 @@ public class TreeColumn extends Item {
 	 * 
 	 */
 	public void pack() {
-		// TODO
+		checkWidget();
+		setWidth(parent.measureColumn(parent.indexOf(this)));
 	}
 
 	/**
@@ -504,7 +516,9 @@ public class TreeColumn extends Item {
 	 *                </ul>
 	 */
 	public void setWidth(int width) {
-		// TODO
+		checkWidget();
+		if (width < 0) return;
+		column.setPrefWidth(width);
 	}
 
 }
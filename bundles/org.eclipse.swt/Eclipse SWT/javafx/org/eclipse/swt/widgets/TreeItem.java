@@ -15,6 +15,7 @@ import org.eclipse.swt.SWTException;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 
 /**
@@ -38,6 +39,16 @@ import org.eclipse.swt.graphics.Rectangle;
  * @noextend This class is not intended to be subclassed by clients.
  */
 public class TreeItem extends Item {
+	Tree parent;
+	TreeItem parentItem;
+	Tree.Row row;
+	PagedArray<TreeItem> items;
+	String[] strings;
+	Image[] images;
+	/* Sizes of the cells measured while custom drawing, see CellCanvas */
+	Point[] measures;
+	int index, itemCount;
+	boolean cached, expanded;
 
 	/**
 	 * Constructs a new instance of this class given its parent (which must be a
@@ -76,9 +87,7 @@ public class TreeItem extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TreeItem(Tree parent, int style) {
-		super(parent, style);
-		parent.addItem(this);
-		// TODO
+		this(checkNull(parent), null, style, parent.itemCount, true);
 	}
 
 	/**
@@ -122,9 +131,7 @@ public class TreeItem extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TreeItem(Tree parent, int style, int index) {
-		super(parent, style);
-		parent.addItem(this);
-		// TODO
+		this(checkNull(parent), null, style, index, true);
 	}
 
 	/**
@@ -164,8 +171,7 @@ public class TreeItem extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TreeItem(TreeItem parentItem, int style) {
-		super(null, style);
-		// TODO
+		this(checkNull(parentItem).parent, parentItem, style, parentItem.itemCount, true);
 	}
 
 	/**
@@ -209,8 +215,87 @@ public class TreeItem extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TreeItem(TreeItem parentItem, int style, int index) {
-		super(null, style);
-		// TODO
+		this(checkNull(parentItem).parent, parentItem, style, index, true);
+	}
+
+	TreeItem(Tree parent, TreeItem parentItem, int style, int index, boolean create) {
+		super(parent, style);
+		this.parent = parent;
+		this.parentItem = parentItem;
+		this.index = index;
+		if (create) parent.createItem(this, parentItem, index);
+	}
+
+	static Tree checkNull(Tree control) {
+		if (control == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		return control;
+	}
+
+	static TreeItem checkNull(TreeItem item) {
+		if (item == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		return item;
+	}
+
+	@Override
+	public String getText() {
+		checkWidget();
+		return getText(0);
+	}
+
+	@Override
+	public void setText(String string) {
+		checkWidget();
+		setText(0, string);
+	}
+
+	@Override
+	public Image getImage() {
+		checkWidget();
+		return getImage(0);
+	}
+
+	@Override
+	public void setImage(Image image) {
+		checkWidget();
+		setImage(0, image);
+	}
+
+	void clear() {
+		strings = null;
+		images = null;
+		measures = null;
+		cached = false;
+	}
+
+	boolean isColumn(int column) {
+		return 0 <= column && column < Math.max(1, parent.columnCount);
+	}
+
+	String _getText(int column) {
+		String string = strings != null && column < strings.length ? strings[column] : null;
+		return string != null ? string : "";
+	}
+
+	void changed() {
+		measures = null;
+		if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+		parent.redrawItem(this);
+	}
+
+	void insertColumn(int column) {
+		measures = null;
+		if (strings != null && column < strings.length) {
+			String[] newStrings = new String[strings.length + 1];
+			System.arraycopy(strings, 0, newStrings, 0, column);
+			System.arraycopy(strings, column, newStrings, column + 1, strings.length - column);
+			strings = newStrings;
+		}
+		if (images != null && column < images.length) {
+			Image[] newImages = new Image[images.length + 1];
+			System.arraycopy(images, 0, newImages, 0, column);
+			System.arraycopy(images, column, newImages, column + 1, images.length - column);
+			images = newImages;
+		}
 	}
 
 	/**
@@ -246,7 +331,9 @@ public class TreeItem extends Item {
 	 * @since 3.2
 	 */
 	public void clear(int index, boolean all) {
-		// TODO
+		checkWidget();
+		if (!(0 <= index && index < itemCount)) error(SWT.ERROR_INVALID_RANGE);
+		parent.clearItems(this, index, index + 1, all);
 	}
 
 	/**
@@ -273,7 +360,8 @@ public class TreeItem extends Item {
 	 * @since 3.2
 	 */
 	public void clearAll(boolean all) {
-		// TODO
+		checkWidget();
+		parent.clearItems(this, 0, itemCount, all);
 	}
 
 	/**
@@ -338,8 +426,9 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public Rectangle getBounds(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		return parent.getCellBounds(this, index);
 	}
 
 	/**
@@ -357,8 +446,9 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public Rectangle getBounds() {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		return parent.getCellBounds(this, 0);
 	}
 
 	/**
@@ -395,8 +485,8 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public boolean getExpanded() {
-		// TODO
-		return false;
+		checkWidget();
+		return expanded;
 	}
 
 	/**
@@ -524,8 +614,9 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public Image getImage(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		return images != null && 0 <= index && index < images.length ? images[index] : null;
 	}
 
 	/**
@@ -566,8 +657,8 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public int getItemCount() {
-		// TODO
-		return 0;
+		checkWidget();
+		return itemCount;
 	}
 
 	/**
@@ -595,8 +686,9 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public TreeItem getItem(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		if (!(0 <= index && index < itemCount)) error(SWT.ERROR_INVALID_RANGE);
+		return parent._getItem(this, index);
 	}
 
 	/**
@@ -618,8 +710,8 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public TreeItem[] getItems() {
-		// TODO
-		return null;
+		checkWidget();
+		return parent._getItems(this);
 	}
 
 	/**
@@ -636,8 +728,8 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public Tree getParent() {
-		// TODO
-		return null;
+		checkWidget();
+		return parent;
 	}
 
 	/**
@@ -655,8 +747,8 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public TreeItem getParentItem() {
-		// TODO
-		return null;
+		checkWidget();
+		return parentItem;
 	}
 
 	/**
@@ -678,8 +770,9 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public String getText(int index) {
-		// TODO
-		return null;
+		checkWidget();
+		if (!parent.checkData(this)) error(SWT.ERROR_WIDGET_DISPOSED);
+		return isColumn(index) ? _getText(index) : "";
 	}
 
 	/**
@@ -731,8 +824,8 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public int indexOf(TreeItem item) {
-		// TODO
-		return 0;
+		checkWidget();
+		return parent._indexOf(this, item);
 	}
 
 	/**
@@ -749,7 +842,8 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public void removeAll() {
-		// TODO
+		checkWidget();
+		parent.removeItems(this, 0, itemCount);
 	}
 
 	/**
@@ -843,7 +937,9 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public void setExpanded(boolean expanded) {
-		// TODO
+		checkWidget();
+		if (expanded && itemCount == 0) return;
+		parent.setExpanded(this, expanded);
 	}
 
 	/**
@@ -1003,7 +1099,17 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public void setImage(int index, Image image) {
-		// TODO
+		checkWidget();
+		if (image != null && image.isDisposed()) error(SWT.ERROR_INVALID_ARGUMENT);
+		if (!isColumn(index)) return;
+		if (images == null) images = new Image[Math.max(1, parent.columnCount)];
+		if (index >= images.length) {
+			Image[] newImages = new Image[index + 1];
+			System.arraycopy(images, 0, newImages, 0, images.length);
+			images = newImages;
+		}
+		images[index] = image;
+		changed();
 	}
 
 	/**
@@ -1029,7 +1135,11 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public void setImage(Image[] images) {
-		// TODO
+		checkWidget();
+		if (images == null) error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < images.length; i++) {
+			setImage(i, images[i]);
+		}
 	}
 
 	/**
@@ -1049,7 +1159,8 @@ public class TreeItem extends Item {
 	 * @since 3.2
 	 */
 	public void setItemCount(int count) {
-		// TODO
+		checkWidget();
+		parent.setItemCount(this, count);
 	}
 
 	/**
@@ -1075,7 +1186,17 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public void setText(int index, String string) {
-		// TODO
+		checkWidget();
+		if (string == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (!isColumn(index)) return;
+		if (strings == null) strings = new String[Math.max(1, parent.columnCount)];
+		if (index >= strings.length) {
+			String[] newStrings = new String[index + 1];
+			System.arraycopy(strings, 0, newStrings, 0, strings.length);
+			strings = newStrings;
+		}
+		strings[index] = string;
+		changed();
 	}
 
 	/**
@@ -1099,7 +1220,12 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public void setText(String[] strings) {
-		// TODO
+		checkWidget();
+		if (strings == null) error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < strings.length; i++) {
+			String string = strings[i];
+			if (string != null) setText(i, string);
+		}
 	}
 
 }
@@ -150,7 +150,14 @@ public abstract class Widget {
 	 * @see #notifyListeners
 	 */
 	public void addListener(int eventType, Listener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		_addListener(eventType, listener);
+	}
+
+	void _addListener(int eventType, Listener listener) {
+		if (eventTable == null) eventTable = new EventTable();
+		eventTable.hook(eventType, listener);
 	}
 
 	/**
@@ -405,8 +412,9 @@ public abstract class Widget {
 	 * @since 3.4
 	 */
 	public Listener[] getListeners(int eventType) {
-		// TODO
-		return null;
+		checkWidget();
+		if (eventTable == null) return new Listener[0];
+		return eventTable.getListeners(eventType);
 	}
 
 	String getNameText () {
@@ -479,8 +487,13 @@ public abstract class Widget {
 	 * @see SWT
 	 */
 	public boolean isListening(int eventType) {
-		// TODO
-		return false;
+		checkWidget();
+		return hooks(eventType);
+	}
+
+	boolean hooks(int eventType) {
+		if (eventTable == null) return false;
+		return eventTable.hooks(eventType);
 	}
 
 	boolean isValidSubclass() {
@@ -513,7 +526,9 @@ public abstract class Widget {
 	 * @see #removeListener(int, Listener)
 	 */
 	public void notifyListeners(int eventType, Event event) {
-		// TODO
+		checkWidget();
+		if (event == null) event = new Event();
+		sendEvent(eventType, event);
 	}
 
 	void postEvent (int eventType) {
@@ -569,7 +584,10 @@ public abstract class Widget {
 	 * @see #notifyListeners
 	 */
 	public void removeListener(int eventType, Listener listener) {
-		// TODO
+		checkWidget();
+		if (listener == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (eventTable == null) return;
+		eventTable.unhook(eventType, listener);
 	}
 
 	/**
@@ -600,7 +618,10 @@ public abstract class Widget {
 	 * @nooverride This method is not intended to be re-implemented or extended by clients.
 	 */
 	protected void removeListener (int eventType, SWTEventListener handler) {
-		// TODO
+		checkWidget();
+		if (handler == null) error(SWT.ERROR_NULL_ARGUMENT);
+		if (eventTable == null) return;
+		eventTable.unhook(eventType, handler);
 	}
 
 	/**
@@ -676,11 +697,17 @@ public abstract class Widget {
 	}
 
 	void sendEvent (int eventType) {
-		// TODO
+		sendEvent (eventType, null);
 	}
 
 	void sendEvent (int eventType, Event event) {
-		// TODO
+		if (eventTable == null) return;
+		if (event == null) event = new Event();
+		event.type = eventType;
+		event.display = display;
+		event.widget = this;
+		if (event.time == 0) event.time = (int) System.currentTimeMillis();
+		eventTable.sendEvent(event);
 	}
 
 	void sendSelectionEvent (int eventType, Event event, boolean send) {
@@ -192,6 +192,47 @@ protected boolean isBidi() {
 	return true;
 }
 
+protected boolean isJavaFX() {
+	return "javafx".equals(SWT.getPlatform());
+}
+
+/**
+ * Waits briefly, then runs the runnables posted to the JavaFX application
+ * thread so far. Display.readAndDispatch() does not run them on javafx
+ * yet, so a nested event loop is entered until they have run. JavaFX is
+ * called reflectively, as the tests compile on every platform.
+ */
+protected void dispatchJavaFX() {
+	try {
+		Thread.sleep(10);
+		Class<?> platform = Class.forName("javafx.application.Platform");
+		Object target = null;
+		Class<?> loops = platform;
+		try {
+			platform.getMethod("enterNestedEventLoop", Object.class);
+		} catch (NoSuchMethodException e) {
+			/* before JavaFX 9 */
+			loops = Class.forName("com.sun.javafx.tk.Toolkit");
+			target = loops.getMethod("getToolkit").invoke(null);
+		}
+		final Object key = new Object(), loopTarget = target;
+		final java.lang.reflect.Method exit = loops.getMethod("exitNestedEventLoop", Object.class, Object.class);
+		platform.getMethod("runLater", Runnable.class).invoke(null, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					exit.invoke(loopTarget, key, null);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+		loops.getMethod("enterNestedEventLoop", Object.class).invoke(target, key);
+	} catch (Exception e) {
+		throw new RuntimeException(e);
+	}
+}
+
 @Override
 protected void setUp() {
 	System.out.println("SwtTestCase#setUp(): " + getClass().getName() + "#" + getName());
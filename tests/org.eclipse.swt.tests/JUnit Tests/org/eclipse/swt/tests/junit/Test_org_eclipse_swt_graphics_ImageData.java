@@ -762,6 +762,56 @@ public void test_internal_newIIILorg_eclipse_swt_graphics_PaletteDataI$BI$B$BIII
 	// application code.
 }
 
+public void test_internal_blit() {
+	/* direct formats: depth, byte order and red, green and blue masks */
+	int[][] formats = {
+		{32, MSB_FIRST, 0xFF00, 0xFF0000, 0xFF000000},
+		{32, MSB_FIRST, 0xFF000000, 0xFF0000, 0xFF00},
+		{32, MSB_FIRST, 0xFF0000, 0xFF00, 0xFF},
+		{32, LSB_FIRST, 0xFF0000, 0xFF00, 0xFF},
+		{24, MSB_FIRST, 0xFF0000, 0xFF00, 0xFF},
+		{24, MSB_FIRST, 0xFF, 0xFF00, 0xFF0000},
+		{16, MSB_FIRST, 0xF800, 0x7E0, 0x1F},
+		{16, LSB_FIRST, 0x7C00, 0x3E0, 0x1F},
+		{8, MSB_FIRST, 0xE0, 0x1C, 0x3},
+	};
+	/* destination width, height and flips of a 37 by 23 source */
+	int[][] sizes = {{37, 23, 0, 0}, {37, 23, 1, 0}, {37, 23, 0, 1}, {37, 23, 1, 1}, {80, 51, 0, 0}, {13, 9, 1, 1}, {1, 23, 0, 0}};
+	java.util.Random random = new java.util.Random(0);
+	for (int s = 0; s < formats.length; s++) {
+		byte[] srcData = newBlitData(random, formats[s], 37, 23);
+		for (int d = 0; d < formats.length; d++) {
+			for (int i = 0; i < sizes.length; i++) {
+				assertBlit(":a:" + s + "," + d + "," + i, srcData, formats[s], null, 37, 23, formats[d], sizes[i]);
+			}
+		}
+	}
+	byte[][] palette = new byte[3][256];
+	for (int i = 0; i < palette.length; i++) {
+		random.nextBytes(palette[i]);
+	}
+	byte[] indexData = newBlitData(random, new int[] {8}, 37, 23);
+	for (int d = 0; d < formats.length; d++) {
+		for (int i = 0; i < sizes.length; i++) {
+			assertBlit(":b:" + d + "," + i, indexData, new int[] {8}, palette, 37, 23, formats[d], sizes[i]);
+		}
+	}
+
+	/* over a million destination pixels, blitted in bands */
+	int[][] large = {{1100, 1000, 0, 0}, {1201, 999, 1, 1}};
+	int[][] pairs = {{0, 0}, {0, 1}, {4, 3}, {5, 6}};
+	for (int p = 0; p < pairs.length; p++) {
+		byte[] srcData = newBlitData(random, formats[pairs[p][0]], 1100, 1000);
+		for (int i = 0; i < large.length; i++) {
+			assertBlit(":c:" + p + "," + i, srcData, formats[pairs[p][0]], null, 1100, 1000, formats[pairs[p][1]], large[i]);
+		}
+	}
+	indexData = newBlitData(random, new int[] {8}, 1100, 1000);
+	for (int i = 0; i < large.length; i++) {
+		assertBlit(":d:" + i, indexData, new int[] {8}, palette, 1100, 1000, formats[0], large[i]);
+	}
+}
+
 public void test_scaledToII() {
 	final int imageDimension = 8;
 	RGB[] rgbs = new RGB[]{new RGB(0, 0, 0), new RGB(255, 255, 255)};
@@ -787,6 +837,85 @@ public void test_scaledToII() {
 	scaledImageData.getPixels(0, 0, scaledPixelData.length, scaledPixelData, 0);	
 	expectedPixelData = new byte[] {0, 0x1, 0, 0, 0x1, 0x1, 0x1, 0x1};
 	assertEquals(":d:", expectedPixelData, scaledPixelData);
+
+	ImageData direct = new ImageData(3, 2, 32, new PaletteData(0xFF00, 0xFF0000, 0xFF000000));
+	for (int y = 0; y < 2; y++) {
+		for (int x = 0; x < 3; x++) {
+			direct.setPixel(x, y, 0x11223344 * (y * 3 + x + 1));
+		}
+	}
+	assertEquals(":e:", direct.data, direct.scaledTo(3, 2).data);
+	ImageData scaled = direct.scaledTo(-6, -2);
+	for (int y = 0; y < 2; y++) {
+		for (int x = 0; x < 6; x++) {
+			assertEquals(":f:", direct.getPixel(2 - x / 2, 1 - y), scaled.getPixel(x, y));
+		}
+	}
+}
+
+public void test_scaledToIII() {
+	PaletteData palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+	ImageData checker = new ImageData(8, 8, 24, palette);
+	checker.alphaData = new byte[8 * 8];
+	for (int y = 0; y < 8; y++) {
+		for (int x = 0; x < 8; x++) {
+			checker.setPixel(x, y, ((x + y) & 1) == 0 ? 0xFFFFFF : 0);
+			checker.setAlpha(x, y, x < 4 ? 255 : 0);
+		}
+	}
+
+	// the box filter averages each 2x2 block, transparent pixels do not darken the color
+	ImageData scaled = checker.scaledTo(4, 4, SWT.LOW);
+	assertEquals(":a:", 0x808080, scaled.getPixel(0, 0));
+	assertEquals(":b:", 255, scaled.getAlpha(1, 0));
+	assertEquals(":c:", 0, scaled.getAlpha(2, 0));
+
+	// a uniform image stays uniform with every filter, also when flipped
+	ImageData gray = new ImageData(5, 3, 24, palette);
+	for (int y = 0; y < 3; y++) {
+		for (int x = 0; x < 5; x++) {
+			gray.setPixel(x, y, 0x336699);
+		}
+	}
+	int[] filters = {SWT.LOW, SWT.DEFAULT, SWT.HIGH};
+	for (int i = 0; i < filters.length; i++) {
+		scaled = gray.scaledTo(-13, 7, filters[i]);
+		assertEquals(":d:", 13, scaled.width);
+		assertEquals(":e:", 7, scaled.height);
+		for (int y = 0; y < 7; y++) {
+			for (int x = 0; x < 13; x++) {
+				assertEquals(":f:", 0x336699, scaled.getPixel(x, y));
+			}
+		}
+	}
+
+	// indexed images are filtered to direct color, transparent pixels to a mask
+	RGB[] rgbs = new RGB[]{new RGB(255, 0, 0), new RGB(0, 0, 255)};
+	ImageData indexed = new ImageData(4, 4, 8, new PaletteData(rgbs));
+	for (int y = 0; y < 4; y++) {
+		for (int x = 0; x < 4; x++) {
+			indexed.setPixel(x, y, x < 2 ? 0 : 1);
+		}
+	}
+	indexed.transparentPixel = 0;
+	scaled = indexed.scaledTo(8, 8, SWT.LOW);
+	assertTrue(":g:", scaled.palette.isDirect);
+	assertEquals(":h:", SWT.TRANSPARENCY_MASK, scaled.getTransparencyType());
+	assertEquals(":i:", new RGB(0, 0, 255), scaled.palette.getRGB(scaled.getPixel(7, 0)));
+	ImageData mask = scaled.getTransparencyMask();
+	assertEquals(":j:", 0, mask.getPixel(0, 0));
+	assertEquals(":k:", 1, mask.getPixel(7, 0));
+
+	// SWT.NONE is the nearest neighbor scaling of scaledTo(int, int)
+	scaled = checker.scaledTo(16, 16, SWT.NONE);
+	assertEquals(":l:", checker.scaledTo(16, 16).data, scaled.data);
+
+	try {
+		checker.scaledTo(4, 4, 42);
+		fail("No exception thrown for invalid filter");
+	} catch (IllegalArgumentException e) {
+		assertEquals("Incorrect exception thrown for invalid filter", SWT.ERROR_INVALID_ARGUMENT, e);
+	}
 }
 
 public void test_setAlphaIII() {
@@ -1191,8 +1320,10 @@ public static java.util.Vector<String> methodNames() {
 	methodNames.addElement("test_getRGBs");
 	methodNames.addElement("test_getTransparencyMask");
 	methodNames.addElement("test_getTransparencyType");
+	methodNames.addElement("test_internal_blit");
 	methodNames.addElement("test_internal_newIIILorg_eclipse_swt_graphics_PaletteDataI$BI$B$BIIIIIII");
 	methodNames.addElement("test_scaledToII");
+	methodNames.addElement("test_scaledToIII");
 	methodNames.addElement("test_setAlphaIII");
 	methodNames.addElement("test_setAlphasIII$BI");
 	methodNames.addElement("test_setPixelIII");
@@ -1215,8 +1346,10 @@ protected void runTest() throws Throwable {
 	else if (getName().equals("test_getRGBs")) test_getRGBs();
 	else if (getName().equals("test_getTransparencyMask")) test_getTransparencyMask();
 	else if (getName().equals("test_getTransparencyType")) test_getTransparencyType();
+	else if (getName().equals("test_internal_blit")) test_internal_blit();
 	else if (getName().equals("test_internal_newIIILorg_eclipse_swt_graphics_PaletteDataI$BI$B$BIIIIIII")) test_internal_newIIILorg_eclipse_swt_graphics_PaletteDataI$BI$B$BIIIIIII();
 	else if (getName().equals("test_scaledToII")) test_scaledToII();
+	else if (getName().equals("test_scaledToIII")) test_scaledToIII();
 	else if (getName().equals("test_setAlphaIII")) test_setAlphaIII();
 	else if (getName().equals("test_setAlphasIII$BI")) test_setAlphasIII$BI();
 	else if (getName().equals("test_setPixelIII")) test_setPixelIII();
@@ -1227,6 +1360,69 @@ protected void runTest() throws Throwable {
 ImageData imageData;
 final int IMAGE_DIMENSION = 10;
 
+/* the byte orders and blit arguments of ImageData */
+static final int LSB_FIRST = 0, MSB_FIRST = 1, BLIT_SRC = 1, ALPHA_OPAQUE = 255;
+
+/**
+ * Answers the rows of a random image, with the bits outside the masks of
+ * a direct format cleared, as the comprehensive blit does not copy them.
+ */
+byte[] newBlitData(java.util.Random random, int[] format, int width, int height) {
+	int bpp = format[0] / 8, stride = (width * format[0] + 31) / 32 * 4;
+	byte[] data = new byte[stride * height];
+	random.nextBytes(data);
+	if (format.length == 1) return data;
+	int mask = format[2] | format[3] | format[4];
+	for (int y = 0; y < height; y++) {
+		for (int x = 0, offset = y * stride; x < width; x++, offset += bpp) {
+			for (int i = 0; i < bpp; i++) {
+				int shift = format[1] == MSB_FIRST ? (bpp - 1 - i) * 8 : i * 8;
+				data[offset + i] &= mask >>> shift;
+			}
+		}
+	}
+	return data;
+}
+
+/**
+ * Blits the source to the destination format and size with the
+ * specialized loops and with the comprehensive blit, and checks that
+ * they write the same bytes. Sources with a palette are 8 bit indices.
+ */
+void assertBlit(String message, byte[] srcData, int[] src, byte[][] palette, int srcWidth, int srcHeight, int[] dest, int[] size) {
+	int srcStride = (srcWidth * src[0] + 31) / 32 * 4, destStride = (size[0] * dest[0] + 31) / 32 * 4;
+	byte[] expected = new byte[destStride * size[1]], actual = new byte[expected.length];
+	Object[] args = {BLIT_SRC, srcData, src[0], srcStride, palette != null ? MSB_FIRST : src[1], 0, 0, srcWidth, srcHeight,
+		palette != null ? palette[0] : src[2], palette != null ? palette[1] : src[3], palette != null ? palette[2] : src[4],
+		ALPHA_OPAQUE, null, 0, 0, 0,
+		null, dest[0], destStride, dest[1], 0, 0, size[0], size[1], dest[2], dest[3], dest[4], size[2] != 0, size[3] != 0};
+	try {
+		java.lang.reflect.Method blit = null;
+		for (java.lang.reflect.Method method : ImageData.class.getDeclaredMethods()) {
+			Class<?>[] types = method.getParameterTypes();
+			if (method.getName().equals("blit") && types.length == args.length
+				&& types[9] == (palette != null ? byte[].class : int.class) && types[25] == int.class) {
+				blit = method;
+			}
+		}
+		blit.setAccessible(true);
+		java.lang.reflect.Field enabled = Class.forName("org.eclipse.swt.graphics.ImageDataBlitter", true, ImageData.class.getClassLoader()).getDeclaredField("enabled");
+		enabled.setAccessible(true);
+		try {
+			enabled.setBoolean(null, false);
+			args[17] = expected;
+			blit.invoke(null, args);
+		} finally {
+			enabled.setBoolean(null, true);
+		}
+		args[17] = actual;
+		blit.invoke(null, args);
+	} catch (Exception e) {
+		throw new RuntimeException(e);
+	}
+	assertArrayEquals(message, expected, actual);
+}
+
 void assertEquals(String message, byte expected[], byte actual[]) {
 	if (expected == null && actual == null)
 		return;
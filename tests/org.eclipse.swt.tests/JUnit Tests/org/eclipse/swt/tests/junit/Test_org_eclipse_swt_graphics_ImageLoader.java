@@ -84,6 +84,131 @@ public void test_hasListeners() {
 	// tested in addImageLoaderListener method
 }
 
+public void test_openFramesLjava_io_InputStream() {
+	ImageLoader loader = new ImageLoader();
+	try {
+		loader.openFrames(null);
+		fail("No exception thrown for openFrames inputStream == null");
+	} catch (IllegalArgumentException e) {
+	}
+
+	// an animated GIF, each frame decoded when it is asked for
+	RGB[] rgbs = new RGB[16];
+	for (int i = 0; i < rgbs.length; i++) rgbs[i] = new RGB(i * 16, 255 - i * 16, i * 8);
+	ImageData[] frames = new ImageData[4];
+	for (int i = 0; i < frames.length; i++) {
+		frames[i] = new ImageData(37, 23, 4, new PaletteData(rgbs));
+		for (int y = 0; y < 23; y++) {
+			for (int x = 0; x < 37; x++) frames[i].setPixel(x, y, (x / (i + 1) + y) % 16);
+		}
+		frames[i].delayTime = 10 + i;
+	}
+	loader.data = frames;
+	loader.logicalScreenWidth = 37;
+	loader.logicalScreenHeight = 23;
+	ByteArrayOutputStream out = new ByteArrayOutputStream();
+	loader.save(out, SWT.IMAGE_GIF);
+	byte[] bytes = out.toByteArray();
+
+	java.util.Iterator<ImageData> iterator = loader.openFrames(new ByteArrayInputStream(bytes));
+	assertEquals(":a:", 37, loader.logicalScreenWidth);
+	assertEquals(":b:", 23, loader.logicalScreenHeight);
+	int count = 0;
+	while (iterator.hasNext()) {
+		ImageData frame = iterator.next();
+		assertTrue(":c:" + count, count < frames.length);
+		assertEquals(":d:" + count, frames[count].delayTime, frame.delayTime);
+		for (int y = 0; y < 23; y++) {
+			for (int x = 0; x < 37; x++) {
+				assertEquals(":e:" + count, frames[count].getPixel(x, y), frame.getPixel(x, y));
+			}
+		}
+		count++;
+	}
+	assertEquals(":f:", frames.length, count);
+	try {
+		iterator.next();
+		fail("No exception thrown for next past the last frame");
+	} catch (java.util.NoSuchElementException e) {
+	}
+
+	// a GIF without a readable first image is invalid
+	InputStream stream = SwtTestCase.class.getResourceAsStream(SwtTestCase.invalidImageFilenames[0] + ".gif");
+	try {
+		loader.openFrames(stream).hasNext();
+		fail("No exception thrown for a corrupt GIF");
+	} catch (SWTException e) {
+		assertEquals(":j:", SWT.ERROR_INVALID_IMAGE, e.code);
+	} finally {
+		try {
+			stream.close();
+		} catch (IOException e) {}
+	}
+
+	// formats without lazy decoding return the loaded images
+	String fileName = SwtTestCase.imageFilenames[0];
+	for (int i = 0; i < SwtTestCase.imageFormats.length; i++) {
+		String format = SwtTestCase.imageFormats[i];
+		stream = SwtTestCase.class.getResourceAsStream(fileName + "." + format);
+		ImageData[] images = loader.load(stream);
+		try {
+			stream.close();
+		} catch (IOException e) {}
+		stream = SwtTestCase.class.getResourceAsStream(fileName + "." + format);
+		iterator = loader.openFrames(stream);
+		for (int j = 0; j < images.length; j++) {
+			assertTrue(":g:" + format, iterator.hasNext());
+			assertTrue(":h:" + format, java.util.Arrays.equals(images[j].data, iterator.next().data));
+		}
+		assertFalse(":i:" + format, iterator.hasNext());
+		try {
+			stream.close();
+		} catch (IOException e) {}
+	}
+}
+
+public void test_openTilesLjava_io_InputStream() {
+	ImageLoader loader = new ImageLoader();
+	try {
+		loader.openTiles(null);
+		fail("No exception thrown for openTiles inputStream == null");
+	} catch (IllegalArgumentException e) {
+	}
+
+	String fileName = SwtTestCase.imageFilenames[0];
+	for (int i = 0; i < SwtTestCase.imageFormats.length; i++) {
+		String format = SwtTestCase.imageFormats[i];
+		InputStream stream = SwtTestCase.class.getResourceAsStream(fileName + "." + format);
+		ImageData full = loader.load(stream)[0];
+		try {
+			stream.close();
+		} catch (IOException e) {}
+
+		stream = SwtTestCase.class.getResourceAsStream(fileName + "." + format);
+		checkTiles(loader, stream, full, format);
+		try {
+			stream.close();
+		} catch (IOException e) {}
+	}
+
+	// images of several bands, TIFF in strips and BMP from the bottom up
+	ImageData image = new ImageData(600, 1500, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF), 1, new byte[600 * 1500 * 3]);
+	for (int y = 0; y < image.height; y++) {
+		for (int x = 0; x < image.width; x++) {
+			image.setPixel(x, y, (x * 7 + y * 13) ^ (x * y));
+		}
+	}
+	int[] types = {SWT.IMAGE_TIFF, SWT.IMAGE_BMP};
+	for (int i = 0; i < types.length; i++) {
+		loader.data = new ImageData[] {image};
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		loader.save(out, types[i]);
+		byte[] bytes = out.toByteArray();
+		ImageData full = loader.load(new ByteArrayInputStream(bytes))[0];
+		assertTrue(":h:" + types[i], checkTiles(loader, new ByteArrayInputStream(bytes), full, String.valueOf(types[i])) > 2);
+	}
+}
+
 public void test_loadLjava_io_InputStream() {
 	ImageLoader loader = new ImageLoader();
 	InputStream stream = null;
@@ -103,7 +228,15 @@ public void test_loadLjava_io_InputStream() {
 			fail("No exception thrown for load from invalid inputStream");
 		} catch (SWTException e) {
 		}
-	
+
+		// a stream shorter than the longest file format signature
+		try {
+			loader.load(new ByteArrayInputStream(new byte[] {'B', 'M', 0}));
+			fail("No exception thrown for load from truncated inputStream");
+		} catch (SWTException e) {
+			assertEquals(SWT.ERROR_UNSUPPORTED_FORMAT, e.code);
+		}
+
 		int numFormats = SwtTestCase.imageFormats.length;
 		String fileName = SwtTestCase.imageFilenames[0];
 		for (int i=0; i<numFormats; i++) {
@@ -131,6 +264,39 @@ public void test_loadLjava_lang_String() {
 	} catch (IllegalArgumentException e) {
 	}
 	// j2se and j2me(cdc) can load from a filename but, j2me(cldc) throws an exception
+
+	// a file must load the same images as a stream of its bytes
+	String fileName = SwtTestCase.imageFilenames[0];
+	for (int i = 0; i < SwtTestCase.imageFormats.length; i++) {
+		String format = SwtTestCase.imageFormats[i];
+		File file = null;
+		InputStream stream = null;
+		try {
+			stream = SwtTestCase.class.getResourceAsStream(fileName + "." + format);
+			file = File.createTempFile("imageLoader", "." + format);
+			OutputStream out = new FileOutputStream(file);
+			byte[] buffer = new byte[4096];
+			int count;
+			while ((count = stream.read(buffer)) != -1) out.write(buffer, 0, count);
+			out.close();
+			stream.close();
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+		try {
+			stream = SwtTestCase.class.getResourceAsStream(fileName + "." + format);
+			ImageData expected = loader.load(stream)[0];
+			try {
+				stream.close();
+			} catch (IOException e) {}
+			ImageData data = loader.load(file.getAbsolutePath())[0];
+			assertEquals(":a:" + format, expected.width, data.width);
+			assertEquals(":b:" + format, expected.height, data.height);
+			assertTrue(":c:" + format, java.util.Arrays.equals(expected.data, data.data));
+		} finally {
+			file.delete();
+		}
+	}
 }
 
 public void test_notifyListenersLorg_eclipse_swt_graphics_ImageLoaderEvent() {
@@ -201,6 +367,79 @@ public void test_saveLjava_lang_StringI() {
 	// j2se and j2me(cdc) can load from a filename but, j2me(cldc) throws an exception
 }
 
+public void test_scaleDenominator() {
+	String fileName = SwtTestCase.imageFilenames[0] + ".jpg";
+	ImageLoader loader = new ImageLoader();
+	InputStream stream = SwtTestCase.class.getResourceAsStream(fileName);
+	ImageData full = loader.load(stream)[0];
+	try {
+		stream.close();
+	} catch (IOException e) {}
+	assertEquals(1, loader.scaleDenominator);
+
+	// 3 decodes at 1/2, 16 at 1/8
+	int[] denominators = {2, 3, 4, 8, 16};
+	int[] scales = {2, 2, 4, 8, 8};
+	for (int i = 0; i < denominators.length; i++) {
+		loader.scaleDenominator = denominators[i];
+		stream = SwtTestCase.class.getResourceAsStream(fileName);
+		ImageData data = loader.load(stream)[0];
+		try {
+			stream.close();
+		} catch (IOException e) {}
+		assertEquals(":a:" + denominators[i], (full.width + scales[i] - 1) / scales[i], data.width);
+		assertEquals(":b:" + denominators[i], (full.height + scales[i] - 1) / scales[i], data.height);
+		assertEquals(":c:" + denominators[i], denominators[i], loader.scaleDenominator);
+	}
+
+	// formats without scaled decoding load at full size
+	loader.scaleDenominator = 2;
+	stream = SwtTestCase.class.getResourceAsStream(SwtTestCase.imageFilenames[0] + ".png");
+	ImageData data = loader.load(stream)[0];
+	try {
+		stream.close();
+	} catch (IOException e) {}
+	assertEquals(":d:", full.width, data.width);
+	assertEquals(":e:", full.height, data.height);
+}
+
+public void test_internal_jpegWholeImage() {
+	// restart.jpg has restart markers, which are decoded in parallel intervals
+	String[] fileNames = {"restart.jpg", SwtTestCase.imageFilenames[0] + ".jpg"};
+	for (int i = 0; i < fileNames.length; i++) {
+		for (int denominator = 1; denominator <= 2; denominator++) {
+			ImageData rows = loadJPEG(fileNames[i], denominator, Integer.MAX_VALUE);
+			ImageData whole = loadJPEG(fileNames[i], denominator, 0);
+			assertEquals(":a:" + fileNames[i], rows.width, whole.width);
+			assertEquals(":b:" + fileNames[i], rows.height, whole.height);
+			assertTrue(":c:" + fileNames[i] + "," + denominator, java.util.Arrays.equals(rows.data, whole.data));
+		}
+	}
+}
+
+public void test_internal_jpegFastIDCT() {
+	String[] fileNames = {"restart.jpg", SwtTestCase.imageFilenames[0] + ".jpg"};
+	for (int i = 0; i < fileNames.length; i++) {
+		ImageData accurate = loadJPEG(fileNames[i], 1, Integer.MAX_VALUE);
+		ImageData fast;
+		System.setProperty(FAST_IDCT, "true");
+		try {
+			fast = loadJPEG(fileNames[i], 1, Integer.MAX_VALUE);
+		} finally {
+			System.clearProperty(FAST_IDCT);
+		}
+		assertEquals(":a:" + fileNames[i], accurate.data.length, fast.data.length);
+		long sum = 0;
+		for (int j = 0; j < accurate.data.length; j++) {
+			int difference = Math.abs((accurate.data[j] & 0xFF) - (fast.data[j] & 0xFF));
+			assertTrue(":b:" + fileNames[i] + " byte " + j + " differs by " + difference, difference <= 6);
+			sum += difference;
+		}
+		// the fast IDCT rounds differently, by about one on average
+		assertTrue(":c:" + fileNames[i], 0 < sum && sum <= 2L * accurate.data.length);
+	}
+}
+
 public static Test suite() {
 	TestSuite suite = new TestSuite();
 	java.util.Vector<String> methodNames = methodNames();
@@ -215,12 +454,17 @@ public static java.util.Vector<String> methodNames() {
 	methodNames.addElement("test_Constructor");
 	methodNames.addElement("test_addImageLoaderListenerLorg_eclipse_swt_graphics_ImageLoaderListener");
 	methodNames.addElement("test_hasListeners");
+	methodNames.addElement("test_openFramesLjava_io_InputStream");
+	methodNames.addElement("test_openTilesLjava_io_InputStream");
 	methodNames.addElement("test_loadLjava_io_InputStream");
 	methodNames.addElement("test_loadLjava_lang_String");
 	methodNames.addElement("test_notifyListenersLorg_eclipse_swt_graphics_ImageLoaderEvent");
 	methodNames.addElement("test_removeImageLoaderListenerLorg_eclipse_swt_graphics_ImageLoaderListener");
 	methodNames.addElement("test_saveLjava_io_OutputStreamI");
 	methodNames.addElement("test_saveLjava_lang_StringI");
+	methodNames.addElement("test_scaleDenominator");
+	methodNames.addElement("test_internal_jpegWholeImage");
+	methodNames.addElement("test_internal_jpegFastIDCT");
 	return methodNames;
 }
 @Override
@@ -228,13 +472,83 @@ protected void runTest() throws Throwable {
 	if (getName().equals("test_Constructor")) test_Constructor();
 	else if (getName().equals("test_addImageLoaderListenerLorg_eclipse_swt_graphics_ImageLoaderListener")) test_addImageLoaderListenerLorg_eclipse_swt_graphics_ImageLoaderListener();
 	else if (getName().equals("test_hasListeners")) test_hasListeners();
+	else if (getName().equals("test_openFramesLjava_io_InputStream")) test_openFramesLjava_io_InputStream();
+	else if (getName().equals("test_openTilesLjava_io_InputStream")) test_openTilesLjava_io_InputStream();
 	else if (getName().equals("test_loadLjava_io_InputStream")) test_loadLjava_io_InputStream();
 	else if (getName().equals("test_loadLjava_lang_String")) test_loadLjava_lang_String();
 	else if (getName().equals("test_notifyListenersLorg_eclipse_swt_graphics_ImageLoaderEvent")) test_notifyListenersLorg_eclipse_swt_graphics_ImageLoaderEvent();
 	else if (getName().equals("test_removeImageLoaderListenerLorg_eclipse_swt_graphics_ImageLoaderListener")) test_removeImageLoaderListenerLorg_eclipse_swt_graphics_ImageLoaderListener();
 	else if (getName().equals("test_saveLjava_io_OutputStreamI")) test_saveLjava_io_OutputStreamI();
 	else if (getName().equals("test_saveLjava_lang_StringI")) test_saveLjava_lang_StringI();
+	else if (getName().equals("test_scaleDenominator")) test_scaleDenominator();
+	else if (getName().equals("test_internal_jpegWholeImage")) test_internal_jpegWholeImage();
+	else if (getName().equals("test_internal_jpegFastIDCT")) test_internal_jpegFastIDCT();
 }
 /* custom */
 boolean loaderListenerCalled;
+
+/* the system property that selects the fast inverse DCT of the JPEG decoder */
+static final String FAST_IDCT = "org.eclipse.swt.internal.image.JPEGDecoder.fastIDCT";
+
+/**
+ * Loads a JPEG resource at 1/denominator size, decoding it as a whole
+ * when it has at least the given number of pixels and row by row
+ * otherwise.
+ */
+ImageData loadJPEG(String fileName, int denominator, int wholeImageMinPixels) {
+	ImageLoader loader = new ImageLoader();
+	loader.scaleDenominator = denominator;
+	InputStream stream = SwtTestCase.class.getResourceAsStream(fileName);
+	try {
+		java.lang.reflect.Field field = Class.forName("org.eclipse.swt.internal.image.JPEGDecoder", true, ImageLoader.class.getClassLoader()).getDeclaredField("whole_image_min_pixels");
+		field.setAccessible(true);
+		int minPixels = field.getInt(null);
+		field.setInt(null, wholeImageMinPixels);
+		try {
+			return loader.load(stream)[0];
+		} finally {
+			field.setInt(null, minPixels);
+			stream.close();
+		}
+	} catch (Exception e) {
+		throw new RuntimeException(e);
+	}
+}
+
+/**
+ * Check that the bands of the stream cover the rows of the full image once
+ * and hold the same pixels, and answer the number of bands.
+ */
+int checkTiles(ImageLoader loader, InputStream stream, ImageData full, String format) {
+	java.util.Iterator<ImageData> tiles = loader.openTiles(stream);
+	assertEquals(":a:" + format, full.width, loader.logicalScreenWidth);
+	assertEquals(":b:" + format, full.height, loader.logicalScreenHeight);
+	boolean[] covered = new boolean[full.height];
+	int[] expected = new int[full.width], actual = new int[full.width];
+	int count = 0;
+	while (tiles.hasNext()) {
+		ImageData band = tiles.next();
+		count++;
+		assertEquals(":c:" + format, full.width, band.width);
+		assertEquals(":d:" + format, full.depth, band.depth);
+		for (int y = 0; y < band.height; y++) {
+			assertFalse(":e:" + format, covered[band.y + y]);
+			covered[band.y + y] = true;
+			full.getPixels(0, band.y + y, full.width, expected, 0);
+			band.getPixels(0, y, band.width, actual, 0);
+			for (int x = 0; x < expected.length; x++) {
+				if (expected[x] != actual[x]) fail(":f:" + format + " pixel " + x + "," + (band.y + y));
+			}
+		}
+	}
+	for (int y = 0; y < covered.length; y++) {
+		assertTrue(":g:" + format, covered[y]);
+	}
+	try {
+		tiles.next();
+		fail("No exception thrown for next past the last band");
+	} catch (java.util.NoSuchElementException e) {
+	}
+	return count;
+}
 }
@@ -791,6 +791,19 @@ public void test_indexOfLjava_lang_StringI() {
 		fail("No exception thrown for string == null");
 	} catch (IllegalArgumentException e) {
 	}
+
+	// repeated lookups index the items, which must follow later changes
+	for (int i = 0; i < 100; i++) {
+		assertEquals(1, list.indexOf("text2", 0));
+	}
+	list.add("text0", 0);
+	list.setItem(3, "text4");
+	list.remove(1);
+	assertEquals(0, list.indexOf("text0", 0));
+	assertEquals(-1, list.indexOf("text1", 0));
+	assertEquals(1, list.indexOf("text2", 0));
+	assertEquals(2, list.indexOf("text4", 0));
+	assertEquals(-1, list.indexOf("text2", 2));
 }
 
 public void test_isSelectedI() {
@@ -1117,7 +1117,21 @@ public void test_selectAll() {
 	assertArrayEquals(new int[]{}, table.getSelectionIndices());
 	table.selectAll();
 	assertSame(new int[]{0, 1, 2, 3, 4}, table.getSelectionIndices());
-	
+
+	// selection follows removed items
+	table.deselect(2);
+	table.remove(1);
+	assertSame(new int[]{0, 2, 3}, table.getSelectionIndices());
+
+	// test large virtual table
+	table.dispose();
+	table = new Table(shell, SWT.MULTI | SWT.VIRTUAL);
+	setWidget(table);
+	table.setItemCount(1000000);
+	table.selectAll();
+	assertEquals(1000000, table.getSelectionCount());
+	assertTrue(table.isSelected(999999));
+
 	// test single-selection table
 	makeCleanEnvironment(true);
 	for (int i = 0; i < number; i++)
@@ -1347,6 +1361,41 @@ public void test_setHeaderVisibleZ() {
 	assertFalse(table.getHeaderVisible());
 }
 
+public void test_setItemCountI() {
+	table.dispose();
+	table = new Table(shell, SWT.VIRTUAL);
+	setWidget(table);
+	final int[] setData = new int[1];
+	table.addListener(SWT.SetData, new Listener() {
+		public void handleEvent(Event event) {
+			setData[0]++;
+			((TableItem)event.item).setText("Item " + event.index);
+		}
+	});
+	table.setItemCount(1000000);
+	assertEquals(1000000, table.getItemCount());
+
+	int count = setData[0];
+	TableItem item = table.getItem(500000);
+	assertEquals(count, setData[0]);
+	assertEquals("Item 500000", item.getText());
+	assertEquals(count + 1, setData[0]);
+	assertSame(item, table.getItem(500000));
+	assertEquals(500000, table.indexOf(item));
+
+	table.clear(500000);
+	assertEquals("Item 500000", item.getText());
+	assertEquals(count + 2, setData[0]);
+
+	table.remove(0);
+	assertEquals(499999, table.indexOf(item));
+	table.setItemCount(10);
+	assertEquals(10, table.getItemCount());
+	assertEquals(-1, table.indexOf(item));
+	table.setItemCount(-1);
+	assertEquals(0, table.getItemCount());
+}
+
 public void test_setLinesVisibleZ() {
 	if (SwtJunit.isCarbon) {
 		/* only carbon versions >= 10.4 support Table lines */
@@ -1654,8 +1703,42 @@ public void test_setSelectionII() {
 		assertArrayEquals(new int[] {4}, table.getSelectionIndices());
 }
 
+public void test_setTextI$Ljava_lang_String() {
+	if (!isJavaFX()) return;
+	for (int col = 0; col < 3; col++) {
+		new TableColumn(table, SWT.NONE);
+	}
+	table.setItemCount(1000);
+	setText(999, new String[] {"a", null, "c", "d"});
+	TableItem item = table.getItem(999);
+	assertEquals("a", item.getText(0));
+	assertEquals("", item.getText(1));
+	assertEquals("c", item.getText(2));
+	assertEquals("", item.getText(3));
+
+	try {
+		setText(1000, new String[] {"a"});
+		fail("No exception thrown for index out of range");
+	}
+	catch (IllegalArgumentException e) {
+	}
+	try {
+		setText(0, null);
+		fail("No exception thrown for strings == null");
+	}
+	catch (IllegalArgumentException e) {
+	}
+}
+
 public void test_setTopIndexI() {
-	warnUnimpl("Test test_setTopIndexI not written");
+	table.setItemCount(100);
+	assertEquals(0, table.getTopIndex());
+	table.setTopIndex(10);
+	assertEquals(10, table.getTopIndex());
+	table.setTopIndex(-1);
+	assertEquals(10, table.getTopIndex());
+	table.setTopIndex(100);
+	assertEquals(10, table.getTopIndex());
 }
 
 public void test_showColumnLorg_eclipse_swt_widgets_TableColumn() {
@@ -1670,6 +1753,90 @@ public void test_showSelection() {
 	table.showSelection();
 }
 
+public void test_sortLjava_util_Comparator() {
+	if (!isJavaFX()) return;
+	TableColumn column0 = new TableColumn(table, SWT.NONE);
+	TableColumn column1 = new TableColumn(table, SWT.NONE);
+	String[] keys = {"b", "a", "c", "a"};
+	TableItem[] items = new TableItem[keys.length];
+	for (int i = 0; i < keys.length; i++) {
+		items[i] = new TableItem(table, SWT.NONE);
+		items[i].setText(new String[] {"Item " + i, keys[i]});
+	}
+	table.setSelection(new TableItem[] {items[0], items[3]});
+
+	table.setSortColumn(column1);
+	assertSame(column1, table.getSortColumn());
+	table.setSortDirection(SWT.UP);
+	assertEquals(SWT.UP, table.getSortDirection());
+	sort(null);
+	assertArrayEquals(new TableItem[] {items[1], items[3], items[0], items[2]}, table.getItems());
+	assertEquals("Item 1", table.getItem(0).getText(0));
+	assertEquals(1, table.indexOf(items[3]));
+	assertArrayEquals(new int[] {1, 2}, table.getSelectionIndices());
+
+	table.setSortDirection(SWT.DOWN);
+	sort(null);
+	assertArrayEquals(new TableItem[] {items[2], items[0], items[1], items[3]}, table.getItems());
+
+	table.setSortColumn(column0);
+	sort(java.util.Collections.<String>reverseOrder());
+	assertArrayEquals(new TableItem[] {items[0], items[1], items[2], items[3]}, table.getItems());
+}
+
+public void test_sortInBackground() {
+	if (!isJavaFX()) return;
+	// tables of 8192 items or more are sorted on other threads and reordered later
+	int count = 10000;
+	TableItem[] items = new TableItem[count];
+	for (int i = 0; i < count; i++) {
+		items[i] = new TableItem(table, SWT.NONE);
+		items[i].setText(String.valueOf(100000 + (i * 7919 + 1) % count));
+	}
+	table.setSelection(new TableItem[] {items[0], items[1], items[count - 1]});
+	table.setSortDirection(SWT.UP);
+	sort(null);
+	assertArrayEquals(items, table.getItems());
+
+	// an item added while the sort is pending sorts again, with the item
+	TableItem added = new TableItem(table, SWT.NONE, 0);
+	added.setText("99999");
+	long end = System.currentTimeMillis() + 10000;
+	while (table.getItem(0) == added && System.currentTimeMillis() < end) {
+		dispatchJavaFX();
+	}
+	TableItem[] expected = new TableItem[count + 1];
+	expected[0] = added;
+	System.arraycopy(items, 0, expected, 1, count);
+	java.util.Arrays.sort(expected, new java.util.Comparator<TableItem>() {
+		@Override
+		public int compare(TableItem item1, TableItem item2) {
+			return item1.getText().compareTo(item2.getText());
+		}
+	});
+	assertArrayEquals(expected, table.getItems());
+	int[] indices = {table.indexOf(items[0]), table.indexOf(items[1]), table.indexOf(items[count - 1])};
+	java.util.Arrays.sort(indices);
+	assertArrayEquals(indices, table.getSelectionIndices());
+
+	// a later sort replaces one that is pending
+	sort(java.util.Collections.<String>reverseOrder());
+	sort(null);
+	table.setSortDirection(SWT.DOWN);
+	sort(null);
+	end = System.currentTimeMillis() + 10000;
+	while (table.getItem(0) != expected[count] && System.currentTimeMillis() < end) {
+		dispatchJavaFX();
+	}
+	for (int i = 0; i <= count; i++) {
+		assertSame(expected[count - i], table.getItem(i));
+	}
+	for (int i = 0; i < 10; i++) {
+		dispatchJavaFX();
+	}
+	assertSame(expected[count], table.getItem(0));
+}
+
 public static Test suite() {
 	TestSuite suite = new TestSuite();
 	java.util.Vector<String> methodNames = methodNames();
@@ -1721,16 +1888,20 @@ public static java.util.Vector<String> methodNames() {
 	methodNames.addElement("test_setColumnOrder$I");
 	methodNames.addElement("test_setFontLorg_eclipse_swt_graphics_Font");
 	methodNames.addElement("test_setHeaderVisibleZ");
+	methodNames.addElement("test_setItemCountI");
 	methodNames.addElement("test_setLinesVisibleZ");
 	methodNames.addElement("test_setRedrawZ");
 	methodNames.addElement("test_setSelection$I");
 	methodNames.addElement("test_setSelection$Lorg_eclipse_swt_widgets_TableItem");
 	methodNames.addElement("test_setSelectionI");
 	methodNames.addElement("test_setSelectionII");
+	methodNames.addElement("test_setTextI$Ljava_lang_String");
 	methodNames.addElement("test_setTopIndexI");
 	methodNames.addElement("test_showColumnLorg_eclipse_swt_widgets_TableColumn");
 	methodNames.addElement("test_showItemLorg_eclipse_swt_widgets_TableItem");
 	methodNames.addElement("test_showSelection");
+	methodNames.addElement("test_sortLjava_util_Comparator");
+	methodNames.addElement("test_sortInBackground");
 	methodNames.addElement("test_consistency_KeySelection");
 	methodNames.addElement("test_consistency_MouseSelection");
 	methodNames.addElement("test_consistency_EnterSelection");
@@ -1782,16 +1953,20 @@ protected void runTest() throws Throwable {
 	else if (getName().equals("test_setColumnOrder$I")) test_setColumnOrder$I();
 	else if (getName().equals("test_setFontLorg_eclipse_swt_graphics_Font")) test_setFontLorg_eclipse_swt_graphics_Font();
 	else if (getName().equals("test_setHeaderVisibleZ")) test_setHeaderVisibleZ();
+	else if (getName().equals("test_setItemCountI")) test_setItemCountI();
 	else if (getName().equals("test_setLinesVisibleZ")) test_setLinesVisibleZ();
 	else if (getName().equals("test_setRedrawZ")) test_setRedrawZ();
 	else if (getName().equals("test_setSelection$I")) test_setSelection$I();
 	else if (getName().equals("test_setSelection$Lorg_eclipse_swt_widgets_TableItem")) test_setSelection$Lorg_eclipse_swt_widgets_TableItem();
 	else if (getName().equals("test_setSelectionI")) test_setSelectionI();
 	else if (getName().equals("test_setSelectionII")) test_setSelectionII();
+	else if (getName().equals("test_setTextI$Ljava_lang_String")) test_setTextI$Ljava_lang_String();
 	else if (getName().equals("test_setTopIndexI")) test_setTopIndexI();
 	else if (getName().equals("test_showColumnLorg_eclipse_swt_widgets_TableColumn")) test_showColumnLorg_eclipse_swt_widgets_TableColumn();
 	else if (getName().equals("test_showItemLorg_eclipse_swt_widgets_TableItem")) test_showItemLorg_eclipse_swt_widgets_TableItem();
 	else if (getName().equals("test_showSelection")) test_showSelection();
+	else if (getName().equals("test_sortLjava_util_Comparator")) test_sortLjava_util_Comparator();
+	else if (getName().equals("test_sortInBackground")) test_sortInBackground();
 	else if (getName().equals("test_consistency_KeySelection")) test_consistency_KeySelection();
 	else if (getName().equals("test_consistency_MouseSelection")) test_consistency_MouseSelection();
 	else if (getName().equals("test_consistency_EnterSelection")) test_consistency_EnterSelection();
@@ -1811,6 +1986,28 @@ private void makeCleanEnvironment(boolean single) {
 	setWidget(table);	
 }
 
+// Table.setText(int, String[]) and Table.sort(Comparator) exist on javafx only, so they are called reflectively
+private void invoke(String name, Class<?>[] types, Object[] args) {
+	try {
+		Table.class.getMethod(name, types).invoke(table, args);
+	} catch (java.lang.reflect.InvocationTargetException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+		if (cause instanceof Error) throw (Error)cause;
+		throw new RuntimeException(cause);
+	} catch (Exception e) {
+		throw new RuntimeException(e);
+	}
+}
+
+private void setText(int index, String[] strings) {
+	invoke("setText", new Class<?>[] {int.class, String[].class}, new Object[] {index, strings});
+}
+
+private void sort(java.util.Comparator<String> comparator) {
+	invoke("sort", new Class<?>[] {java.util.Comparator.class}, new Object[] {comparator});
+}
+
 private void createTable(Vector<String> events) {
 	makeCleanEnvironment(false);
 	table.setHeaderVisible(true);
@@ -355,6 +355,36 @@ public void test_removeTreeListenerLorg_eclipse_swt_events_TreeListener() {
 	warnUnimpl("Test test_removeTreeListenerLorg_eclipse_swt_events_TreeListener not written");
 }
 
+public void test_selectionUnchangedByRowMoves() {
+	final int[] count = new int[1];
+	tree.addListener(SWT.Selection, new Listener() {
+		public void handleEvent(Event event) {
+			count[0]++;
+		}
+	});
+	TreeItem[] items = new TreeItem[5];
+	for (int i = 0; i < items.length; i++) {
+		items[i] = new TreeItem(tree, SWT.NONE);
+		new TreeItem(items[i], SWT.NONE);
+	}
+	tree.setSelection(items[3]);
+	items[1].setExpanded(true);
+
+	// rows inserted and removed above the selection move it
+	new TreeItem(tree, SWT.NONE, 0);
+	new TreeItem(items[1], SWT.NONE, 0);
+	items[0].dispose();
+	items[1].removeAll();
+	tree.setItemCount(10);
+	assertArrayEquals(new TreeItem[] {items[3]}, tree.getSelection());
+	assertEquals(0, count[0]);
+
+	// removing the selected item changes the selection without an event
+	tree.removeAll();
+	assertEquals(0, tree.getSelectionCount());
+	assertEquals(0, count[0]);
+}
+
 public void test_selectAll() {
 	int number = 5;
 	TreeItem[] items = new TreeItem[number];
@@ -683,6 +713,92 @@ public void test_showSelection() {
 	tree.showSelection();	
 }
 
+public void test_sortLjava_util_Comparator() {
+	if (!isJavaFX()) return;
+	TreeColumn column0 = new TreeColumn(tree, SWT.NONE);
+	TreeColumn column1 = new TreeColumn(tree, SWT.NONE);
+	String[] keys = {"b", "a", "c"};
+	TreeItem[] items = new TreeItem[keys.length];
+	TreeItem[] children = new TreeItem[keys.length];
+	for (int i = 0; i < keys.length; i++) {
+		items[i] = new TreeItem(tree, SWT.NONE);
+		items[i].setText(new String[] {"Item " + i, keys[i]});
+		children[i] = new TreeItem(items[0], SWT.NONE);
+		children[i].setText(new String[] {"Child " + i, keys[keys.length - 1 - i]});
+	}
+	items[0].setExpanded(true);
+	tree.setSelection(new TreeItem[] {items[0], children[2]});
+
+	tree.setSortColumn(column1);
+	tree.setSortDirection(SWT.UP);
+	sort(null);
+	assertArrayEquals(new TreeItem[] {items[1], items[0], items[2]}, tree.getItems());
+	assertArrayEquals(new TreeItem[] {children[1], children[2], children[0]}, items[0].getItems());
+	assertEquals("Item 1", tree.getItem(0).getText(0));
+	assertEquals(2, tree.getSelectionCount());
+	assertEquals(new java.util.HashSet<TreeItem>(java.util.Arrays.asList(items[0], children[2])),
+		new java.util.HashSet<TreeItem>(java.util.Arrays.asList(tree.getSelection())));
+
+	tree.setSortDirection(SWT.DOWN);
+	sort(null);
+	assertArrayEquals(new TreeItem[] {items[2], items[0], items[1]}, tree.getItems());
+	assertArrayEquals(new TreeItem[] {children[0], children[2], children[1]}, items[0].getItems());
+
+	tree.setSortColumn(column0);
+	sort(java.util.Collections.<String>reverseOrder());
+	assertArrayEquals(new TreeItem[] {items[0], items[1], items[2]}, tree.getItems());
+	assertArrayEquals(new TreeItem[] {children[0], children[1], children[2]}, items[0].getItems());
+}
+
+public void test_sortInBackground() {
+	if (!isJavaFX()) return;
+	// trees of 8192 items or more on all levels are sorted on other threads and reordered later
+	int count = 100;
+	TreeItem[] items = new TreeItem[count];
+	TreeItem[][] children = new TreeItem[count][count];
+	for (int i = 0; i < count; i++) {
+		items[i] = new TreeItem(tree, SWT.NONE);
+		items[i].setText(String.valueOf(1000 + (i * 37 + 1) % count));
+		for (int j = 0; j < count; j++) {
+			children[i][j] = new TreeItem(items[i], SWT.NONE);
+			children[i][j].setText(String.valueOf(1000 + (j * 61 + i) % count));
+		}
+	}
+	items[0].setExpanded(true);
+	items[5].setExpanded(true);
+	tree.setSelection(new TreeItem[] {items[1], children[0][1], children[5][count - 1]});
+	assertEquals(3, tree.getSelectionCount());
+	tree.setSortDirection(SWT.UP);
+	sort(null);
+	assertArrayEquals(items, tree.getItems());
+
+	// an item added while the sort is pending sorts again, with the item
+	TreeItem added = new TreeItem(tree, SWT.NONE, 0);
+	added.setText("999");
+	long end = System.currentTimeMillis() + 10000;
+	while (tree.getItem(0) == added && System.currentTimeMillis() < end) {
+		dispatchJavaFX();
+	}
+	java.util.Comparator<TreeItem> byText = new java.util.Comparator<TreeItem>() {
+		@Override
+		public int compare(TreeItem item1, TreeItem item2) {
+			return item1.getText().compareTo(item2.getText());
+		}
+	};
+	TreeItem[] expected = new TreeItem[count + 1];
+	expected[0] = added;
+	System.arraycopy(items, 0, expected, 1, count);
+	java.util.Arrays.sort(expected, byText);
+	assertArrayEquals(expected, tree.getItems());
+	for (int i = 0; i < count; i++) {
+		TreeItem[] expectedChildren = children[i].clone();
+		java.util.Arrays.sort(expectedChildren, byText);
+		assertArrayEquals(expectedChildren, items[i].getItems());
+	}
+	assertEquals(new java.util.HashSet<TreeItem>(java.util.Arrays.asList(items[1], children[0][1], children[5][count - 1])),
+		new java.util.HashSet<TreeItem>(java.util.Arrays.asList(tree.getSelection())));
+}
+
 public static Test suite() {
 	TestSuite suite = new TestSuite();
 	java.util.Vector<String> methodNames = methodNames();
@@ -719,6 +835,7 @@ public static java.util.Vector<String> methodNames() {
 	methodNames.addElement("test_removeSelectionListenerLorg_eclipse_swt_events_SelectionListener");
 	methodNames.addElement("test_removeTreeListenerLorg_eclipse_swt_events_TreeListener");
 	methodNames.addElement("test_selectAll");
+	methodNames.addElement("test_selectionUnchangedByRowMoves");
 	methodNames.addElement("test_setHeaderVisibleZ");
 	methodNames.addElement("test_setInsertMarkLorg_eclipse_swt_widgets_TreeItemZ");
 	methodNames.addElement("test_setItemCountI");
@@ -729,6 +846,8 @@ public static java.util.Vector<String> methodNames() {
 	methodNames.addElement("test_showColumnLorg_eclipse_swt_widgets_TreeColumn");
 	methodNames.addElement("test_showItemLorg_eclipse_swt_widgets_TreeItem");
 	methodNames.addElement("test_showSelection");
+	methodNames.addElement("test_sortLjava_util_Comparator");
+	methodNames.addElement("test_sortInBackground");
 	methodNames.addElement("test_consistency_MouseSelection");
 	methodNames.addElement("test_consistency_KeySelection");
 	methodNames.addElement("test_consistency_SpaceSelection");
@@ -768,6 +887,7 @@ protected void runTest() throws Throwable {
 	else if (getName().equals("test_removeSelectionListenerLorg_eclipse_swt_events_SelectionListener")) test_removeSelectionListenerLorg_eclipse_swt_events_SelectionListener();
 	else if (getName().equals("test_removeTreeListenerLorg_eclipse_swt_events_TreeListener")) test_removeTreeListenerLorg_eclipse_swt_events_TreeListener();
 	else if (getName().equals("test_selectAll")) test_selectAll();
+	else if (getName().equals("test_selectionUnchangedByRowMoves")) test_selectionUnchangedByRowMoves();
 	else if (getName().equals("test_setFontLorg_eclipse_swt_graphics_Font")) test_setFontLorg_eclipse_swt_graphics_Font();
 	else if (getName().equals("test_setHeaderVisibleZ")) test_setHeaderVisibleZ();
 	else if (getName().equals("test_setInsertMarkLorg_eclipse_swt_widgets_TreeItemZ")) test_setInsertMarkLorg_eclipse_swt_widgets_TreeItemZ();
@@ -779,6 +899,8 @@ protected void runTest() throws Throwable {
 	else if (getName().equals("test_showColumnLorg_eclipse_swt_widgets_TreeColumn")) test_showColumnLorg_eclipse_swt_widgets_TreeColumn();
 	else if (getName().equals("test_showItemLorg_eclipse_swt_widgets_TreeItem")) test_showItemLorg_eclipse_swt_widgets_TreeItem();
 	else if (getName().equals("test_showSelection")) test_showSelection();
+	else if (getName().equals("test_sortLjava_util_Comparator")) test_sortLjava_util_Comparator();
+	else if (getName().equals("test_sortInBackground")) test_sortInBackground();
 	else if (getName().equals("test_consistency_MouseSelection")) test_consistency_MouseSelection();
 	else if (getName().equals("test_consistency_KeySelection")) test_consistency_KeySelection();
 	else if (getName().equals("test_consistency_EnterSelection")) test_consistency_EnterSelection();
@@ -807,6 +929,20 @@ private void makeCleanEnvironment(boolean single) {
 	setWidget(tree);
 }
 
+// Tree.sort(Comparator) exists on javafx only, so it is called reflectively
+private void sort(java.util.Comparator<String> comparator) {
+	try {
+		Tree.class.getMethod("sort", java.util.Comparator.class).invoke(tree, comparator);
+	} catch (java.lang.reflect.InvocationTargetException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+		if (cause instanceof Error) throw (Error)cause;
+		throw new RuntimeException(cause);
+	} catch (Exception e) {
+		throw new RuntimeException(e);
+	}
+}
+
 private void createTree(Vector<String> events) {
     makeCleanEnvironment(true);
 	for (int i = 0; i < 3; i++) {
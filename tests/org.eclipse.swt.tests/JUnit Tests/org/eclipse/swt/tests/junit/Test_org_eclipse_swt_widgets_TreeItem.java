@@ -1025,6 +1025,46 @@ public void test_setImageILorg_eclipse_swt_graphics_Image() {
 	}
 }
 
+public void test_setItemCountI() {
+	tree.dispose();
+	tree = new Tree(shell, SWT.VIRTUAL);
+	setWidget(tree);
+	final int[] setData = new int[1];
+	tree.addListener(SWT.SetData, new Listener() {
+		public void handleEvent(Event event) {
+			setData[0]++;
+			TreeItem item = (TreeItem)event.item;
+			TreeItem parentItem = item.getParentItem();
+			item.setText((parentItem == null ? "" : parentItem.getText() + ".") + event.index);
+			item.setItemCount(1000);
+		}
+	});
+	tree.setItemCount(1000);
+	TreeItem parentItem = tree.getItem(10);
+	assertEquals("10", parentItem.getText());
+	assertEquals(1000, parentItem.getItemCount());
+
+	int count = setData[0];
+	TreeItem item = parentItem.getItem(500);
+	assertEquals(count, setData[0]);
+	assertEquals("10.500", item.getText());
+	assertEquals(count + 1, setData[0]);
+	assertSame(parentItem, item.getParentItem());
+	assertSame(item, parentItem.getItem(500));
+	assertEquals(500, parentItem.indexOf(item));
+	assertEquals(-1, tree.indexOf(item));
+
+	parentItem.clear(500, false);
+	assertEquals("10.500", item.getText());
+	assertEquals(count + 2, setData[0]);
+
+	parentItem.setItemCount(10);
+	assertEquals(10, parentItem.getItemCount());
+	assertEquals(-1, parentItem.indexOf(item));
+	parentItem.setItemCount(-1);
+	assertEquals(0, parentItem.getItemCount());
+}
+
 public void test_setText$Ljava_lang_String() {
 	final String TestString = "test";
 	final String TestStrings[] = new String[] {TestString, TestString + "1", TestString + "2"};
@@ -1193,6 +1233,7 @@ public static java.util.Vector<String> methodNames() {
 	methodNames.addElement("test_setImage$Lorg_eclipse_swt_graphics_Image");
 	methodNames.addElement("test_setImageILorg_eclipse_swt_graphics_Image");
 	methodNames.addElement("test_setImageLorg_eclipse_swt_graphics_Image");
+	methodNames.addElement("test_setItemCountI");
 	methodNames.addElement("test_setText$Ljava_lang_String");
 	methodNames.addElement("test_setTextILjava_lang_String");
 	methodNames.addElement("test_setTextLjava_lang_String");
@@ -1236,6 +1277,7 @@ protected void runTest() throws Throwable {
 	else if (getName().equals("test_setImage$Lorg_eclipse_swt_graphics_Image")) test_setImage$Lorg_eclipse_swt_graphics_Image();
 	else if (getName().equals("test_setImageILorg_eclipse_swt_graphics_Image")) test_setImageILorg_eclipse_swt_graphics_Image();
 	else if (getName().equals("test_setImageLorg_eclipse_swt_graphics_Image")) test_setImageLorg_eclipse_swt_graphics_Image();
+	else if (getName().equals("test_setItemCountI")) test_setItemCountI();
 	else if (getName().equals("test_setText$Ljava_lang_String")) test_setText$Ljava_lang_String();
 	else if (getName().equals("test_setTextILjava_lang_String")) test_setTextILjava_lang_String();
 	else if (getName().equals("test_setTextLjava_lang_String")) test_setTextLjava_lang_String();